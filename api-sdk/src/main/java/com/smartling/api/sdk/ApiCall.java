@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.exceptions.ApiException;
+
+/**
+ * A single call to the Smartling Translation API, which may be made more than once.
+ * @param <T> type of the call result
+ */
+public interface ApiCall<T>
+{
+    T call() throws ApiException;
+
+    /**
+     * @param failure exception the last attempt of the call failed with
+     * @return true if the call can safely be made again, false if the failed attempt had side effects that a repeated attempt could not undo
+     */
+    default boolean isReplayable(final ApiException failure)
+    {
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+/**
+ * Operations of the Smartling Translation API, used to configure behaviour such as retries per operation.
+ */
+public enum ApiOperation
+{
+    UPLOAD_FILE(OperationClass.UPLOAD),
+    GET_FILE(OperationClass.GET),
+    GET_FILES_LIST(OperationClass.LIST),
+    GET_FILE_STATUS(OperationClass.STATUS),
+    DELETE_FILE(OperationClass.UPLOAD),
+    RENAME_FILE(OperationClass.UPLOAD),
+    GET_LAST_MODIFIED(OperationClass.STATUS),
+    GET_PROJECT_LOCALES(OperationClass.LIST);
+
+    private final OperationClass operationClass;
+
+    ApiOperation(final OperationClass operationClass)
+    {
+        this.operationClass = operationClass;
+    }
+
+    public OperationClass getOperationClass()
+    {
+        return operationClass;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.EmptyResponse;
+import com.smartling.api.sdk.dto.file.FileLastModified;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.dto.file.UploadFileData;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import com.smartling.api.sdk.file.RetrievalType;
+import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of the {@link FileApiClientAdapter}.
+ * Every method returns immediately; the returned future is completed with the response, or completed exceptionally
+ * with the same {@link ApiException} subclass the blocking adapter would throw.
+ */
+public interface AsyncFileApiClientAdapter
+{
+    /**
+     * Uploads a file for translation to the Smartling Translation API.
+     *
+     * @param fileToUpload the file that is to be uploaded.
+     * @param fileEncoding the encoding of the file. Can be null but best if encoding is specified.
+     * @param fileUploadParameterBuilder  parameters
+     * @return future of the ApiResponse from a success response from the File API.
+     */
+    CompletableFuture<ApiResponse<UploadFileData>> uploadFile(File fileToUpload, String fileEncoding, FileUploadParameterBuilder fileUploadParameterBuilder);
+
+    /**
+     * Uploads a file for translation to the Smartling Translation API.
+     *
+     * @param inputStream stream to be read from to collect data and then upload as a file.
+     * @param fileName name used to identify the file
+     * @param fileEncoding the encoding of the file. Can be null but best if encoding is specified.
+     * @param fileUploadParameterBuilder  parameters
+     * @return future of the ApiResponse from a success response from the File API.
+     */
+    CompletableFuture<ApiResponse<UploadFileData>> uploadFile(InputStream inputStream, String fileName, String fileEncoding,
+                                                              FileUploadParameterBuilder fileUploadParameterBuilder);
+
+    /**
+     * Get the translated (or original) file contents.
+     *
+     * @param fileUri the identifier of the file
+     * @param locale the locale to retrieve the translation for, or null to request the original file.
+     * @param retrievalType flag indicating the type of file retrieval being requested. Can be null.
+     * @return future of the {@link StringResponse} with the contents of the requested file along with the encoding of the file.
+     */
+    CompletableFuture<StringResponse> getFile(String fileUri, String locale, RetrievalType retrievalType);
+
+    /**
+     * Get the translated (or original) file contents.
+     * @param getFileParameterBuilder - params builder
+     * @return future of the {@link StringResponse} with the contents of the requested file along with the encoding of the file.
+     */
+    CompletableFuture<StringResponse> getFile(GetFileParameterBuilder getFileParameterBuilder);
+
+    /**
+     * Get the listing of translated files for the specified locale.
+     *
+     * @param fileListSearchParams the search parameters to use when querying for a list of files.
+     * @return future of the ApiResponse from a success response from the File API.
+     */
+    CompletableFuture<ApiResponse<FileList>> getFilesList(FileListSearchParams fileListSearchParams);
+
+    /**
+     * Get the status of a file for the specified locale
+     *
+     * @param fileUri the identifier of the file
+     * @param locale the locale
+     * @return future of the ApiResponse from a success response from the File API.
+     */
+    CompletableFuture<ApiResponse<FileStatus>> getFileStatus(String fileUri, String locale);
+
+    /**
+     * Delete the specified file
+     *
+     * @param fileUri the identifier of the file
+     * @return future of the ApiResponse from a successful delete of from the File API.
+     */
+    CompletableFuture<ApiResponse<EmptyResponse>> deleteFile(String fileUri);
+
+    /**
+     * Rename the file with the specified fileUri to the newFileUri
+     *
+     * @param fileUri current fileUri
+     * @param newFileUri requested fileUri
+     * @return future of the {@link ApiResponse} for a successful rename.
+     */
+    CompletableFuture<ApiResponse<EmptyResponse>> renameFile(String fileUri, String newFileUri);
+
+    /**
+     * Returns information about when a file was last modified for a particular locale.
+     *
+     * @param fileUri current fileUri
+     * @param lastModifiedAfter an optional filter that limits the return to only those file and locale combinations that have a lastModified date after the parameter lastModifiedAfter.
+     * @param locale an optional filter that will limit the locales checked to only the specified locale
+     * @return future of the {@link ApiResponse} from a success response from the File API.
+     */
+    CompletableFuture<ApiResponse<FileLastModified>> getLastModified(String fileUri, Date lastModifiedAfter, String locale);
+}
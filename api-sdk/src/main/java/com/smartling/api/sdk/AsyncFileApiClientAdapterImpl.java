@@ -0,0 +1,241 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.google.gson.reflect.TypeToken;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.ApiResponseWrapper;
+import com.smartling.api.sdk.dto.Data;
+import com.smartling.api.sdk.dto.EmptyResponse;
+import com.smartling.api.sdk.dto.file.FileLastModified;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.dto.file.UploadFileData;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import com.smartling.api.sdk.file.RetrievalType;
+import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import com.smartling.api.sdk.util.AsyncHttpUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.mime.content.ContentBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base implementation of the {@link AsyncFileApiClientAdapter}, backed by a non-blocking http client.
+ */
+public class AsyncFileApiClientAdapterImpl extends BaseFileApiClientAdapter implements AsyncFileApiClientAdapter
+{
+    private static final Log logger = LogFactory.getLog(AsyncFileApiClientAdapterImpl.class);
+
+    private AsyncHttpUtils asyncHttpUtils = new AsyncHttpUtils();
+
+    public AsyncFileApiClientAdapterImpl(final String apiKey, final String projectId)
+    {
+        super(apiKey, projectId);
+    }
+
+    public AsyncFileApiClientAdapterImpl(final String apiKey, final String projectId, final ProxyConfiguration proxyConfiguration)
+    {
+        super(apiKey, projectId, proxyConfiguration);
+    }
+
+    public AsyncFileApiClientAdapterImpl(final boolean productionMode, final String apiKey, final String projectId)
+    {
+        super(productionMode, apiKey, projectId);
+    }
+
+    public AsyncFileApiClientAdapterImpl(final boolean productionMode, final String apiKey, final String projectId, final ProxyConfiguration proxyConfiguration)
+    {
+        super(productionMode, apiKey, projectId, proxyConfiguration);
+    }
+
+    public AsyncFileApiClientAdapterImpl(final String baseApiUrl, final String apiKey, final String projectId)
+    {
+        super(baseApiUrl, apiKey, projectId);
+    }
+
+    public AsyncFileApiClientAdapterImpl(final String baseApiUrl, final String apiKey, final String projectId, final ProxyConfiguration proxyConfiguration)
+    {
+        super(baseApiUrl, apiKey, projectId, proxyConfiguration);
+    }
+
+    public AsyncHttpUtils getAsyncHttpUtils()
+    {
+        return asyncHttpUtils;
+    }
+
+    public void setAsyncHttpUtils(final AsyncHttpUtils asyncHttpUtils)
+    {
+        this.asyncHttpUtils = asyncHttpUtils;
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<UploadFileData>> uploadFile(final File fileToUpload, final String fileEncoding,
+                                                                     final FileUploadParameterBuilder fileUploadParameterBuilder)
+    {
+        return uploadFile(fileUploadParameterBuilder, createFileBody(fileToUpload, fileEncoding, fileUploadParameterBuilder));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<UploadFileData>> uploadFile(final InputStream inputStream, final String fileName, final String fileEncoding,
+                                                                     final FileUploadParameterBuilder fileUploadParameterBuilder)
+    {
+        return uploadFile(fileUploadParameterBuilder, createInputStreamBody(inputStream, fileName, fileEncoding, fileUploadParameterBuilder));
+    }
+
+    @Override
+    public CompletableFuture<StringResponse> getFile(final String fileUri, final String locale, final RetrievalType retrievalType)
+    {
+        final GetFileParameterBuilder getFileParameterBuilder = new GetFileParameterBuilder()
+                .fileUri(fileUri)
+                .locale(locale)
+                .retrievalType(retrievalType);
+
+        return getFile(getFileParameterBuilder);
+    }
+
+    @Override
+    public CompletableFuture<StringResponse> getFile(final GetFileParameterBuilder getFileParameterBuilder)
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get file: fileUri = %s, projectId = %s, apiKey = %s, locale = %s",
+                    getFileParameterBuilder.getFileUri(), this.projectId, maskApiKey(this.apiKey), getFileParameterBuilder.getLocale()));
+
+        return getStringResponse(createGetFileRequest(getFileParameterBuilder));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<FileList>> getFilesList(final FileListSearchParams fileListSearchParams)
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get files list: fileUriMask = %s, projectId = %s, apiKey = %s, locale = %s",
+                    fileListSearchParams.getUriMask(), this.projectId, maskApiKey(this.apiKey), fileListSearchParams.getLocale()));
+
+        return getResponse(createFilesListRequest(fileListSearchParams), new TypeToken<ApiResponseWrapper<FileList>>() {});
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<FileStatus>> getFileStatus(final String fileUri, final String locale)
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get file status: fileUri = %s, projectId = %s, apiKey = %s, locale = %s", fileUri, this.projectId, maskApiKey(this.apiKey), locale));
+
+        return getResponse(createFileStatusRequest(fileUri, locale), new TypeToken<ApiResponseWrapper<FileStatus>>() {});
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<EmptyResponse>> deleteFile(final String fileUri)
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Delete file: fileUri = %s, projectId = %s, apiKey = %s", fileUri, this.projectId, maskApiKey(this.apiKey)));
+
+        return getResponse(createDeleteFileRequest(fileUri), new TypeToken<ApiResponseWrapper<EmptyResponse>>() {});
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<EmptyResponse>> renameFile(final String fileUri, final String newFileUri)
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Rename file: fileUri = %s, projectId = %s, apiKey = %s", fileUri, this.projectId, maskApiKey(this.apiKey)));
+
+        return getResponse(createRenameFileRequest(fileUri, newFileUri), new TypeToken<ApiResponseWrapper<EmptyResponse>>() {});
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<FileLastModified>> getLastModified(final String fileUri, final Date lastModifiedAfter, final String locale)
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get last modified: fileUri = %s, projectId = %s, apiKey = %s, locale = %s",
+                    fileUri, this.projectId, maskApiKey(this.apiKey), locale));
+
+        return getResponse(createLastModifiedRequest(fileUri, lastModifiedAfter, locale), new TypeToken<ApiResponseWrapper<FileLastModified>>() {});
+    }
+
+    /**
+     * Releases the non-blocking http client and its I/O threads.
+     */
+    @Override
+    public void close()
+    {
+        asyncHttpUtils.close();
+        super.close();
+    }
+
+    private CompletableFuture<ApiResponse<UploadFileData>> uploadFile(final FileUploadParameterBuilder fileUploadParameterBuilder, final ContentBody contentBody)
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Upload file: fileUri = %s, projectId = %s, apiKey = %s",
+                    fileUploadParameterBuilder.getFileUri(), this.projectId, maskApiKey(this.apiKey)));
+
+        final HttpPost httpPostFile = createFileUploadHttpPostRequest(fileUploadParameterBuilder, contentBody);
+        try
+        {
+            // the non-blocking client reads request bodies through getContent(), which multipart entities do not support
+            bufferEntity(httpPostFile);
+        }
+        catch (final IOException e)
+        {
+            final CompletableFuture<ApiResponse<UploadFileData>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new ApiException(e));
+            return failed;
+        }
+
+        return getResponse(httpPostFile, new TypeToken<ApiResponseWrapper<UploadFileData>>() {});
+    }
+
+    private <T extends Data> CompletableFuture<ApiResponse<T>> getResponse(final HttpRequestBase httpRequest, final TypeToken<ApiResponseWrapper<T>> typeToken)
+    {
+        return getStringResponse(httpRequest).thenApply(response -> parseApiResponse(response, typeToken));
+    }
+
+    private CompletableFuture<StringResponse> getStringResponse(final HttpRequestBase httpRequest)
+    {
+        final CompletableFuture<StringResponse> responseFuture = asyncHttpUtils.executeHttpCall(httpRequest, proxyConfiguration);
+        final CompletableFuture<StringResponse> result = new CompletableFuture<>();
+
+        responseFuture.whenComplete((stringResponse, error) -> {
+            if (error != null)
+            {
+                result.completeExceptionally(error);
+            }
+            else if (stringResponse.isSuccess())
+            {
+                result.complete(stringResponse);
+            }
+            else
+            {
+                logger.error(String.format("Non-successful response: \n contents: %s", stringResponse.getContents()));
+                result.completeExceptionally(newApiException(stringResponse));
+            }
+        });
+        result.whenComplete((stringResponse, error) -> {
+            if (result.isCancelled())
+                responseFuture.cancel(true);
+        });
+
+        return result;
+    }
+}
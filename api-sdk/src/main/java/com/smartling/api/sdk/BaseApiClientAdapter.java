@@ -15,42 +15,87 @@
  */
 package com.smartling.api.sdk;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.smartling.api.sdk.cache.ResponseCache;
+import com.smartling.api.sdk.circuitbreaker.CircuitBreaker;
+import com.smartling.api.sdk.concurrency.SingleFlight;
+import com.smartling.api.sdk.degraded.DegradedMode;
 import com.smartling.api.sdk.dto.ApiResponse;
 import com.smartling.api.sdk.dto.ApiResponseWrapper;
 import com.smartling.api.sdk.dto.Data;
-import com.smartling.api.sdk.util.DateTypeAdapter;
+import com.smartling.api.sdk.dto.EmptyResponse;
+import com.smartling.api.sdk.dto.file.ParsedResponse;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.AuthenticationException;
+import com.smartling.api.sdk.exceptions.AuthorizationException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import com.smartling.api.sdk.exceptions.OperationsLimitExceeded;
+import com.smartling.api.sdk.exceptions.ResourceLockedException;
+import com.smartling.api.sdk.exceptions.UnexpectedException;
+import com.smartling.api.sdk.exceptions.ValidationException;
+import com.smartling.api.sdk.hedge.HedgeAttempt;
+import com.smartling.api.sdk.hedge.Hedger;
+import com.smartling.api.sdk.json.JsonCodec;
+import com.smartling.api.sdk.json.JsonCodecException;
+import com.smartling.api.sdk.json.JsonCodecs;
+import com.smartling.api.sdk.ratelimit.RateLimiter;
+import com.smartling.api.sdk.retry.RetryHandler;
 import com.smartling.api.sdk.util.HttpUtils;
+import com.smartling.api.sdk.util.QueryBuilder;
 
-import org.apache.commons.lang3.CharEncoding;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.utils.URLEncodedUtils;
 import org.apache.http.message.BasicNameValuePair;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 import static com.smartling.api.sdk.file.FileApiParams.API_KEY;
+import static com.smartling.api.sdk.file.FileApiParams.FILE_URI;
 import static com.smartling.api.sdk.file.FileApiParams.PROJECT_ID;
 
 /**
  * Base class for client adapters.
+ * Adapters keep a pooled http client open between calls, so {@link #close()} them once they are no longer needed.
  */
-public abstract class BaseApiClientAdapter
+public abstract class BaseApiClientAdapter implements Closeable
 {
+    private static final Log logger = LogFactory.getLog(BaseApiClientAdapter.class);
+
     private static final String API_KEY_MASK       = "%s-XXXXXXXXXXXX";
     private static final String RESPONSE_MESSAGES  = "Messages: %s";
 
     private static final String SMARTLING_API_URL         = "https://api.smartling.com/v1";
     private static final String SMARTLING_SANDBOX_API_URL = "https://sandbox-api.smartling.com/v1";
 
-    private HttpUtils httpUtils;
+    private HttpUtils      httpUtils;
+    private RetryHandler   retryHandler = new RetryHandler();
+    private JsonCodec      jsonCodec    = JsonCodecs.getDefaultCodec();
+    private RateLimiter    rateLimiter;
+    private CircuitBreaker circuitBreaker;
+    private Hedger         hedger;
+    private SingleFlight   singleFlight;
+    private ResponseCache  responseCache;
+    private DegradedMode   degradedMode;
 
     protected static final String SUCCESS_CODE       = "SUCCESS";
 
@@ -60,6 +105,8 @@ public abstract class BaseApiClientAdapter
 
     protected ProxyConfiguration proxyConfiguration;
 
+    private final ConcurrentMap<String, String> urlPrefixes = new ConcurrentHashMap<>();
+
     public HttpUtils getHttpUtils()
     {
         return httpUtils;
@@ -70,6 +117,119 @@ public abstract class BaseApiClientAdapter
         this.httpUtils = httpUtils;
     }
 
+    /**
+     * @return handler of retries, which can be given a {@link com.smartling.api.sdk.retry.RetryPolicy} per operation and retry listeners.
+     * No call is retried by default.
+     */
+    public RetryHandler getRetryHandler()
+    {
+        return retryHandler;
+    }
+
+    public void setRetryHandler(RetryHandler retryHandler)
+    {
+        this.retryHandler = retryHandler;
+    }
+
+    public JsonCodec getJsonCodec()
+    {
+        return jsonCodec;
+    }
+
+    /**
+     * @param jsonCodec codec decoding the responses, {@link JsonCodecs#getDefaultCodec()} by default
+     */
+    public void setJsonCodec(JsonCodec jsonCodec)
+    {
+        Validate.notNull(jsonCodec, "jsonCodec is required");
+        this.jsonCodec = jsonCodec;
+    }
+
+    public RateLimiter getRateLimiter()
+    {
+        return rateLimiter;
+    }
+
+    /**
+     * @param rateLimiter limiter every attempt of a call takes a permit from first, or {@code NULL} to not limit calls.
+     *                    The limiter can be shared by adapters of the same project.
+     */
+    public void setRateLimiter(RateLimiter rateLimiter)
+    {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public CircuitBreaker getCircuitBreaker()
+    {
+        return circuitBreaker;
+    }
+
+    /**
+     * @param circuitBreaker breaker every attempt of a call has to pass, or {@code NULL} to always call the API.
+     *                       The breaker can be shared by adapters talking to the same endpoint.
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker)
+    {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public Hedger getHedger()
+    {
+        return hedger;
+    }
+
+    /**
+     * @param hedger hedger of slow read calls, or {@code NULL} to never send duplicate requests.
+     *               The hedger is not closed together with the adapter, so it can be shared by several adapters.
+     */
+    public void setHedger(Hedger hedger)
+    {
+        this.hedger = hedger;
+    }
+
+    public SingleFlight getSingleFlight()
+    {
+        return singleFlight;
+    }
+
+    /**
+     * @param singleFlight shares one request among identical read calls made at the same time, or {@code NULL} to send every call.
+     *                     It can be shared by several adapters; calls of different projects or endpoints never share a request.
+     */
+    public void setSingleFlight(SingleFlight singleFlight)
+    {
+        this.singleFlight = singleFlight;
+    }
+
+    public ResponseCache getResponseCache()
+    {
+        return responseCache;
+    }
+
+    /**
+     * @param responseCache cache of the responses of metadata calls, or {@code NULL} to always call the API.
+     *                      It can be shared by several adapters; changes to files made through any of them drop the affected responses.
+     */
+    public void setResponseCache(ResponseCache responseCache)
+    {
+        this.responseCache = responseCache;
+    }
+
+    public DegradedMode getDegradedMode()
+    {
+        return degradedMode;
+    }
+
+    /**
+     * @param degradedMode answers read calls failing while the API is unavailable from the caches of the adapter, or {@code NULL}
+     *                     to fail them. Metadata calls need a response cache keeping expired responses, see
+     *                     {@link ResponseCache#setMaxStaleMillis(long)}.
+     */
+    public void setDegradedMode(DegradedMode degradedMode)
+    {
+        this.degradedMode = degradedMode;
+    }
+
     /**
      * Instantiate using the production mode setting (non sandbox).
      *
@@ -148,6 +308,201 @@ public abstract class BaseApiClientAdapter
         this.httpUtils = new HttpUtils();
     }
 
+    /**
+     * Releases the pooled http client and its connections.
+     */
+    @Override
+    public void close()
+    {
+        httpUtils.close();
+    }
+
+    /**
+     * Makes the call on behalf of the given operation, applying the configured retry policy, circuit breaker and rate limit,
+     * in that order from the outside in.
+     */
+    protected <T> T execute(final ApiOperation operation, final ApiCall<T> apiCall) throws ApiException
+    {
+        return executeProtected(operation, limit(operation, apiCall));
+    }
+
+    /**
+     * Makes a call that is safe to repeat, like {@link #execute(ApiOperation, ApiCall)}, but hedges it if the configured hedger
+     * has a policy for the operation. Every request, including the duplicate one, takes its own rate limit permit.
+     * If a response cache is configured, a cached response is returned without calling the API. If a single flight is configured,
+     * identical calls made at the same time share one call and its result. In degraded mode, a call failing because the API
+     * is unavailable is answered with the cached response, even an expired one, marked as stale.
+     *
+     * @param requestFactory creates the request of the call; hedged calls need a request per attempt
+     */
+    protected <R extends HttpRequestBase, T> T executeIdempotent(final ApiOperation operation, final Supplier<R> requestFactory,
+                                                                 final RequestCall<R, T> requestCall) throws ApiException
+    {
+        return executeIdempotent(operation, requestFactory, requestCall, true);
+    }
+
+    /**
+     * @param cached false to bypass the response cache, for calls that must see the current state of the API
+     */
+    @SuppressWarnings("unchecked")
+    protected <R extends HttpRequestBase, T> T executeIdempotent(final ApiOperation operation, final Supplier<R> requestFactory,
+                                                                 final RequestCall<R, T> requestCall, final boolean cached) throws ApiException
+    {
+        final ResponseCache currentResponseCache = cached && responseCache != null && responseCache.isCached(operation) ? responseCache : null;
+        final SingleFlight currentSingleFlight = singleFlight;
+        if (currentResponseCache == null && currentSingleFlight == null)
+            return executeHedged(operation, requestFactory, requestCall);
+
+        final RequestKey key = new RequestKey(operation, requestFactory.get());
+        final ApiCall<T> apiCall = () -> executeHedged(operation, requestFactory, requestCall);
+        if (currentResponseCache == null)
+            return currentSingleFlight.execute(key, apiCall);
+
+        final T cachedResult = (T)currentResponseCache.get(key);
+        if (cachedResult != null)
+            return cachedResult;
+
+        final ApiCall<T> cachingCall = () -> {
+            final long generation = currentResponseCache.getGeneration();
+            final T result = currentSingleFlight != null ? currentSingleFlight.execute(key, apiCall) : apiCall.call();
+            currentResponseCache.put(key, operation, key.getParameter(FILE_URI), result, generation);
+            return result;
+        };
+
+        try
+        {
+            return cachingCall.call();
+        }
+        catch (final ApiException e)
+        {
+            final DegradedMode currentDegradedMode = degradedMode;
+            final Object staleResult = currentDegradedMode != null && currentDegradedMode.isAvailabilityFailure(e) ? toStale(currentResponseCache.getStale(key)) : null;
+            if (staleResult == null)
+                throw e;
+
+            logger.warn(String.format("Smartling API unavailable, serving stale %s response: %s", operation, e.getMessage()));
+            currentDegradedMode.onStaleResponse(key, cachingCall);
+            return (T)staleResult;
+        }
+    }
+
+    /**
+     * @return copy of the cached response marked as stale, or null if there is none or it cannot be marked
+     */
+    private static Object toStale(final Object cachedResult)
+    {
+        if (cachedResult instanceof ParsedResponse)
+            return ((ParsedResponse<?>)cachedResult).toStale();
+        if (cachedResult instanceof StringResponse)
+            return ((StringResponse)cachedResult).toStale();
+        return null;
+    }
+
+    /**
+     * Drops the cached responses the changes to the files may have made stale.
+     */
+    protected void invalidateCachedResponses(final String... fileUris)
+    {
+        final ResponseCache currentResponseCache = responseCache;
+        if (currentResponseCache != null && fileUris.length > 0)
+            currentResponseCache.invalidate(fileUris);
+    }
+
+    private <R extends HttpRequestBase, T> T executeHedged(final ApiOperation operation, final Supplier<R> requestFactory,
+                                                          final RequestCall<R, T> requestCall) throws ApiException
+    {
+        final Hedger currentHedger = hedger;
+        if (currentHedger == null || !currentHedger.isHedged(operation))
+        {
+            final R request = requestFactory.get();
+            return execute(operation, () -> requestCall.call(request));
+        }
+
+        return executeProtected(operation, () -> currentHedger.execute(operation, () -> {
+            final R request = requestFactory.get();
+            return new HedgeAttempt<>(limit(operation, () -> requestCall.call(request)), request::abort);
+        }));
+    }
+
+    private <T> ApiCall<T> limit(final ApiOperation operation, final ApiCall<T> apiCall)
+    {
+        final RateLimiter currentRateLimiter = rateLimiter;
+        if (currentRateLimiter == null)
+            return apiCall;
+
+        return currentRateLimiter.limit(projectId, operation, apiCall);
+    }
+
+    private <T> T executeProtected(final ApiOperation operation, final ApiCall<T> apiCall) throws ApiException
+    {
+        ApiCall<T> decoratedApiCall = apiCall;
+
+        final CircuitBreaker currentCircuitBreaker = circuitBreaker;
+        if (currentCircuitBreaker != null)
+            decoratedApiCall = currentCircuitBreaker.protect(decoratedApiCall);
+
+        return retryHandler.execute(operation, decoratedApiCall);
+    }
+
+    /**
+     * Identifies requests of an operation to the same endpoint with the same parameters, in whatever order.
+     */
+    private static final class RequestKey
+    {
+        private final ApiOperation        operation;
+        private final String              endpoint;
+        private final List<NameValuePair> parameters;
+
+        private RequestKey(final ApiOperation operation, final HttpRequestBase request)
+        {
+            final URI uri = request.getURI();
+            this.operation = operation;
+            this.endpoint = uri.getScheme() + "://" + uri.getRawAuthority() + uri.getRawPath();
+            this.parameters = new ArrayList<>(URLEncodedUtils.parse(uri, StandardCharsets.UTF_8.name()));
+            this.parameters.sort(Comparator.comparing(NameValuePair::getName).thenComparing(NameValuePair::getValue, Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+        }
+
+        private String getParameter(final String name)
+        {
+            for (final NameValuePair parameter : parameters)
+            {
+                if (parameter.getName().equals(name))
+                    return parameter.getValue();
+            }
+            return null;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof RequestKey))
+                return false;
+
+            final RequestKey other = (RequestKey)o;
+            return operation == other.operation && endpoint.equals(other.endpoint) && parameters.equals(other.parameters);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(operation, endpoint, parameters);
+        }
+    }
+
+    /**
+     * Call made with a request of the given type.
+     */
+    protected interface RequestCall<R extends HttpRequestBase, T>
+    {
+        T call(R request) throws ApiException;
+    }
+
+    /**
+     * @deprecated formats the url on every call; use {@link #newQueryBuilder(String)}, which builds the url of an operation once
+     */
+    @Deprecated
     protected String buildUrl(final String apiServerUrl, final String apiParameters)
     {
         final StringBuilder urlWithParameters = new StringBuilder(String.format(apiServerUrl, baseApiUrl));
@@ -155,15 +510,34 @@ public abstract class BaseApiClientAdapter
         return urlWithParameters.toString();
     }
 
+    /**
+     * @deprecated encodes the parameters every request has on every call; use {@link #newQueryBuilder(String)}, which has them already
+     */
+    @Deprecated
     protected String buildParamsQuery(final NameValuePair... nameValuePairs)
     {
-        final List<NameValuePair> qparams = getRequiredParams();
-
+        final QueryBuilder queryBuilder = new QueryBuilder(StringUtils.EMPTY).addAll(getRequiredParams());
         for (final NameValuePair nameValuePair : nameValuePairs)
-            if (nameValuePair.getValue() != null)
-                qparams.add(nameValuePair);
+            queryBuilder.add(nameValuePair);
 
-        return URLEncodedUtils.format(qparams, CharEncoding.UTF_8);
+        return queryBuilder.build();
+    }
+
+    /**
+     * @param apiServerUrl url of the operation ending with the start of its query, with {@code %s} standing for the base url of the API
+     * @return builder of the url of a request of the operation, with the parameters every request has already appended.
+     *         The url up to them is built and encoded once per operation.
+     */
+    protected QueryBuilder newQueryBuilder(final String apiServerUrl)
+    {
+        String urlPrefix = urlPrefixes.get(apiServerUrl);
+        if (urlPrefix == null)
+        {
+            urlPrefix = new QueryBuilder(String.format(apiServerUrl, baseApiUrl)).addAll(getRequiredParams()).build();
+            urlPrefixes.putIfAbsent(apiServerUrl, urlPrefix);
+        }
+
+        return new QueryBuilder(urlPrefix);
     }
 
     protected List<NameValuePair> getRequiredParams()
@@ -204,12 +578,129 @@ public abstract class BaseApiClientAdapter
 
     protected <T extends Data> ApiResponse<T> parseApiResponse(final String response, final TypeToken<ApiResponseWrapper<T>> responseType)
     {
-        final GsonBuilder builder = new GsonBuilder();
-        builder.registerTypeAdapter(Date.class, new DateTypeAdapter());
+        final ApiResponseWrapper<T> responseWrapper = jsonCodec.decode(response, responseType.getType());
 
-        final Gson gson = builder.create();
-        final ApiResponseWrapper<T> responseWrapper = gson.fromJson(response, responseType.getType());
+        return responseWrapper.getResponse();
+    }
+
+    /**
+     * Parses a response while it is read, without holding its text in memory.
+     * @throws IOException if reading the response fails
+     */
+    protected <T extends Data> ApiResponse<T> parseApiResponse(final Reader reader, final TypeToken<ApiResponseWrapper<T>> responseType) throws IOException
+    {
+        final ApiResponseWrapper<T> responseWrapper = jsonCodec.decode(reader, responseType.getType());
 
         return responseWrapper.getResponse();
     }
+
+    /**
+     * Parses a response straight from its bytes, without decoding its contents into a string, unless they were given decoded.
+     */
+    protected <T extends Data> ApiResponse<T> parseApiResponse(final StringResponse response, final TypeToken<ApiResponseWrapper<T>> responseType)
+    {
+        if (response.getCharset() == null || response.getContentsRaw() == null)
+            return parseApiResponse(response.getContents(), responseType);
+
+        final Reader reader = new InputStreamReader(new ByteArrayInputStream(response.getContentsRaw()), response.getCharset());
+        try
+        {
+            return parseApiResponse(reader, responseType);
+        }
+        catch (final IOException e)
+        {
+            throw new JsonCodecException(e);
+        }
+    }
+
+    /**
+     * Makes the request and parses a successful response while it is read from the connection.
+     * @throws ApiException if the call fails or the response is not successful
+     */
+    protected <T extends Data> ParsedResponse<ApiResponse<T>> getParsedResponse(final ApiOperation operation, final HttpRequestBase httpRequest,
+                                                                             final TypeToken<ApiResponseWrapper<T>> responseType) throws ApiException
+    {
+        final ParsedResponse<ApiResponse<T>> response = getHttpUtils().executeHttpCall(httpRequest, proxyConfiguration, operation.getOperationClass(),
+                reader -> parseApiResponse(reader, responseType));
+        if (response.isSuccess())
+            return response;
+
+        logger.error(String.format("Non-successful response: \n contents: %s", response.getErrorContents()));
+        throw newApiException(response.getErrorContents(), response.getHttpStatusCode(), response.getRetryAfterMillis());
+    }
+
+    /**
+     * @return copy of the parsed response for the caller, marked as stale if it was served from a cache in degraded mode.
+     *         The parsed response itself may be shared with other callers through the response cache or a single flight.
+     */
+    protected static <T extends Data> ApiResponse<T> getApiResponse(final ParsedResponse<ApiResponse<T>> response)
+    {
+        final ApiResponse<T> apiResponse = response.getValue();
+        final ApiResponse<T> callerResponse = new ApiResponse<>(apiResponse.getData(), apiResponse.getCode(), apiResponse.getMessages());
+        callerResponse.setStale(response.isStale());
+        return callerResponse;
+    }
+
+    protected ApiException newApiException(final StringResponse stringResponse)
+    {
+        return newApiException(stringResponse.getContents(), stringResponse.getHttpStatusCode(), stringResponse.getRetryAfterMillis());
+    }
+
+    protected ApiException newApiException(final String contents, final int httpStatusCode, final Long retryAfterMillis)
+    {
+        final ApiException apiException = newApiException(contents);
+        apiException.setHttpStatusCode(httpStatusCode);
+        apiException.setRetryAfterMillis(retryAfterMillis);
+
+        return apiException;
+    }
+
+    protected ApiException newApiException(final String contents)
+    {
+        ApiResponse<EmptyResponse> emptyResponseApiResponse = parseErrorResponse(contents);
+        if (emptyResponseApiResponse == null || emptyResponseApiResponse.getCode() == null)
+            return new ApiException(contents, Collections.<String>emptyList());
+
+        String apiCode = emptyResponseApiResponse.getCode();
+        List<String> messages = emptyResponseApiResponse.getMessages();
+
+        switch (apiCode)
+        {
+            case "VALIDATION_ERROR":
+                return new ValidationException(contents, messages);
+            case "AUTHENTICATION_ERROR":
+                return new AuthenticationException(contents, messages);
+            case "AUTHORIZATION_ERROR":
+                return new AuthorizationException(contents, messages);
+            case "RESOURCE_LOCKED":
+                return new ResourceLockedException(contents, messages);
+            case "MAX_OPERATIONS_LIMIT_EXCEEDED":
+                return new OperationsLimitExceeded(contents, messages);
+            case "GENERAL_ERROR":
+                return new UnexpectedException(contents, messages);
+            case "MAINTENANCE_MODE_ERROR":
+                return new MaintenanceModeException(contents, messages);
+            default:
+                return new ApiException(contents, messages);
+        }
+    }
+
+    /**
+     * Error responses do not always come from the API itself, e.g. a proxy answering 502 with an html page.
+     * @return the parsed response, or null if the contents are not an API response
+     */
+    private ApiResponse<EmptyResponse> parseErrorResponse(final String contents)
+    {
+        if (StringUtils.isBlank(contents))
+            return null;
+
+        try
+        {
+            return parseApiResponse(contents, new TypeToken<ApiResponseWrapper<EmptyResponse>>() {});
+        }
+        catch (final JsonCodecException e)
+        {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.file.FileApiParams;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import com.smartling.api.sdk.file.FileType;
+import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import com.smartling.api.sdk.util.DateFormatter;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.ContentBody;
+import org.apache.http.entity.mime.content.FileBody;
+import org.apache.http.entity.mime.content.InputStreamBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Date;
+
+import static com.smartling.api.sdk.file.FileApiParams.CONDITIONS;
+import static com.smartling.api.sdk.file.FileApiParams.FILE_TYPES;
+import static com.smartling.api.sdk.file.FileApiParams.FILE_URI;
+import static com.smartling.api.sdk.file.FileApiParams.LAST_MODIFIED_AFTER;
+import static com.smartling.api.sdk.file.FileApiParams.LAST_UPLOADED_AFTER;
+import static com.smartling.api.sdk.file.FileApiParams.LAST_UPLOADED_BEFORE;
+import static com.smartling.api.sdk.file.FileApiParams.LIMIT;
+import static com.smartling.api.sdk.file.FileApiParams.LOCALE;
+import static com.smartling.api.sdk.file.FileApiParams.NEW_FILE_URI;
+import static com.smartling.api.sdk.file.FileApiParams.OFFSET;
+import static com.smartling.api.sdk.file.FileApiParams.ORDERBY;
+import static com.smartling.api.sdk.file.FileApiParams.URI_MASK;
+
+/**
+ * Base class for File API client adapters. Builds the http requests of the File API,
+ * leaving it to subclasses how the requests are executed.
+ */
+public abstract class BaseFileApiClientAdapter extends BaseApiClientAdapter
+{
+    private final static String UPLOAD_FILE_API_URL     = "%s/file/upload?";
+    private final static String GET_FILE_API_URL        = "%s/file/get?";
+    private final static String GET_FILE_LIST_API_URL   = "%s/file/list?";
+    private final static String GET_FILE_STATUS_API_URL = "%s/file/status?";
+    private final static String GET_FILE_LAST_MODIFIED  = "%s/file/last_modified?";
+    private final static String RENAME_FILE_URL         = "%s/file/rename?";
+    private final static String DELETE_FILE_URL         = "%s/file/delete?";
+
+    protected BaseFileApiClientAdapter(final String apiKey, final String projectId)
+    {
+        super(apiKey, projectId);
+    }
+
+    protected BaseFileApiClientAdapter(final String apiKey, final String projectId, final ProxyConfiguration proxyConfiguration)
+    {
+        super(apiKey, projectId, proxyConfiguration);
+    }
+
+    protected BaseFileApiClientAdapter(final boolean productionMode, final String apiKey, final String projectId)
+    {
+        super(productionMode, apiKey, projectId);
+    }
+
+    protected BaseFileApiClientAdapter(final boolean productionMode, final String apiKey, final String projectId, final ProxyConfiguration proxyConfiguration)
+    {
+        super(productionMode, apiKey, projectId, proxyConfiguration);
+    }
+
+    protected BaseFileApiClientAdapter(final String baseApiUrl, final String apiKey, final String projectId)
+    {
+        super(baseApiUrl, apiKey, projectId);
+    }
+
+    protected BaseFileApiClientAdapter(final String baseApiUrl, final String apiKey, final String projectId, final ProxyConfiguration proxyConfiguration)
+    {
+        super(baseApiUrl, apiKey, projectId, proxyConfiguration);
+    }
+
+    protected HttpGet createGetFileRequest(final GetFileParameterBuilder getFileParameterBuilder)
+    {
+        return new HttpGet(newQueryBuilder(GET_FILE_API_URL).addAll(getFileParameterBuilder.getNameValueList()).build());
+    }
+
+    protected HttpGet createFilesListRequest(final FileListSearchParams fileListSearchParams)
+    {
+        return new HttpGet(newQueryBuilder(GET_FILE_LIST_API_URL)
+                .add(LOCALE, fileListSearchParams.getLocale())
+                .add(URI_MASK, fileListSearchParams.getUriMask())
+                .add(LAST_UPLOADED_AFTER, DateFormatter.format(fileListSearchParams.getLastUploadedAfter()))
+                .add(LAST_UPLOADED_BEFORE, DateFormatter.format(fileListSearchParams.getLastUploadedBefore()))
+                .add(OFFSET, null == fileListSearchParams.getOffset() ? null : String.valueOf(fileListSearchParams.getOffset()))
+                .add(LIMIT, null == fileListSearchParams.getLimit() ? null : String.valueOf(fileListSearchParams.getLimit()))
+                .addAll(FILE_TYPES, fileListSearchParams.getFileTypes())
+                .addAll(CONDITIONS, fileListSearchParams.getConditions())
+                .addAll(ORDERBY, fileListSearchParams.getOrderBy())
+                .build());
+    }
+
+    protected HttpGet createFileStatusRequest(final String fileUri, final String locale)
+    {
+        return new HttpGet(newQueryBuilder(GET_FILE_STATUS_API_URL).add(FILE_URI, fileUri).add(LOCALE, locale).build());
+    }
+
+    protected HttpDelete createDeleteFileRequest(final String fileUri)
+    {
+        return new HttpDelete(newQueryBuilder(DELETE_FILE_URL).add(FILE_URI, fileUri).build());
+    }
+
+    protected HttpPost createRenameFileRequest(final String fileUri, final String newFileUri)
+    {
+        return new HttpPost(newQueryBuilder(RENAME_FILE_URL).add(FILE_URI, fileUri).add(NEW_FILE_URI, newFileUri).build());
+    }
+
+    protected HttpGet createLastModifiedRequest(final String fileUri, final Date lastModifiedAfter, final String locale)
+    {
+        return new HttpGet(newQueryBuilder(GET_FILE_LAST_MODIFIED)
+                .add(FILE_URI, fileUri)
+                .add(LAST_MODIFIED_AFTER, DateFormatter.format(lastModifiedAfter))
+                .add(LOCALE, locale)
+                .build());
+    }
+
+    protected HttpPost createFileUploadHttpPostRequest(final FileUploadParameterBuilder fileUploadParameterBuilder, final ContentBody contentBody)
+    {
+        final MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create()
+                .addPart(FileApiParams.FILE, contentBody);
+
+        final HttpPost httpPost = new HttpPost(newQueryBuilder(UPLOAD_FILE_API_URL).addAll(fileUploadParameterBuilder.getNameValueList()).build());
+        httpPost.setEntity(multipartEntityBuilder.build());
+
+        return httpPost;
+    }
+
+    protected ContentBody createFileBody(final File fileToUpload, final String charsetName, final FileUploadParameterBuilder fileUploadParameterBuilder)
+    {
+        return new FileBody(fileToUpload, createContentType(fileUploadParameterBuilder.getFileType(), Charset.forName(charsetName)), fileToUpload.getName());
+    }
+
+    protected ContentBody createInputStreamBody(final InputStream inputStream, final String fileName, final String charsetName,
+                                                final FileUploadParameterBuilder fileUploadParameterBuilder)
+    {
+        return new InputStreamBody(inputStream, createContentType(fileUploadParameterBuilder.getFileType(), Charset.forName(charsetName)), fileName);
+    }
+
+    /**
+     * Replaces the request body with an in-memory copy, for bodies that cannot be sent twice or cannot be read through
+     * {@link HttpEntity#getContent()}, as multipart entities with streamed parts.
+     */
+    protected void bufferEntity(final HttpPost httpPost) throws IOException
+    {
+        final HttpEntity entity = httpPost.getEntity();
+        final ByteArrayOutputStream contents = new ByteArrayOutputStream();
+        entity.writeTo(contents);
+
+        final ByteArrayEntity bufferedEntity = new ByteArrayEntity(contents.toByteArray());
+        bufferedEntity.setContentType(entity.getContentType());
+        httpPost.setEntity(bufferedEntity);
+    }
+
+    private ContentType createContentType(final FileType fileType, final Charset charset)
+    {
+        return ContentType.create(fileType.getMimeType());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.DeadlineExceededException;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which calls made within {@link #call(ApiCall)} must complete, including their retries and the time spent
+ * waiting for rate limit permits or concurrency slots. A request still in flight when the deadline passes is aborted and the
+ * call fails with {@link DeadlineExceededException}.
+ * <p>
+ * A deadline can span several calls, e.g. a whole synchronization job:
+ * <pre>
+ * Deadline.after(5, TimeUnit.MINUTES).call(() -> {
+ *     fileApiClientAdapter.getFileStatus(fileUri, locale);
+ *     return fileApiClientAdapter.getFile(fileUri, locale, null);
+ * });
+ * </pre>
+ */
+public final class Deadline
+{
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(final long deadlineNanos)
+    {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(final long duration, final TimeUnit unit)
+    {
+        Validate.notNull(unit, "unit is required");
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * @return deadline of the calls made by the current thread, or null if they have none
+     */
+    public static Deadline current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes the call with this deadline applied to every API call it makes on the current thread.
+     * Within the call of an earlier deadline, the earlier one keeps applying.
+     */
+    public <T> T call(final ApiCall<T> apiCall) throws ApiException
+    {
+        final Deadline previous = CURRENT.get();
+        CURRENT.set(previous != null && previous.deadlineNanos - deadlineNanos < 0 ? previous : this);
+        try
+        {
+            return apiCall.call();
+        }
+        finally
+        {
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @return time left until the deadline, negative once it has passed
+     */
+    public long remainingNanos()
+    {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    public boolean isExpired()
+    {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check() throws DeadlineExceededException
+    {
+        if (isExpired())
+            throw newDeadlineExceededException();
+    }
+
+    public DeadlineExceededException newDeadlineExceededException()
+    {
+        final String message = String.format("Deadline exceeded by %d ms", Math.max(0, -remainingMillis()));
+        return new DeadlineExceededException(message, Collections.singletonList(message));
+    }
+}
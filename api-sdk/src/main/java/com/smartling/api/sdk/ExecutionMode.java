@@ -0,0 +1,33 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+/**
+ * Kind of threads blocking calls are run on when the SDK fans them out, e.g. by {@link ExecutorAsyncFileApiClientAdapter}.
+ */
+public enum ExecutionMode
+{
+    /**
+     * A bounded pool of platform threads; calls beyond the pool size wait in a queue.
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * A new virtual thread per call, so any number of calls can block at once. Needs Java 21 or later;
+     * older runtimes fall back to {@link #PLATFORM_THREADS}.
+     */
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.concurrency.ExecutorFactory;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.EmptyResponse;
+import com.smartling.api.sdk.dto.file.FileLastModified;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.StreamResponse;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.dto.file.UploadFileData;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import com.smartling.api.sdk.file.RetrievalType;
+import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import org.apache.commons.lang3.Validate;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * {@link AsyncFileApiClientAdapter} running each call of a blocking {@link FileApiClientAdapter} on an executor,
+ * so that the retries, limits and other policies of the blocking adapter apply to every call.
+ * With {@link ExecutionMode#VIRTUAL_THREADS} each call gets a virtual thread of its own, which makes fanning out
+ * tens of thousands of calls as cheap as the connection pool allows.
+ * <p>
+ * Closing the adapter shuts down the executor it created; the wrapped adapter is left open.
+ */
+public class ExecutorAsyncFileApiClientAdapter implements AsyncFileApiClientAdapter, Closeable
+{
+    public static final int DEFAULT_PLATFORM_POOL_SIZE = 64;
+
+    private static final String THREAD_NAME_PREFIX = "smartling-file-api";
+
+    private final FileApiClientAdapter fileApiClientAdapter;
+    private final ExecutorService      executor;
+    private final boolean              ownExecutor;
+
+    public ExecutorAsyncFileApiClientAdapter(final FileApiClientAdapter fileApiClientAdapter, final ExecutionMode executionMode)
+    {
+        this(fileApiClientAdapter, ExecutorFactory.newExecutor(executionMode, THREAD_NAME_PREFIX, DEFAULT_PLATFORM_POOL_SIZE), true);
+    }
+
+    /**
+     * @param executor executor the calls are run on, which is left running on {@link #close()}
+     */
+    public ExecutorAsyncFileApiClientAdapter(final FileApiClientAdapter fileApiClientAdapter, final ExecutorService executor)
+    {
+        this(fileApiClientAdapter, executor, false);
+    }
+
+    private ExecutorAsyncFileApiClientAdapter(final FileApiClientAdapter fileApiClientAdapter, final ExecutorService executor, final boolean ownExecutor)
+    {
+        Validate.notNull(fileApiClientAdapter, "fileApiClientAdapter is required");
+        Validate.notNull(executor, "executor is required");
+
+        this.fileApiClientAdapter = fileApiClientAdapter;
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<UploadFileData>> uploadFile(final File fileToUpload, final String fileEncoding,
+                                                                     final FileUploadParameterBuilder fileUploadParameterBuilder)
+    {
+        return submit(() -> fileApiClientAdapter.uploadFile(fileToUpload, fileEncoding, fileUploadParameterBuilder));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<UploadFileData>> uploadFile(final InputStream inputStream, final String fileName, final String fileEncoding,
+                                                                     final FileUploadParameterBuilder fileUploadParameterBuilder)
+    {
+        return submit(() -> fileApiClientAdapter.uploadFile(inputStream, fileName, fileEncoding, fileUploadParameterBuilder));
+    }
+
+    @Override
+    public CompletableFuture<StringResponse> getFile(final String fileUri, final String locale, final RetrievalType retrievalType)
+    {
+        return submit(() -> fileApiClientAdapter.getFile(fileUri, locale, retrievalType));
+    }
+
+    @Override
+    public CompletableFuture<StringResponse> getFile(final GetFileParameterBuilder getFileParameterBuilder)
+    {
+        return submit(() -> fileApiClientAdapter.getFile(getFileParameterBuilder));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<FileList>> getFilesList(final FileListSearchParams fileListSearchParams)
+    {
+        return submit(() -> fileApiClientAdapter.getFilesList(fileListSearchParams));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<FileStatus>> getFileStatus(final String fileUri, final String locale)
+    {
+        return submit(() -> fileApiClientAdapter.getFileStatus(fileUri, locale));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<EmptyResponse>> deleteFile(final String fileUri)
+    {
+        return submit(() -> fileApiClientAdapter.deleteFile(fileUri));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<EmptyResponse>> renameFile(final String fileUri, final String newFileUri)
+    {
+        return submit(() -> fileApiClientAdapter.renameFile(fileUri, newFileUri));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse<FileLastModified>> getLastModified(final String fileUri, final Date lastModifiedAfter, final String locale)
+    {
+        return submit(() -> fileApiClientAdapter.getLastModified(fileUri, lastModifiedAfter, locale));
+    }
+
+    /**
+     * Downloads a file straight to a path, see {@link FileApiClientAdapter#downloadFile(GetFileParameterBuilder, Path)}.
+     */
+    public CompletableFuture<StreamResponse> downloadFile(final GetFileParameterBuilder getFileParameterBuilder, final Path target)
+    {
+        return submit(() -> fileApiClientAdapter.downloadFile(getFileParameterBuilder, target));
+    }
+
+    /**
+     * Gets the status of many files at once, one call per file.
+     * @return futures of the statuses by file uri, in the order of the given uris; each completes on its own
+     */
+    public Map<String, CompletableFuture<ApiResponse<FileStatus>>> getFileStatuses(final Collection<String> fileUris, final String locale)
+    {
+        final Map<String, CompletableFuture<ApiResponse<FileStatus>>> fileStatuses = new LinkedHashMap<>();
+        for (final String fileUri : fileUris)
+            fileStatuses.put(fileUri, getFileStatus(fileUri, locale));
+
+        return fileStatuses;
+    }
+
+    /**
+     * Downloads many files at once, one call per file.
+     * @param targets paths to save the files to by file uri
+     * @return futures of the downloads by file uri, in the order of the given map; each completes on its own
+     */
+    public Map<String, CompletableFuture<StreamResponse>> downloadFiles(final Map<String, Path> targets, final String locale)
+    {
+        final Map<String, CompletableFuture<StreamResponse>> downloads = new LinkedHashMap<>();
+        for (final Map.Entry<String, Path> target : targets.entrySet())
+            downloads.put(target.getKey(), downloadFile(new GetFileParameterBuilder().fileUri(target.getKey()).locale(locale), target.getValue()));
+
+        return downloads;
+    }
+
+    /**
+     * Shuts down the executor created by the adapter, letting calls already submitted complete.
+     */
+    @Override
+    public void close()
+    {
+        if (ownExecutor)
+            executor.shutdown();
+    }
+
+    /**
+     * Runs the call on the executor, under the {@link Deadline} of the submitting thread if it has one.
+     */
+    private <T> CompletableFuture<T> submit(final ApiCall<T> apiCall)
+    {
+        final Deadline deadline = Deadline.current();
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        try
+        {
+            executor.execute(() -> {
+                if (result.isDone())
+                    return;
+
+                try
+                {
+                    result.complete(deadline != null ? deadline.call(apiCall) : apiCall.call());
+                }
+                catch (final ApiException | RuntimeException e)
+                {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+        catch (final RejectedExecutionException e)
+        {
+            result.completeExceptionally(new ApiException(e));
+        }
+
+        return result;
+    }
+}
@@ -16,6 +16,7 @@
 package com.smartling.api.sdk;
 
 import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListPaging;
 import com.smartling.api.sdk.file.FileListSearchParams;
 import com.smartling.api.sdk.file.RetrievalType;
 import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
@@ -25,12 +26,17 @@ import com.smartling.api.sdk.dto.EmptyResponse;
 import com.smartling.api.sdk.dto.file.FileLastModified;
 import com.smartling.api.sdk.dto.file.FileList;
 import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.StreamResponse;
 import com.smartling.api.sdk.dto.file.StringResponse;
 import com.smartling.api.sdk.dto.file.UploadFileData;
 
 import java.io.File;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Date;
+import java.util.stream.Stream;
 
 /**
  * Communication point for interacting files with the Smartling Translation API.
@@ -82,6 +88,34 @@ public interface FileApiClientAdapter
      */
     StringResponse getFile(GetFileParameterBuilder getFileParameterBuilder) throws ApiException;
 
+    /**
+     * Get the translated (or original) file contents, streaming them to the given output stream instead of keeping them in memory.
+     * @param getFileParameterBuilder - params builder
+     * @param outputStream stream the file contents are written to. It is not closed.
+     * @return {@link StreamResponse} the encoding of the file and the number of bytes written.
+     * @throws ApiException if an exception has occurred or non success is returned from the Smartling Translation API.
+     */
+    StreamResponse getFile(GetFileParameterBuilder getFileParameterBuilder, OutputStream outputStream) throws ApiException;
+
+    /**
+     * Get the translated (or original) file contents, streaming them to the given channel instead of keeping them in memory.
+     * @param getFileParameterBuilder - params builder
+     * @param channel channel the file contents are written to. It is not closed.
+     * @return {@link StreamResponse} the encoding of the file and the number of bytes written.
+     * @throws ApiException if an exception has occurred or non success is returned from the Smartling Translation API.
+     */
+    StreamResponse getFile(GetFileParameterBuilder getFileParameterBuilder, WritableByteChannel channel) throws ApiException;
+
+    /**
+     * Download the translated (or original) file to the given path. The raw bytes are written to a temporary file next to
+     * the target, which then replaces the target atomically, so a failed download never leaves a partial file behind.
+     * @param getFileParameterBuilder - params builder
+     * @param target path the file is saved to. Missing parent directories are created; an existing file is replaced.
+     * @return {@link StreamResponse} the encoding of the file and the number of bytes written.
+     * @throws ApiException if an exception has occurred or non success is returned from the Smartling Translation API.
+     */
+    StreamResponse downloadFile(GetFileParameterBuilder getFileParameterBuilder, Path target) throws ApiException;
+
     /**
      * Get the listing of translated files for the specified locale.
      *
@@ -91,6 +125,26 @@ public interface FileApiClientAdapter
      */
     ApiResponse<FileList> getFilesList(FileListSearchParams fileListSearchParams) throws ApiException;
 
+    /**
+     * Walk all files matching the search parameters page by page, without holding the whole listing in memory.
+     * Pages are fetched lazily, starting at the offset of the search parameters; their limit is ignored.
+     *
+     * @param fileListSearchParams the search parameters to use when querying for a list of files.
+     * @param fileListPaging the page size and the number of pages fetched ahead.
+     * @return {@link FileListIterator} to close if it is not consumed to the end. Failed calls are thrown as
+     * {@link com.smartling.api.sdk.exceptions.UncheckedApiException}.
+     */
+    FileListIterator listFiles(FileListSearchParams fileListSearchParams, FileListPaging fileListPaging);
+
+    /**
+     * Stream all files matching the search parameters, see {@link #listFiles(FileListSearchParams, FileListPaging)}.
+     *
+     * @param fileListSearchParams the search parameters to use when querying for a list of files.
+     * @param fileListPaging the page size and the number of pages fetched ahead.
+     * @return sequential {@link Stream} to close if it is not consumed to the end.
+     */
+    Stream<FileStatus> streamFiles(FileListSearchParams fileListSearchParams, FileListPaging fileListPaging);
+
     /**
      * Get the status of a file for the specified locale
      *
@@ -16,79 +16,65 @@
 package com.smartling.api.sdk;
 
 import com.google.gson.reflect.TypeToken;
+import com.smartling.api.sdk.cache.FileContentCache;
+import com.smartling.api.sdk.degraded.DegradedMode;
 import com.smartling.api.sdk.dto.ApiResponse;
 import com.smartling.api.sdk.dto.ApiResponseWrapper;
 import com.smartling.api.sdk.dto.Data;
 import com.smartling.api.sdk.dto.EmptyResponse;
 import com.smartling.api.sdk.dto.file.FileLastModified;
 import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileLocaleLastModified;
 import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.StreamResponse;
 import com.smartling.api.sdk.dto.file.StringResponse;
 import com.smartling.api.sdk.dto.file.UploadFileData;
 import com.smartling.api.sdk.exceptions.ApiException;
-import com.smartling.api.sdk.exceptions.AuthenticationException;
-import com.smartling.api.sdk.exceptions.AuthorizationException;
-import com.smartling.api.sdk.exceptions.OperationsLimitExceeded;
-import com.smartling.api.sdk.exceptions.ResourceLockedException;
-import com.smartling.api.sdk.exceptions.MaintenanceModeException;
-import com.smartling.api.sdk.exceptions.UnexpectedException;
-import com.smartling.api.sdk.exceptions.ValidationException;
-import com.smartling.api.sdk.file.FileApiParams;
+import com.smartling.api.sdk.file.FileListPaging;
 import com.smartling.api.sdk.file.FileListSearchParams;
-import com.smartling.api.sdk.file.FileType;
 import com.smartling.api.sdk.file.RetrievalType;
 import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
 import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
-import com.smartling.api.sdk.util.DateFormatter;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.ContentBody;
-import org.apache.http.entity.mime.content.FileBody;
-import org.apache.http.entity.mime.content.InputStreamBody;
-import org.apache.http.message.BasicNameValuePair;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Date;
-import java.util.List;
-
-import static com.smartling.api.sdk.file.FileApiParams.CONDITIONS;
-import static com.smartling.api.sdk.file.FileApiParams.FILE_TYPES;
-import static com.smartling.api.sdk.file.FileApiParams.FILE_URI;
-import static com.smartling.api.sdk.file.FileApiParams.LAST_MODIFIED_AFTER;
-import static com.smartling.api.sdk.file.FileApiParams.LAST_UPLOADED_AFTER;
-import static com.smartling.api.sdk.file.FileApiParams.LAST_UPLOADED_BEFORE;
-import static com.smartling.api.sdk.file.FileApiParams.LIMIT;
-import static com.smartling.api.sdk.file.FileApiParams.LOCALE;
-import static com.smartling.api.sdk.file.FileApiParams.NEW_FILE_URI;
-import static com.smartling.api.sdk.file.FileApiParams.OFFSET;
-import static com.smartling.api.sdk.file.FileApiParams.ORDERBY;
-import static com.smartling.api.sdk.file.FileApiParams.URI_MASK;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Base implementation of the {@link FileApiClientAdapter}.
  */
-public class FileApiClientAdapterImpl extends BaseApiClientAdapter implements FileApiClientAdapter
+public class FileApiClientAdapterImpl extends BaseFileApiClientAdapter implements FileApiClientAdapter
 {
     private static final Log logger = LogFactory.getLog(FileApiClientAdapterImpl.class);
 
-    private final static String UPLOAD_FILE_API_URL     = "%s/file/upload?";
-    private final static String GET_FILE_API_URL        = "%s/file/get?";
-    private final static String GET_FILE_LIST_API_URL   = "%s/file/list?";
-    private final static String GET_FILE_STATUS_API_URL = "%s/file/status?";
-    private final static String GET_FILE_LAST_MODIFIED  = "%s/file/last_modified?";
-    private final static String RENAME_FILE_URL         = "%s/file/rename?";
-    private final static String DELETE_FILE_URL         = "%s/file/delete?";
+    private static final String TEMP_FILE_SUFFIX = ".part";
+
+    private FileContentCache fileContentCache;
 
     public FileApiClientAdapterImpl(final String apiKey, final String projectId)
     {
@@ -120,6 +106,20 @@ public class FileApiClientAdapterImpl extends BaseApiClientAdapter implements Fi
         super(baseApiUrl, apiKey, projectId, proxyConfiguration);
     }
 
+    public FileContentCache getFileContentCache()
+    {
+        return fileContentCache;
+    }
+
+    /**
+     * @param fileContentCache local cache of the contents of translated files, or {@code NULL} to always download them.
+     *                         A cached file is served after the API confirms it was not modified since it was downloaded.
+     */
+    public void setFileContentCache(FileContentCache fileContentCache)
+    {
+        this.fileContentCache = fileContentCache;
+    }
+
     @Override
     public StringResponse getFile(final String fileUri, final String locale, final RetrievalType retrievalType) throws ApiException
     {
@@ -134,45 +134,122 @@ public class FileApiClientAdapterImpl extends BaseApiClientAdapter implements Fi
     @Override
     public StringResponse getFile(final GetFileParameterBuilder getFileParameterBuilder) throws ApiException
     {
-        logger.debug(String.format("Get file: fileUri = %s, projectId = %s, apiKey = %s, locale = %s",
-                                   getFileParameterBuilder.getFileUri(), this.projectId, maskApiKey(this.apiKey), getFileParameterBuilder.getLocale()));
-
-        final List<NameValuePair> paramsList = getFileParameterBuilder.getNameValueList();
-        final String params = buildParamsQuery(paramsList.toArray(new NameValuePair[paramsList.size()]));
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get file: fileUri = %s, projectId = %s, apiKey = %s, locale = %s",
+                                       getFileParameterBuilder.getFileUri(), this.projectId, maskApiKey(this.apiKey), getFileParameterBuilder.getLocale()));
 
-        final HttpGet getRequest = new HttpGet(buildUrl(GET_FILE_API_URL, params));
+        final FileContentCache currentFileContentCache = fileContentCache;
+        if (currentFileContentCache != null && currentFileContentCache.isCacheable(getFileParameterBuilder))
+            return getCachedFile(currentFileContentCache, getFileParameterBuilder);
 
-        final StringResponse stringResponse = getStringResponse(getRequest);
-        logger.debug(String.format("Get file: %s", SUCCESS_CODE));
+        final StringResponse stringResponse = executeIdempotent(ApiOperation.GET_FILE,
+                () -> createGetFileRequest(getFileParameterBuilder), request -> getStringResponse(ApiOperation.GET_FILE, request));
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get file: %s", SUCCESS_CODE));
 
         return stringResponse;
     }
 
     @Override
-    public ApiResponse<FileList> getFilesList(final FileListSearchParams fileListSearchParams) throws ApiException
+    public StreamResponse getFile(final GetFileParameterBuilder getFileParameterBuilder, final OutputStream outputStream) throws ApiException
     {
-        logger.debug(String.format("Get files list: fileUriMask = %s, projectId = %s, apiKey = %s, locale = %s",
-                fileListSearchParams.getUriMask(), this.projectId, maskApiKey(this.apiKey), fileListSearchParams.getLocale()));
+        return getFile(getFileParameterBuilder, Channels.newChannel(outputStream));
+    }
 
-        final String params = buildFileListParams(fileListSearchParams);
-        final HttpGet getRequest = new HttpGet(buildUrl(GET_FILE_LIST_API_URL, params));
+    @Override
+    public StreamResponse getFile(final GetFileParameterBuilder getFileParameterBuilder, final WritableByteChannel channel) throws ApiException
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get file: fileUri = %s, projectId = %s, apiKey = %s, locale = %s",
+                                       getFileParameterBuilder.getFileUri(), this.projectId, maskApiKey(this.apiKey), getFileParameterBuilder.getLocale()));
 
-        final ApiResponse<FileList> apiResponse = getResponse(getRequest, new TypeToken<ApiResponseWrapper<FileList>>() {});
-        logger.debug(String.format("Get files list: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
+        final FileContentCache currentFileContentCache = fileContentCache;
+        final StreamResponse streamResponse;
+        if (currentFileContentCache != null && currentFileContentCache.isCacheable(getFileParameterBuilder))
+        {
+            streamResponse = getCachedFile(currentFileContentCache, getFileParameterBuilder, channel);
+        }
+        else
+        {
+            final HttpGet getRequest = createGetFileRequest(getFileParameterBuilder);
+            streamResponse = execute(ApiOperation.GET_FILE, new StreamingApiCall(ApiOperation.GET_FILE, getRequest, channel));
+        }
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get file: %s, %d bytes", SUCCESS_CODE, streamResponse.getContentLength()));
+
+        return streamResponse;
+    }
+
+    @Override
+    public StreamResponse downloadFile(final GetFileParameterBuilder getFileParameterBuilder, final Path target) throws ApiException
+    {
+        Path tempFile = null;
+        try
+        {
+            final Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, target.getFileName().toString(), TEMP_FILE_SUFFIX);
+
+            final StreamResponse streamResponse;
+            try (FileChannel fileChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE))
+            {
+                streamResponse = getFile(getFileParameterBuilder, fileChannel);
+            }
+            moveReplacing(tempFile, target);
+            tempFile = null;
+
+            return streamResponse;
+        }
+        catch (final IOException e)
+        {
+            throw new ApiException(e);
+        }
+        finally
+        {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public ApiResponse<FileList> getFilesList(final FileListSearchParams fileListSearchParams) throws ApiException
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get files list: fileUriMask = %s, projectId = %s, apiKey = %s, locale = %s",
+                    fileListSearchParams.getUriMask(), this.projectId, maskApiKey(this.apiKey), fileListSearchParams.getLocale()));
+
+        final ApiResponse<FileList> apiResponse = getIdempotentResponse(ApiOperation.GET_FILES_LIST, () -> createFilesListRequest(fileListSearchParams),
+                new TypeToken<ApiResponseWrapper<FileList>>() {});
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get files list: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
 
         return apiResponse;
     }
 
     @Override
-    public ApiResponse<FileStatus> getFileStatus(final String fileUri, final String locale) throws ApiException
+    public FileListIterator listFiles(final FileListSearchParams fileListSearchParams, final FileListPaging fileListPaging)
     {
-        logger.debug(String.format("Get file status: fileUri = %s, projectId = %s, apiKey = %s, locale = %s", fileUri, this.projectId, maskApiKey(this.apiKey), locale));
+        Validate.notNull(fileListSearchParams, "fileListSearchParams is required");
+        Validate.notNull(fileListPaging, "fileListPaging is required");
 
-        final String params = buildParamsQuery(new BasicNameValuePair(FILE_URI, fileUri), new BasicNameValuePair(LOCALE, locale));
-        final HttpGet getRequest = new HttpGet(buildUrl(GET_FILE_STATUS_API_URL, params));
+        return new FileListIterator(this, fileListSearchParams, fileListPaging);
+    }
 
-        final ApiResponse<FileStatus> apiResponse = getResponse(getRequest, new TypeToken<ApiResponseWrapper<FileStatus>>() {});
-        logger.debug(String.format("Get file status: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
+    @Override
+    public Stream<FileStatus> streamFiles(final FileListSearchParams fileListSearchParams, final FileListPaging fileListPaging)
+    {
+        return listFiles(fileListSearchParams, fileListPaging).stream();
+    }
+
+    @Override
+    public ApiResponse<FileStatus> getFileStatus(final String fileUri, final String locale) throws ApiException
+    {
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get file status: fileUri = %s, projectId = %s, apiKey = %s, locale = %s", fileUri, this.projectId, maskApiKey(this.apiKey), locale));
+
+        final ApiResponse<FileStatus> apiResponse = getIdempotentResponse(ApiOperation.GET_FILE_STATUS, () -> createFileStatusRequest(fileUri, locale),
+                new TypeToken<ApiResponseWrapper<FileStatus>>() {});
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get file status: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
 
         return apiResponse;
     }
@@ -181,29 +258,29 @@ public class FileApiClientAdapterImpl extends BaseApiClientAdapter implements Fi
     public ApiResponse<UploadFileData> uploadFile(final File fileToUpload, final String charsetName, final FileUploadParameterBuilder fileUploadParameterBuilder)
             throws ApiException
     {
-        FileBody fileBody = new FileBody(fileToUpload, createContentType(fileUploadParameterBuilder.getFileType(), Charset.forName(charsetName)), fileToUpload.getName());
-        return uploadFile(fileUploadParameterBuilder, fileBody);
+        return uploadFile(fileUploadParameterBuilder, createFileBody(fileToUpload, charsetName, fileUploadParameterBuilder));
     }
 
     @Override
     public ApiResponse<UploadFileData> uploadFile(final InputStream inputStream, final String fileName, final String charsetName,
         final FileUploadParameterBuilder fileUploadParameterBuilder) throws ApiException
     {
-        InputStreamBody inputStreamBody = new InputStreamBody(inputStream, createContentType(fileUploadParameterBuilder.getFileType(), Charset.forName(charsetName)), fileName);
-        return uploadFile(fileUploadParameterBuilder, inputStreamBody);
+        return uploadFile(fileUploadParameterBuilder, createInputStreamBody(inputStream, fileName, charsetName, fileUploadParameterBuilder));
     }
 
     @Override
     public ApiResponse<EmptyResponse> deleteFile(final String fileUri) throws ApiException
     {
-        logger.debug(String.format("Delete file: fileUri = %s, projectId = %s, apiKey = %s",
-                fileUri, this.projectId, maskApiKey(this.apiKey)));
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Delete file: fileUri = %s, projectId = %s, apiKey = %s",
+                    fileUri, this.projectId, maskApiKey(this.apiKey)));
 
-        final String params = buildParamsQuery(new BasicNameValuePair(FILE_URI, fileUri));
-        final HttpDelete httpDeleteFileRequest = new HttpDelete(buildUrl(DELETE_FILE_URL, params));
+        final HttpDelete httpDeleteFileRequest = createDeleteFileRequest(fileUri);
 
-        final ApiResponse<EmptyResponse> apiResponse = getResponse(httpDeleteFileRequest, new TypeToken<ApiResponseWrapper<EmptyResponse>>() {});
-        logger.debug(String.format("Delete file: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
+        final ApiResponse<EmptyResponse> apiResponse = getResponse(ApiOperation.DELETE_FILE, httpDeleteFileRequest, new TypeToken<ApiResponseWrapper<EmptyResponse>>() {},
+                fileUri);
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Delete file: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
 
         return apiResponse;
     }
@@ -211,14 +288,16 @@ public class FileApiClientAdapterImpl extends BaseApiClientAdapter implements Fi
     @Override
     public ApiResponse<EmptyResponse> renameFile(final String fileUri, final String newFileUri) throws ApiException
     {
-        logger.debug(String.format("Rename file: fileUri = %s, projectId = %s, apiKey = %s",
-                fileUri, this.projectId, maskApiKey(this.apiKey)));
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Rename file: fileUri = %s, projectId = %s, apiKey = %s",
+                    fileUri, this.projectId, maskApiKey(this.apiKey)));
 
-        final String params = buildParamsQuery(new BasicNameValuePair(FILE_URI, fileUri), new BasicNameValuePair(NEW_FILE_URI, newFileUri));
-        final HttpPost httpPostRequest = new HttpPost(buildUrl(RENAME_FILE_URL, params));
+        final HttpPost httpPostRequest = createRenameFileRequest(fileUri, newFileUri);
 
-        final ApiResponse<EmptyResponse> apiResponse = getResponse(httpPostRequest, new TypeToken<ApiResponseWrapper<EmptyResponse>>() {});
-        logger.debug(String.format("Rename file: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
+        final ApiResponse<EmptyResponse> apiResponse = getResponse(ApiOperation.RENAME_FILE, httpPostRequest, new TypeToken<ApiResponseWrapper<EmptyResponse>>() {},
+                fileUri, newFileUri);
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Rename file: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
 
         return apiResponse;
     }
@@ -226,18 +305,14 @@ public class FileApiClientAdapterImpl extends BaseApiClientAdapter implements Fi
     @Override
     public ApiResponse<FileLastModified> getLastModified(final String fileUri, final Date lastModifiedAfter, final String locale) throws ApiException
     {
-        logger.debug(String.format("Get last modified: fileUri = %s, projectId = %s, apiKey = %s, locale = %s",
-                fileUri, this.projectId, maskApiKey(this.apiKey), locale));
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get last modified: fileUri = %s, projectId = %s, apiKey = %s, locale = %s",
+                    fileUri, this.projectId, maskApiKey(this.apiKey), locale));
 
-        final String params = buildParamsQuery(
-                new BasicNameValuePair(FILE_URI, fileUri),
-                new BasicNameValuePair(LAST_MODIFIED_AFTER, DateFormatter.format(lastModifiedAfter)),
-                new BasicNameValuePair(LOCALE, locale)
-        );
-        final HttpGet getRequest = new HttpGet(buildUrl(GET_FILE_LAST_MODIFIED, params));
-
-        final ApiResponse<FileLastModified> apiResponse = getResponse(getRequest, new TypeToken<ApiResponseWrapper<FileLastModified>>() {});
-        logger.debug(String.format("Get last modified: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
+        final ApiResponse<FileLastModified> apiResponse = getIdempotentResponse(ApiOperation.GET_LAST_MODIFIED, () -> createLastModifiedRequest(fileUri, lastModifiedAfter, locale),
+                new TypeToken<ApiResponseWrapper<FileLastModified>>() {});
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get last modified: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
 
         return apiResponse;
     }
@@ -245,97 +320,298 @@ public class FileApiClientAdapterImpl extends BaseApiClientAdapter implements Fi
     private ApiResponse<UploadFileData> uploadFile(final FileUploadParameterBuilder fileUploadParameterBuilder, final ContentBody contentBody)
             throws ApiException
     {
-        logger.debug(String.format("Upload file: fileUri = %s, projectId = %s, apiKey = %s, localesToApprove = %s",
-                        fileUploadParameterBuilder.getFileUri(), this.projectId, maskApiKey(this.apiKey), StringUtils.join(fileUploadParameterBuilder.getLocalesToApprove(), ", ")));
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Upload file: fileUri = %s, projectId = %s, apiKey = %s, localesToApprove = %s",
+                            fileUploadParameterBuilder.getFileUri(), this.projectId, maskApiKey(this.apiKey), StringUtils.join(fileUploadParameterBuilder.getLocalesToApprove(), ", ")));
 
-        final List<NameValuePair> paramsList = fileUploadParameterBuilder.getNameValueList();
-        final String params = buildParamsQuery(paramsList.toArray(new NameValuePair[paramsList.size()]));
-        final HttpPost httpPostFile = createFileUploadHttpPostRequest(params, contentBody);
+        final HttpPost httpPostFile = createFileUploadHttpPostRequest(fileUploadParameterBuilder, contentBody);
+        if (getRetryHandler().isRetryEnabled(ApiOperation.UPLOAD_FILE) && !httpPostFile.getEntity().isRepeatable())
+            bufferUploadEntity(httpPostFile);
 
-        final ApiResponse<UploadFileData> apiResponse = getResponse(httpPostFile, new TypeToken<ApiResponseWrapper<UploadFileData>>() {});
-        logger.debug(String.format("Upload file: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
+        final ApiResponse<UploadFileData> apiResponse = getResponse(ApiOperation.UPLOAD_FILE, httpPostFile, new TypeToken<ApiResponseWrapper<UploadFileData>>() {},
+                fileUploadParameterBuilder.getFileUri());
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Upload file: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
 
         return apiResponse;
     }
 
-    private <T extends Data> ApiResponse<T> getResponse(final HttpRequestBase executeRequest, final TypeToken<ApiResponseWrapper<T>> typeToken) throws ApiException
+    /**
+     * @param changedFileUris files the call changes, whose cached responses are dropped whether or not the call succeeds
+     */
+    private <T extends Data> ApiResponse<T> getResponse(final ApiOperation operation, final HttpRequestBase executeRequest,
+                                                         final TypeToken<ApiResponseWrapper<T>> typeToken, final String... changedFileUris) throws ApiException
     {
-        final StringResponse response = getStringResponse(executeRequest);
+        try
+        {
+            return execute(operation, () -> getParsedResponse(operation, executeRequest, typeToken)).getValue();
+        }
+        finally
+        {
+            invalidateCachedResponses(changedFileUris);
+        }
+    }
 
-        return parseApiResponse(response.getContents(), typeToken);
+    private <T extends Data> ApiResponse<T> getIdempotentResponse(final ApiOperation operation, final Supplier<HttpGet> requestFactory,
+                                                                   final TypeToken<ApiResponseWrapper<T>> typeToken) throws ApiException
+    {
+        return getIdempotentResponse(operation, requestFactory, typeToken, true);
     }
 
-    private StringResponse getStringResponse(final HttpRequestBase httpRequest) throws ApiException
+    /**
+     * @param cached false to bypass the response cache
+     */
+    private <T extends Data> ApiResponse<T> getIdempotentResponse(final ApiOperation operation, final Supplier<HttpGet> requestFactory,
+                                                                   final TypeToken<ApiResponseWrapper<T>> typeToken, final boolean cached) throws ApiException
     {
-        StringResponse stringResponse = getHttpUtils().executeHttpCall(httpRequest, proxyConfiguration);
+        return getApiResponse(executeIdempotent(operation, requestFactory, request -> getParsedResponse(operation, request, typeToken), cached));
+    }
 
-        if (stringResponse.isSuccess()) {
-            return stringResponse;
+    /**
+     * Streamed upload bodies can be read only once, so they are kept in memory to be sent again on a retry.
+     */
+    private void bufferUploadEntity(final HttpPost httpPostFile) throws ApiException
+    {
+        try
+        {
+            bufferEntity(httpPostFile);
+        }
+        catch (final IOException e)
+        {
+            throw new ApiException(e);
         }
+    }
 
-        String contents = stringResponse.getContents();
-        logger.error(String.format("Non-successful response: \n contents: %s", contents));
-        throw newApiException(contents);
+    private StringResponse getCachedFile(final FileContentCache cache, final GetFileParameterBuilder getFileParameterBuilder) throws ApiException
+    {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final StreamResponse streamResponse = getCachedFile(cache, getFileParameterBuilder, Channels.newChannel(outputStream));
+        final Charset charset;
+        try
+        {
+            charset = Charset.forName(streamResponse.getEncoding());
+        }
+        catch (final IllegalArgumentException e)
+        {
+            throw new ApiException(e);
+        }
+
+        return new StringResponse(outputStream.toByteArray(), charset, true, streamResponse.getHttpStatusCode(), null, streamResponse.isStale());
     }
 
-    private ApiException newApiException(final String contents)
+    /**
+     * Serves the cached file if the translation was not modified since it was downloaded, otherwise downloads it into the cache first.
+     * In degraded mode, the cached file is served as stale if the API is unavailable.
+     */
+    private StreamResponse getCachedFile(final FileContentCache cache, final GetFileParameterBuilder getFileParameterBuilder, final WritableByteChannel channel)
+            throws ApiException
     {
-        ApiResponse<EmptyResponse> emptyResponseApiResponse = parseApiResponse(contents, new TypeToken<ApiResponseWrapper<EmptyResponse>>() {});
+        final FileContentCache.CachedFile cachedFile = cache.get(getFileParameterBuilder);
+        try
+        {
+            final FileContentCache.CachedFile currentFile = revalidateCachedFile(cache, getFileParameterBuilder, cachedFile);
+            final StreamResponse streamResponse = currentFile != null ? transferCachedFile(cache, currentFile, channel, false) : null;
+            if (streamResponse != null)
+                return streamResponse;
+
+            return execute(ApiOperation.GET_FILE, new StreamingApiCall(ApiOperation.GET_FILE, createGetFileRequest(getFileParameterBuilder), channel));
+        }
+        catch (final ApiException e)
+        {
+            final DegradedMode currentDegradedMode = getDegradedMode();
+            if (cachedFile == null || currentDegradedMode == null || !currentDegradedMode.isAvailabilityFailure(e))
+                throw e;
+
+            final StreamResponse staleResponse = transferCachedFile(cache, cachedFile, channel, true);
+            if (staleResponse == null)
+                throw e;
+
+            logger.warn(String.format("Smartling API unavailable, serving stale cached file %s: %s", getFileParameterBuilder.getFileUri(), e.getMessage()));
+            currentDegradedMode.onStaleResponse(Arrays.asList(ApiOperation.GET_FILE, getFileParameterBuilder.getFileUri(), getFileParameterBuilder.getLocale(),
+                    getFileParameterBuilder.getRetrievalType(), getFileParameterBuilder.getIncludeOriginalStrings()),
+                    () -> revalidateCachedFile(cache, getFileParameterBuilder, cache.get(getFileParameterBuilder)));
+            return staleResponse;
+        }
+    }
+
+    /**
+     * Brings the cached file up to date, downloading it if it is not cached or the translation was modified since it was downloaded.
+     * @return the up to date cached file, or null if the API has no modification time for the translation, so that it cannot be cached
+     */
+    private FileContentCache.CachedFile revalidateCachedFile(final FileContentCache cache, final GetFileParameterBuilder getFileParameterBuilder,
+                                                             final FileContentCache.CachedFile cachedFile) throws ApiException
+    {
+        Date lastModified = null;
+        if (cachedFile != null)
+        {
+            lastModified = getLocaleLastModified(getFileParameterBuilder, cachedFile.getLastModified());
+            if (lastModified == null)
+            {
+                cache.recordHit();
+                if (logger.isDebugEnabled())
+                    logger.debug(String.format("Get file: cached file not modified since %s", cachedFile.getLastModified()));
+                return cachedFile;
+            }
+        }
 
-        String apiCode = emptyResponseApiResponse.getCode();
-        List<String> messages = emptyResponseApiResponse.getMessages();
+        // taken before the download, so that a modification made meanwhile is seen on the next revalidation
+        if (lastModified == null)
+            lastModified = getLocaleLastModified(getFileParameterBuilder, null);
+        if (lastModified == null)
+            return null;
 
-        switch (apiCode)
+        final HttpGet getRequest = createGetFileRequest(getFileParameterBuilder);
+        try (FileContentCache.Writer writer = cache.newWriter(getFileParameterBuilder))
+        {
+            final StreamResponse streamResponse = execute(ApiOperation.GET_FILE, new StreamingApiCall(ApiOperation.GET_FILE, getRequest, writer.getChannel()));
+            return writer.commit(lastModified, streamResponse.getEncoding());
+        }
+        catch (final IOException e)
         {
-            case "VALIDATION_ERROR":
-                return new ValidationException(contents, messages);
-            case "AUTHENTICATION_ERROR":
-                return new AuthenticationException(contents, messages);
-            case "AUTHORIZATION_ERROR":
-                return new AuthorizationException(contents, messages);
-            case "RESOURCE_LOCKED":
-                return new ResourceLockedException(contents, messages);
-            case "MAX_OPERATIONS_LIMIT_EXCEEDED":
-                return new OperationsLimitExceeded(contents, messages);
-            case "GENERAL_ERROR":
-                return new UnexpectedException(contents, messages);
-            case "MAINTENANCE_MODE_ERROR":
-                return new MaintenanceModeException(contents, messages);
-            default:
-                return new ApiException(contents, messages);
+            throw new ApiException(e);
         }
     }
 
-    private HttpPost createFileUploadHttpPostRequest(final String apiParameters, final ContentBody contentBody)
+    /**
+     * @return response for the cached file sent to the channel, or null if it was evicted from the cache before it could be read
+     */
+    private static StreamResponse transferCachedFile(final FileContentCache cache, final FileContentCache.CachedFile cachedFile,
+                                                     final WritableByteChannel channel, final boolean stale) throws ApiException
     {
-        final MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create()
-                .addPart(FileApiParams.FILE, contentBody);
+        try
+        {
+            final long contentLength = cache.transferTo(cachedFile, channel);
+            return contentLength >= 0 ? new StreamResponse(cachedFile.getEncoding(), true, contentLength, null, 200, null, stale) : null;
+        }
+        catch (final IOException e)
+        {
+            throw new ApiException(e);
+        }
+    }
 
-        final HttpPost httpPost = new HttpPost(String.format(UPLOAD_FILE_API_URL, baseApiUrl) + apiParameters);
-        httpPost.setEntity(multipartEntityBuilder.build());
+    /**
+     * Asks the API itself, bypassing the response cache, whose modification times may be older than the cached file.
+     * @return time the translation of the file was last modified if it was modified after the given time, otherwise null
+     */
+    private Date getLocaleLastModified(final GetFileParameterBuilder getFileParameterBuilder, final Date lastModifiedAfter) throws ApiException
+    {
+        final String fileUri = getFileParameterBuilder.getFileUri();
+        final String locale = getFileParameterBuilder.getLocale();
+        final FileLastModified fileLastModified = getIdempotentResponse(ApiOperation.GET_LAST_MODIFIED, () -> createLastModifiedRequest(fileUri, lastModifiedAfter, locale),
+                new TypeToken<ApiResponseWrapper<FileLastModified>>() {}, false).getData();
+        if (fileLastModified == null || fileLastModified.getItems() == null)
+            return null;
+
+        for (final FileLocaleLastModified item : fileLastModified.getItems())
+        {
+            if (getFileParameterBuilder.getLocale().equals(item.getLocale()))
+                return item.getLastModified();
+        }
+        return null;
+    }
 
-        return httpPost;
+    private static void moveReplacing(final Path source, final Path target) throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (final AtomicMoveNotSupportedException e)
+        {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
-    private String buildFileListParams(final FileListSearchParams fileListSearchParams)
+    private static void deleteQuietly(final Path path)
     {
-        final List<BasicNameValuePair> nameValuePairs = new ArrayList<>();
-        nameValuePairs.add(new BasicNameValuePair(LOCALE, fileListSearchParams.getLocale()));
-        nameValuePairs.add(new BasicNameValuePair(URI_MASK, fileListSearchParams.getUriMask()));
-        nameValuePairs.add(new BasicNameValuePair(LAST_UPLOADED_AFTER, DateFormatter.format(fileListSearchParams.getLastUploadedAfter())));
-        nameValuePairs.add(new BasicNameValuePair(LAST_UPLOADED_BEFORE, DateFormatter.format(fileListSearchParams.getLastUploadedBefore())));
-        nameValuePairs.add(new BasicNameValuePair(OFFSET, null == fileListSearchParams.getOffset() ? null : String.valueOf(fileListSearchParams.getOffset())));
-        nameValuePairs.add(new BasicNameValuePair(LIMIT, null == fileListSearchParams.getLimit() ? null : String.valueOf(fileListSearchParams.getLimit())));
-        nameValuePairs.addAll(getNameValuePairs(FILE_TYPES, fileListSearchParams.getFileTypes()));
-        nameValuePairs.addAll(getNameValuePairs(CONDITIONS, fileListSearchParams.getConditions()));
-        nameValuePairs.addAll(getNameValuePairs(ORDERBY, fileListSearchParams.getOrderBy()));
+        if (path == null)
+            return;
 
-        return buildParamsQuery(nameValuePairs.toArray(new NameValuePair[nameValuePairs.size()]));
+        try
+        {
+            Files.deleteIfExists(path);
+        }
+        catch (final IOException e)
+        {
+            logger.warn(String.format("Failed to delete temporary file %s: %s", path, e.getMessage()));
+        }
     }
 
-    private ContentType createContentType(final FileType fileType, final Charset charset)
+    private StringResponse getStringResponse(final ApiOperation operation, final HttpRequestBase httpRequest) throws ApiException
     {
-        return ContentType.create(fileType.getMimeType());
+        StringResponse stringResponse = getHttpUtils().executeHttpCall(httpRequest, proxyConfiguration, operation.getOperationClass());
+
+        if (stringResponse.isSuccess()) {
+            return stringResponse;
+        }
+
+        String contents = stringResponse.getContents();
+        logger.error(String.format("Non-successful response: \n contents: %s", contents));
+        throw newApiException(stringResponse);
     }
 
+    /**
+     * Streams a file to a channel. Bytes already written by a failed attempt are discarded before the next attempt
+     * if the channel is seekable; otherwise only attempts that failed before the body was written are repeated.
+     */
+    private class StreamingApiCall implements ApiCall<StreamResponse>
+    {
+        private final ApiOperation        operation;
+        private final HttpGet             getRequest;
+        private final WritableByteChannel channel;
+
+        private long startPosition = -1;
+
+        StreamingApiCall(final ApiOperation operation, final HttpGet getRequest, final WritableByteChannel channel)
+        {
+            this.operation = operation;
+            this.getRequest = getRequest;
+            this.channel = channel;
+        }
+
+        @Override
+        public StreamResponse call() throws ApiException
+        {
+            rewindChannel();
+
+            final StreamResponse streamResponse = getHttpUtils().executeHttpCall(getRequest, proxyConfiguration, operation.getOperationClass(), channel);
+            if (!streamResponse.isSuccess())
+            {
+                logger.error(String.format("Non-successful response: \n contents: %s", streamResponse.getErrorContents()));
+                throw newApiException(streamResponse.getErrorContents(), streamResponse.getHttpStatusCode(), streamResponse.getRetryAfterMillis());
+            }
+
+            return streamResponse;
+        }
+
+        @Override
+        public boolean isReplayable(final ApiException failure)
+        {
+            return channel instanceof SeekableByteChannel || failure.getHttpStatusCode() != 0;
+        }
+
+        private void rewindChannel() throws ApiException
+        {
+            if (!(channel instanceof SeekableByteChannel))
+                return;
+
+            try
+            {
+                final SeekableByteChannel seekableByteChannel = (SeekableByteChannel) channel;
+                if (startPosition < 0)
+                {
+                    startPosition = seekableByteChannel.position();
+                }
+                else
+                {
+                    seekableByteChannel.truncate(startPosition);
+                    seekableByteChannel.position(startPosition);
+                }
+            }
+            catch (final IOException e)
+            {
+                throw new ApiException(e);
+            }
+        }
+    }
 }
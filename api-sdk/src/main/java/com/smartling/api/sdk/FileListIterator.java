@@ -0,0 +1,224 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.concurrency.ExecutorFactory;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.UncheckedApiException;
+import com.smartling.api.sdk.file.FileListPaging;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks all pages of a file listing lazily, fetching up to {@link FileListPaging#getPagesInFlight()} pages ahead of the
+ * page being consumed. The first page is fetched on the first call to {@link #hasNext()}; the number of pages is taken
+ * from its {@code fileCount}.
+ * <p>
+ * Failed calls are thrown as {@link UncheckedApiException} and end the iteration. Close the iterator to cancel the pages
+ * still in flight if it is abandoned before the end; it closes itself once all pages are consumed. Not thread safe.
+ */
+public class FileListIterator implements Iterator<FileStatus>, Closeable
+{
+    private static final Log logger = LogFactory.getLog(FileListIterator.class);
+
+    private static final String THREAD_NAME_PREFIX = "smartling-file-list";
+
+    private final FileApiClientAdapter fileApiClientAdapter;
+    private final FileListSearchParams fileListSearchParams;
+    private final int                  pageSize;
+    private final int                  pagesInFlight;
+    private final int                  firstOffset;
+
+    private final Deque<Future<FileList>> pagesFetched = new ArrayDeque<>();
+
+    private ExecutorService executor;
+
+    private int pageCount = -1;
+    private int nextPage;
+
+    private Iterator<FileStatus> currentPage = Collections.<FileStatus>emptyList().iterator();
+    private boolean              closed;
+
+    FileListIterator(final FileApiClientAdapter fileApiClientAdapter, final FileListSearchParams fileListSearchParams, final FileListPaging fileListPaging)
+    {
+        this.fileApiClientAdapter = fileApiClientAdapter;
+        this.fileListSearchParams = fileListSearchParams;
+        this.pageSize = fileListPaging.getPageSize();
+        this.pagesInFlight = fileListPaging.getPagesInFlight();
+        this.firstOffset = fileListSearchParams.getOffset() != null ? fileListSearchParams.getOffset() : 0;
+    }
+
+    /**
+     * @throws UncheckedApiException if a page could not be fetched
+     */
+    @Override
+    public boolean hasNext()
+    {
+        while (!currentPage.hasNext())
+        {
+            if (closed)
+                return false;
+
+            final List<FileStatus> page = nextPage();
+            if (page == null || page.isEmpty())
+            {
+                close();
+                return false;
+            }
+            currentPage = page.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public FileStatus next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        return currentPage.next();
+    }
+
+    /**
+     * @return the remaining files as a sequential stream which closes this iterator when closed
+     */
+    public Stream<FileStatus> stream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    /**
+     * Cancels the pages still in flight and ends the iteration.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        currentPage = Collections.<FileStatus>emptyList().iterator();
+
+        for (final Future<FileList> page : pagesFetched)
+            page.cancel(true);
+        pagesFetched.clear();
+
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    /**
+     * @return files of the next page, or null if there are no more pages
+     */
+    private List<FileStatus> nextPage()
+    {
+        final FileList fileList;
+        if (pagesFetched.isEmpty())
+        {
+            if (pageCount >= 0 && nextPage >= pageCount)
+                return null;
+
+            fileList = fetchPage(nextPage++);
+        }
+        else
+        {
+            fileList = await(pagesFetched.poll());
+        }
+
+        if (pageCount < 0)
+            pageCount = (Math.max(0, fileList.getFileCount() - firstOffset) + pageSize - 1) / pageSize;
+
+        prefetchPages();
+
+        return fileList.getFileList();
+    }
+
+    private void prefetchPages()
+    {
+        final Deadline deadline = Deadline.current();
+        while (pagesFetched.size() < pagesInFlight && nextPage < pageCount)
+        {
+            if (executor == null)
+                executor = ExecutorFactory.newExecutor(ExecutionMode.PLATFORM_THREADS, THREAD_NAME_PREFIX, pagesInFlight);
+
+            final int page = nextPage++;
+            final ApiCall<FileList> fetch = () -> fetchPageOrFail(page);
+            pagesFetched.add(executor.submit(() -> deadline != null ? deadline.call(fetch) : fetch.call()));
+        }
+    }
+
+    private FileList fetchPage(final int page)
+    {
+        try
+        {
+            return fetchPageOrFail(page);
+        }
+        catch (final ApiException e)
+        {
+            close();
+            throw new UncheckedApiException(e);
+        }
+    }
+
+    private FileList fetchPageOrFail(final int page) throws ApiException
+    {
+        final FileListSearchParams pageSearchParams = new FileListSearchParams(fileListSearchParams);
+        pageSearchParams.setOffset(firstOffset + page * pageSize);
+        pageSearchParams.setLimit(pageSize);
+
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get files list page: page = %d, offset = %d, limit = %d", page, pageSearchParams.getOffset(), pageSize));
+        return fileApiClientAdapter.getFilesList(pageSearchParams).getData();
+    }
+
+    private FileList await(final Future<FileList> page)
+    {
+        try
+        {
+            return page.get();
+        }
+        catch (final ExecutionException e)
+        {
+            close();
+            if (e.getCause() instanceof ApiException)
+                throw new UncheckedApiException((ApiException)e.getCause());
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            close();
+            throw new UncheckedApiException(new ApiException(e));
+        }
+    }
+}
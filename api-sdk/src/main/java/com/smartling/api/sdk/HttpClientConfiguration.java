@@ -0,0 +1,162 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of the pooled http client shared by all calls of a client adapter.
+ */
+public class HttpClientConfiguration
+{
+    public static final int  DEFAULT_MAX_TOTAL_CONNECTIONS          = 20;
+    public static final int  DEFAULT_MAX_CONNECTIONS_PER_ROUTE      = 10;
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS              = 30000;
+    public static final long DEFAULT_IDLE_CONNECTION_TIMEOUT_MILLIS = 60000;
+    public static final long DEFAULT_EVICTION_INTERVAL_MILLIS       = 5000;
+
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS            = 10000;
+    public static final int DEFAULT_SOCKET_TIMEOUT_MILLIS             = 60000;
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS = 30000;
+    public static final int DEFAULT_UPLOAD_SOCKET_TIMEOUT_MILLIS      = 300000;
+
+    private int  maxTotalConnections         = DEFAULT_MAX_TOTAL_CONNECTIONS;
+    private int  maxConnectionsPerRoute      = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    private long keepAliveMillis             = DEFAULT_KEEP_ALIVE_MILLIS;
+    private long idleConnectionTimeoutMillis = DEFAULT_IDLE_CONNECTION_TIMEOUT_MILLIS;
+    private long evictionIntervalMillis      = DEFAULT_EVICTION_INTERVAL_MILLIS;
+
+    private RequestTimeouts                            defaultRequestTimeouts = new RequestTimeouts(
+            DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_SOCKET_TIMEOUT_MILLIS, DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS);
+    private final Map<OperationClass, RequestTimeouts> requestTimeouts        = new EnumMap<>(OperationClass.class);
+
+    public HttpClientConfiguration()
+    {
+        // uploads are processed by the API before it answers, so their responses take longer to start
+        requestTimeouts.put(OperationClass.UPLOAD, new RequestTimeouts(
+                DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_UPLOAD_SOCKET_TIMEOUT_MILLIS, DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Maximum number of connections kept open by the pool.
+     * @return max total connections
+     */
+    public int getMaxTotalConnections()
+    {
+        return maxTotalConnections;
+    }
+
+    public void setMaxTotalConnections(int maxTotalConnections)
+    {
+        this.maxTotalConnections = maxTotalConnections;
+    }
+
+    /**
+     * Maximum number of connections to a single host (the Smartling API or a proxy).
+     * @return max connections per route
+     */
+    public int getMaxConnectionsPerRoute()
+    {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute)
+    {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    /**
+     * How long a connection may be reused when the server does not send a {@code Keep-Alive} timeout.
+     * @return keep alive duration in milliseconds
+     */
+    public long getKeepAliveMillis()
+    {
+        return keepAliveMillis;
+    }
+
+    public void setKeepAliveMillis(long keepAliveMillis)
+    {
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    /**
+     * Connections idle for longer than this are closed by the background evictor.
+     * @return idle timeout in milliseconds
+     */
+    public long getIdleConnectionTimeoutMillis()
+    {
+        return idleConnectionTimeoutMillis;
+    }
+
+    public void setIdleConnectionTimeoutMillis(long idleConnectionTimeoutMillis)
+    {
+        this.idleConnectionTimeoutMillis = idleConnectionTimeoutMillis;
+    }
+
+    /**
+     * How often idle and expired connections are looked for.
+     * @return eviction interval in milliseconds
+     */
+    public long getEvictionIntervalMillis()
+    {
+        return evictionIntervalMillis;
+    }
+
+    public void setEvictionIntervalMillis(long evictionIntervalMillis)
+    {
+        this.evictionIntervalMillis = evictionIntervalMillis;
+    }
+
+    /**
+     * Timeouts of requests whose operation class has no timeouts of its own, and of requests made without an operation class.
+     * @return default request timeouts
+     */
+    public RequestTimeouts getDefaultRequestTimeouts()
+    {
+        return defaultRequestTimeouts;
+    }
+
+    public void setDefaultRequestTimeouts(RequestTimeouts defaultRequestTimeouts)
+    {
+        Validate.notNull(defaultRequestTimeouts, "defaultRequestTimeouts is required");
+        this.defaultRequestTimeouts = defaultRequestTimeouts;
+    }
+
+    /**
+     * @return timeouts of requests of the operation class, falling back to the default timeouts
+     */
+    public RequestTimeouts getRequestTimeouts(OperationClass operationClass)
+    {
+        final RequestTimeouts timeouts = operationClass == null ? null : requestTimeouts.get(operationClass);
+        return timeouts != null ? timeouts : defaultRequestTimeouts;
+    }
+
+    /**
+     * @param requestTimeouts timeouts of requests of the operation class, or {@code NULL} to use the default timeouts
+     */
+    public void setRequestTimeouts(OperationClass operationClass, RequestTimeouts requestTimeouts)
+    {
+        Validate.notNull(operationClass, "operationClass is required");
+
+        if (requestTimeouts == null)
+            this.requestTimeouts.remove(operationClass);
+        else
+            this.requestTimeouts.put(operationClass, requestTimeouts);
+    }
+}
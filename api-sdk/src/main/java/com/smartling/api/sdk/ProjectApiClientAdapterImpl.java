@@ -18,7 +18,6 @@ package com.smartling.api.sdk;
 import com.google.gson.reflect.TypeToken;
 import com.smartling.api.sdk.dto.ApiResponse;
 import com.smartling.api.sdk.dto.ApiResponseWrapper;
-import com.smartling.api.sdk.dto.file.StringResponse;
 import com.smartling.api.sdk.dto.project.ProjectLocaleList;
 import com.smartling.api.sdk.exceptions.ApiException;
 import org.apache.commons.logging.Log;
@@ -67,17 +66,16 @@ public class ProjectApiClientAdapterImpl extends BaseApiClientAdapter implements
     @Override
     public ApiResponse<ProjectLocaleList> getProjectLocales() throws ApiException
     {
-        logger.debug(String.format("Get project locales: projectId = %s, apiKey = %s",
-                this.projectId, maskApiKey(this.apiKey)
-        )
-        );
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get project locales: projectId = %s, apiKey = %s", this.projectId, maskApiKey(this.apiKey)));
 
-        String params = buildParamsQuery();
-        HttpGet getRequest = new HttpGet(buildUrl(GET_PROJECT_LOCALES_API_URL, params));
+        final String url = newQueryBuilder(GET_PROJECT_LOCALES_API_URL).build();
 
-        StringResponse response = getHttpUtils().executeHttpCall(getRequest, proxyConfiguration);
-        ApiResponse apiResponse = parseApiResponse(response.getContents(), new TypeToken<ApiResponseWrapper<ProjectLocaleList>>() {});
-        logger.debug(String.format("Get last modified: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
+        ApiResponse<ProjectLocaleList> apiResponse = getApiResponse(executeIdempotent(ApiOperation.GET_PROJECT_LOCALES,
+                () -> new HttpGet(url),
+                request -> getParsedResponse(ApiOperation.GET_PROJECT_LOCALES, request, new TypeToken<ApiResponseWrapper<ProjectLocaleList>>() {})));
+        if (logger.isDebugEnabled())
+            logger.debug(String.format("Get last modified: %s. %s", apiResponse.getCode(), getApiResponseMessages(apiResponse)));
 
         return apiResponse;
     }
@@ -15,6 +15,9 @@
  */
 package com.smartling.api.sdk;
 
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
 /**
  * Proxy configuration
  */
@@ -64,4 +67,23 @@ public class ProxyConfiguration
     {
         this.password = password;
     }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+            return true;
+        if (!(o instanceof ProxyConfiguration))
+            return false;
+
+        final ProxyConfiguration that = (ProxyConfiguration) o;
+        return new EqualsBuilder().append(host, that.host).append(port, that.port)
+                .append(username, that.username).append(password, that.password).isEquals();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return new HashCodeBuilder().append(host).append(port).append(username).append(password).toHashCode();
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Timeouts of a single http request, in milliseconds. A timeout of 0 means waiting indefinitely.
+ */
+public class RequestTimeouts
+{
+    private final int connectTimeoutMillis;
+    private final int socketTimeoutMillis;
+    private final int connectionRequestTimeoutMillis;
+
+    /**
+     * @param connectTimeoutMillis           time to establish a connection
+     * @param socketTimeoutMillis            longest inactivity between two packets of the response
+     * @param connectionRequestTimeoutMillis time to wait for a free connection of the pool
+     */
+    public RequestTimeouts(final int connectTimeoutMillis, final int socketTimeoutMillis, final int connectionRequestTimeoutMillis)
+    {
+        Validate.isTrue(connectTimeoutMillis >= 0, "connectTimeoutMillis must not be negative");
+        Validate.isTrue(socketTimeoutMillis >= 0, "socketTimeoutMillis must not be negative");
+        Validate.isTrue(connectionRequestTimeoutMillis >= 0, "connectionRequestTimeoutMillis must not be negative");
+
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.socketTimeoutMillis = socketTimeoutMillis;
+        this.connectionRequestTimeoutMillis = connectionRequestTimeoutMillis;
+    }
+
+    public int getConnectTimeoutMillis()
+    {
+        return connectTimeoutMillis;
+    }
+
+    public int getSocketTimeoutMillis()
+    {
+        return socketTimeoutMillis;
+    }
+
+    public int getConnectionRequestTimeoutMillis()
+    {
+        return connectionRequestTimeoutMillis;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("RequestTimeouts[connect=%d, socket=%d, connectionRequest=%d]", connectTimeoutMillis, socketTimeoutMillis, connectionRequestTimeoutMillis);
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.batch;
+
+import com.smartling.api.sdk.FileApiClientAdapter;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces concurrent {@link FileApiClientAdapter#getFileStatus(String, String)} calls for the same locale into a single
+ * {@link FileApiClientAdapter#getFilesList(FileListSearchParams)} query.
+ * <p>
+ * The first call for a locale opens a batch and, if other calls are in flight, waits up to {@link #getWindowMillis()} for calls
+ * to join it, or until {@link #getMaxBatchSize()} files are in the batch. It then lists the files whose uri starts with the longest
+ * prefix common to the batch and hands each caller the status of its file. The other callers just wait; no threads are started.
+ * A call made while no other call is in flight does not wait, so uncontended calls are not slowed down.
+ * <p>
+ * A file list query can only filter by a uri mask, so a call falls back to its own {@code getFileStatus} call when the uris of
+ * the batch do not share a directory below the root, when its file is not in the first {@link #getMaxListSize()} files listed, when it has no locale,
+ * or when the list query fails.
+ */
+public class FileStatusBatcher
+{
+    private static final Log logger = LogFactory.getLog(FileStatusBatcher.class);
+
+    public static final long DEFAULT_WINDOW_MILLIS  = 5;
+    public static final int  DEFAULT_MAX_BATCH_SIZE = 50;
+    public static final int  DEFAULT_MAX_LIST_SIZE  = 500;
+
+    private static final char[] URI_MASK_WILDCARDS = {'%', '_'};
+
+    private final FileApiClientAdapter fileApiClientAdapter;
+
+    private final ConcurrentMap<String, Batch> openBatches = new ConcurrentHashMap<>();
+
+    private final AtomicInteger activeCallCount = new AtomicInteger();
+
+    private final AtomicLong batchCount       = new AtomicLong();
+    private final AtomicLong batchedCallCount = new AtomicLong();
+    private final AtomicLong fallbackCount    = new AtomicLong();
+
+    private volatile long windowMillis = DEFAULT_WINDOW_MILLIS;
+    private volatile int  maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private volatile int  maxListSize  = DEFAULT_MAX_LIST_SIZE;
+
+    public FileStatusBatcher(final FileApiClientAdapter fileApiClientAdapter)
+    {
+        Validate.notNull(fileApiClientAdapter, "fileApiClientAdapter is required");
+        this.fileApiClientAdapter = fileApiClientAdapter;
+    }
+
+    public long getWindowMillis()
+    {
+        return windowMillis;
+    }
+
+    /**
+     * @param windowMillis time the first call of a batch waits for other calls to join it
+     */
+    public void setWindowMillis(final long windowMillis)
+    {
+        Validate.isTrue(windowMillis >= 0, "windowMillis must not be negative");
+        this.windowMillis = windowMillis;
+    }
+
+    public int getMaxBatchSize()
+    {
+        return maxBatchSize;
+    }
+
+    /**
+     * @param maxBatchSize number of distinct files after which a batch is sent without waiting for the rest of the window
+     */
+    public void setMaxBatchSize(final int maxBatchSize)
+    {
+        Validate.isTrue(maxBatchSize >= 1, "maxBatchSize must be at least 1");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxListSize()
+    {
+        return maxListSize;
+    }
+
+    /**
+     * @param maxListSize limit of the file list query of a batch
+     */
+    public void setMaxListSize(final int maxListSize)
+    {
+        Validate.isTrue(maxListSize >= 1, "maxListSize must be at least 1");
+        this.maxListSize = maxListSize;
+    }
+
+    /**
+     * @return number of file list queries sent for batches
+     */
+    public long getBatchCount()
+    {
+        return batchCount.get();
+    }
+
+    /**
+     * @return number of calls answered by the file list query of their batch
+     */
+    public long getBatchedCallCount()
+    {
+        return batchedCallCount.get();
+    }
+
+    /**
+     * @return number of calls that fell back to a call of their own
+     */
+    public long getFallbackCount()
+    {
+        return fallbackCount.get();
+    }
+
+    /**
+     * Gets the status of a file, see {@link FileApiClientAdapter#getFileStatus(String, String)}. The status is taken from a
+     * file list query, so fields the list does not return, such as the callback url, are not set.
+     */
+    public ApiResponse<FileStatus> getFileStatus(final String fileUri, final String locale) throws ApiException
+    {
+        activeCallCount.incrementAndGet();
+        try
+        {
+            return locale != null ? getBatchedFileStatus(fileUri, locale) : fallback(fileUri, locale);
+        }
+        finally
+        {
+            activeCallCount.decrementAndGet();
+        }
+    }
+
+    private ApiResponse<FileStatus> getBatchedFileStatus(final String fileUri, final String locale) throws ApiException
+    {
+        while (true)
+        {
+            Batch batch = openBatches.get(locale);
+            boolean leader = false;
+            if (batch == null)
+            {
+                final Batch newBatch = new Batch(locale);
+                batch = openBatches.putIfAbsent(locale, newBatch);
+                if (batch == null)
+                {
+                    batch = newBatch;
+                    leader = true;
+                }
+            }
+
+            final CompletableFuture<ApiResponse<FileStatus>> fileStatus = batch.join(fileUri);
+            if (fileStatus == null)
+            {
+                // the batch was closed after it was looked up
+                openBatches.remove(locale, batch);
+                continue;
+            }
+
+            if (leader)
+                batch.send();
+
+            final ApiResponse<FileStatus> apiResponse = await(fileStatus);
+            return apiResponse != null ? apiResponse : fallback(fileUri, locale);
+        }
+    }
+
+    private ApiResponse<FileStatus> fallback(final String fileUri, final String locale) throws ApiException
+    {
+        fallbackCount.incrementAndGet();
+        return fileApiClientAdapter.getFileStatus(fileUri, locale);
+    }
+
+    private static ApiResponse<FileStatus> await(final CompletableFuture<ApiResponse<FileStatus>> fileStatus) throws ApiException
+    {
+        try
+        {
+            return fileStatus.get();
+        }
+        catch (final ExecutionException e)
+        {
+            if (e.getCause() instanceof ApiException)
+                throw (ApiException)e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ApiException(e);
+        }
+    }
+
+    /**
+     * @return prefix common to the uris to list the files by, or null if it does not include a directory below the root,
+     *         which would list the first files of the whole project. The prefix ends before any wildcard of the uri mask,
+     *         {@code %} or {@code _}, so that it matches itself only.
+     */
+    private static String listPrefix(final List<String> fileUris)
+    {
+        final String commonPrefix = StringUtils.getCommonPrefix(fileUris.toArray(new String[fileUris.size()]));
+        final int wildcard = StringUtils.indexOfAny(commonPrefix, URI_MASK_WILDCARDS);
+        final String prefix = wildcard >= 0 ? commonPrefix.substring(0, wildcard) : commonPrefix;
+        return prefix.lastIndexOf('/') > 0 ? prefix : null;
+    }
+
+    /**
+     * The calls for one locale waiting to be sent together. Completing a call's future with null makes it fall back to a call of its own.
+     */
+    private class Batch
+    {
+        private final String locale;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition     full = lock.newCondition();
+
+        private final Map<String, CompletableFuture<ApiResponse<FileStatus>>> fileStatuses = new LinkedHashMap<>();
+
+        private boolean closed;
+
+        private Batch(final String locale)
+        {
+            this.locale = locale;
+        }
+
+        /**
+         * @return future of the status of the file, or null if the batch is already closed
+         */
+        private CompletableFuture<ApiResponse<FileStatus>> join(final String fileUri)
+        {
+            lock.lock();
+            try
+            {
+                if (closed)
+                    return null;
+
+                final CompletableFuture<ApiResponse<FileStatus>> fileStatus = fileStatuses.computeIfAbsent(fileUri, uri -> new CompletableFuture<>());
+                if (fileStatuses.size() >= maxBatchSize)
+                {
+                    close();
+                    full.signal();
+                }
+                return fileStatus;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits for the batch to fill up or the window to pass, unless no other call is in flight, then answers all calls of the batch.
+         */
+        private void send()
+        {
+            lock.lock();
+            try
+            {
+                long remainingNanos = activeCallCount.get() > 1 ? TimeUnit.MILLISECONDS.toNanos(windowMillis) : 0;
+                while (!closed && remainingNanos > 0)
+                    remainingNanos = full.awaitNanos(remainingNanos);
+                close();
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                close();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            try
+            {
+                answer();
+            }
+            catch (final ApiException | RuntimeException e)
+            {
+                // the list query only saves calls, and may fail where the calls of their own would not, e.g. when it is throttled
+                logger.warn(String.format("Failed to get file statuses in a batch, making the calls one by one: locale = %s, error = %s", locale, e));
+            }
+            finally
+            {
+                // calls not answered by the list fall back to their own call
+                for (final CompletableFuture<ApiResponse<FileStatus>> fileStatus : fileStatuses.values())
+                    fileStatus.complete(null);
+            }
+        }
+
+        private void close()
+        {
+            closed = true;
+            openBatches.remove(locale, this);
+        }
+
+        private void answer() throws ApiException
+        {
+            final List<String> fileUris = new ArrayList<>(fileStatuses.keySet());
+            final String prefix = listPrefix(fileUris);
+            if (fileUris.size() < 2 || prefix == null)
+                return;
+
+            final FileListSearchParams fileListSearchParams = new FileListSearchParams();
+            fileListSearchParams.setLocale(locale);
+            fileListSearchParams.setUriMask(prefix + "%");
+            fileListSearchParams.setOffset(0);
+            fileListSearchParams.setLimit(maxListSize);
+
+            if (logger.isDebugEnabled())
+                logger.debug(String.format("Get file statuses in a batch: files = %d, uriMask = %s, locale = %s", fileUris.size(), fileListSearchParams.getUriMask(), locale));
+            batchCount.incrementAndGet();
+            final ApiResponse<FileList> fileList = fileApiClientAdapter.getFilesList(fileListSearchParams);
+            if (fileList.getData() == null || fileList.getData().getFileList() == null)
+                return;
+
+            for (final FileStatus fileStatus : fileList.getData().getFileList())
+            {
+                final CompletableFuture<ApiResponse<FileStatus>> waiting = fileStatuses.get(fileStatus.getFileUri());
+                if (waiting != null && waiting.complete(new ApiResponse<>(fileStatus, fileList.getCode(), fileList.getMessages())))
+                    batchedCallCount.incrementAndGet();
+            }
+        }
+    }
+}
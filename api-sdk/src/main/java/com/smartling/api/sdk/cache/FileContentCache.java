@@ -0,0 +1,535 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.cache;
+
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persistent cache of file contents in a local directory, keyed by file uri, locale, retrieval type and whether original
+ * strings are included. Each entry keeps the raw bytes of the file and the time the translation was last modified on the
+ * server, which callers use to revalidate the entry before serving it.
+ * <p>
+ * Entries are written to temporary files and moved into place only when complete, bytes before metadata, so a crash never
+ * leaves a partial entry; incomplete entries are removed when the cache is opened again. The least recently used entries are
+ * evicted to keep the directory within its size limit. Cached bytes are sent with {@link FileChannel#transferTo}, which lets the
+ * operating system copy them without passing them through the Java heap.
+ * <p>
+ * A directory must be used by one cache at a time.
+ */
+public class FileContentCache
+{
+    private static final Log logger = LogFactory.getLog(FileContentCache.class);
+
+    public static final long DEFAULT_MAX_SIZE_BYTES = 512L * 1024 * 1024;
+
+    private static final String DATA_SUFFIX = ".data";
+    private static final String META_SUFFIX = ".meta";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String FILE_URI                 = "fileUri";
+    private static final String LOCALE                   = "locale";
+    private static final String RETRIEVAL_TYPE           = "retrievalType";
+    private static final String INCLUDE_ORIGINAL_STRINGS = "includeOriginalStrings";
+    private static final String LAST_MODIFIED            = "lastModified";
+    private static final String ENCODING                 = "encoding";
+    private static final String SIZE                     = "size";
+
+    private final Path directory;
+    private final long maxSizeBytes;
+
+    private final ReentrantLock                      lock    = new ReentrantLock();
+    private final LinkedHashMap<String, CachedFile> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long sizeBytes;
+
+    private final AtomicLong hitCount      = new AtomicLong();
+    private final AtomicLong missCount     = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Opens the cache in the directory, creating the directory if needed and loading the entries left by an earlier cache.
+     */
+    public FileContentCache(final Path directory) throws IOException
+    {
+        this(directory, DEFAULT_MAX_SIZE_BYTES);
+    }
+
+    public FileContentCache(final Path directory, final long maxSizeBytes) throws IOException
+    {
+        Validate.notNull(directory, "directory is required");
+        Validate.isTrue(maxSizeBytes > 0, "maxSizeBytes must be positive");
+
+        this.directory = Files.createDirectories(directory);
+        this.maxSizeBytes = maxSizeBytes;
+        load();
+    }
+
+    public Path getDirectory()
+    {
+        return directory;
+    }
+
+    public long getMaxSizeBytes()
+    {
+        return maxSizeBytes;
+    }
+
+    public long getSizeBytes()
+    {
+        lock.lock();
+        try
+        {
+            return sizeBytes;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public int getEntryCount()
+    {
+        lock.lock();
+        try
+        {
+            return entries.size();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictionCount.get();
+    }
+
+    /**
+     * Counts a cached file that was found to be up to date and served.
+     */
+    public void recordHit()
+    {
+        hitCount.incrementAndGet();
+    }
+
+    /**
+     * @return true if the file can be cached: only translations have a last modification time to revalidate against
+     */
+    public boolean isCacheable(final GetFileParameterBuilder getFileParameterBuilder)
+    {
+        return getFileParameterBuilder.getFileUri() != null && getFileParameterBuilder.getLocale() != null;
+    }
+
+    /**
+     * @return the cached file, which may be out of date, or null if it is not cached
+     */
+    public CachedFile get(final GetFileParameterBuilder getFileParameterBuilder)
+    {
+        final String name = nameOf(getFileParameterBuilder);
+        lock.lock();
+        try
+        {
+            final CachedFile cachedFile = entries.get(name);
+            if (cachedFile == null)
+                missCount.incrementAndGet();
+            return cachedFile;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends the cached bytes to the channel.
+     * @return number of bytes sent, or -1 if the entry is no longer cached, e.g. because it was evicted meanwhile
+     */
+    public long transferTo(final CachedFile cachedFile, final WritableByteChannel target) throws IOException
+    {
+        final FileChannel source;
+        try
+        {
+            source = FileChannel.open(cachedFile.dataFile, StandardOpenOption.READ);
+        }
+        catch (final NoSuchFileException e)
+        {
+            remove(cachedFile);
+            return -1;
+        }
+
+        try
+        {
+            final long size = source.size();
+            long position = 0;
+            while (position < size)
+                position += source.transferTo(position, size - position, target);
+
+            return position;
+        }
+        finally
+        {
+            source.close();
+        }
+    }
+
+    /**
+     * Starts writing a new version of the file. The version replaces the cached one once {@link Writer#commit(Date, String)} is called.
+     */
+    public Writer newWriter(final GetFileParameterBuilder getFileParameterBuilder) throws IOException
+    {
+        final String name = nameOf(getFileParameterBuilder);
+        final Path tempFile = Files.createTempFile(directory, name, TEMP_SUFFIX);
+        return new Writer(getFileParameterBuilder, name, tempFile);
+    }
+
+    public void remove(final CachedFile cachedFile)
+    {
+        lock.lock();
+        try
+        {
+            if (entries.get(cachedFile.name) == cachedFile)
+            {
+                entries.remove(cachedFile.name);
+                sizeBytes -= cachedFile.size;
+                delete(cachedFile);
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the entry and evicts the least recently used entries beyond the size limit. Must be called with the lock held,
+     * as files are only moved into place or deleted under the lock.
+     */
+    private void add(final CachedFile cachedFile)
+    {
+        final CachedFile replaced = entries.put(cachedFile.name, cachedFile);
+        if (replaced != null)
+            sizeBytes -= replaced.size;
+        sizeBytes += cachedFile.size;
+
+        while (sizeBytes > maxSizeBytes && entries.size() > 1)
+        {
+            final CachedFile eldest = entries.values().iterator().next();
+            entries.remove(eldest.name);
+            sizeBytes -= eldest.size;
+            delete(eldest);
+            evictionCount.incrementAndGet();
+            if (logger.isDebugEnabled())
+                logger.debug(String.format("Evicted cached file %s", eldest.name));
+        }
+    }
+
+    private void load() throws IOException
+    {
+        final List<CachedFile> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+        {
+            for (final Path file : files)
+            {
+                final String fileName = file.getFileName().toString();
+                if (fileName.endsWith(TEMP_SUFFIX))
+                {
+                    Files.deleteIfExists(file);
+                }
+                else if (fileName.endsWith(META_SUFFIX))
+                {
+                    final CachedFile cachedFile = readEntry(fileName.substring(0, fileName.length() - META_SUFFIX.length()));
+                    if (cachedFile != null)
+                        loaded.add(cachedFile);
+                }
+            }
+        }
+
+        // least recently written first, so that they are evicted first
+        loaded.sort(Comparator.comparingLong(cachedFile -> cachedFile.dataFile.toFile().lastModified()));
+        lock.lock();
+        try
+        {
+            for (final CachedFile cachedFile : loaded)
+                add(cachedFile);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        // data files whose metadata was never written
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + DATA_SUFFIX))
+        {
+            for (final Path file : files)
+            {
+                final String fileName = file.getFileName().toString();
+                if (!entries.containsKey(fileName.substring(0, fileName.length() - DATA_SUFFIX.length())))
+                    Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private CachedFile readEntry(final String name)
+    {
+        final Path metaFile = directory.resolve(name + META_SUFFIX);
+        final Path dataFile = directory.resolve(name + DATA_SUFFIX);
+        try (InputStream metaStream = Files.newInputStream(metaFile))
+        {
+            final Properties meta = new Properties();
+            meta.load(metaStream);
+
+            final long size = Long.parseLong(meta.getProperty(SIZE));
+            if (!Files.isRegularFile(dataFile) || Files.size(dataFile) != size)
+                throw new IOException("Data file is missing or incomplete");
+
+            return new CachedFile(name, dataFile, metaFile, new Date(Long.parseLong(meta.getProperty(LAST_MODIFIED))), meta.getProperty(ENCODING), size);
+        }
+        catch (final IOException | RuntimeException e)
+        {
+            logger.warn(String.format("Dropping unreadable cache entry %s: %s", name, e.getMessage()));
+            deleteQuietly(metaFile);
+            deleteQuietly(dataFile);
+            return null;
+        }
+    }
+
+    private static void delete(final CachedFile cachedFile)
+    {
+        deleteQuietly(cachedFile.metaFile);
+        deleteQuietly(cachedFile.dataFile);
+    }
+
+    private static void deleteQuietly(final Path path)
+    {
+        try
+        {
+            Files.deleteIfExists(path);
+        }
+        catch (final IOException e)
+        {
+            logger.warn(String.format("Failed to delete cache file %s: %s", path, e.getMessage()));
+        }
+    }
+
+    private static void moveAtomically(final Path source, final Path target) throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (final AtomicMoveNotSupportedException e)
+        {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String nameOf(final GetFileParameterBuilder getFileParameterBuilder)
+    {
+        final String key = getFileParameterBuilder.getFileUri() + '\0' + getFileParameterBuilder.getLocale() + '\0'
+                + getFileParameterBuilder.getRetrievalType() + '\0' + getFileParameterBuilder.getIncludeOriginalStrings();
+        try
+        {
+            final StringBuilder name = new StringBuilder(64);
+            for (final byte b : MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)))
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            return name.toString();
+        }
+        catch (final NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cached version of a file.
+     */
+    public static final class CachedFile
+    {
+        private final String name;
+        private final Path   dataFile;
+        private final Path   metaFile;
+        private final Date   lastModified;
+        private final String encoding;
+        private final long   size;
+
+        private CachedFile(final String name, final Path dataFile, final Path metaFile, final Date lastModified, final String encoding, final long size)
+        {
+            this.name = name;
+            this.dataFile = dataFile;
+            this.metaFile = metaFile;
+            this.lastModified = lastModified;
+            this.encoding = encoding;
+            this.size = size;
+        }
+
+        /**
+         * @return time the translation was last modified on the server when this version was downloaded
+         */
+        public Date getLastModified()
+        {
+            return new Date(lastModified.getTime());
+        }
+
+        public String getEncoding()
+        {
+            return encoding;
+        }
+
+        public long getSize()
+        {
+            return size;
+        }
+    }
+
+    /**
+     * Writes a new version of a file to a temporary file, which is only added to the cache when committed.
+     */
+    public final class Writer implements AutoCloseable
+    {
+        private final GetFileParameterBuilder getFileParameterBuilder;
+        private final String                  name;
+        private final Path                    tempFile;
+        private final FileChannel             channel;
+
+        private boolean committed;
+
+        private Writer(final GetFileParameterBuilder getFileParameterBuilder, final String name, final Path tempFile) throws IOException
+        {
+            this.getFileParameterBuilder = getFileParameterBuilder;
+            this.name = name;
+            this.tempFile = tempFile;
+            this.channel = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * @return channel to write the bytes of the file to
+         */
+        public FileChannel getChannel()
+        {
+            return channel;
+        }
+
+        /**
+         * Makes the written bytes durable and adds them to the cache, replacing the previous version.
+         * @param lastModified time the translation was last modified on the server, taken before the bytes were requested
+         */
+        public CachedFile commit(final Date lastModified, final String encoding) throws IOException
+        {
+            channel.force(true);
+            final long size = channel.size();
+            channel.close();
+
+            final Path dataFile = directory.resolve(name + DATA_SUFFIX);
+            final Path metaFile = directory.resolve(name + META_SUFFIX);
+
+            final Properties meta = new Properties();
+            meta.setProperty(FILE_URI, getFileParameterBuilder.getFileUri());
+            meta.setProperty(LOCALE, getFileParameterBuilder.getLocale());
+            meta.setProperty(RETRIEVAL_TYPE, String.valueOf(getFileParameterBuilder.getRetrievalType()));
+            meta.setProperty(INCLUDE_ORIGINAL_STRINGS, String.valueOf(getFileParameterBuilder.getIncludeOriginalStrings()));
+            meta.setProperty(LAST_MODIFIED, Long.toString(lastModified.getTime()));
+            meta.setProperty(ENCODING, encoding != null ? encoding : "");
+            meta.setProperty(SIZE, Long.toString(size));
+
+            final Path tempMetaFile = Files.createTempFile(directory, name, TEMP_SUFFIX);
+            try (FileChannel metaChannel = FileChannel.open(tempMetaFile, StandardOpenOption.WRITE))
+            {
+                final OutputStream metaStream = Channels.newOutputStream(metaChannel);
+                meta.store(metaStream, null);
+                metaStream.flush();
+                metaChannel.force(true);
+            }
+
+            final CachedFile cachedFile = new CachedFile(name, dataFile, metaFile, lastModified, encoding, size);
+            lock.lock();
+            try
+            {
+                // the old metadata goes first, so that a crash in between leaves a data file without metadata, which is dropped on load
+                Files.deleteIfExists(metaFile);
+                moveAtomically(tempFile, dataFile);
+                moveAtomically(tempMetaFile, metaFile);
+                committed = true;
+
+                add(cachedFile);
+            }
+            finally
+            {
+                lock.unlock();
+                deleteQuietly(tempMetaFile);
+            }
+            return cachedFile;
+        }
+
+        /**
+         * Discards the written bytes unless they were committed.
+         */
+        @Override
+        public void close()
+        {
+            if (committed)
+                return;
+
+            try
+            {
+                channel.close();
+            }
+            catch (final IOException e)
+            {
+                logger.warn(String.format("Failed to close cache file %s: %s", tempFile, e.getMessage()));
+            }
+            deleteQuietly(tempFile);
+        }
+    }
+}
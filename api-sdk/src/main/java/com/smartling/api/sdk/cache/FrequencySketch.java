@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.cache;
+
+/**
+ * Count-min sketch of 4-bit counters estimating how often keys were asked for recently. All counters are halved once
+ * the number of increments reaches ten times the number of counters, so old popularity fades. Not thread safe.
+ */
+final class FrequencySketch
+{
+    private static final int[] SEEDS       = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+    private static final int   MAX_COUNT   = 15;
+    private static final int   SAMPLE_RATE = 10;
+
+    private final byte[] counters;
+    private final int    mask;
+    private final int    sampleSize;
+
+    private int additions;
+
+    /**
+     * @param expectedEntries number of entries the cache is expected to hold
+     */
+    FrequencySketch(final int expectedEntries)
+    {
+        final int size = Integer.highestOneBit((int)Math.min(1 << 24, Math.max(64L, 4L * expectedEntries)));
+        this.counters = new byte[size];
+        this.mask = size - 1;
+        this.sampleSize = SAMPLE_RATE * size;
+    }
+
+    void increment(final Object key)
+    {
+        final int hash = spread(key.hashCode());
+        boolean added = false;
+        for (final int seed : SEEDS)
+        {
+            final int index = index(hash, seed);
+            if (counters[index] < MAX_COUNT)
+            {
+                counters[index]++;
+                added = true;
+            }
+        }
+
+        if (added && ++additions >= sampleSize)
+            reset();
+    }
+
+    int frequency(final Object key)
+    {
+        final int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (final int seed : SEEDS)
+            frequency = Math.min(frequency, counters[index(hash, seed)]);
+
+        return frequency;
+    }
+
+    private void reset()
+    {
+        for (int i = 0; i < counters.length; i++)
+            counters[i] >>>= 1;
+        additions /= 2;
+    }
+
+    private int index(final int hash, final int seed)
+    {
+        int h = (hash ^ seed) * seed;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+
+    private static int spread(final int hashCode)
+    {
+        final int h = hashCode * 0x45D9F3B;
+        return h ^ (h >>> 16);
+    }
+}
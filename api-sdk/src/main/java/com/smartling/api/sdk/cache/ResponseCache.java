@@ -0,0 +1,434 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.cache;
+
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.dto.file.ParsedResponse;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory cache of the responses of metadata calls, each kept for the time to live of its operation.
+ * <p>
+ * The cache is bounded by the total size of the responses it holds. When a new response does not fit, the least recently
+ * used responses make room for it, but only if the new response was asked for more often than each of them, as estimated
+ * by a {@link FrequencySketch} of recent lookups (TinyLFU admission). This keeps the often polled responses cached while
+ * one-off calls pass through.
+ * <p>
+ * Uploading, renaming or deleting a file through an adapter using the cache drops the cached responses about that file
+ * and all cached file lists. The cache can be shared by several adapters.
+ * <p>
+ * Expired responses can be kept for a while longer to answer calls in degraded mode while the API is unavailable,
+ * see {@link #setMaxStaleMillis(long)}.
+ */
+public class ResponseCache
+{
+    public static final long DEFAULT_MAX_WEIGHT_BYTES = 16 * 1024 * 1024;
+
+    public static final long DEFAULT_METADATA_TTL_MILLIS = 5000;
+    public static final long DEFAULT_LOCALES_TTL_MILLIS  = 60000;
+
+    private static final int AVERAGE_ENTRY_BYTES  = 1024;
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long maxWeightBytes;
+
+    private final Map<ApiOperation, Long> ttlNanos = new ConcurrentHashMap<>();
+
+    private final ReentrantLock                lock    = new ReentrantLock();
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch              sketch;
+
+    private volatile long maxStaleNanos;
+
+    private long weightBytes;
+    private long generation;
+
+    private final AtomicLong hitCount          = new AtomicLong();
+    private final AtomicLong missCount         = new AtomicLong();
+    private final AtomicLong evictionCount     = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public ResponseCache()
+    {
+        this(DEFAULT_MAX_WEIGHT_BYTES);
+    }
+
+    /**
+     * @param maxWeightBytes approximate number of bytes the cached responses may take up
+     */
+    public ResponseCache(final long maxWeightBytes)
+    {
+        Validate.isTrue(maxWeightBytes > 0, "maxWeightBytes must be positive");
+        this.maxWeightBytes = maxWeightBytes;
+        this.sketch = new FrequencySketch((int)Math.min(Integer.MAX_VALUE, maxWeightBytes / AVERAGE_ENTRY_BYTES));
+
+        setTtlMillis(ApiOperation.GET_FILE_STATUS, DEFAULT_METADATA_TTL_MILLIS);
+        setTtlMillis(ApiOperation.GET_FILES_LIST, DEFAULT_METADATA_TTL_MILLIS);
+        setTtlMillis(ApiOperation.GET_LAST_MODIFIED, DEFAULT_METADATA_TTL_MILLIS);
+        setTtlMillis(ApiOperation.GET_PROJECT_LOCALES, DEFAULT_LOCALES_TTL_MILLIS);
+    }
+
+    public long getMaxWeightBytes()
+    {
+        return maxWeightBytes;
+    }
+
+    /**
+     * @return time responses of the operation are kept, 0 if they are not cached
+     */
+    public long getTtlMillis(final ApiOperation operation)
+    {
+        final Long nanos = ttlNanos.get(operation);
+        return nanos != null ? TimeUnit.NANOSECONDS.toMillis(nanos) : 0;
+    }
+
+    /**
+     * @param ttlMillis time responses of the operation are kept, or 0 to not cache them. Only read operations may be cached.
+     */
+    public void setTtlMillis(final ApiOperation operation, final long ttlMillis)
+    {
+        Validate.isTrue(ttlMillis >= 0, "ttlMillis must not be negative");
+        Validate.isTrue(ttlMillis == 0 || isReadOperation(operation), "Only responses of read operations can be cached");
+
+        if (ttlMillis > 0)
+            ttlNanos.put(operation, TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+        else
+            ttlNanos.remove(operation);
+    }
+
+    public long getMaxStaleMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(maxStaleNanos);
+    }
+
+    /**
+     * @param maxStaleMillis time expired responses are kept to be served by {@link #getStale(Object)} while the API is unavailable,
+     *                       or 0 to drop them when they expire
+     */
+    public void setMaxStaleMillis(final long maxStaleMillis)
+    {
+        Validate.isTrue(maxStaleMillis >= 0, "maxStaleMillis must not be negative");
+        this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(maxStaleMillis);
+    }
+
+    public boolean isCached(final ApiOperation operation)
+    {
+        return ttlNanos.containsKey(operation);
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    /**
+     * @return number of responses dropped or not admitted to keep the cache within its size
+     */
+    public long getEvictionCount()
+    {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return number of responses dropped because their file was changed
+     */
+    public long getInvalidationCount()
+    {
+        return invalidationCount.get();
+    }
+
+    public int getSize()
+    {
+        lock.lock();
+        try
+        {
+            return entries.size();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public long getWeightBytes()
+    {
+        lock.lock();
+        try
+        {
+            return weightBytes;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the cached response, or null if there is none or it has expired
+     */
+    public Object get(final Object key)
+    {
+        lock.lock();
+        try
+        {
+            sketch.increment(key);
+
+            final Entry entry = entries.get(key);
+            final long nowNanos = System.nanoTime();
+            if (entry != null && entry.expiresAtNanos - nowNanos <= 0)
+            {
+                if (entry.expiresAtNanos + maxStaleNanos - nowNanos <= 0)
+                    remove(key);
+            }
+            else if (entry != null)
+            {
+                hitCount.incrementAndGet();
+                return entry.value;
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * @return the cached response even if it has expired, as long as it is within {@link #getMaxStaleMillis()} of expiring,
+     *         or null if there is none
+     */
+    public Object getStale(final Object key)
+    {
+        lock.lock();
+        try
+        {
+            final Entry entry = entries.get(key);
+            if (entry == null || entry.expiresAtNanos + maxStaleNanos - System.nanoTime() <= 0)
+                return null;
+
+            return entry.value;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return ticket to pass to {@link #put(Object, ApiOperation, String, Object, long)} for a response requested now
+     */
+    public long getGeneration()
+    {
+        lock.lock();
+        try
+        {
+            return generation;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches a response, unless a file was changed since it was requested, which might have made it stale.
+     *
+     * @param fileUri    file the response is about, or null if it is not about a single file
+     * @param generation {@link #getGeneration()} at the time the response was requested
+     */
+    public void put(final Object key, final ApiOperation operation, final String fileUri, final Object value, final long generation)
+    {
+        final Long ttl = ttlNanos.get(operation);
+        if (ttl == null)
+            return;
+
+        final long weight = weigh(value);
+        lock.lock();
+        try
+        {
+            if (generation != this.generation)
+                return;
+
+            if (entries.containsKey(key))
+                remove(key);
+
+            if (!makeRoom(key, weight))
+            {
+                evictionCount.incrementAndGet();
+                return;
+            }
+
+            entries.put(key, new Entry(operation, fileUri, value, weight, System.nanoTime() + ttl));
+            weightBytes += weight;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the cached responses about the files, and all cached file lists, which the changes may have affected.
+     */
+    public void invalidate(final String... fileUris)
+    {
+        invalidate(Arrays.asList(fileUris));
+    }
+
+    public void invalidate(final Collection<String> fileUris)
+    {
+        final Set<String> changedFileUris = new HashSet<>(fileUris);
+        lock.lock();
+        try
+        {
+            generation++;
+
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext())
+            {
+                final Entry entry = iterator.next();
+                if (entry.operation == ApiOperation.GET_FILES_LIST || entry.fileUri != null && changedFileUris.contains(entry.fileUri))
+                {
+                    iterator.remove();
+                    weightBytes -= entry.weight;
+                    invalidationCount.incrementAndGet();
+                }
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll()
+    {
+        lock.lock();
+        try
+        {
+            generation++;
+            invalidationCount.addAndGet(entries.size());
+            entries.clear();
+            weightBytes = 0;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evicts the least recently used responses until the new one fits, if it was asked for more often than each of them.
+     * Expired responses are dropped without comparison.
+     */
+    private boolean makeRoom(final Object key, final long weight)
+    {
+        if (weight > maxWeightBytes)
+            return false;
+
+        final int frequency = sketch.frequency(key);
+        final long nowNanos = System.nanoTime();
+        while (weightBytes + weight > maxWeightBytes)
+        {
+            final Map.Entry<Object, Entry> victim = entries.entrySet().iterator().next();
+            if (victim.getValue().expiresAtNanos - nowNanos > 0)
+            {
+                if (frequency <= sketch.frequency(victim.getKey()))
+                    return false;
+                evictionCount.incrementAndGet();
+            }
+            remove(victim.getKey());
+        }
+        return true;
+    }
+
+    private void remove(final Object key)
+    {
+        final Entry entry = entries.remove(key);
+        if (entry != null)
+            weightBytes -= entry.weight;
+    }
+
+    private static boolean isReadOperation(final ApiOperation operation)
+    {
+        switch (operation)
+        {
+            case GET_FILE:
+            case GET_FILES_LIST:
+            case GET_FILE_STATUS:
+            case GET_LAST_MODIFIED:
+            case GET_PROJECT_LOCALES:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static long weigh(final Object value)
+    {
+        // parsed objects take up about as much as the body decoded to a string
+        if (value instanceof ParsedResponse)
+            return ENTRY_OVERHEAD_BYTES + 2 * ((ParsedResponse<?>)value).getContentLength();
+
+        if (!(value instanceof StringResponse))
+            return ENTRY_OVERHEAD_BYTES;
+
+        // contents decoded on demand are kept with the response, so they are counted up front without decoding them here
+        final StringResponse response = (StringResponse)value;
+        if (response.getContentsRaw() != null)
+            return ENTRY_OVERHEAD_BYTES + 3L * response.getContentsRaw().length;
+
+        return ENTRY_OVERHEAD_BYTES + (response.getContents() != null ? 2L * response.getContents().length() : 0);
+    }
+
+    private static class Entry
+    {
+        private final ApiOperation operation;
+        private final String       fileUri;
+        private final Object       value;
+        private final long         weight;
+        private final long         expiresAtNanos;
+
+        Entry(final ApiOperation operation, final String fileUri, final Object value, final long weight, final long expiresAtNanos)
+        {
+            this.operation = operation;
+            this.fileUri = fileUri;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
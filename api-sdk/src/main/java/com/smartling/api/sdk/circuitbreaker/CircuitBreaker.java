@@ -0,0 +1,336 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.circuitbreaker;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.CircuitBreakerOpenException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker for the Smartling endpoint.
+ * <p>
+ * The breaker opens at once on {@link MaintenanceModeException}, and after {@link #getFailureThreshold()} consecutive
+ * I/O errors or 5xx responses. While open, calls fail immediately with {@link CircuitBreakerOpenException}. After
+ * {@link #getOpenDurationMillis()}, or the {@code Retry-After} of the maintenance response if that is longer, the breaker
+ * lets {@link #getHalfOpenTrialCalls()} trial calls through; it closes when they all succeed and opens again when one fails.
+ * <p>
+ * Any other response, including error responses such as validation errors, shows that the endpoint is up and counts as a success.
+ * Exceptions raised by the client itself, e.g. by a rate limiter, are not counted at all.
+ */
+public class CircuitBreaker
+{
+    private static final Log logger = LogFactory.getLog(CircuitBreaker.class);
+
+    public static final int  DEFAULT_FAILURE_THRESHOLD   = 5;
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30000;
+    public static final int  DEFAULT_HALF_OPEN_TRIAL_CALLS = 1;
+
+    private static final String OPEN_MESSAGE = "Circuit breaker is open, the Smartling API is considered unavailable for another %d ms";
+
+    private final List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** transitions made under the lock and not yet passed to the listeners, in the order they were made */
+    private final Queue<Transition> pendingTransitions = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean     notifying          = new AtomicBoolean();
+
+    private volatile int  failureThreshold   = DEFAULT_FAILURE_THRESHOLD;
+    private volatile long openDurationMillis = DEFAULT_OPEN_DURATION_MILLIS;
+    private volatile int  halfOpenTrialCalls = DEFAULT_HALF_OPEN_TRIAL_CALLS;
+
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private int  consecutiveFailures;
+    private long openUntilNanos;
+    private int  trialCallsStarted;
+    private int  trialCallsSucceeded;
+
+    public int getFailureThreshold()
+    {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(final int failureThreshold)
+    {
+        Validate.isTrue(failureThreshold >= 1, "failureThreshold must be at least 1");
+        this.failureThreshold = failureThreshold;
+    }
+
+    public long getOpenDurationMillis()
+    {
+        return openDurationMillis;
+    }
+
+    public void setOpenDurationMillis(final long openDurationMillis)
+    {
+        Validate.isTrue(openDurationMillis >= 0, "openDurationMillis must not be negative");
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    public int getHalfOpenTrialCalls()
+    {
+        return halfOpenTrialCalls;
+    }
+
+    public void setHalfOpenTrialCalls(final int halfOpenTrialCalls)
+    {
+        Validate.isTrue(halfOpenTrialCalls >= 1, "halfOpenTrialCalls must be at least 1");
+        this.halfOpenTrialCalls = halfOpenTrialCalls;
+    }
+
+    public void addListener(final CircuitBreakerListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    public void removeListener(final CircuitBreakerListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    public CircuitBreakerState getState()
+    {
+        lock.lock();
+        try
+        {
+            return state;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wraps a call so that it fails fast while the breaker is open and reports its outcome to the breaker.
+     */
+    public <T> ApiCall<T> protect(final ApiCall<T> apiCall)
+    {
+        return new ApiCall<T>()
+        {
+            @Override
+            public T call() throws ApiException
+            {
+                acquirePermission();
+                final T result;
+                try
+                {
+                    result = apiCall.call();
+                }
+                catch (final ApiException e)
+                {
+                    onFailure(e);
+                    throw e;
+                }
+                catch (final RuntimeException e)
+                {
+                    onIgnored();
+                    throw e;
+                }
+                onSuccess();
+                return result;
+            }
+
+            @Override
+            public boolean isReplayable(final ApiException failure)
+            {
+                return apiCall.isReplayable(failure);
+            }
+        };
+    }
+
+    /**
+     * @throws CircuitBreakerOpenException if the breaker is open, or half open with all trial calls under way
+     */
+    public void acquirePermission() throws CircuitBreakerOpenException
+    {
+        final long nowNanos = System.nanoTime();
+        lock.lock();
+        try
+        {
+            if (state == CircuitBreakerState.OPEN && nowNanos - openUntilNanos >= 0)
+                transition(CircuitBreakerState.HALF_OPEN, null);
+
+            if (state == CircuitBreakerState.CLOSED)
+                return;
+
+            if (state == CircuitBreakerState.HALF_OPEN && trialCallsStarted < halfOpenTrialCalls)
+            {
+                trialCallsStarted++;
+                return;
+            }
+
+            final long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(openUntilNanos - nowNanos));
+            final String message = String.format(OPEN_MESSAGE, remainingMillis);
+            final CircuitBreakerOpenException exception = new CircuitBreakerOpenException(message, Collections.singletonList(message));
+            exception.setRetryAfterMillis(remainingMillis);
+            throw exception;
+        }
+        finally
+        {
+            lock.unlock();
+            notifyListeners();
+        }
+    }
+
+    public void onSuccess()
+    {
+        lock.lock();
+        try
+        {
+            consecutiveFailures = 0;
+            if (state == CircuitBreakerState.HALF_OPEN && ++trialCallsSucceeded >= halfOpenTrialCalls)
+                transition(CircuitBreakerState.CLOSED, null);
+        }
+        finally
+        {
+            lock.unlock();
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Counts the failure of a call that got permission, if the failure says something about the health of the API.
+     */
+    public void onFailure(final ApiException e)
+    {
+        lock.lock();
+        try
+        {
+            if (e instanceof MaintenanceModeException)
+            {
+                open(e);
+            }
+            else if (isEndpointFailure(e))
+            {
+                if (state == CircuitBreakerState.HALF_OPEN || ++consecutiveFailures >= failureThreshold)
+                    open(e);
+            }
+            else if (e.getHttpStatusCode() != 0)
+            {
+                onSuccess();
+            }
+            else
+            {
+                onIgnored();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Gives back the permission of a call whose outcome says nothing about the health of the API.
+     */
+    public void onIgnored()
+    {
+        lock.lock();
+        try
+        {
+            if (state == CircuitBreakerState.HALF_OPEN && trialCallsStarted > trialCallsSucceeded)
+                trialCallsStarted--;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isEndpointFailure(final ApiException e)
+    {
+        return e.getCause() instanceof IOException || e.getHttpStatusCode() >= 500;
+    }
+
+    private void open(final ApiException cause)
+    {
+        final Long retryAfterMillis = cause.getRetryAfterMillis();
+        final long durationMillis = retryAfterMillis != null ? Math.max(openDurationMillis, retryAfterMillis) : openDurationMillis;
+
+        openUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        consecutiveFailures = 0;
+        if (state != CircuitBreakerState.OPEN)
+        {
+            logger.warn(String.format("Opening circuit breaker for %d ms: %s", durationMillis, cause.getMessage()));
+            transition(CircuitBreakerState.OPEN, cause);
+        }
+    }
+
+    private void transition(final CircuitBreakerState newState, final ApiException cause)
+    {
+        pendingTransitions.add(new Transition(state, newState, cause));
+        state = newState;
+        trialCallsStarted = 0;
+        trialCallsSucceeded = 0;
+    }
+
+    /**
+     * Passes the pending transitions to the listeners once the lock is released, so that slow listeners do not hold up the calls
+     * and listeners may call the breaker. One thread at a time passes them on, so every listener sees them in order.
+     */
+    private void notifyListeners()
+    {
+        if (lock.isHeldByCurrentThread())
+            return;
+
+        while (!pendingTransitions.isEmpty() && notifying.compareAndSet(false, true))
+        {
+            try
+            {
+                Transition transition;
+                while ((transition = pendingTransitions.poll()) != null)
+                {
+                    for (final CircuitBreakerListener listener : listeners)
+                        listener.onStateChange(transition.from, transition.to, transition.cause);
+                }
+            }
+            finally
+            {
+                notifying.set(false);
+            }
+        }
+    }
+
+    private static class Transition
+    {
+        private final CircuitBreakerState from;
+        private final CircuitBreakerState to;
+        private final ApiException        cause;
+
+        private Transition(final CircuitBreakerState from, final CircuitBreakerState to, final ApiException cause)
+        {
+            this.from = from;
+            this.to = to;
+            this.cause = cause;
+        }
+    }
+}
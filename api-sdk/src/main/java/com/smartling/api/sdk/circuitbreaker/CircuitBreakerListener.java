@@ -0,0 +1,33 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.circuitbreaker;
+
+import com.smartling.api.sdk.exceptions.ApiException;
+
+/**
+ * Receives state changes of a {@link CircuitBreaker}, e.g. to alert operators.
+ * Listeners are called on the thread of a call to the breaker, usually the one that caused the change, after the breaker is unlocked,
+ * so they may call the breaker. The changes are passed to the listeners one at a time, in the order they were made.
+ */
+public interface CircuitBreakerListener
+{
+    /**
+     * @param from previous state
+     * @param to new state
+     * @param cause failure that opened the breaker; null for other transitions
+     */
+    void onStateChange(CircuitBreakerState from, CircuitBreakerState to, ApiException cause);
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.circuitbreaker;
+
+public enum CircuitBreakerState
+{
+    /** Calls go through; failures are counted */
+    CLOSED,
+    /** Calls fail immediately with {@link com.smartling.api.sdk.exceptions.CircuitBreakerOpenException} */
+    OPEN,
+    /** A limited number of trial calls go through to probe whether the API has recovered */
+    HALF_OPEN
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.concurrency;
+
+import com.smartling.api.sdk.Deadline;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.ConcurrencyLimitExceededException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of requests in flight, adjusting the limit with additive increase / multiplicative decrease (AIMD).
+ * <p>
+ * A request counts as a sign of overload if it failed with an I/O error, was answered with 429 or 5xx, or its round trip
+ * took more than {@link #getLatencyTolerance()} times the shortest round trip seen recently. Each overloaded request
+ * multiplies the limit by {@link #getBackoffRatio()}; each other request that ran while at least half of the limit was in use
+ * raises it by {@code 1 / limit}, i.e. by about one per round trip of a busy window. Requests over the limit wait for a free slot or are rejected.
+ */
+public class ConcurrencyLimiter
+{
+    private static final Log logger = LogFactory.getLog(ConcurrencyLimiter.class);
+
+    public static final int    DEFAULT_INITIAL_LIMIT     = 10;
+    public static final int    DEFAULT_MIN_LIMIT         = 1;
+    public static final int    DEFAULT_MAX_LIMIT         = 200;
+    public static final double DEFAULT_BACKOFF_RATIO     = 0.5;
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+
+    private static final long MIN_LATENCY_INCREASE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final int  MIN_RTT_WINDOW_SIZE        = 250;
+
+    private final ReentrantLock lock          = new ReentrantLock();
+    private final Condition     slotAvailable = lock.newCondition();
+
+    private double limit;
+    private int    inFlight;
+
+    private long minRttNanos       = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int  windowSamples;
+
+    private volatile int     minLimit         = DEFAULT_MIN_LIMIT;
+    private volatile int     maxLimit         = DEFAULT_MAX_LIMIT;
+    private volatile double  backoffRatio     = DEFAULT_BACKOFF_RATIO;
+    private volatile double  latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+    private volatile boolean queueing         = true;
+    private volatile long    maxWaitMillis;
+
+    public ConcurrencyLimiter()
+    {
+        this(DEFAULT_INITIAL_LIMIT);
+    }
+
+    public ConcurrencyLimiter(final int initialLimit)
+    {
+        Validate.isTrue(initialLimit >= 1, "initialLimit must be at least 1");
+        this.limit = initialLimit;
+    }
+
+    public int getMinLimit()
+    {
+        return minLimit;
+    }
+
+    public void setMinLimit(final int minLimit)
+    {
+        Validate.isTrue(minLimit >= 1, "minLimit must be at least 1");
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit()
+    {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(final int maxLimit)
+    {
+        Validate.isTrue(maxLimit >= 1, "maxLimit must be at least 1");
+        this.maxLimit = maxLimit;
+    }
+
+    public double getBackoffRatio()
+    {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(final double backoffRatio)
+    {
+        Validate.isTrue(backoffRatio > 0 && backoffRatio < 1, "backoffRatio must be in (0, 1)");
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * @return how many times longer than the recent shortest round trip a round trip may take before it counts as overload;
+     * 0 if latency is not taken into account
+     */
+    public double getLatencyTolerance()
+    {
+        return latencyTolerance;
+    }
+
+    public void setLatencyTolerance(final double latencyTolerance)
+    {
+        Validate.isTrue(latencyTolerance == 0 || latencyTolerance > 1, "latencyTolerance must be 0 or greater than 1");
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    /**
+     * @return true if requests over the limit wait for a free slot, false if they are rejected with {@link ConcurrencyLimitExceededException}
+     */
+    public boolean isQueueing()
+    {
+        return queueing;
+    }
+
+    public void setQueueing(final boolean queueing)
+    {
+        this.queueing = queueing;
+    }
+
+    /**
+     * @return longest time a queued request waits for a slot before it is rejected; 0 to wait as long as it takes
+     */
+    public long getMaxWaitMillis()
+    {
+        return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(final long maxWaitMillis)
+    {
+        Validate.isTrue(maxWaitMillis >= 0, "maxWaitMillis must not be negative");
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * @return number of requests currently allowed in flight
+     */
+    public int getLimit()
+    {
+        lock.lock();
+        try
+        {
+            return currentLimit();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight()
+    {
+        lock.lock();
+        try
+        {
+            return inFlight;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a slot for a request, which must be given back with {@link #release(long, boolean)} or {@link #cancel()}.
+     * @throws ConcurrencyLimitExceededException if no slot is free and the request may not wait (any longer)
+     * @throws com.smartling.api.sdk.exceptions.DeadlineExceededException if the deadline of the current call passes while waiting
+     */
+    public void acquire() throws ApiException
+    {
+        final Deadline deadline = Deadline.current();
+
+        lock.lock();
+        try
+        {
+            final long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            final long start = System.nanoTime();
+            while (inFlight >= currentLimit())
+            {
+                final long waitedNanos = System.nanoTime() - start;
+                if (!queueing || (maxWaitNanos > 0 && waitedNanos >= maxWaitNanos))
+                    throw newConcurrencyLimitExceededException();
+                if (deadline != null && deadline.isExpired())
+                    throw deadline.newDeadlineExceededException();
+
+                long waitNanos = maxWaitNanos > 0 ? maxWaitNanos - waitedNanos : Long.MAX_VALUE;
+                if (deadline != null)
+                    waitNanos = Math.min(waitNanos, deadline.remainingNanos());
+
+                if (waitNanos == Long.MAX_VALUE)
+                    slotAvailable.await();
+                else
+                    slotAvailable.awaitNanos(waitNanos);
+            }
+            inFlight++;
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ApiException(e);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a slot and adjusts the limit.
+     * @param rttNanos time until the response arrived, or a negative value if no response arrived
+     * @param overloaded true if the response signals overload, e.g. a 5xx status
+     */
+    public void release(final long rttNanos, final boolean overloaded)
+    {
+        lock.lock();
+        try
+        {
+            final int concurrency = inFlight--;
+
+            if (overloaded || rttNanos < 0 || isLatencyOverloaded(rttNanos))
+            {
+                final int previousLimit = currentLimit();
+                limit = Math.max(minLimit, limit * backoffRatio);
+                if (logger.isDebugEnabled() && currentLimit() != previousLimit)
+                    logger.debug(String.format("Overload detected, lowering concurrency limit to %d", currentLimit()));
+            }
+            else if (concurrency * 2 >= limit)
+            {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+
+            slotAvailable.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back the slot of a request that was aborted by the client, which says nothing about the load of the server.
+     */
+    public void cancel()
+    {
+        lock.lock();
+        try
+        {
+            inFlight--;
+            slotAvailable.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private boolean isLatencyOverloaded(final long rttNanos)
+    {
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        if (++windowSamples >= MIN_RTT_WINDOW_SIZE || minRttNanos == Long.MAX_VALUE)
+        {
+            minRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+
+        return latencyTolerance > 0
+                && rttNanos > minRttNanos * latencyTolerance
+                && rttNanos - minRttNanos > MIN_LATENCY_INCREASE_NANOS;
+    }
+
+    private int currentLimit()
+    {
+        return (int)Math.min(maxLimit, Math.max(minLimit, limit));
+    }
+
+    private ConcurrencyLimitExceededException newConcurrencyLimitExceededException()
+    {
+        final String message = String.format("Concurrency limit of %d requests in flight reached", currentLimit());
+        return new ConcurrencyLimitExceededException(message, Collections.singletonList(message));
+    }
+}
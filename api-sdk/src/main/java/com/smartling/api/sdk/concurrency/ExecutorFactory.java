@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.concurrency;
+
+import com.smartling.api.sdk.ExecutionMode;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors blocking calls are fanned out on.
+ * The SDK is built for Java 11, so virtual threads are looked up reflectively and used only where the runtime has them.
+ */
+public final class ExecutorFactory
+{
+    private static final Log logger = LogFactory.getLog(ExecutorFactory.class);
+
+    private static final Method OF_VIRTUAL                   = findMethod(Thread.class, "ofVirtual");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private ExecutorFactory()
+    {
+    }
+
+    /**
+     * @return true if the runtime supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported()
+    {
+        return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * @param executionMode     kind of threads to run tasks on
+     * @param threadNamePrefix  prefix of the names of the threads
+     * @param platformPoolSize  number of threads of the platform thread pool, used in {@link ExecutionMode#PLATFORM_THREADS}
+     *                          mode and when virtual threads are not supported
+     * @return executor to shut down once it is no longer needed
+     */
+    public static ExecutorService newExecutor(final ExecutionMode executionMode, final String threadNamePrefix, final int platformPoolSize)
+    {
+        Validate.notNull(executionMode, "executionMode is required");
+        Validate.isTrue(platformPoolSize > 0, "platformPoolSize must be positive");
+
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS)
+        {
+            final ExecutorService executor = isVirtualThreadSupported() ? newVirtualThreadPerTaskExecutor(threadNamePrefix) : null;
+            if (executor != null)
+                return executor;
+
+            logger.warn(String.format("Virtual threads are not supported by Java %s, using %d platform threads instead",
+                    System.getProperty("java.version"), platformPoolSize));
+        }
+
+        return Executors.newFixedThreadPool(platformPoolSize, new DaemonThreadFactory(threadNamePrefix));
+    }
+
+    /**
+     * @return executor running delayed tasks one at a time on a daemon platform thread, to shut down once it is no longer needed
+     */
+    public static ScheduledExecutorService newScheduledExecutor(final String threadNamePrefix)
+    {
+        return Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(threadNamePrefix));
+    }
+
+    /**
+     * @return executor starting a virtual thread per task, or null if the runtime refuses to create one
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor(final String threadNamePrefix)
+    {
+        try
+        {
+            // Thread.ofVirtual().name(prefix, 0).factory()
+            final Object builder = OF_VIRTUAL.invoke(null);
+            final Class<?> builderClass = OF_VIRTUAL.getReturnType();
+            final Object namedBuilder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix + "-", 0L);
+            final ThreadFactory threadFactory = (ThreadFactory)builderClass.getMethod("factory").invoke(namedBuilder);
+
+            return (ExecutorService)NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        }
+        catch (final ReflectiveOperationException e)
+        {
+            // virtual threads are a preview feature on Java 19 and 20 and fail unless previews are enabled
+            logger.debug(String.format("Failed to create virtual thread executor: %s", e));
+            return null;
+        }
+    }
+
+    private static Method findMethod(final Class<?> type, final String name, final Class<?>... parameterTypes)
+    {
+        try
+        {
+            return type.getMethod(name, parameterTypes);
+        }
+        catch (final NoSuchMethodException e)
+        {
+            return null;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory
+    {
+        private final String        threadNamePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        private DaemonThreadFactory(final String threadNamePrefix)
+        {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable)
+        {
+            final Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.concurrency;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.Deadline;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.DeadlineExceededException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets identical calls made at the same time share one call. The first caller for a key makes the call; callers arriving
+ * with the same key while it is in flight wait for it and get the same result or exception. Once the call completes,
+ * the next caller for the key makes a new call, so results are never kept.
+ * <p>
+ * The results are shared by reference and must not be changed by the callers. A waiting caller gives up at its own
+ * {@link Deadline}, if it has one; the call it waits for goes on for the other callers. Failures that only concern the caller
+ * that made the call, its deadline passing or its thread being interrupted, are not shared: the waiting callers try again.
+ */
+public class SingleFlight
+{
+    /** returned by {@link #await(CompletableFuture)} when the call failed for reasons of its caller only */
+    private static final Object RETRY = new Object();
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong callCount   = new AtomicLong();
+    private final AtomicLong sharedCount = new AtomicLong();
+
+    /**
+     * @param key equal for calls that may share a result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final Object key, final ApiCall<T> apiCall) throws ApiException
+    {
+        while (true)
+        {
+            final CompletableFuture<Object> call = new CompletableFuture<>();
+            final CompletableFuture<Object> existingCall = inFlight.putIfAbsent(key, call);
+            if (existingCall == null)
+                return call(key, call, apiCall);
+
+            sharedCount.incrementAndGet();
+            final Object result = await(existingCall);
+            if (result != RETRY)
+                return (T)result;
+
+            sharedCount.decrementAndGet();
+        }
+    }
+
+    private <T> T call(final Object key, final CompletableFuture<Object> call, final ApiCall<T> apiCall) throws ApiException
+    {
+        callCount.incrementAndGet();
+        try
+        {
+            final T result = apiCall.call();
+            call.complete(result);
+            return result;
+        }
+        catch (final ApiException | RuntimeException | Error e)
+        {
+            call.completeExceptionally(e);
+            throw e;
+        }
+        finally
+        {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return number of calls made
+     */
+    public long getCallCount()
+    {
+        return callCount.get();
+    }
+
+    /**
+     * @return number of callers that got the result of a call made by another caller
+     */
+    public long getSharedCount()
+    {
+        return sharedCount.get();
+    }
+
+    private static Object await(final CompletableFuture<Object> call) throws ApiException
+    {
+        final Deadline deadline = Deadline.current();
+        try
+        {
+            return deadline != null ? call.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS) : call.get();
+        }
+        catch (final ExecutionException e)
+        {
+            if (isCallerFailure(e.getCause()))
+                return RETRY;
+            if (e.getCause() instanceof ApiException)
+                throw (ApiException)e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error)e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (final TimeoutException e)
+        {
+            throw deadline.newDeadlineExceededException();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ApiException(e);
+        }
+    }
+
+    private static boolean isCallerFailure(final Throwable failure)
+    {
+        return failure instanceof DeadlineExceededException || failure instanceof ApiException && failure.getCause() instanceof InterruptedException;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.degraded;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.concurrency.ExecutorFactory;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.CircuitBreakerOpenException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Degraded mode, in which read calls that fail because the Smartling API is unavailable are answered with the last
+ * successful response kept by the local caches: the {@code ResponseCache} for metadata and the {@code FileContentCache}
+ * for files. Such responses are marked as stale. The call is repeated in the background every
+ * {@link #getRevalidationIntervalMillis()} until the API answers it, which brings the cached response up to date.
+ * <p>
+ * The API counts as unavailable on {@link MaintenanceModeException}, {@link CircuitBreakerOpenException}, I/O errors and
+ * 5xx responses. Other failures, e.g. validation errors, are never answered from the caches.
+ * <p>
+ * The mode can be shared by several adapters and must be closed to stop the background revalidation.
+ */
+public class DegradedMode implements Closeable
+{
+    private static final Log logger = LogFactory.getLog(DegradedMode.class);
+
+    public static final long DEFAULT_REVALIDATION_INTERVAL_MILLIS = 30000;
+    public static final int  DEFAULT_MAX_PENDING_REVALIDATIONS    = 1000;
+
+    private final ConcurrentMap<Object, ApiCall<?>> pendingRevalidations  = new ConcurrentHashMap<>();
+    private final AtomicBoolean                     revalidationScheduled = new AtomicBoolean();
+
+    private final ScheduledExecutorService scheduler = ExecutorFactory.newScheduledExecutor("smartling-revalidation");
+
+    private volatile long revalidationIntervalMillis = DEFAULT_REVALIDATION_INTERVAL_MILLIS;
+    private volatile int  maxPendingRevalidations    = DEFAULT_MAX_PENDING_REVALIDATIONS;
+
+    private final AtomicLong staleResponseCount      = new AtomicLong();
+    private final AtomicLong revalidationCount       = new AtomicLong();
+    private final AtomicLong failedRevalidationCount = new AtomicLong();
+
+    public long getRevalidationIntervalMillis()
+    {
+        return revalidationIntervalMillis;
+    }
+
+    public void setRevalidationIntervalMillis(final long revalidationIntervalMillis)
+    {
+        Validate.isTrue(revalidationIntervalMillis > 0, "revalidationIntervalMillis must be positive");
+        this.revalidationIntervalMillis = revalidationIntervalMillis;
+    }
+
+    public int getMaxPendingRevalidations()
+    {
+        return maxPendingRevalidations;
+    }
+
+    /**
+     * @param maxPendingRevalidations number of stale responses revalidated in the background at most; further ones are served
+     *                                stale but brought up to date only by a later successful call
+     */
+    public void setMaxPendingRevalidations(final int maxPendingRevalidations)
+    {
+        Validate.isTrue(maxPendingRevalidations >= 0, "maxPendingRevalidations must not be negative");
+        this.maxPendingRevalidations = maxPendingRevalidations;
+    }
+
+    /**
+     * @return true if the failure shows that the API is unavailable, so that the call may be answered from a cache
+     */
+    public boolean isAvailabilityFailure(final ApiException e)
+    {
+        return e instanceof MaintenanceModeException || e instanceof CircuitBreakerOpenException
+                || e.getCause() instanceof IOException || e.getHttpStatusCode() >= 500;
+    }
+
+    /**
+     * Counts a stale response served in place of a failed call and schedules the call to be repeated in the background.
+     *
+     * @param key          identifies the call, so that a call failing repeatedly is revalidated once
+     * @param revalidation repeats the call and caches its response
+     */
+    public void onStaleResponse(final Object key, final ApiCall<?> revalidation)
+    {
+        staleResponseCount.incrementAndGet();
+        if (pendingRevalidations.size() >= maxPendingRevalidations)
+            return;
+
+        pendingRevalidations.putIfAbsent(key, revalidation);
+        scheduleRevalidation();
+    }
+
+    public long getStaleResponseCount()
+    {
+        return staleResponseCount.get();
+    }
+
+    /**
+     * @return number of stale responses brought up to date in the background
+     */
+    public long getRevalidationCount()
+    {
+        return revalidationCount.get();
+    }
+
+    /**
+     * @return number of background revalidations given up because the API rejected the call
+     */
+    public long getFailedRevalidationCount()
+    {
+        return failedRevalidationCount.get();
+    }
+
+    public int getPendingRevalidationCount()
+    {
+        return pendingRevalidations.size();
+    }
+
+    @Override
+    public void close()
+    {
+        scheduler.shutdownNow();
+        pendingRevalidations.clear();
+    }
+
+    private void scheduleRevalidation()
+    {
+        if (!revalidationScheduled.compareAndSet(false, true))
+            return;
+
+        try
+        {
+            scheduler.schedule(this::revalidate, revalidationIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (final RejectedExecutionException e)
+        {
+            logger.debug("Degraded mode is closed, stale responses are not revalidated");
+        }
+    }
+
+    private void revalidate()
+    {
+        for (final Map.Entry<Object, ApiCall<?>> pendingRevalidation : pendingRevalidations.entrySet())
+        {
+            try
+            {
+                pendingRevalidation.getValue().call();
+                pendingRevalidations.remove(pendingRevalidation.getKey(), pendingRevalidation.getValue());
+                revalidationCount.incrementAndGet();
+            }
+            catch (final ApiException e)
+            {
+                if (isAvailabilityFailure(e))
+                {
+                    // the API is still unavailable, the remaining calls would fail the same way
+                    logger.debug(String.format("Smartling API still unavailable, %d stale responses left to revalidate: %s",
+                            pendingRevalidations.size(), e.getMessage()));
+                    break;
+                }
+
+                logger.warn(String.format("Failed to revalidate stale response %s: %s", pendingRevalidation.getKey(), e.getMessage()));
+                pendingRevalidations.remove(pendingRevalidation.getKey(), pendingRevalidation.getValue());
+                failedRevalidationCount.incrementAndGet();
+            }
+            catch (final RuntimeException e)
+            {
+                logger.warn(String.format("Failed to revalidate stale response %s", pendingRevalidation.getKey()), e);
+                pendingRevalidations.remove(pendingRevalidation.getKey(), pendingRevalidation.getValue());
+                failedRevalidationCount.incrementAndGet();
+            }
+        }
+
+        revalidationScheduled.set(false);
+        if (!pendingRevalidations.isEmpty())
+            scheduleRevalidation();
+    }
+}
@@ -15,9 +15,15 @@
  */
 package com.smartling.api.sdk.dto;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.smartling.api.sdk.util.JsonUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import java.io.IOException;
 import java.util.List;
 
 // TODO(AShesterov): refactor API-SDK: rename ApiResponse to SmartlingApiResponse
@@ -35,6 +41,19 @@ public class ApiResponse<T extends Data>
     private String       code;
     private List<String> messages;
 
+    private transient boolean stale;
+
+    public ApiResponse()
+    {
+    }
+
+    public ApiResponse(final T data, final String code, final List<String> messages)
+    {
+        this.data = data;
+        this.code = code;
+        this.messages = messages;
+    }
+
     /**
      * The data returned from the response from the Smartling Translation API.
      * The data varies by api call.
@@ -64,9 +83,84 @@ public class ApiResponse<T extends Data>
         return messages;
     }
 
+    /**
+     * @return true if the response was served from a cache in degraded mode because the API was unavailable
+     */
+    public boolean isStale()
+    {
+        return stale;
+    }
+
+    public void setStale(final boolean stale)
+    {
+        this.stale = stale;
+    }
+
     @Override
     public String toString()
     {
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("data", getData()).append("code", getCode()).append("messages", messages).toString();
     }
+
+    /**
+     * Reads and writes {@link ApiResponse} without reflection, with the same JSON as Gson does by reflection.
+     */
+    static final class JsonAdapter<T extends Data> extends TypeAdapter<ApiResponse<T>>
+    {
+        private final TypeAdapter<T> dataAdapter;
+
+        JsonAdapter(final TypeAdapter<T> dataAdapter)
+        {
+            this.dataAdapter = dataAdapter;
+        }
+
+        @Override
+        public ApiResponse<T> read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            final ApiResponse<T> apiResponse = new ApiResponse<>();
+            reader.beginObject();
+            while (reader.hasNext())
+            {
+                switch (reader.nextName())
+                {
+                    case "data":
+                        apiResponse.data = dataAdapter.read(reader);
+                        break;
+                    case "code":
+                        apiResponse.code = JsonUtils.readString(reader);
+                        break;
+                    case "messages":
+                        apiResponse.messages = JsonUtils.readStringList(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return apiResponse;
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final ApiResponse<T> apiResponse) throws IOException
+        {
+            if (apiResponse == null)
+            {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            JsonUtils.writeValue(writer, "data", apiResponse.data, dataAdapter);
+            JsonUtils.writeString(writer, "code", apiResponse.code);
+            JsonUtils.writeStringList(writer, "messages", apiResponse.messages);
+            writer.endObject();
+        }
+    }
 }
@@ -15,9 +15,16 @@
  */
 package com.smartling.api.sdk.dto;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.smartling.api.sdk.util.JsonUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import java.io.IOException;
+
 /**
  * Simple class for wrapping the {@link ApiResponse}.
  *
@@ -42,4 +49,54 @@ public class ApiResponseWrapper<T extends Data>
     {
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("response", getResponse()).toString();
     }
+
+    /**
+     * Reads and writes {@link ApiResponseWrapper} without reflection, with the same JSON as Gson does by reflection.
+     */
+    static final class JsonAdapter<T extends Data> extends TypeAdapter<ApiResponseWrapper<T>>
+    {
+        private final TypeAdapter<ApiResponse<T>> responseAdapter;
+
+        JsonAdapter(final TypeAdapter<ApiResponse<T>> responseAdapter)
+        {
+            this.responseAdapter = responseAdapter;
+        }
+
+        @Override
+        public ApiResponseWrapper<T> read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            final ApiResponseWrapper<T> apiResponseWrapper = new ApiResponseWrapper<>();
+            reader.beginObject();
+            while (reader.hasNext())
+            {
+                if ("response".equals(reader.nextName()))
+                    apiResponseWrapper.response = responseAdapter.read(reader);
+                else
+                    reader.skipValue();
+            }
+            reader.endObject();
+
+            return apiResponseWrapper;
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final ApiResponseWrapper<T> apiResponseWrapper) throws IOException
+        {
+            if (apiResponseWrapper == null)
+            {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            JsonUtils.writeValue(writer, "response", apiResponseWrapper.response, responseAdapter);
+            writer.endObject();
+        }
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.dto;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.smartling.api.sdk.dto.file.FileTypeAdapterFactory;
+import com.smartling.api.sdk.dto.project.ProjectTypeAdapterFactory;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Creates the adapters reading and writing the API objects without reflection, so that parsing a response does not look
+ * up and set fields reflectively. The adapters read and write the same JSON as Gson does by reflection.
+ * <p>
+ * A response type must be fully parameterized, e.g. {@code ApiResponseWrapper<FileList>}; raw response types are left
+ * to Gson.
+ */
+public class DtoTypeAdapterFactory implements TypeAdapterFactory
+{
+    private final TypeAdapterFactory[] factories = {new FileTypeAdapterFactory(), new ProjectTypeAdapterFactory()};
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type)
+    {
+        final Class<? super T> rawType = type.getRawType();
+        if (rawType == EmptyResponse.class)
+            return (TypeAdapter<T>)new EmptyResponse.JsonAdapter();
+
+        if (rawType == ApiResponseWrapper.class || rawType == ApiResponse.class)
+        {
+            final Type dataType = getTypeArgument(type.getType());
+            if (dataType == null)
+                return null;
+
+            final ApiResponse.JsonAdapter responseAdapter = new ApiResponse.JsonAdapter(gson.getAdapter(TypeToken.get(dataType)));
+            return (TypeAdapter<T>)(rawType == ApiResponse.class ? responseAdapter : new ApiResponseWrapper.JsonAdapter(responseAdapter));
+        }
+
+        for (final TypeAdapterFactory factory : factories)
+        {
+            final TypeAdapter<T> adapter = factory.create(gson, type);
+            if (adapter != null)
+                return adapter;
+        }
+
+        return null;
+    }
+
+    private static Type getTypeArgument(final Type type)
+    {
+        if (!(type instanceof ParameterizedType))
+            return null;
+
+        final Type typeArgument = ((ParameterizedType)type).getActualTypeArguments()[0];
+        return typeArgument instanceof Class || typeArgument instanceof ParameterizedType ? typeArgument : null;
+    }
+}
@@ -15,6 +15,40 @@
  */
 package com.smartling.api.sdk.dto;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
 public class EmptyResponse implements Data
 {
+    /**
+     * Reads and writes {@link EmptyResponse} without reflection, ignoring any fields.
+     */
+    static final class JsonAdapter extends TypeAdapter<EmptyResponse>
+    {
+        @Override
+        public EmptyResponse read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            reader.skipValue();
+            return new EmptyResponse();
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final EmptyResponse emptyResponse) throws IOException
+        {
+            if (emptyResponse == null)
+                writer.nullValue();
+            else
+                writer.beginObject().endObject();
+        }
+    }
 }
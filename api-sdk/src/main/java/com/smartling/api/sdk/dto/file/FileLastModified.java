@@ -15,12 +15,18 @@
  */
 package com.smartling.api.sdk.dto.file;
 
-import java.util.List;
-
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.smartling.api.sdk.dto.Data;
+import com.smartling.api.sdk.util.JsonUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * Contains information about when a file was last modified
  */
@@ -45,4 +51,58 @@ public class FileLastModified implements Data
                 .append("items", getItems())
                 .toString();
     }
+
+    /**
+     * Reads and writes {@link FileLastModified} without reflection, with the same JSON as Gson does by reflection.
+     */
+    static final class JsonAdapter extends TypeAdapter<FileLastModified>
+    {
+        private final TypeAdapter<FileLocaleLastModified> itemAdapter;
+
+        JsonAdapter(final TypeAdapter<FileLocaleLastModified> itemAdapter)
+        {
+            this.itemAdapter = itemAdapter;
+        }
+
+        @Override
+        public FileLastModified read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            final FileLastModified fileLastModified = new FileLastModified();
+            reader.beginObject();
+            while (reader.hasNext())
+            {
+                switch (reader.nextName())
+                {
+                    case "items":
+                        fileLastModified.items = JsonUtils.readList(reader, itemAdapter);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return fileLastModified;
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final FileLastModified fileLastModified) throws IOException
+        {
+            if (fileLastModified == null)
+            {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            JsonUtils.writeList(writer, "items", fileLastModified.items, itemAdapter);
+            writer.endObject();
+        }
+    }
 }
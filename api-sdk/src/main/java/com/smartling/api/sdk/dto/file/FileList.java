@@ -15,12 +15,18 @@
  */
 package com.smartling.api.sdk.dto.file;
 
-import java.util.List;
-
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.smartling.api.sdk.dto.Data;
+import com.smartling.api.sdk.util.JsonUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * The data expected back in the response to a FileList query of the Smartling Translation API.
  */
@@ -54,4 +60,62 @@ public class FileList implements Data
     {
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("fileCount", getFileCount()).append("fileList", getFileList()).toString();
     }
+
+    /**
+     * Reads and writes {@link FileList} without reflection, with the same JSON as Gson does by reflection.
+     */
+    static final class JsonAdapter extends TypeAdapter<FileList>
+    {
+        private final TypeAdapter<FileStatus> fileStatusAdapter;
+
+        JsonAdapter(final TypeAdapter<FileStatus> fileStatusAdapter)
+        {
+            this.fileStatusAdapter = fileStatusAdapter;
+        }
+
+        @Override
+        public FileList read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            final FileList fileList = new FileList();
+            reader.beginObject();
+            while (reader.hasNext())
+            {
+                switch (reader.nextName())
+                {
+                    case "fileCount":
+                        fileList.fileCount = JsonUtils.readInt(reader);
+                        break;
+                    case "fileList":
+                        fileList.fileList = JsonUtils.readList(reader, fileStatusAdapter);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return fileList;
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final FileList fileList) throws IOException
+        {
+            if (fileList == null)
+            {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("fileCount").value(fileList.fileCount);
+            JsonUtils.writeList(writer, "fileList", fileList.fileList, fileStatusAdapter);
+            writer.endObject();
+        }
+    }
 }
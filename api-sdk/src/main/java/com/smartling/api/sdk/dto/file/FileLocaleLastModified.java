@@ -15,12 +15,18 @@
  */
 package com.smartling.api.sdk.dto.file;
 
-import java.util.Date;
-
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.smartling.api.sdk.dto.Data;
+import com.smartling.api.sdk.util.JsonUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import java.io.IOException;
+import java.util.Date;
+
 /**
  * Contains information about when a file was last modified for a particular locale
  */
@@ -57,4 +63,62 @@ public class FileLocaleLastModified implements Data
                 .append("lastModified", getLastModified())
                 .toString();
     }
+
+    /**
+     * Reads and writes {@link FileLocaleLastModified} without reflection, with the same JSON as Gson does by reflection.
+     */
+    static final class JsonAdapter extends TypeAdapter<FileLocaleLastModified>
+    {
+        private final TypeAdapter<Date> dateAdapter;
+
+        JsonAdapter(final TypeAdapter<Date> dateAdapter)
+        {
+            this.dateAdapter = dateAdapter;
+        }
+
+        @Override
+        public FileLocaleLastModified read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            final FileLocaleLastModified fileLocaleLastModified = new FileLocaleLastModified();
+            reader.beginObject();
+            while (reader.hasNext())
+            {
+                switch (reader.nextName())
+                {
+                    case "locale":
+                        fileLocaleLastModified.locale = JsonUtils.readString(reader);
+                        break;
+                    case "lastModified":
+                        fileLocaleLastModified.lastModified = dateAdapter.read(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return fileLocaleLastModified;
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final FileLocaleLastModified fileLocaleLastModified) throws IOException
+        {
+            if (fileLocaleLastModified == null)
+            {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            JsonUtils.writeString(writer, "locale", fileLocaleLastModified.locale);
+            JsonUtils.writeValue(writer, "lastModified", fileLocaleLastModified.lastModified, dateAdapter);
+            writer.endObject();
+        }
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.dto.file;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.Date;
+
+/**
+ * Creates the adapters reading and writing the file API objects without reflection.
+ */
+public class FileTypeAdapterFactory implements TypeAdapterFactory
+{
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type)
+    {
+        final Class<? super T> rawType = type.getRawType();
+        if (rawType == FileStatus.class)
+            return (TypeAdapter<T>)new FileStatus.JsonAdapter();
+        if (rawType == FileList.class)
+            return (TypeAdapter<T>)new FileList.JsonAdapter(gson.getAdapter(FileStatus.class));
+        if (rawType == UploadFileData.class)
+            return (TypeAdapter<T>)new UploadFileData.JsonAdapter();
+        if (rawType == FileLocaleLastModified.class)
+            return (TypeAdapter<T>)new FileLocaleLastModified.JsonAdapter(gson.getAdapter(Date.class));
+        if (rawType == FileLastModified.class)
+            return (TypeAdapter<T>)new FileLastModified.JsonAdapter(gson.getAdapter(FileLocaleLastModified.class));
+
+        return null;
+    }
+}
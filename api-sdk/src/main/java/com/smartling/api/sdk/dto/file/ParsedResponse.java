@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.dto.file;
+
+/**
+ * Response whose body was parsed while it was read from the connection, without keeping the body in memory.
+ */
+public class ParsedResponse<T>
+{
+    private final T       value;
+    private final boolean success;
+    private final long    contentLength;
+    private final String  errorContents;
+    private final int     httpStatusCode;
+    private final Long    retryAfterMillis;
+    private final boolean stale;
+
+    public ParsedResponse(final T value, final boolean success, final long contentLength, final String errorContents,
+                          final int httpStatusCode, final Long retryAfterMillis)
+    {
+        this(value, success, contentLength, errorContents, httpStatusCode, retryAfterMillis, false);
+    }
+
+    public ParsedResponse(final T value, final boolean success, final long contentLength, final String errorContents,
+                          final int httpStatusCode, final Long retryAfterMillis, final boolean stale)
+    {
+        this.value = value;
+        this.success = success;
+        this.contentLength = contentLength;
+        this.errorContents = errorContents;
+        this.httpStatusCode = httpStatusCode;
+        this.retryAfterMillis = retryAfterMillis;
+        this.stale = stale;
+    }
+
+    /**
+     * @return parsed body of a successful response; null for non-successful responses
+     */
+    public T getValue()
+    {
+        return value;
+    }
+
+    public boolean isSuccess()
+    {
+        return success;
+    }
+
+    /**
+     * @return number of bytes of the body that were parsed
+     */
+    public long getContentLength()
+    {
+        return contentLength;
+    }
+
+    /**
+     * @return body of a non-successful response, which is never parsed; null for successful responses
+     */
+    public String getErrorContents()
+    {
+        return errorContents;
+    }
+
+    public int getHttpStatusCode()
+    {
+        return httpStatusCode;
+    }
+
+    /**
+     * @return delay requested by the {@code Retry-After} header, or null if the header was absent
+     */
+    public Long getRetryAfterMillis()
+    {
+        return retryAfterMillis;
+    }
+
+    /**
+     * @return true if the response was served from a cache in degraded mode because the API was unavailable
+     */
+    public boolean isStale()
+    {
+        return stale;
+    }
+
+    /**
+     * @return copy of this response marked as stale
+     */
+    public ParsedResponse<T> toStale()
+    {
+        return new ParsedResponse<>(value, success, contentLength, errorContents, httpStatusCode, retryAfterMillis, true);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.dto.file;
+
+/**
+ * Metadata of a response whose contents were streamed to a caller supplied sink instead of being kept in memory.
+ */
+public class StreamResponse
+{
+    private final String  encoding;
+    private final boolean success;
+    private final long    contentLength;
+    private final String  errorContents;
+    private final int     httpStatusCode;
+    private final Long    retryAfterMillis;
+    private final boolean stale;
+
+    public StreamResponse(final String encoding, final boolean success, final long contentLength, final String errorContents)
+    {
+        this(encoding, success, contentLength, errorContents, success ? 200 : 0, null);
+    }
+
+    public StreamResponse(final String encoding, final boolean success, final long contentLength, final String errorContents,
+                          final int httpStatusCode, final Long retryAfterMillis)
+    {
+        this(encoding, success, contentLength, errorContents, httpStatusCode, retryAfterMillis, false);
+    }
+
+    public StreamResponse(final String encoding, final boolean success, final long contentLength, final String errorContents,
+                          final int httpStatusCode, final Long retryAfterMillis, final boolean stale)
+    {
+        this.encoding = encoding;
+        this.success = success;
+        this.contentLength = contentLength;
+        this.errorContents = errorContents;
+        this.httpStatusCode = httpStatusCode;
+        this.retryAfterMillis = retryAfterMillis;
+        this.stale = stale;
+    }
+
+    public String getEncoding()
+    {
+        return encoding;
+    }
+
+    public boolean isSuccess()
+    {
+        return success;
+    }
+
+    /**
+     * @return number of bytes written to the sink
+     */
+    public long getContentLength()
+    {
+        return contentLength;
+    }
+
+    /**
+     * @return body of a non-successful response, which is never written to the sink; null for successful responses
+     */
+    public String getErrorContents()
+    {
+        return errorContents;
+    }
+
+    public int getHttpStatusCode()
+    {
+        return httpStatusCode;
+    }
+
+    /**
+     * @return delay requested by the {@code Retry-After} header, or null if the header was absent
+     */
+    public Long getRetryAfterMillis()
+    {
+        return retryAfterMillis;
+    }
+
+    /**
+     * @return true if the file was served from the file content cache in degraded mode because the API was unavailable
+     */
+    public boolean isStale()
+    {
+        return stale;
+    }
+}
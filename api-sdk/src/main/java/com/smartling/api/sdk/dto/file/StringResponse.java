@@ -15,27 +15,77 @@
  */
 package com.smartling.api.sdk.dto.file;
 
+import java.nio.charset.Charset;
+
 /**
  * Internal class used in storing the string content of the response along with the encoding.
+ * The contents are decoded from the raw bytes on first use of {@link #getContents()}, unless they are given decoded,
+ * so that a response only ever used as bytes is never held twice.
  */
 public class StringResponse
 {
-    private final String contents;
+    private volatile String contents;
     private final byte[] contentsRaw;
     private final String encoding;
+    private final Charset charset;
     private final boolean success;
+    private final int httpStatusCode;
+    private final Long retryAfterMillis;
+    private final boolean stale;
 
     public StringResponse(final String contents, final byte[] contentsRaw, final String encoding, final boolean success)
+    {
+        this(contents, contentsRaw, encoding, success, success ? 200 : 0, null);
+    }
+
+    public StringResponse(final String contents, final byte[] contentsRaw, final String encoding, final boolean success,
+                          final int httpStatusCode, final Long retryAfterMillis)
+    {
+        this(contents, contentsRaw, encoding, success, httpStatusCode, retryAfterMillis, false);
+    }
+
+    public StringResponse(final String contents, final byte[] contentsRaw, final String encoding, final boolean success,
+                          final int httpStatusCode, final Long retryAfterMillis, final boolean stale)
+    {
+        this(contents, contentsRaw, encoding, null, success, httpStatusCode, retryAfterMillis, stale);
+    }
+
+    /**
+     * @param contentsRaw contents decoded with the charset on first use of {@link #getContents()}
+     */
+    public StringResponse(final byte[] contentsRaw, final Charset charset, final boolean success, final int httpStatusCode,
+                          final Long retryAfterMillis, final boolean stale)
+    {
+        this(null, contentsRaw, charset.name(), charset, success, httpStatusCode, retryAfterMillis, stale);
+    }
+
+    private StringResponse(final String contents, final byte[] contentsRaw, final String encoding, final Charset charset, final boolean success,
+                           final int httpStatusCode, final Long retryAfterMillis, final boolean stale)
     {
         this.contents = contents;
         this.contentsRaw = contentsRaw;
         this.encoding = encoding;
+        this.charset = charset;
         this.success = success;
+        this.httpStatusCode = httpStatusCode;
+        this.retryAfterMillis = retryAfterMillis;
+        this.stale = stale;
     }
 
+    /**
+     * @return the contents, decoded with the charset on the first call and kept if they were not given decoded
+     */
     public String getContents()
     {
-        return contents;
+        String decodedContents = contents;
+        if (decodedContents == null && contentsRaw != null && charset != null)
+        {
+            // callers racing here decode equal strings, and any of them may be kept
+            decodedContents = new String(contentsRaw, charset);
+            contents = decodedContents;
+        }
+
+        return decodedContents;
     }
 
     public byte[] getContentsRaw()
@@ -48,8 +98,45 @@ public class StringResponse
         return encoding;
     }
 
+    /**
+     * @return charset the raw contents are decoded with, or null if the contents were given decoded
+     */
+    public Charset getCharset()
+    {
+        return charset;
+    }
+
     public boolean isSuccess()
     {
         return success;
     }
+
+    public int getHttpStatusCode()
+    {
+        return httpStatusCode;
+    }
+
+    /**
+     * @return delay requested by the {@code Retry-After} header, or null if the header was absent
+     */
+    public Long getRetryAfterMillis()
+    {
+        return retryAfterMillis;
+    }
+
+    /**
+     * @return true if the response was served from a cache in degraded mode because the API was unavailable
+     */
+    public boolean isStale()
+    {
+        return stale;
+    }
+
+    /**
+     * @return copy of this response marked as stale
+     */
+    public StringResponse toStale()
+    {
+        return new StringResponse(contents, contentsRaw, encoding, charset, success, httpStatusCode, retryAfterMillis, true);
+    }
 }
@@ -15,10 +15,17 @@
  */
 package com.smartling.api.sdk.dto.file;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.smartling.api.sdk.dto.Data;
+import com.smartling.api.sdk.util.JsonUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import java.io.IOException;
+
 /**
  * The data returned from uploading a file to the Smartling Translation API.
  */
@@ -68,4 +75,59 @@ public class UploadFileData implements Data
                 .append("overWritten", isOverWritten())
                 .toString();
     }
+
+    /**
+     * Reads and writes {@link UploadFileData} without reflection, with the same JSON as Gson does by reflection.
+     */
+    static final class JsonAdapter extends TypeAdapter<UploadFileData>
+    {
+        @Override
+        public UploadFileData read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            final UploadFileData uploadFileData = new UploadFileData();
+            reader.beginObject();
+            while (reader.hasNext())
+            {
+                switch (reader.nextName())
+                {
+                    case "stringCount":
+                        uploadFileData.stringCount = JsonUtils.readInt(reader);
+                        break;
+                    case "wordCount":
+                        uploadFileData.wordCount = JsonUtils.readInt(reader);
+                        break;
+                    case "overWritten":
+                        uploadFileData.overWritten = JsonUtils.readBoolean(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return uploadFileData;
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final UploadFileData uploadFileData) throws IOException
+        {
+            if (uploadFileData == null)
+            {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("stringCount").value(uploadFileData.stringCount);
+            writer.name("wordCount").value(uploadFileData.wordCount);
+            writer.name("overWritten").value(uploadFileData.overWritten);
+            writer.endObject();
+        }
+    }
 }
@@ -15,7 +15,14 @@
  */
 package com.smartling.api.sdk.dto.project;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.smartling.api.sdk.dto.Data;
+import com.smartling.api.sdk.util.JsonUtils;
+
+import java.io.IOException;
 
 /**
  * Contains information about project locale
@@ -55,4 +62,59 @@ public class ProjectLocale implements Data
     {
         this.translated = translated;
     }
+
+    /**
+     * Reads and writes {@link ProjectLocale} without reflection, with the same JSON as Gson does by reflection.
+     */
+    static final class JsonAdapter extends TypeAdapter<ProjectLocale>
+    {
+        @Override
+        public ProjectLocale read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            final ProjectLocale projectLocale = new ProjectLocale();
+            reader.beginObject();
+            while (reader.hasNext())
+            {
+                switch (reader.nextName())
+                {
+                    case "locale":
+                        projectLocale.locale = JsonUtils.readString(reader);
+                        break;
+                    case "name":
+                        projectLocale.name = JsonUtils.readString(reader);
+                        break;
+                    case "translated":
+                        projectLocale.translated = JsonUtils.readString(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return projectLocale;
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final ProjectLocale projectLocale) throws IOException
+        {
+            if (projectLocale == null)
+            {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            JsonUtils.writeString(writer, "locale", projectLocale.locale);
+            JsonUtils.writeString(writer, "name", projectLocale.name);
+            JsonUtils.writeString(writer, "translated", projectLocale.translated);
+            writer.endObject();
+        }
+    }
 }
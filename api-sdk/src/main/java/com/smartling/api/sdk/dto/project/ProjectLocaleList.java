@@ -15,8 +15,14 @@
  */
 package com.smartling.api.sdk.dto.project;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.smartling.api.sdk.dto.Data;
+import com.smartling.api.sdk.util.JsonUtils;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -35,4 +41,58 @@ public class ProjectLocaleList implements Data
     {
         this.locales = locales;
     }
+
+    /**
+     * Reads and writes {@link ProjectLocaleList} without reflection, with the same JSON as Gson does by reflection.
+     */
+    static final class JsonAdapter extends TypeAdapter<ProjectLocaleList>
+    {
+        private final TypeAdapter<ProjectLocale> localeAdapter;
+
+        JsonAdapter(final TypeAdapter<ProjectLocale> localeAdapter)
+        {
+            this.localeAdapter = localeAdapter;
+        }
+
+        @Override
+        public ProjectLocaleList read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            final ProjectLocaleList projectLocaleList = new ProjectLocaleList();
+            reader.beginObject();
+            while (reader.hasNext())
+            {
+                switch (reader.nextName())
+                {
+                    case "locales":
+                        projectLocaleList.locales = JsonUtils.readList(reader, localeAdapter);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return projectLocaleList;
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final ProjectLocaleList projectLocaleList) throws IOException
+        {
+            if (projectLocaleList == null)
+            {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            JsonUtils.writeList(writer, "locales", projectLocaleList.locales, localeAdapter);
+            writer.endObject();
+        }
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.dto.project;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Creates the adapters reading and writing the project API objects without reflection.
+ */
+public class ProjectTypeAdapterFactory implements TypeAdapterFactory
+{
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type)
+    {
+        final Class<? super T> rawType = type.getRawType();
+        if (rawType == ProjectLocale.class)
+            return (TypeAdapter<T>)new ProjectLocale.JsonAdapter();
+        if (rawType == ProjectLocaleList.class)
+            return (TypeAdapter<T>)new ProjectLocaleList.JsonAdapter(gson.getAdapter(ProjectLocale.class));
+
+        return null;
+    }
+}
@@ -29,6 +29,9 @@ public class ApiException extends Exception
 
     private List<String> messages = new ArrayList<>();
 
+    private int  httpStatusCode;
+    private Long retryAfterMillis;
+
     public ApiException(final String contents, List<String> messages)
     {
         super(contents);
@@ -45,4 +48,30 @@ public class ApiException extends Exception
     {
         return messages;
     }
+
+    /**
+     * @return status code of the http response the exception was created from, or 0 if no response was received
+     */
+    public int getHttpStatusCode()
+    {
+        return httpStatusCode;
+    }
+
+    public void setHttpStatusCode(final int httpStatusCode)
+    {
+        this.httpStatusCode = httpStatusCode;
+    }
+
+    /**
+     * @return delay requested by the {@code Retry-After} header of the response, or null if the header was absent
+     */
+    public Long getRetryAfterMillis()
+    {
+        return retryAfterMillis;
+    }
+
+    public void setRetryAfterMillis(final Long retryAfterMillis)
+    {
+        this.retryAfterMillis = retryAfterMillis;
+    }
 }
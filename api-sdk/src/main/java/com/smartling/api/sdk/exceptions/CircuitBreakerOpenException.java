@@ -0,0 +1,14 @@
+package com.smartling.api.sdk.exceptions;
+
+import java.util.List;
+
+/**
+ * Thrown without calling the API while the circuit breaker is open, i.e. while the API is considered unavailable.
+ */
+public class CircuitBreakerOpenException extends ApiException
+{
+    public CircuitBreakerOpenException(final String contents, final List<String> messages)
+    {
+        super(contents, messages);
+    }
+}
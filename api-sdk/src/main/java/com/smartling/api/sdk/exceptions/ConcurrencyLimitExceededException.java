@@ -0,0 +1,14 @@
+package com.smartling.api.sdk.exceptions;
+
+import java.util.List;
+
+/**
+ * Thrown without calling the API when the client side limit of requests in flight is reached and the request may not wait.
+ */
+public class ConcurrencyLimitExceededException extends ApiException
+{
+    public ConcurrencyLimitExceededException(final String contents, final List<String> messages)
+    {
+        super(contents, messages);
+    }
+}
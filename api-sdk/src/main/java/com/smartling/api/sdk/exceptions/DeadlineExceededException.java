@@ -0,0 +1,14 @@
+package com.smartling.api.sdk.exceptions;
+
+import java.util.List;
+
+/**
+ * Thrown when the deadline of a call passes before the call completes, e.g. while waiting for a retry, a permit or a response.
+ */
+public class DeadlineExceededException extends ApiException
+{
+    public DeadlineExceededException(final String contents, final List<String> messages)
+    {
+        super(contents, messages);
+    }
+}
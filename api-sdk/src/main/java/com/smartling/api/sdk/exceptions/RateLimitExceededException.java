@@ -0,0 +1,14 @@
+package com.smartling.api.sdk.exceptions;
+
+import java.util.List;
+
+/**
+ * Thrown without calling the API when the client side rate limit of an operation is used up.
+ */
+public class RateLimitExceededException extends ApiException
+{
+    public RateLimitExceededException(final String contents, final List<String> messages)
+    {
+        super(contents, messages);
+    }
+}
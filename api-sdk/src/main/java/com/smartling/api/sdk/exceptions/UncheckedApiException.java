@@ -0,0 +1,19 @@
+package com.smartling.api.sdk.exceptions;
+
+/**
+ * Wraps an {@link ApiException} thrown where checked exceptions cannot be, e.g. inside an {@link java.util.Iterator} or a
+ * {@link java.util.stream.Stream}.
+ */
+public class UncheckedApiException extends RuntimeException
+{
+    public UncheckedApiException(final ApiException cause)
+    {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public ApiException getCause()
+    {
+        return (ApiException)super.getCause();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.file;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Controls how a file listing is walked page by page, see {@code FileApiClientAdapter#listFiles}.
+ * <p>
+ * At most {@link #getPagesInFlight()} pages are fetched ahead of the page being consumed, so no more than
+ * {@code pagesInFlight + 1} pages are held in memory at any time. With a single page in flight the next page is
+ * prefetched while the current one is consumed; with more, the pages are fetched in parallel once the first page
+ * has told how many files there are.
+ */
+public class FileListPaging
+{
+    public static final int DEFAULT_PAGE_SIZE       = 100;
+    public static final int DEFAULT_PAGES_IN_FLIGHT = 1;
+
+    private int pageSize      = DEFAULT_PAGE_SIZE;
+    private int pagesInFlight = DEFAULT_PAGES_IN_FLIGHT;
+
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize)
+    {
+        Validate.isTrue(pageSize >= 1, "pageSize must be at least 1");
+        this.pageSize = pageSize;
+    }
+
+    public int getPagesInFlight()
+    {
+        return pagesInFlight;
+    }
+
+    /**
+     * @param pagesInFlight number of pages fetched ahead of the page being consumed, or 0 to fetch each page only when it is needed
+     */
+    public void setPagesInFlight(int pagesInFlight)
+    {
+        Validate.isTrue(pagesInFlight >= 0, "pagesInFlight must not be negative");
+        this.pagesInFlight = pagesInFlight;
+    }
+}
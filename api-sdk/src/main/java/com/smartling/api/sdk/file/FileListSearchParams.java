@@ -33,6 +33,26 @@ public class FileListSearchParams
     private List<String> conditions;
     private List<String> orderBy;
 
+    public FileListSearchParams()
+    {
+    }
+
+    /**
+     * Creates a copy of the given search parameters; the lists are shared.
+     */
+    public FileListSearchParams(FileListSearchParams other)
+    {
+        this.locale = other.locale;
+        this.uriMask = other.uriMask;
+        this.fileTypes = other.fileTypes;
+        this.lastUploadedAfter = other.lastUploadedAfter;
+        this.lastUploadedBefore = other.lastUploadedBefore;
+        this.offset = other.offset;
+        this.limit = other.limit;
+        this.conditions = other.conditions;
+        this.orderBy = other.orderBy;
+    }
+
     public String getLocale()
     {
         return locale;
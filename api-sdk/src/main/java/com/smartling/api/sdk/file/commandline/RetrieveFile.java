@@ -18,10 +18,9 @@ package com.smartling.api.sdk.file.commandline;
 import com.smartling.api.sdk.FileApiClientAdapterImpl;
 import com.smartling.api.sdk.FileApiClientAdapter;
 import com.smartling.api.sdk.exceptions.ApiException;
-import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
 import java.io.File;
 import java.io.IOException;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.logging.Log;
@@ -66,10 +65,10 @@ public class RetrieveFile
 
         File file = new File(retrieveFileParams.getPathToFile());
         FileApiClientAdapter smartlingFAPI = new FileApiClientAdapterImpl(retrieveFileParams.isProductionMode(), retrieveFileParams.getApiKey(), retrieveFileParams.getProjectId());
-        StringResponse response = smartlingFAPI.getFile(file.getName(), retrieveFileParams.getLocale(), null);
+        GetFileParameterBuilder getFileParameterBuilder = new GetFileParameterBuilder().fileUri(file.getName()).locale(retrieveFileParams.getLocale());
 
         File translatedFile = new File(getTranslatedFilePath(file, retrieveFileParams.getLocale(), retrieveFileParams.getPathToStoreFile()));
-        FileUtils.writeStringToFile(translatedFile, response.getContents(), response.getEncoding());
+        smartlingFAPI.downloadFile(getFileParameterBuilder, translatedFile.toPath());
         return translatedFile;
     }
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.flow;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.Deadline;
+import com.smartling.api.sdk.exceptions.ApiException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base of the subscriptions of the publishers in this package. Signals to the subscriber are only sent from
+ * {@link #drain()}, which runs one pass of {@link #drainLoop()} at a time and again whenever something changed during a pass,
+ * so the subscriber is never called concurrently. Blocking calls run on the executor, under the {@link Deadline} of the
+ * subscribing thread if it has one.
+ */
+abstract class ApiSubscription<T> implements Flow.Subscription
+{
+    private final Flow.Subscriber<? super T> subscriber;
+    private final Executor                   executor;
+    private final Deadline                   deadline = Deadline.current();
+
+    private final AtomicLong    requested = new AtomicLong();
+    private final AtomicInteger wip       = new AtomicInteger();
+
+    private volatile boolean                  cancelled;
+    private volatile IllegalArgumentException invalidRequest;
+    private boolean          terminated;
+
+    ApiSubscription(final Flow.Subscriber<? super T> subscriber, final Executor executor)
+    {
+        this.subscriber = subscriber;
+        this.executor = executor;
+    }
+
+    @Override
+    public void request(final long n)
+    {
+        if (n <= 0)
+        {
+            invalidRequest = new IllegalArgumentException("Requested number of items must be positive, got " + n);
+            drain();
+            return;
+        }
+
+        requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        drain();
+    }
+
+    @Override
+    public void cancel()
+    {
+        cancelled = true;
+        drain();
+    }
+
+    /**
+     * Sends the current state to the subscriber, see {@link #drainLoop()}.
+     */
+    final void drain()
+    {
+        if (wip.getAndIncrement() != 0)
+            return;
+
+        do
+        {
+            if (terminated)
+                continue;
+
+            if (invalidRequest != null)
+            {
+                fail(invalidRequest);
+            }
+            else if (cancelled)
+            {
+                terminated = true;
+                onCancel();
+            }
+            else
+            {
+                drainLoop();
+            }
+        }
+        while (wip.decrementAndGet() != 0);
+    }
+
+    /**
+     * Emits what the outstanding demand allows and starts the calls needed to meet it.
+     * Called by a single thread at a time; {@link #drain()} is called again once a started call completes.
+     */
+    abstract void drainLoop();
+
+    /**
+     * Releases whatever is held when the subscription is cancelled.
+     */
+    abstract void onCancel();
+
+    /**
+     * @return number of items the subscriber requested and has not been sent yet
+     */
+    final long getDemand()
+    {
+        return requested.get();
+    }
+
+    final void emit(final T item)
+    {
+        if (requested.get() != Long.MAX_VALUE)
+            requested.decrementAndGet();
+        subscriber.onNext(item);
+    }
+
+    final boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    final void complete()
+    {
+        terminated = true;
+        subscriber.onComplete();
+    }
+
+    final void fail(final Throwable error)
+    {
+        terminated = true;
+        onCancel();
+        subscriber.onError(error);
+    }
+
+    /**
+     * @return the exception the completed future failed with, or null if it succeeded
+     */
+    static Throwable getError(final CompletableFuture<?> future)
+    {
+        try
+        {
+            future.join();
+            return null;
+        }
+        catch (final CompletionException e)
+        {
+            return e.getCause();
+        }
+        catch (final CancellationException e)
+        {
+            return e;
+        }
+    }
+
+    /**
+     * Runs the call on the executor and drains once it completes.
+     */
+    final <V> CompletableFuture<V> submit(final ApiCall<V> apiCall)
+    {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        try
+        {
+            executor.execute(() -> {
+                try
+                {
+                    result.complete(deadline != null ? deadline.call(apiCall) : apiCall.call());
+                }
+                catch (final ApiException | RuntimeException e)
+                {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+        catch (final RejectedExecutionException e)
+        {
+            result.completeExceptionally(new ApiException(e));
+        }
+
+        result.whenComplete((value, error) -> drain());
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.flow;
+
+import com.smartling.api.sdk.dto.file.StringResponse;
+
+/**
+ * A file downloaded by {@link FileDownloadPublisher}.
+ */
+public class FileDownload
+{
+    private final String         fileUri;
+    private final String         locale;
+    private final StringResponse response;
+
+    public FileDownload(final String fileUri, final String locale, final StringResponse response)
+    {
+        this.fileUri = fileUri;
+        this.locale = locale;
+        this.response = response;
+    }
+
+    public String getFileUri()
+    {
+        return fileUri;
+    }
+
+    /**
+     * @return locale of the translation, or null for the original file
+     */
+    public String getLocale()
+    {
+        return locale;
+    }
+
+    public StringResponse getResponse()
+    {
+        return response;
+    }
+}
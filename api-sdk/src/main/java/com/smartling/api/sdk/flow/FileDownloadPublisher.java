@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.flow;
+
+import com.smartling.api.sdk.FileApiClientAdapter;
+import com.smartling.api.sdk.file.RetrievalType;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * Publishes downloaded files in the order they were given. A download is only started while the subscriber has asked for
+ * more files than are already under way, and never more than {@code maxConcurrentDownloads} at once, so the files held in
+ * memory are bounded by the outstanding demand however slowly they are consumed.
+ * <p>
+ * The first failed download ends the subscription with its exception. Each subscription downloads the files anew, on the executor.
+ */
+public class FileDownloadPublisher implements Flow.Publisher<FileDownload>
+{
+    public static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 4;
+
+    private final FileApiClientAdapter          fileApiClientAdapter;
+    private final List<GetFileParameterBuilder> downloads;
+    private final Executor                      executor;
+    private final int                           maxConcurrentDownloads;
+
+    /**
+     * @param downloads parameters of each file to download
+     */
+    public FileDownloadPublisher(final FileApiClientAdapter fileApiClientAdapter, final Collection<GetFileParameterBuilder> downloads,
+                                 final Executor executor, final int maxConcurrentDownloads)
+    {
+        Validate.notNull(fileApiClientAdapter, "fileApiClientAdapter is required");
+        Validate.noNullElements(downloads, "downloads are required");
+        Validate.notNull(executor, "executor is required");
+        Validate.isTrue(maxConcurrentDownloads >= 1, "maxConcurrentDownloads must be at least 1");
+
+        this.fileApiClientAdapter = fileApiClientAdapter;
+        this.downloads = Collections.unmodifiableList(new ArrayList<>(downloads));
+        this.executor = executor;
+        this.maxConcurrentDownloads = maxConcurrentDownloads;
+    }
+
+    /**
+     * @return publisher of the translations of a file into each of the locales
+     */
+    public static FileDownloadPublisher forLocales(final FileApiClientAdapter fileApiClientAdapter, final String fileUri, final Collection<String> locales,
+                                                   final RetrievalType retrievalType, final Executor executor)
+    {
+        final List<GetFileParameterBuilder> downloads = new ArrayList<>(locales.size());
+        for (final String locale : locales)
+            downloads.add(new GetFileParameterBuilder().fileUri(fileUri).locale(locale).retrievalType(retrievalType));
+
+        return new FileDownloadPublisher(fileApiClientAdapter, downloads, executor, DEFAULT_MAX_CONCURRENT_DOWNLOADS);
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super FileDownload> subscriber)
+    {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new FileDownloadSubscription(subscriber));
+    }
+
+    private class FileDownloadSubscription extends ApiSubscription<FileDownload>
+    {
+        private final Deque<CompletableFuture<FileDownload>> started = new ArrayDeque<>();
+
+        private int next;
+
+        private FileDownloadSubscription(final Flow.Subscriber<? super FileDownload> subscriber)
+        {
+            super(subscriber, executor);
+        }
+
+        @Override
+        void drainLoop()
+        {
+            while (getDemand() > 0 && !started.isEmpty() && started.peek().isDone() && !isCancelled())
+            {
+                final CompletableFuture<FileDownload> download = started.poll();
+                final Throwable error = getError(download);
+                if (error != null)
+                {
+                    fail(error);
+                    return;
+                }
+                emit(download.join());
+            }
+
+            if (isCancelled())
+                return;
+
+            if (next == downloads.size() && started.isEmpty())
+            {
+                complete();
+                return;
+            }
+
+            while (next < downloads.size() && started.size() < Math.min(maxConcurrentDownloads, getDemand()))
+            {
+                final GetFileParameterBuilder download = downloads.get(next++);
+                started.add(submit(() -> new FileDownload(download.getFileUri(), download.getLocale(), fileApiClientAdapter.getFile(download))));
+            }
+        }
+
+        @Override
+        void onCancel()
+        {
+            for (final CompletableFuture<FileDownload> download : started)
+                download.cancel(false);
+            started.clear();
+        }
+    }
+}
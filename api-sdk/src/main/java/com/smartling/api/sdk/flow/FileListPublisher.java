@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.flow;
+
+import com.smartling.api.sdk.FileApiClientAdapter;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import org.apache.commons.lang3.Validate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * Publishes the files matching the search parameters, fetching one page at a time, starting at the offset of the search
+ * parameters. The next page is only requested from the server once the files of the last page have all been sent and the
+ * subscriber asks for more, so at most one page is held in memory per subscription, however slowly it is consumed.
+ * <p>
+ * Each subscription walks the listing anew. Pages are fetched on the executor.
+ */
+public class FileListPublisher implements Flow.Publisher<FileStatus>
+{
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final FileApiClientAdapter fileApiClientAdapter;
+    private final FileListSearchParams fileListSearchParams;
+    private final Executor             executor;
+    private final int                  pageSize;
+
+    public FileListPublisher(final FileApiClientAdapter fileApiClientAdapter, final FileListSearchParams fileListSearchParams, final Executor executor)
+    {
+        this(fileApiClientAdapter, fileListSearchParams, executor, DEFAULT_PAGE_SIZE);
+    }
+
+    public FileListPublisher(final FileApiClientAdapter fileApiClientAdapter, final FileListSearchParams fileListSearchParams, final Executor executor,
+                             final int pageSize)
+    {
+        Validate.notNull(fileApiClientAdapter, "fileApiClientAdapter is required");
+        Validate.notNull(fileListSearchParams, "fileListSearchParams is required");
+        Validate.notNull(executor, "executor is required");
+        Validate.isTrue(pageSize >= 1, "pageSize must be at least 1");
+
+        this.fileApiClientAdapter = fileApiClientAdapter;
+        this.fileListSearchParams = new FileListSearchParams(fileListSearchParams);
+        this.executor = executor;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super FileStatus> subscriber)
+    {
+        Objects.requireNonNull(subscriber, "subscriber");
+        final FileListSubscription subscription = new FileListSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class FileListSubscription extends ApiSubscription<FileStatus>
+    {
+        private final Queue<FileStatus> page = new ConcurrentLinkedQueue<>();
+
+        private int     offset = fileListSearchParams.getOffset() != null ? fileListSearchParams.getOffset() : 0;
+        private boolean lastPage;
+
+        private CompletableFuture<FileList> fetch;
+
+        private FileListSubscription(final Flow.Subscriber<? super FileStatus> subscriber)
+        {
+            super(subscriber, executor);
+        }
+
+        @Override
+        void drainLoop()
+        {
+            if (fetch != null)
+            {
+                if (!fetch.isDone())
+                    return;
+
+                final Throwable error = getError(fetch);
+                if (error != null)
+                {
+                    fail(error);
+                    return;
+                }
+                onPage(fetch.join());
+                fetch = null;
+            }
+
+            while (getDemand() > 0 && !page.isEmpty() && !isCancelled())
+                emit(page.poll());
+
+            if (!page.isEmpty() || isCancelled())
+                return;
+
+            if (lastPage)
+                complete();
+            else if (getDemand() > 0)
+                fetch = submit(this::fetchPage);
+        }
+
+        @Override
+        void onCancel()
+        {
+            page.clear();
+        }
+
+        private FileList fetchPage() throws ApiException
+        {
+            final FileListSearchParams pageSearchParams = new FileListSearchParams(fileListSearchParams);
+            pageSearchParams.setOffset(offset);
+            pageSearchParams.setLimit(pageSize);
+            return fileApiClientAdapter.getFilesList(pageSearchParams).getData();
+        }
+
+        private void onPage(final FileList fileList)
+        {
+            final List<FileStatus> files = fileList.getFileList();
+            final int count = files != null ? files.size() : 0;
+            if (count > 0)
+                page.addAll(files);
+
+            offset += count;
+            lastPage = count < pageSize || offset >= fileList.getFileCount();
+        }
+    }
+}
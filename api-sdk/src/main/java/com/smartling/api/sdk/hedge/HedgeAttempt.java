@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.hedge;
+
+import com.smartling.api.sdk.ApiCall;
+
+/**
+ * One of the competing requests of a hedged call, along with the means to abort it once the other request has answered.
+ */
+public class HedgeAttempt<T>
+{
+    private final ApiCall<T> apiCall;
+    private final Runnable   abort;
+
+    public HedgeAttempt(final ApiCall<T> apiCall, final Runnable abort)
+    {
+        this.apiCall = apiCall;
+        this.abort = abort;
+    }
+
+    public ApiCall<T> getApiCall()
+    {
+        return apiCall;
+    }
+
+    public void abort()
+    {
+        abort.run();
+    }
+}
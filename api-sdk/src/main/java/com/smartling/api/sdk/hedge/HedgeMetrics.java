@@ -0,0 +1,67 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of hedged calls of one operation.
+ */
+public class HedgeMetrics
+{
+    private final AtomicLong callCount     = new AtomicLong();
+    private final AtomicLong hedgeCount    = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    /**
+     * @return number of calls made under a hedge policy
+     */
+    public long getCallCount()
+    {
+        return callCount.get();
+    }
+
+    /**
+     * @return number of duplicate requests sent because the first request was slow
+     */
+    public long getHedgeCount()
+    {
+        return hedgeCount.get();
+    }
+
+    /**
+     * @return number of calls answered by the duplicate request rather than the first one
+     */
+    public long getHedgeWinCount()
+    {
+        return hedgeWinCount.get();
+    }
+
+    void onCall()
+    {
+        callCount.incrementAndGet();
+    }
+
+    void onHedge()
+    {
+        hedgeCount.incrementAndGet();
+    }
+
+    void onHedgeWin()
+    {
+        hedgeWinCount.incrementAndGet();
+    }
+}
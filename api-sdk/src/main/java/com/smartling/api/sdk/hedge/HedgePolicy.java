@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.hedge;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Describes when a duplicate of a slow read request is sent.
+ * The hedge is sent after a fixed delay or, if a percentile is set, after that percentile of the recently observed
+ * latencies of the operation's calls, failed ones included, e.g. the p95. Until enough latencies are observed the fixed delay is used.
+ */
+public class HedgePolicy
+{
+    public static final long DEFAULT_DELAY_MILLIS = 100;
+    public static final int  DEFAULT_MIN_SAMPLES  = 20;
+
+    private long   delayMillis    = DEFAULT_DELAY_MILLIS;
+    private double percentile;
+    private long   minDelayMillis;
+    private int    minSamples     = DEFAULT_MIN_SAMPLES;
+
+    /**
+     * @return policy sending the hedge after the given percentile of the observed latencies, e.g. 0.95
+     */
+    public static HedgePolicy percentile(final double percentile)
+    {
+        final HedgePolicy hedgePolicy = new HedgePolicy();
+        hedgePolicy.setPercentile(percentile);
+        return hedgePolicy;
+    }
+
+    /**
+     * @return policy sending the hedge after the given delay
+     */
+    public static HedgePolicy fixedDelay(final long delayMillis)
+    {
+        final HedgePolicy hedgePolicy = new HedgePolicy();
+        hedgePolicy.setDelayMillis(delayMillis);
+        return hedgePolicy;
+    }
+
+    public long getDelayMillis()
+    {
+        return delayMillis;
+    }
+
+    public void setDelayMillis(final long delayMillis)
+    {
+        Validate.isTrue(delayMillis >= 0, "delayMillis must not be negative");
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * @return percentile of observed latencies the hedge is sent after, or 0 to always use the fixed delay
+     */
+    public double getPercentile()
+    {
+        return percentile;
+    }
+
+    public void setPercentile(final double percentile)
+    {
+        Validate.isTrue(percentile >= 0 && percentile < 1, "percentile must be in [0, 1)");
+        this.percentile = percentile;
+    }
+
+    /**
+     * @return lower bound of the delay derived from observed latencies
+     */
+    public long getMinDelayMillis()
+    {
+        return minDelayMillis;
+    }
+
+    public void setMinDelayMillis(final long minDelayMillis)
+    {
+        Validate.isTrue(minDelayMillis >= 0, "minDelayMillis must not be negative");
+        this.minDelayMillis = minDelayMillis;
+    }
+
+    /**
+     * @return number of observed latencies needed before the percentile is used instead of the fixed delay
+     */
+    public int getMinSamples()
+    {
+        return minSamples;
+    }
+
+    public void setMinSamples(final int minSamples)
+    {
+        Validate.isTrue(minSamples >= 1, "minSamples must be at least 1");
+        this.minSamples = minSamples;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.hedge;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.Deadline;
+import com.smartling.api.sdk.exceptions.ApiException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends a duplicate of a read request that takes longer than its {@link HedgePolicy} allows, takes whichever answer comes
+ * first and aborts the other request. Only operations given a policy are hedged.
+ * Both requests are made on the hedger's executor while the caller waits, so the hedger should be {@link #close() closed}
+ * together with the adapter using it.
+ */
+public class Hedger implements Closeable
+{
+    private static final Log logger = LogFactory.getLog(Hedger.class);
+
+    private final Map<ApiOperation, HedgePolicy>    hedgePolicies   = new ConcurrentHashMap<>();
+    private final Map<ApiOperation, HedgeMetrics>   metrics         = new EnumMap<>(ApiOperation.class);
+    private final Map<ApiOperation, LatencyTracker> latencyTrackers = new EnumMap<>(ApiOperation.class);
+    private final ExecutorService                   executor;
+    private final boolean                           ownExecutor;
+
+    public Hedger()
+    {
+        this(Executors.newCachedThreadPool(new DaemonThreadFactory()), true);
+    }
+
+    /**
+     * @param executor executor making the requests, which is left running on {@link #close()}
+     */
+    public Hedger(final ExecutorService executor)
+    {
+        this(executor, false);
+    }
+
+    private Hedger(final ExecutorService executor, final boolean ownExecutor)
+    {
+        Validate.notNull(executor, "executor is required");
+
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+
+        for (final ApiOperation operation : ApiOperation.values())
+        {
+            metrics.put(operation, new HedgeMetrics());
+            latencyTrackers.put(operation, new LatencyTracker());
+        }
+    }
+
+    /**
+     * @param hedgePolicy policy of the operation, or {@code NULL} to stop hedging it.
+     *                    Hedge only operations that are safe to repeat, i.e. reads.
+     */
+    public void setHedgePolicy(final ApiOperation operation, final HedgePolicy hedgePolicy)
+    {
+        Validate.notNull(operation, "operation is required");
+
+        if (hedgePolicy == null)
+            hedgePolicies.remove(operation);
+        else
+            hedgePolicies.put(operation, hedgePolicy);
+    }
+
+    public HedgePolicy getHedgePolicy(final ApiOperation operation)
+    {
+        return hedgePolicies.get(operation);
+    }
+
+    public boolean isHedged(final ApiOperation operation)
+    {
+        return hedgePolicies.containsKey(operation);
+    }
+
+    public HedgeMetrics getMetrics(final ApiOperation operation)
+    {
+        return metrics.get(operation);
+    }
+
+    /**
+     * @return delay after which the next call of the operation is hedged, or -1 if the operation is not hedged
+     */
+    public long getHedgeDelayMillis(final ApiOperation operation)
+    {
+        final HedgePolicy hedgePolicy = hedgePolicies.get(operation);
+        if (hedgePolicy == null)
+            return -1;
+
+        final LatencyTracker latencyTracker = latencyTrackers.get(operation);
+        if (hedgePolicy.getPercentile() <= 0 || latencyTracker.getSampleCount() < hedgePolicy.getMinSamples())
+            return hedgePolicy.getDelayMillis();
+
+        final long percentileMillis = TimeUnit.NANOSECONDS.toMillis(latencyTracker.getPercentile(hedgePolicy.getPercentile()));
+        return Math.max(hedgePolicy.getMinDelayMillis(), percentileMillis);
+    }
+
+    /**
+     * Makes the call, hedging it if the operation has a policy.
+     *
+     * @param attemptFactory creates a new attempt on every invocation; attempts must not share request objects
+     */
+    public <T> T execute(final ApiOperation operation, final Supplier<HedgeAttempt<T>> attemptFactory) throws ApiException
+    {
+        final long hedgeDelayMillis = getHedgeDelayMillis(operation);
+        if (hedgeDelayMillis < 0)
+            return attemptFactory.get().getApiCall().call();
+
+        final HedgeMetrics hedgeMetrics = metrics.get(operation);
+        hedgeMetrics.onCall();
+
+        final BlockingQueue<Outcome<T>> outcomes = new LinkedBlockingQueue<>();
+        final HedgeAttempt<T> primary = attemptFactory.get();
+        HedgeAttempt<T> hedge = null;
+        final long start = System.nanoTime();
+        try
+        {
+            submit(primary, outcomes);
+
+            Outcome<T> outcome = outcomes.poll(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+            if (outcome == null)
+            {
+                logger.debug(String.format("Hedging %s after %d ms", operation, hedgeDelayMillis));
+                hedgeMetrics.onHedge();
+                hedge = attemptFactory.get();
+                submit(hedge, outcomes);
+
+                outcome = outcomes.take();
+                // a failed request does not decide the call while the other one can still succeed
+                if (outcome.failure != null)
+                    outcome = outcomes.take();
+            }
+
+            if (outcome.attempt == hedge && outcome.failure == null)
+                hedgeMetrics.onHedgeWin();
+
+            // failed calls are recorded too, so that slow failures and timeouts do not pull the hedge delay down
+            latencyTrackers.get(operation).record(System.nanoTime() - start);
+
+            return outcome.get();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ApiException(e);
+        }
+        finally
+        {
+            // aborting a request that has already completed has no effect
+            primary.abort();
+            if (hedge != null)
+                hedge.abort();
+        }
+    }
+
+    /**
+     * Shuts down the executor created by the hedger; an executor supplied by the caller is left running.
+     */
+    @Override
+    public void close()
+    {
+        if (ownExecutor)
+            executor.shutdownNow();
+    }
+
+    private <T> void submit(final HedgeAttempt<T> attempt, final BlockingQueue<Outcome<T>> outcomes)
+    {
+        final Deadline deadline = Deadline.current();
+        executor.execute(() -> {
+            try
+            {
+                final ApiCall<T> apiCall = attempt.getApiCall();
+                outcomes.add(new Outcome<>(attempt, deadline != null ? deadline.call(apiCall) : apiCall.call(), null));
+            }
+            catch (final ApiException e)
+            {
+                outcomes.add(new Outcome<>(attempt, null, e));
+            }
+            catch (final RuntimeException e)
+            {
+                outcomes.add(new Outcome<>(attempt, null, new ApiException(e)));
+            }
+        });
+    }
+
+    private static class Outcome<T>
+    {
+        private final HedgeAttempt<T> attempt;
+        private final T               result;
+        private final ApiException    failure;
+
+        private Outcome(final HedgeAttempt<T> attempt, final T result, final ApiException failure)
+        {
+            this.attempt = attempt;
+            this.result = result;
+            this.failure = failure;
+        }
+
+        private T get() throws ApiException
+        {
+            if (failure != null)
+                throw failure;
+
+            return result;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable)
+        {
+            final Thread thread = new Thread(runnable, "smartling-hedge-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the most recent latencies of an operation and answers percentiles of them.
+ * Percentiles are recomputed only every few samples, as sorting the window on every call would cost more than the hedge saves.
+ */
+class LatencyTracker
+{
+    private static final int WINDOW_SIZE      = 1024;
+    private static final int RECOMPUTE_PERIOD = 64;
+
+    private final long[] samples = new long[WINDOW_SIZE];
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int    count;
+    private int    next;
+    private int    sinceRecompute = RECOMPUTE_PERIOD;
+    private long[] sorted         = new long[0];
+
+    void record(final long latencyNanos)
+    {
+        lock.lock();
+        try
+        {
+            samples[next] = latencyNanos;
+            next = (next + 1) % WINDOW_SIZE;
+            count = Math.min(count + 1, WINDOW_SIZE);
+            sinceRecompute++;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    int getSampleCount()
+    {
+        lock.lock();
+        try
+        {
+            return count;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the percentile of the recorded latencies, or -1 if nothing was recorded
+     */
+    long getPercentile(final double percentile)
+    {
+        lock.lock();
+        try
+        {
+            if (count == 0)
+                return -1;
+
+            if (sinceRecompute >= RECOMPUTE_PERIOD)
+            {
+                sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                sinceRecompute = 0;
+            }
+
+            return sorted[Math.min(sorted.length - 1, (int)(percentile * sorted.length))];
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+import com.smartling.api.sdk.dto.DtoTypeAdapterFactory;
+import com.smartling.api.sdk.util.DateTypeAdapter;
+import org.apache.commons.lang3.Validate;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.Date;
+
+/**
+ * Decodes with Gson, which reads the API objects with the adapters of {@link DtoTypeAdapterFactory}. It is the default codec.
+ */
+public class GsonJsonCodec implements JsonCodec
+{
+    public static final String NAME = "gson";
+
+    private final Gson gson;
+
+    public GsonJsonCodec()
+    {
+        this(newGson());
+    }
+
+    /**
+     * @param gson Gson to decode with, e.g. with type adapters of its own
+     */
+    public GsonJsonCodec(final Gson gson)
+    {
+        Validate.notNull(gson, "gson is required");
+        this.gson = gson;
+    }
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public <T> T decode(final Reader reader, final Type type) throws IOException
+    {
+        try
+        {
+            return gson.fromJson(new JsonReader(reader), type);
+        }
+        catch (final JsonParseException e)
+        {
+            // Gson reports failures of the connection as syntax errors
+            if (e.getCause() instanceof IOException && !(e.getCause() instanceof MalformedJsonException) && !(e.getCause() instanceof EOFException))
+                throw (IOException)e.getCause();
+            throw new JsonCodecException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(final String json, final Type type)
+    {
+        try
+        {
+            return gson.fromJson(json, type);
+        }
+        catch (final JsonParseException e)
+        {
+            throw new JsonCodecException(e);
+        }
+    }
+
+    /**
+     * @return Gson reading and writing the API objects and the dates of the API
+     */
+    static Gson newGson()
+    {
+        return new GsonBuilder()
+                .registerTypeAdapter(Date.class, new DateTypeAdapter())
+                .registerTypeAdapterFactory(new DtoTypeAdapterFactory())
+                .create();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+
+/**
+ * Decodes the JSON responses of the API into the API objects. The adapters use the codec selected by {@link JsonCodecs}.
+ * <p>
+ * Codecs are found with {@link java.util.ServiceLoader}, so a codec is added by listing its class, which needs a public
+ * constructor without arguments, in {@code META-INF/services/com.smartling.api.sdk.json.JsonCodec}. A codec serves all
+ * calls of the adapters at the same time and must be thread safe.
+ */
+public interface JsonCodec
+{
+    /**
+     * @return name to select the codec by, see {@link JsonCodecs#CODEC_PROPERTY}
+     */
+    String getName();
+
+    /**
+     * Decodes the JSON while it is read, e.g. from the connection.
+     * @return decoded value, or null if the reader is empty
+     * @throws IOException if reading fails
+     * @throws JsonCodecException if the JSON is malformed or does not match the type
+     */
+    <T> T decode(Reader reader, Type type) throws IOException;
+
+    /**
+     * @return decoded value, or null if the JSON is empty
+     * @throws JsonCodecException if the JSON is malformed or does not match the type
+     */
+    <T> T decode(String json, Type type);
+}
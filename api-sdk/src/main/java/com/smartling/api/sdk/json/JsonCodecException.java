@@ -0,0 +1,17 @@
+package com.smartling.api.sdk.json;
+
+/**
+ * Thrown by a {@link JsonCodec} when the JSON is malformed or does not match the type it is decoded into.
+ */
+public class JsonCodecException extends RuntimeException
+{
+    public JsonCodecException(final String message)
+    {
+        super(message);
+    }
+
+    public JsonCodecException(final Throwable cause)
+    {
+        super(cause.getMessage(), cause);
+    }
+}
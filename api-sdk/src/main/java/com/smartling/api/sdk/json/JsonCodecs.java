@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.json;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.ServiceLoader;
+
+/**
+ * Finds the {@link JsonCodec}s on the classpath and selects the one the adapters use by default: {@link GsonJsonCodec}, unless
+ * the {@value #CODEC_PROPERTY} system property names another, e.g. the fastest one on the JVM as measured by the codec benchmark.
+ * An adapter can also be given a codec of its own, see {@link com.smartling.api.sdk.BaseApiClientAdapter#setJsonCodec(JsonCodec)}.
+ */
+public final class JsonCodecs
+{
+    private static final Log logger = LogFactory.getLog(JsonCodecs.class);
+
+    /** System property naming the default codec, e.g. {@code -Dsmartling.api.sdk.jsonCodec=streaming} */
+    public static final String CODEC_PROPERTY = "smartling.api.sdk.jsonCodec";
+
+    private static volatile DefaultCodec defaultCodec;
+
+    private JsonCodecs()
+    {
+    }
+
+    /**
+     * @return a new instance of each codec on the classpath
+     */
+    public static List<JsonCodec> getAvailableCodecs()
+    {
+        final List<JsonCodec> codecs = new ArrayList<>();
+        for (final JsonCodec codec : ServiceLoader.load(JsonCodec.class, JsonCodec.class.getClassLoader()))
+            codecs.add(codec);
+
+        return codecs;
+    }
+
+    /**
+     * @return a new instance of the codec on the classpath with the name
+     * @throws IllegalArgumentException if there is no such codec
+     */
+    public static JsonCodec getCodec(final String name)
+    {
+        Validate.notNull(name, "name is required");
+
+        final List<String> names = new ArrayList<>();
+        for (final JsonCodec codec : getAvailableCodecs())
+        {
+            if (name.equals(codec.getName()))
+                return codec;
+            names.add(codec.getName());
+        }
+
+        throw new IllegalArgumentException(String.format("Unknown JSON codec %s, available codecs: %s", name, names));
+    }
+
+    /**
+     * @return codec the adapters use unless they are given one, shared by them. If the {@value #CODEC_PROPERTY} system property
+     *         names an unknown codec, a warning is logged and {@link GsonJsonCodec} is used.
+     */
+    public static JsonCodec getDefaultCodec()
+    {
+        final String name = System.getProperty(CODEC_PROPERTY);
+        DefaultCodec current = defaultCodec;
+        if (current == null || !Objects.equals(current.name, name))
+        {
+            // resolved on first use rather than in a class initializer, so a bad name never fails the class for good
+            current = new DefaultCodec(name, newDefaultCodec(name));
+            defaultCodec = current;
+        }
+
+        return current.codec;
+    }
+
+    static JsonCodec newDefaultCodec(final String name)
+    {
+        if (StringUtils.isBlank(name))
+            return new GsonJsonCodec();
+
+        try
+        {
+            final JsonCodec codec = getCodec(name.trim());
+            logger.debug(String.format("Using JSON codec %s", codec.getName()));
+            return codec;
+        }
+        catch (final IllegalArgumentException e)
+        {
+            logger.warn(String.format("%s, using JSON codec %s instead", e.getMessage(), GsonJsonCodec.NAME));
+            return new GsonJsonCodec();
+        }
+    }
+
+    private static class DefaultCodec
+    {
+        private final String    name;
+        private final JsonCodec codec;
+
+        private DefaultCodec(final String name, final JsonCodec codec)
+        {
+            this.name = name;
+            this.codec = codec;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads the JSON straight into the API objects with their type adapters, without the data binding of Gson, which looks up
+ * the adapter for the type and sets up the reader on every call. The adapter of a type is looked up once and kept.
+ * Types other than the API objects are read with the adapters Gson creates for them.
+ */
+public class StreamingJsonCodec implements JsonCodec
+{
+    public static final String NAME = "streaming";
+
+    private final Gson                               adapters     = GsonJsonCodec.newGson();
+    private final ConcurrentMap<Type, TypeAdapter<?>> typeAdapters = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName()
+    {
+        return NAME;
+    }
+
+    @Override
+    public <T> T decode(final Reader reader, final Type type) throws IOException
+    {
+        final JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+        try
+        {
+            return read(jsonReader, type);
+        }
+        catch (final MalformedJsonException | JsonParseException | IllegalStateException | NumberFormatException e)
+        {
+            throw new JsonCodecException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(final String json, final Type type)
+    {
+        if (json == null)
+            return null;
+
+        final JsonReader jsonReader = new JsonReader(new StringReader(json));
+        jsonReader.setLenient(true);
+        try
+        {
+            final T value = read(jsonReader, type);
+            if (value != null && jsonReader.peek() != JsonToken.END_DOCUMENT)
+                throw new JsonCodecException("JSON document was not fully consumed");
+
+            return value;
+        }
+        catch (final IOException | JsonParseException | IllegalStateException | NumberFormatException e)
+        {
+            throw new JsonCodecException(e);
+        }
+    }
+
+    private <T> T read(final JsonReader reader, final Type type) throws IOException
+    {
+        final TypeAdapter<T> typeAdapter = getTypeAdapter(type);
+        try
+        {
+            reader.peek();
+        }
+        catch (final EOFException e)
+        {
+            return null;
+        }
+
+        try
+        {
+            return typeAdapter.read(reader);
+        }
+        catch (final EOFException e)
+        {
+            throw new JsonCodecException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> TypeAdapter<T> getTypeAdapter(final Type type)
+    {
+        TypeAdapter<?> typeAdapter = typeAdapters.get(type);
+        if (typeAdapter == null)
+        {
+            typeAdapter = adapters.getAdapter(TypeToken.get(type));
+            typeAdapters.putIfAbsent(type, typeAdapter);
+        }
+
+        return (TypeAdapter<T>)typeAdapter;
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.ratelimit;
+
+/**
+ * What a call does when its rate limit is used up.
+ */
+public enum AcquireMode
+{
+    /** Wait until the bucket has a token again */
+    BLOCKING,
+    /** Fail immediately with a {@link com.smartling.api.sdk.exceptions.RateLimitExceededException} */
+    FAIL_FAST
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.ratelimit;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Sustained rate and burst size of a token bucket.
+ */
+public class RateLimit
+{
+    private final double permitsPerSecond;
+    private final int    burstSize;
+
+    /**
+     * @param permitsPerSecond rate at which calls are allowed on average
+     * @param burstSize number of calls allowed back to back after a quiet period
+     */
+    public RateLimit(final double permitsPerSecond, final int burstSize)
+    {
+        Validate.isTrue(permitsPerSecond > 0, "permitsPerSecond must be positive");
+        Validate.isTrue(burstSize >= 1, "burstSize must be at least 1");
+
+        this.permitsPerSecond = permitsPerSecond;
+        this.burstSize = burstSize;
+    }
+
+    public double getPermitsPerSecond()
+    {
+        return permitsPerSecond;
+    }
+
+    public int getBurstSize()
+    {
+        return burstSize;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.ratelimit;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.Deadline;
+import com.smartling.api.sdk.OperationClass;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.OperationsLimitExceeded;
+import com.smartling.api.sdk.exceptions.RateLimitExceededException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client side rate limiter with one token bucket per project and {@link OperationClass}.
+ * Operation classes without a {@link RateLimit} are not limited. One limiter may be shared by several adapters,
+ * so that they stay within the limits of a project together.
+ * <p>
+ * When adaptive, the limiter lowers the rate of a bucket each time the API answers with {@link OperationsLimitExceeded},
+ * and lets it recover linearly to the configured rate.
+ */
+public class RateLimiter
+{
+    private static final Log logger = LogFactory.getLog(RateLimiter.class);
+
+    public static final double DEFAULT_DECREASE_FACTOR   = 0.5;
+    public static final double DEFAULT_MIN_RATE_FRACTION = 0.1;
+    public static final long   DEFAULT_RECOVERY_MILLIS   = 30000;
+
+    private static final String RATE_LIMIT_EXCEEDED_MESSAGE = "Rate limit of %s operations exceeded for project %s";
+
+    private final Map<OperationClass, RateLimit>      rateLimits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<BucketKey, TokenBucket> buckets  = new ConcurrentHashMap<>();
+
+    private volatile AcquireMode acquireMode     = AcquireMode.BLOCKING;
+    private volatile boolean     adaptive        = true;
+    private volatile double      decreaseFactor  = DEFAULT_DECREASE_FACTOR;
+    private volatile double      minRateFraction = DEFAULT_MIN_RATE_FRACTION;
+    private volatile long        recoveryMillis  = DEFAULT_RECOVERY_MILLIS;
+
+    public void setRateLimit(final OperationClass operationClass, final RateLimit rateLimit)
+    {
+        Validate.notNull(rateLimit, "rateLimit is required");
+        rateLimits.put(operationClass, rateLimit);
+        removeBuckets(operationClass);
+    }
+
+    public void removeRateLimit(final OperationClass operationClass)
+    {
+        rateLimits.remove(operationClass);
+        removeBuckets(operationClass);
+    }
+
+    public RateLimit getRateLimit(final OperationClass operationClass)
+    {
+        return rateLimits.get(operationClass);
+    }
+
+    public AcquireMode getAcquireMode()
+    {
+        return acquireMode;
+    }
+
+    public void setAcquireMode(final AcquireMode acquireMode)
+    {
+        Validate.notNull(acquireMode, "acquireMode is required");
+        this.acquireMode = acquireMode;
+    }
+
+    public boolean isAdaptive()
+    {
+        return adaptive;
+    }
+
+    public void setAdaptive(final boolean adaptive)
+    {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * @return factor the rate is multiplied by each time the API rejects a call
+     */
+    public double getDecreaseFactor()
+    {
+        return decreaseFactor;
+    }
+
+    public void setDecreaseFactor(final double decreaseFactor)
+    {
+        Validate.isTrue(decreaseFactor > 0 && decreaseFactor <= 1, "decreaseFactor must be in (0, 1]");
+        this.decreaseFactor = decreaseFactor;
+    }
+
+    /**
+     * @return fraction of the configured rate the rate never drops below
+     */
+    public double getMinRateFraction()
+    {
+        return minRateFraction;
+    }
+
+    public void setMinRateFraction(final double minRateFraction)
+    {
+        Validate.isTrue(minRateFraction > 0 && minRateFraction <= 1, "minRateFraction must be in (0, 1]");
+        this.minRateFraction = minRateFraction;
+    }
+
+    /**
+     * @return time it takes a lowered rate to climb back to the configured rate
+     */
+    public long getRecoveryMillis()
+    {
+        return recoveryMillis;
+    }
+
+    public void setRecoveryMillis(final long recoveryMillis)
+    {
+        Validate.isTrue(recoveryMillis >= 0, "recoveryMillis must not be negative");
+        this.recoveryMillis = recoveryMillis;
+    }
+
+    /**
+     * @return rate the operations of the given class are currently allowed at, or {@link Double#POSITIVE_INFINITY} if they are not limited
+     */
+    public double getCurrentRate(final String projectId, final OperationClass operationClass)
+    {
+        final TokenBucket bucket = getBucket(projectId, operationClass);
+        return bucket == null ? Double.POSITIVE_INFINITY : bucket.getRate(System.nanoTime());
+    }
+
+    /**
+     * Takes a permit for the operation, waiting for it or failing with {@link RateLimitExceededException} depending on the {@link AcquireMode}.
+     * Fails with {@link com.smartling.api.sdk.exceptions.DeadlineExceededException} right away if the permit would come after the deadline of the current call.
+     */
+    public void acquire(final String projectId, final ApiOperation operation) throws ApiException
+    {
+        final TokenBucket bucket = getBucket(projectId, operation.getOperationClass());
+        if (bucket == null)
+            return;
+
+        final Deadline deadline = Deadline.current();
+        long waitNanos;
+        while ((waitNanos = bucket.tryAcquire(System.nanoTime())) > 0)
+        {
+            if (acquireMode == AcquireMode.FAIL_FAST)
+                throw newRateLimitExceededException(projectId, operation.getOperationClass(), waitNanos);
+            // the permit would come too late to be of use
+            if (deadline != null && waitNanos >= deadline.remainingNanos())
+                throw deadline.newDeadlineExceededException();
+
+            try
+            {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new ApiException(e);
+            }
+        }
+    }
+
+    /**
+     * Lowers the rate of the operation's bucket after the API rejected a call with {@link OperationsLimitExceeded}.
+     */
+    public void onThrottled(final String projectId, final ApiOperation operation)
+    {
+        final TokenBucket bucket = getBucket(projectId, operation.getOperationClass());
+        if (bucket == null || !adaptive)
+            return;
+
+        final long nowNanos = System.nanoTime();
+        bucket.decreaseRate(decreaseFactor, minRateFraction, TimeUnit.MILLISECONDS.toNanos(recoveryMillis), nowNanos);
+        logger.warn(String.format("Operations limit exceeded for %s operations of project %s, lowering rate to %.2f per second",
+                operation.getOperationClass(), projectId, bucket.getRate(nowNanos)));
+    }
+
+    /**
+     * Wraps a call so that it takes a permit before each attempt and reports rejections by the API back to the limiter.
+     */
+    public <T> ApiCall<T> limit(final String projectId, final ApiOperation operation, final ApiCall<T> apiCall)
+    {
+        return new ApiCall<T>()
+        {
+            @Override
+            public T call() throws ApiException
+            {
+                acquire(projectId, operation);
+                try
+                {
+                    return apiCall.call();
+                }
+                catch (final OperationsLimitExceeded e)
+                {
+                    onThrottled(projectId, operation);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean isReplayable(final ApiException failure)
+            {
+                return apiCall.isReplayable(failure);
+            }
+        };
+    }
+
+    private TokenBucket getBucket(final String projectId, final OperationClass operationClass)
+    {
+        final RateLimit rateLimit = rateLimits.get(operationClass);
+        if (rateLimit == null)
+            return null;
+
+        final BucketKey key = new BucketKey(projectId, operationClass);
+        final TokenBucket bucket = buckets.get(key);
+        if (bucket != null)
+            return bucket;
+
+        final TokenBucket newBucket = new TokenBucket(rateLimit, System.nanoTime());
+        final TokenBucket existingBucket = buckets.putIfAbsent(key, newBucket);
+        return existingBucket != null ? existingBucket : newBucket;
+    }
+
+    private void removeBuckets(final OperationClass operationClass)
+    {
+        buckets.keySet().removeIf(key -> key.operationClass == operationClass);
+    }
+
+    private static RateLimitExceededException newRateLimitExceededException(final String projectId, final OperationClass operationClass, final long waitNanos)
+    {
+        final String message = String.format(RATE_LIMIT_EXCEEDED_MESSAGE, operationClass, projectId);
+        final RateLimitExceededException exception = new RateLimitExceededException(message, Collections.singletonList(message));
+        exception.setRetryAfterMillis(TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+
+        return exception;
+    }
+
+    private static final class BucketKey
+    {
+        private final String         projectId;
+        private final OperationClass operationClass;
+
+        BucketKey(final String projectId, final OperationClass operationClass)
+        {
+            this.projectId = projectId;
+            this.operationClass = operationClass;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof BucketKey))
+                return false;
+
+            final BucketKey other = (BucketKey)o;
+            return projectId.equals(other.projectId) && operationClass == other.operationClass;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(projectId, operationClass);
+        }
+    }
+}
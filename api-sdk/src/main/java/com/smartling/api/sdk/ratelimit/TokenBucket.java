@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket whose rate can be lowered temporarily. After a decrease the rate climbs back linearly to the
+ * configured rate over the recovery period.
+ */
+class TokenBucket
+{
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimit rateLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long   lastRefillNanos;
+
+    private double decreasedRate;
+    private long   decreasedAtNanos;
+    private long   recoveryNanos;
+
+    TokenBucket(final RateLimit rateLimit, final long nowNanos)
+    {
+        this.rateLimit = rateLimit;
+        this.tokens = rateLimit.getBurstSize();
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Takes a token if one is available.
+     * @return 0 if a token was taken, otherwise the time until the next token is available
+     */
+    long tryAcquire(final long nowNanos)
+    {
+        lock.lock();
+        try
+        {
+            refill(nowNanos);
+            if (tokens >= 1)
+            {
+                tokens -= 1;
+                return 0;
+            }
+
+            return Math.max(1, (long)Math.ceil((1 - tokens) / getRate(nowNanos) * NANOS_PER_SECOND));
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Multiplies the current rate by the given factor, but not below the minimal fraction of the configured rate,
+     * and drops the tokens saved up so far.
+     */
+    void decreaseRate(final double factor, final double minRateFraction, final long recoveryNanos, final long nowNanos)
+    {
+        lock.lock();
+        try
+        {
+            refill(nowNanos);
+
+            this.decreasedRate = Math.max(rateLimit.getPermitsPerSecond() * minRateFraction, getRate(nowNanos) * factor);
+            this.decreasedAtNanos = nowNanos;
+            this.recoveryNanos = recoveryNanos;
+            this.tokens = Math.min(tokens, 0);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    double getRate(final long nowNanos)
+    {
+        lock.lock();
+        try
+        {
+            final double configuredRate = rateLimit.getPermitsPerSecond();
+            if (decreasedRate == 0)
+                return configuredRate;
+
+            final long sinceDecreaseNanos = nowNanos - decreasedAtNanos;
+            if (sinceDecreaseNanos >= recoveryNanos)
+            {
+                decreasedRate = 0;
+                return configuredRate;
+            }
+
+            return decreasedRate + (configuredRate - decreasedRate) * sinceDecreaseNanos / recoveryNanos;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void refill(final long nowNanos)
+    {
+        final long elapsedNanos = nowNanos - lastRefillNanos;
+        if (elapsedNanos > 0)
+        {
+            tokens = Math.min(rateLimit.getBurstSize(), tokens + elapsedNanos * getRate(nowNanos) / NANOS_PER_SECOND);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.retry;
+
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.exceptions.ApiException;
+
+/**
+ * Describes a retry of a failed call, or the outcome of a call that was retried.
+ */
+public class RetryEvent
+{
+    private final ApiOperation operation;
+    private final int          attempt;
+    private final long         delayMillis;
+    private final long         elapsedMillis;
+    private final ApiException failure;
+
+    public RetryEvent(final ApiOperation operation, final int attempt, final long delayMillis, final long elapsedMillis, final ApiException failure)
+    {
+        this.operation = operation;
+        this.attempt = attempt;
+        this.delayMillis = delayMillis;
+        this.elapsedMillis = elapsedMillis;
+        this.failure = failure;
+    }
+
+    public ApiOperation getOperation()
+    {
+        return operation;
+    }
+
+    /**
+     * @return number of the attempt the event is about, starting with 1
+     */
+    public int getAttempt()
+    {
+        return attempt;
+    }
+
+    /**
+     * @return time waited before the next attempt; 0 if there is no next attempt
+     */
+    public long getDelayMillis()
+    {
+        return delayMillis;
+    }
+
+    /**
+     * @return time since the first attempt started, so the latency the retries added so far
+     */
+    public long getElapsedMillis()
+    {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return exception the attempt failed with; null if it succeeded
+     */
+    public ApiException getFailure()
+    {
+        return failure;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.retry;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.Deadline;
+import com.smartling.api.sdk.exceptions.ApiException;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes calls according to the {@link RetryPolicy} configured for their operation.
+ * No call is retried until a policy is set.
+ */
+public class RetryHandler
+{
+    private static final Log logger = LogFactory.getLog(RetryHandler.class);
+
+    private static final int MAX_BACKOFF_SHIFT = 30;
+
+    private final Map<ApiOperation, RetryPolicy> retryPolicies  = new ConcurrentHashMap<>();
+    private final List<RetryListener>            retryListeners = new CopyOnWriteArrayList<>();
+
+    private volatile RetryPolicy defaultRetryPolicy = RetryPolicy.noRetries();
+
+    /**
+     * Sets the policy for all operations that have no policy of their own.
+     */
+    public void setRetryPolicy(final RetryPolicy retryPolicy)
+    {
+        Validate.notNull(retryPolicy, "retryPolicy is required");
+        this.defaultRetryPolicy = retryPolicy;
+    }
+
+    public void setRetryPolicy(final ApiOperation operation, final RetryPolicy retryPolicy)
+    {
+        Validate.notNull(retryPolicy, "retryPolicy is required");
+        retryPolicies.put(operation, retryPolicy);
+    }
+
+    public RetryPolicy getRetryPolicy(final ApiOperation operation)
+    {
+        final RetryPolicy retryPolicy = retryPolicies.get(operation);
+        return retryPolicy != null ? retryPolicy : defaultRetryPolicy;
+    }
+
+    /**
+     * @return true if a failed call of the operation may be made again
+     */
+    public boolean isRetryEnabled(final ApiOperation operation)
+    {
+        return getRetryPolicy(operation).getMaxAttempts() > 1;
+    }
+
+    public void addRetryListener(final RetryListener retryListener)
+    {
+        retryListeners.add(retryListener);
+    }
+
+    public void removeRetryListener(final RetryListener retryListener)
+    {
+        retryListeners.remove(retryListener);
+    }
+
+    /**
+     * Makes the call, retrying it while it fails with a retryable exception, attempts are left and the {@link Deadline}
+     * of the current call, if any, leaves time for another attempt.
+     * @throws ApiException the exception of the last attempt
+     */
+    public <T> T execute(final ApiOperation operation, final ApiCall<T> apiCall) throws ApiException
+    {
+        final RetryPolicy retryPolicy = getRetryPolicy(operation);
+        final long start = System.nanoTime();
+
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                final T result = apiCall.call();
+                if (attempt > 1)
+                    fireSuccess(new RetryEvent(operation, attempt, 0, elapsedMillis(start), null));
+
+                return result;
+            }
+            catch (final ApiException e)
+            {
+                final long delayMillis = getDelayMillis(retryPolicy, attempt, e);
+                if (attempt >= retryPolicy.getMaxAttempts() || !retryPolicy.isRetryable(e) || !apiCall.isReplayable(e) || delayMillis < 0
+                        || isPastDeadline(delayMillis))
+                {
+                    if (attempt > 1)
+                        fireGiveUp(new RetryEvent(operation, attempt, 0, elapsedMillis(start), e));
+
+                    throw e;
+                }
+
+                logger.warn(String.format("Attempt %d of %s failed: %s. Retrying in %d ms", attempt, operation, e.getMessage(), delayMillis));
+                fireRetry(new RetryEvent(operation, attempt, delayMillis, elapsedMillis(start), e));
+                sleep(delayMillis, e);
+            }
+        }
+    }
+
+    /**
+     * @return delay before the next attempt, or -1 if the server asked to wait longer than the policy allows
+     */
+    static long getDelayMillis(final RetryPolicy retryPolicy, final int attempt, final ApiException e)
+    {
+        final Long retryAfterMillis = e.getRetryAfterMillis();
+        if (retryAfterMillis != null)
+            return retryAfterMillis <= retryPolicy.getMaxDelayMillis() ? retryAfterMillis : -1;
+
+        final long backoffMillis = retryPolicy.getBaseDelayMillis() << Math.min(attempt - 1, MAX_BACKOFF_SHIFT);
+        final long capMillis = backoffMillis < 0 ? retryPolicy.getMaxDelayMillis() : Math.min(retryPolicy.getMaxDelayMillis(), backoffMillis);
+
+        return ThreadLocalRandom.current().nextLong(capMillis + 1);
+    }
+
+    /**
+     * @return true if the next attempt would start after the deadline of the current call
+     */
+    private static boolean isPastDeadline(final long delayMillis)
+    {
+        final Deadline deadline = Deadline.current();
+        return deadline != null && delayMillis >= deadline.remainingMillis();
+    }
+
+    private static void sleep(final long delayMillis, final ApiException failure) throws ApiException
+    {
+        try
+        {
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
+        }
+        catch (final InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    private static long elapsedMillis(final long startNanos)
+    {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private void fireRetry(final RetryEvent event)
+    {
+        for (final RetryListener retryListener : retryListeners)
+            retryListener.onRetry(event);
+    }
+
+    private void fireSuccess(final RetryEvent event)
+    {
+        for (final RetryListener retryListener : retryListeners)
+            retryListener.onSuccess(event);
+    }
+
+    private void fireGiveUp(final RetryEvent event)
+    {
+        for (final RetryListener retryListener : retryListeners)
+            retryListener.onGiveUp(event);
+    }
+}
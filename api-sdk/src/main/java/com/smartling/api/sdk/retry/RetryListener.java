@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.retry;
+
+/**
+ * Receives notifications about retried calls, e.g. to record how much latency retries add.
+ * Listeners are called on the thread making the call and should return quickly.
+ */
+public interface RetryListener
+{
+    /**
+     * Called when an attempt failed and the call is about to be made again after {@link RetryEvent#getDelayMillis()}.
+     */
+    default void onRetry(final RetryEvent event)
+    {
+    }
+
+    /**
+     * Called when an attempt after at least one retry succeeded.
+     */
+    default void onSuccess(final RetryEvent event)
+    {
+    }
+
+    /**
+     * Called when a call that was retried at least once failed for the last time.
+     */
+    default void onGiveUp(final RetryEvent event)
+    {
+    }
+}
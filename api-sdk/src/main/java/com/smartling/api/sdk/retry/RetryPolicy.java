@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.retry;
+
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import com.smartling.api.sdk.exceptions.OperationsLimitExceeded;
+import com.smartling.api.sdk.exceptions.ResourceLockedException;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Describes when and how often a failed call is made again.
+ * The delay before retry {@code n} is picked at random between 0 and {@code min(maxDelayMillis, baseDelayMillis * 2^(n - 1))}
+ * ("full jitter"), unless the server asked for a specific delay with a {@code Retry-After} header.
+ */
+public class RetryPolicy
+{
+    public static final int  DEFAULT_MAX_ATTEMPTS      = 3;
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 500;
+    public static final long DEFAULT_MAX_DELAY_MILLIS  = 30000;
+
+    private int  maxAttempts     = DEFAULT_MAX_ATTEMPTS;
+    private long baseDelayMillis = DEFAULT_BASE_DELAY_MILLIS;
+    private long maxDelayMillis  = DEFAULT_MAX_DELAY_MILLIS;
+
+    private Set<Class<? extends Exception>> retryableExceptions = new LinkedHashSet<Class<? extends Exception>>(Arrays.asList(
+            OperationsLimitExceeded.class, MaintenanceModeException.class, ResourceLockedException.class, IOException.class));
+
+    /**
+     * @return policy that makes every call exactly once
+     */
+    public static RetryPolicy noRetries()
+    {
+        final RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setMaxAttempts(1);
+        return retryPolicy;
+    }
+
+    /**
+     * @return total number of attempts, including the first one
+     */
+    public int getMaxAttempts()
+    {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(final int maxAttempts)
+    {
+        Validate.isTrue(maxAttempts >= 1, "maxAttempts must be at least 1");
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getBaseDelayMillis()
+    {
+        return baseDelayMillis;
+    }
+
+    public void setBaseDelayMillis(final long baseDelayMillis)
+    {
+        Validate.isTrue(baseDelayMillis >= 0, "baseDelayMillis must not be negative");
+        this.baseDelayMillis = baseDelayMillis;
+    }
+
+    /**
+     * @return upper bound of a single delay. A {@code Retry-After} longer than this ends the retries instead of being waited out.
+     */
+    public long getMaxDelayMillis()
+    {
+        return maxDelayMillis;
+    }
+
+    public void setMaxDelayMillis(final long maxDelayMillis)
+    {
+        Validate.isTrue(maxDelayMillis >= 0, "maxDelayMillis must not be negative");
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * @return exception classes worth a retry. An {@link ApiException} is retried if it, or the exception it wraps, is an instance of one of them.
+     * By default these are {@link OperationsLimitExceeded}, {@link MaintenanceModeException}, {@link ResourceLockedException} and {@link IOException}.
+     */
+    public Set<Class<? extends Exception>> getRetryableExceptions()
+    {
+        return Collections.unmodifiableSet(retryableExceptions);
+    }
+
+    public void setRetryableExceptions(final Collection<Class<? extends Exception>> retryableExceptions)
+    {
+        this.retryableExceptions = new LinkedHashSet<Class<? extends Exception>>(retryableExceptions);
+    }
+
+    public boolean isRetryable(final ApiException e)
+    {
+        for (final Class<? extends Exception> retryableException : retryableExceptions)
+            if (retryableException.isInstance(e) || retryableException.isInstance(e.getCause()))
+                return true;
+
+        return false;
+    }
+}
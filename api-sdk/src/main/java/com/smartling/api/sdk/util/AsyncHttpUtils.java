@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.util;
+
+import com.smartling.api.sdk.HttpClientConfiguration;
+import com.smartling.api.sdk.OperationClass;
+import com.smartling.api.sdk.ProxyConfiguration;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.exceptions.ApiException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Util class for executing http calls without blocking the calling thread.
+ * Calls are multiplexed over a small number of I/O threads of one pooled non-blocking http client.
+ */
+public class AsyncHttpUtils implements Closeable
+{
+    private static final Log logger = LogFactory.getLog(AsyncHttpUtils.class);
+
+    private static final String LOG_MESSAGE_ERROR_TEMPLATE = "GENERAL ERROR: %s";
+
+    private final HttpProxyUtils httpProxyUtils;
+
+    private final HttpClientRegistry<CloseableHttpAsyncClient> httpAsyncClientRegistry = new HttpClientRegistry<>();
+
+    public AsyncHttpUtils()
+    {
+        this(new HttpProxyUtils());
+    }
+
+    public AsyncHttpUtils(final HttpClientConfiguration httpClientConfiguration)
+    {
+        this(new HttpProxyUtils(httpClientConfiguration));
+    }
+
+    public AsyncHttpUtils(final HttpProxyUtils httpProxyUtils)
+    {
+        this.httpProxyUtils = httpProxyUtils;
+    }
+
+    /**
+     * Method for executing http calls asynchronously and retrieving string response.
+     * Cancelling the returned future aborts the request.
+     * @param httpRequest request for execute
+     * @param proxyConfiguration proxy configuration, if it is set to {@code NULL} proxy settings will be setup from system properties. Otherwise switched off.
+     * @return future of the {@link StringResponse}, completed exceptionally with {@link ApiException} if the call could not be made.
+     */
+    public CompletableFuture<StringResponse> executeHttpCall(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration)
+    {
+        final CompletableFuture<StringResponse> responseFuture = new CompletableFuture<>();
+
+        final ProxyConfiguration newProxyConfiguration = HttpUtils.mergeSystemProxyConfiguration(proxyConfiguration);
+        final HttpClientRegistry.Registration<CloseableHttpAsyncClient> registration = httpAsyncClientRegistry.get(newProxyConfiguration,
+                registeredProxyConfiguration -> new HttpClientRegistry.Registration<>(httpProxyUtils.getHttpAsyncClient(registeredProxyConfiguration),
+                        httpProxyUtils.getProxyRequestConfig(httpRequest, registeredProxyConfiguration), Collections.<OperationClass, RequestConfig>emptyMap()));
+        final RequestConfig proxyRequestConfig = registration.getProxyRequestConfig();
+
+        if (proxyRequestConfig != null)
+            httpRequest.setConfig(proxyRequestConfig);
+
+        final Future<HttpResponse> httpFuture = registration.getClient().execute(httpRequest, new FutureCallback<HttpResponse>()
+        {
+            @Override
+            public void completed(final HttpResponse response)
+            {
+                try
+                {
+                    responseFuture.complete(HttpUtils.toStringResponse(response));
+                }
+                catch (final IOException ioe)
+                {
+                    failed(ioe);
+                }
+            }
+
+            @Override
+            public void failed(final Exception e)
+            {
+                logger.error(String.format(LOG_MESSAGE_ERROR_TEMPLATE, e.getMessage()));
+                responseFuture.completeExceptionally(new ApiException(e));
+            }
+
+            @Override
+            public void cancelled()
+            {
+                responseFuture.cancel(false);
+            }
+        });
+
+        responseFuture.whenComplete((response, error) -> {
+            if (responseFuture.isCancelled())
+                httpFuture.cancel(true);
+        });
+
+        return responseFuture;
+    }
+
+    /**
+     * Shuts down the non-blocking http client along with its I/O threads and connections.
+     */
+    @Override
+    public void close()
+    {
+        httpAsyncClientRegistry.close();
+    }
+}
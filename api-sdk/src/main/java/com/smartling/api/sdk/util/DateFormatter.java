@@ -22,11 +22,27 @@ import java.util.TimeZone;
 
 /**
  * Utility class for handling dates with the Smartling Translation API.
+ * <p>
+ * Dates in the {@code yyyy-MM-dd'T'HH:mm:ss} UTC format of the API are formatted and parsed field by field, without
+ * creating a {@link SimpleDateFormat} or any other object on the way. Anything else, e.g. a field out of range or a date
+ * before the Gregorian calendar, is left to {@link #getDateFormat()}, which stays the reference for the results.
  */
 public abstract class DateFormatter
 {
     /** Date format used by the Smartling Translation API */
     private static final String API_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final int    API_DATE_LENGTH = 19;
+
+    /** 1583-01-01T00:00:00Z, the first year after the Julian calendar, which {@link SimpleDateFormat} uses before */
+    private static final long MIN_MILLIS = -12212553600000L;
+    /** 10000-01-01T00:00:00Z, the first date with a year of five digits */
+    private static final long MAX_MILLIS = 253402300800000L;
+
+    private static final int  MIN_YEAR        = 1583;
+    private static final long MILLIS_PER_DAY  = 86400000L;
+    private static final int  DAYS_PER_ERA    = 146097;
+    /** days from 0000-03-01, the start of the proleptic Gregorian era the day arithmetic counts from, to 1970-01-01 */
+    private static final int  EPOCH_DAY_SHIFT = 719468;
 
     private DateFormatter()
     {
@@ -43,7 +59,38 @@ public abstract class DateFormatter
         if (null == date)
             return null;
 
-        return getDateFormat().format(date);
+        final long millis = date.getTime();
+        if (millis < MIN_MILLIS || millis >= MAX_MILLIS)
+            return getDateFormat().format(date);
+
+        final long epochDay = Math.floorDiv(millis, MILLIS_PER_DAY);
+        final int secondOfDay = (int)(Math.floorMod(millis, MILLIS_PER_DAY) / 1000);
+
+        // civil date of the day, counting years from March so that the leap day is the last day of the year
+        final long days = epochDay + EPOCH_DAY_SHIFT;
+        final long era = days / DAYS_PER_ERA;
+        final int dayOfEra = (int)(days - era * DAYS_PER_ERA);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        final int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        final int year = (int)(era * 400) + yearOfEra + (month <= 2 ? 1 : 0);
+
+        final char[] chars = new char[API_DATE_LENGTH];
+        putDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        putDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        putDigits(chars, 8, day, 2);
+        chars[10] = 'T';
+        putDigits(chars, 11, secondOfDay / 3600, 2);
+        chars[13] = ':';
+        putDigits(chars, 14, secondOfDay / 60 % 60, 2);
+        chars[16] = ':';
+        putDigits(chars, 17, secondOfDay % 60, 2);
+
+        return new String(chars);
     }
 
     /**
@@ -58,13 +105,101 @@ public abstract class DateFormatter
         if (null == date)
             return null;
 
+        final long millis = parseMillis(date);
+        if (millis != Long.MIN_VALUE)
+            return new Date(millis);
+
         return getDateFormat().parse(date);
     }
 
+    /**
+     * @return new lenient format of the dates of the API, which is not thread safe; {@link #format(Date)} and
+     *         {@link #parse(String)} are faster
+     */
     public static DateFormat getDateFormat()
     {
         SimpleDateFormat dateFormat = new SimpleDateFormat(API_DATE_FORMAT);
         dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
         return dateFormat;
     }
+
+    /**
+     * Text after the date is ignored, as {@link SimpleDateFormat} does, unless it continues the seconds.
+     * @return milliseconds since the epoch, or {@link Long#MIN_VALUE} if the date has to be parsed by {@link #getDateFormat()}
+     */
+    private static long parseMillis(final String date)
+    {
+        if (date.length() < API_DATE_LENGTH || date.length() > API_DATE_LENGTH && isDigit(date.charAt(API_DATE_LENGTH)))
+            return Long.MIN_VALUE;
+        if (date.charAt(4) != '-' || date.charAt(7) != '-' || date.charAt(10) != 'T' || date.charAt(13) != ':' || date.charAt(16) != ':')
+            return Long.MIN_VALUE;
+
+        final int year = getDigits(date, 0, 4);
+        final int month = getDigits(date, 5, 2);
+        final int day = getDigits(date, 8, 2);
+        final int hour = getDigits(date, 11, 2);
+        final int minute = getDigits(date, 14, 2);
+        final int second = getDigits(date, 17, 2);
+        if (year < MIN_YEAR || month < 1 || month > 12 || day < 1 || day > getDaysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59)
+            return Long.MIN_VALUE;
+
+        // days since 0000-03-01, counting years from March so that the leap day is the last day of the year
+        final int marchYear = month <= 2 ? year - 1 : year;
+        final int era = marchYear / 400;
+        final int yearOfEra = marchYear - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        final long epochDay = (long)era * DAYS_PER_ERA + dayOfEra - EPOCH_DAY_SHIFT;
+
+        return epochDay * MILLIS_PER_DAY + ((hour * 60 + minute) * 60 + second) * 1000L;
+    }
+
+    private static int getDaysInMonth(final int year, final int month)
+    {
+        switch (month)
+        {
+            case 2:
+                return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return value of the digits, or -1 if there is another character among them
+     */
+    private static int getDigits(final String date, final int offset, final int count)
+    {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++)
+        {
+            final char c = date.charAt(i);
+            if (!isDigit(c))
+                return -1;
+            value = value * 10 + c - '0';
+        }
+
+        return value;
+    }
+
+    private static boolean isDigit(final char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    private static void putDigits(final char[] chars, final int offset, final int value, final int count)
+    {
+        int remaining = value;
+        for (int i = offset + count - 1; i >= offset; i--)
+        {
+            chars[i] = (char)('0' + remaining % 10);
+            remaining /= 10;
+        }
+    }
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.util;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single daemon thread shared by all clients, aborting requests whose deadline has passed.
+ */
+final class DeadlineTimer
+{
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private DeadlineTimer()
+    {
+    }
+
+    /**
+     * @return handle to cancel the task with once the request has completed
+     */
+    static ScheduledFuture<?> schedule(final Runnable task, final long delayNanos)
+    {
+        return TIMER.schedule(task, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer()
+    {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "smartling-deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // most requests complete before their deadline, so cancelled tasks should not pile up in the queue
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.util;
+
+import com.smartling.api.sdk.OperationClass;
+import com.smartling.api.sdk.ProxyConfiguration;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.config.RequestConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pooled http clients by proxy configuration, along with the request configs of each, so that they are built once per
+ * distinct configuration instead of per request. Configurations without an active proxy all share one client.
+ */
+final class HttpClientRegistry<C extends Closeable> implements Closeable
+{
+    private static final Log logger = LogFactory.getLog(HttpClientRegistry.class);
+
+    private static final ProxyConfiguration NO_PROXY = new ProxyConfiguration();
+
+    private final ConcurrentMap<ProxyConfiguration, Registration<C>> registrations = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * @param registrationFactory creates the registration of a configuration seen for the first time. It is given a copy of the
+     *                            configuration, so later changes to the caller's instance register a new client instead of
+     *                            altering this one.
+     */
+    Registration<C> get(final ProxyConfiguration proxyConfiguration, final Function<ProxyConfiguration, Registration<C>> registrationFactory)
+    {
+        final ProxyConfiguration key = HttpProxyUtils.hasActiveProxyConfiguration(proxyConfiguration) ? proxyConfiguration : NO_PROXY;
+
+        final Registration<C> registration = registrations.get(key);
+        if (registration != null)
+            return registration;
+
+        lock.lock();
+        try
+        {
+            return registrations.computeIfAbsent(copyOf(key), registrationFactory);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    int size()
+    {
+        return registrations.size();
+    }
+
+    /**
+     * Closes all clients. Clients are registered again by the next requests.
+     */
+    @Override
+    public void close()
+    {
+        lock.lock();
+        try
+        {
+            for (final Registration<C> registration : registrations.values())
+            {
+                try
+                {
+                    registration.client.close();
+                }
+                catch (final IOException ioe)
+                {
+                    logger.warn(String.format("Failed to close http client: %s", ioe.getMessage()));
+                }
+            }
+            registrations.clear();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private static ProxyConfiguration copyOf(final ProxyConfiguration proxyConfiguration)
+    {
+        if (proxyConfiguration == NO_PROXY)
+            return NO_PROXY;
+
+        final ProxyConfiguration copy = new ProxyConfiguration();
+        copy.setHost(proxyConfiguration.getHost());
+        copy.setPort(proxyConfiguration.getPort());
+        copy.setUsername(proxyConfiguration.getUsername());
+        copy.setPassword(proxyConfiguration.getPassword());
+        return copy;
+    }
+
+    static final class Registration<C>
+    {
+        private final C                                  client;
+        private final RequestConfig                      proxyRequestConfig;
+        private final Map<OperationClass, RequestConfig> requestConfigs;
+
+        Registration(final C client, final RequestConfig proxyRequestConfig, final Map<OperationClass, RequestConfig> requestConfigs)
+        {
+            this.client = client;
+            this.proxyRequestConfig = proxyRequestConfig;
+            this.requestConfigs = requestConfigs;
+        }
+
+        C getClient()
+        {
+            return client;
+        }
+
+        /**
+         * @return config routing requests through the proxy, or null if requests go out directly with the client's defaults
+         */
+        RequestConfig getProxyRequestConfig()
+        {
+            return proxyRequestConfig;
+        }
+
+        RequestConfig getRequestConfig(final OperationClass operationClass)
+        {
+            return requestConfigs.get(operationClass);
+        }
+    }
+}
@@ -16,23 +16,38 @@
 package com.smartling.api.sdk.util;
 
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.protocol.HttpContext;
 
+import com.smartling.api.sdk.HttpClientConfiguration;
+import com.smartling.api.sdk.OperationClass;
 import com.smartling.api.sdk.ProxyConfiguration;
+import com.smartling.api.sdk.RequestTimeouts;
 
 public class HttpProxyUtils
 {
+    private final HttpClientConfiguration httpClientConfiguration;
 
     public HttpProxyUtils()
     {
+        this(new HttpClientConfiguration());
+    }
 
+    public HttpProxyUtils(final HttpClientConfiguration httpClientConfiguration)
+    {
+        this.httpClientConfiguration = httpClientConfiguration;
     }
 
     /**
@@ -46,13 +61,31 @@ public class HttpProxyUtils
         if (hasActiveProxyConfiguration(proxyConfiguration))
         {
             HttpHost proxyHttpHost = new HttpHost(proxyConfiguration.getHost(), proxyConfiguration.getPort());
-            return RequestConfig.custom().setProxy(proxyHttpHost).build();
+            // a request config replaces the default one of the client, so it has to carry the timeouts as well
+            return getTimeoutsRequestConfigBuilder(httpClientConfiguration.getDefaultRequestTimeouts()).setProxy(proxyHttpHost).build();
         }
         return null;
     }
 
     /**
-     * Get an httpclient given a proxy config if any
+     * Get a request config with the timeouts of the operation class and the proxy, if any
+     * @param operationClass
+     * @param proxyConfiguration
+     * @return org.apache.http.client.config.RequestConfig
+     */
+    public RequestConfig getRequestConfig(final OperationClass operationClass, final ProxyConfiguration proxyConfiguration)
+    {
+        RequestConfig.Builder requestConfigBuilder = getTimeoutsRequestConfigBuilder(httpClientConfiguration.getRequestTimeouts(operationClass));
+
+        if (hasActiveProxyConfiguration(proxyConfiguration))
+            requestConfigBuilder.setProxy(new HttpHost(proxyConfiguration.getHost(), proxyConfiguration.getPort()));
+
+        return requestConfigBuilder.build();
+    }
+
+    /**
+     * Get a pooled httpclient given a proxy config if any. The client is meant to be reused for many calls
+     * and closed once it is no longer needed, which also releases its pooled connections.
      * @param proxyConfiguration
      * @return org.apache.http.impl.client.CloseableHttpClient
      */
@@ -66,23 +99,73 @@ public class HttpProxyUtils
         }
         else
         {
-            CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-            credentialsProvider.setCredentials(
-                new AuthScope(proxyConfiguration.getHost(), proxyConfiguration.getPort()),
-                new UsernamePasswordCredentials(proxyConfiguration.getUsername(), proxyConfiguration.getPassword()));
-
-            httpClientBuilder = getHttpClientBuilder().setDefaultCredentialsProvider(credentialsProvider);
+            httpClientBuilder = getHttpClientBuilder().setDefaultCredentialsProvider(getCredentialsProvider(proxyConfiguration));
         }
 
         return httpClientBuilder.build();
     }
 
+    /**
+     * Get a started, pooled non-blocking httpclient given a proxy config if any.
+     * @param proxyConfiguration
+     * @return org.apache.http.impl.nio.client.CloseableHttpAsyncClient
+     */
+    public CloseableHttpAsyncClient getHttpAsyncClient(final ProxyConfiguration proxyConfiguration)
+    {
+        HttpAsyncClientBuilder httpAsyncClientBuilder = HttpAsyncClientBuilder.create()
+                .setMaxConnTotal(httpClientConfiguration.getMaxTotalConnections())
+                .setMaxConnPerRoute(httpClientConfiguration.getMaxConnectionsPerRoute())
+                .setKeepAliveStrategy(getKeepAliveStrategy())
+                .setDefaultRequestConfig(getTimeoutsRequestConfigBuilder(httpClientConfiguration.getDefaultRequestTimeouts()).build());
+
+        if (hasActiveProxyConfiguration(proxyConfiguration))
+            httpAsyncClientBuilder.setDefaultCredentialsProvider(getCredentialsProvider(proxyConfiguration));
+
+        CloseableHttpAsyncClient httpAsyncClient = httpAsyncClientBuilder.build();
+        httpAsyncClient.start();
+        return httpAsyncClient;
+    }
+
     HttpClientBuilder getHttpClientBuilder()
     {
-        return HttpClientBuilder.create();
+        return HttpClientBuilder.create()
+                .setConnectionManager(new PooledConnectionManager(httpClientConfiguration))
+                .setKeepAliveStrategy(getKeepAliveStrategy())
+                .setDefaultRequestConfig(getTimeoutsRequestConfigBuilder(httpClientConfiguration.getDefaultRequestTimeouts()).build());
+    }
+
+    private static RequestConfig.Builder getTimeoutsRequestConfigBuilder(final RequestTimeouts requestTimeouts)
+    {
+        return RequestConfig.custom()
+                .setConnectTimeout(requestTimeouts.getConnectTimeoutMillis())
+                .setSocketTimeout(requestTimeouts.getSocketTimeoutMillis())
+                .setConnectionRequestTimeout(requestTimeouts.getConnectionRequestTimeoutMillis());
+    }
+
+    private CredentialsProvider getCredentialsProvider(final ProxyConfiguration proxyConfiguration)
+    {
+        CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(
+            new AuthScope(proxyConfiguration.getHost(), proxyConfiguration.getPort()),
+            new UsernamePasswordCredentials(proxyConfiguration.getUsername(), proxyConfiguration.getPassword()));
+        return credentialsProvider;
+    }
+
+    private ConnectionKeepAliveStrategy getKeepAliveStrategy()
+    {
+        final long defaultKeepAlive = httpClientConfiguration.getKeepAliveMillis();
+        return new DefaultConnectionKeepAliveStrategy()
+        {
+            @Override
+            public long getKeepAliveDuration(final HttpResponse response, final HttpContext context)
+            {
+                final long keepAlive = super.getKeepAliveDuration(response, context);
+                return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+            }
+        };
     }
 
-    private boolean hasActiveProxyConfiguration(final ProxyConfiguration proxyConfiguration)
+    static boolean hasActiveProxyConfiguration(final ProxyConfiguration proxyConfiguration)
     {
         return proxyConfiguration != null && proxyConfiguration.getHost() != null && proxyConfiguration.getPort() != 0;
     }
@@ -15,32 +15,64 @@
  */
 package com.smartling.api.sdk.util;
 
+import com.smartling.api.sdk.Deadline;
+import com.smartling.api.sdk.HttpClientConfiguration;
+import com.smartling.api.sdk.OperationClass;
 import com.smartling.api.sdk.ProxyConfiguration;
+import com.smartling.api.sdk.concurrency.ConcurrencyLimiter;
+import com.smartling.api.sdk.dto.file.ParsedResponse;
+import com.smartling.api.sdk.dto.file.StreamResponse;
 import com.smartling.api.sdk.dto.file.StringResponse;
 import com.smartling.api.sdk.exceptions.ApiException;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.CharEncoding;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
+import org.apache.http.ParseException;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.util.EntityUtils;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Util class for executing http calls
+ * Util class for executing http calls.
+ * All calls share one pooled http client, so connections are kept alive between calls until {@link #close()}.
  */
-public class HttpUtils
+public class HttpUtils implements Closeable
 {
     private static final Log logger = LogFactory.getLog(HttpUtils.class);
 
     private static final String LOG_MESSAGE_ERROR_TEMPLATE = "GENERAL ERROR: %s";
+    private static final int    TRANSFER_BUFFER_SIZE       = 8192;
+    private static final long   FILE_TRANSFER_CHUNK_SIZE   = 1024 * 1024;
+    private static final int    HTTP_TOO_MANY_REQUESTS     = 429;
     static final String SCHEME_HTTPS = "https";
     static final String SCHEME_HTTP = "http";
     static final String PROPERTY_SUFFIX_PROXY_HOST = ".proxyHost";
@@ -50,9 +82,30 @@ public class HttpUtils
 
     private HttpProxyUtils httpProxyUtils;
 
+    private volatile ConcurrencyLimiter concurrencyLimiter;
+
+    private final HttpClientRegistry<CloseableHttpClient> httpClientRegistry = new HttpClientRegistry<>();
+
+    private static volatile SystemProxy systemProxy;
+
     public void setHttpProxyUtils(HttpProxyUtils httpProxyUtils)
     {
         this.httpProxyUtils = httpProxyUtils;
+        // clients built by the previous utils would otherwise keep being used
+        httpClientRegistry.close();
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter()
+    {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @param concurrencyLimiter limiter every request takes a slot from before it is sent, or {@code NULL} to send requests right away.
+     */
+    public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter)
+    {
+        this.concurrencyLimiter = concurrencyLimiter;
     }
 
     public HttpUtils()
@@ -60,6 +113,11 @@ public class HttpUtils
         this.httpProxyUtils = new HttpProxyUtils();
     }
 
+    public HttpUtils(final HttpClientConfiguration httpClientConfiguration)
+    {
+        this.httpProxyUtils = new HttpProxyUtils(httpClientConfiguration);
+    }
+
     /**
      * Method for executing http calls and retrieving string response.
      * @param httpRequest request for execute
@@ -69,69 +127,327 @@ public class HttpUtils
      */
     public StringResponse executeHttpCall(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration) throws ApiException
     {
-        CloseableHttpClient httpClient = null;
+        return execute(httpRequest, proxyConfiguration, null, HttpUtils::toStringResponse);
+    }
+
+    /**
+     * Method for executing http calls with the timeouts of the given operation class and retrieving string response.
+     * @param httpRequest request for execute
+     * @param proxyConfiguration proxy configuration, if it is set to {@code NULL} proxy settings will be setup from system properties. Otherwise switched off.
+     * @param operationClass class of the operation the request belongs to, which selects its {@link com.smartling.api.sdk.RequestTimeouts}
+     * @return {@link StringResponse} the contents of the requested file along with the encoding of the file.
+     * @throws ApiException if an exception has occurred or non success is returned from the Smartling Translation API.
+     */
+    public StringResponse executeHttpCall(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration, final OperationClass operationClass)
+            throws ApiException
+    {
+        return execute(httpRequest, proxyConfiguration, operationClass, HttpUtils::toStringResponse);
+    }
+
+    /**
+     * Method for executing http calls and streaming a successful response body to the given channel
+     * through a fixed-size buffer, without holding the body in memory.
+     * @param httpRequest request for execute
+     * @param proxyConfiguration proxy configuration, if it is set to {@code NULL} proxy settings will be setup from system properties. Otherwise switched off.
+     * @param target channel the body of a successful response is written to. It is not closed.
+     * @return {@link StreamResponse} the encoding and status of the response. The body of a non-successful response is kept in the response instead of being written to the channel.
+     * @throws ApiException if an exception has occurred or non success is returned from the Smartling Translation API.
+     */
+    public StreamResponse executeHttpCall(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration, final WritableByteChannel target)
+            throws ApiException
+    {
+        return execute(httpRequest, proxyConfiguration, null, response -> toStreamResponse(response, target));
+    }
+
+    /**
+     * Same as {@link #executeHttpCall(HttpRequestBase, ProxyConfiguration, WritableByteChannel)}, with the timeouts of the given operation class.
+     */
+    public StreamResponse executeHttpCall(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration, final OperationClass operationClass,
+                                          final WritableByteChannel target) throws ApiException
+    {
+        return execute(httpRequest, proxyConfiguration, operationClass, response -> toStreamResponse(response, target));
+    }
+
+    /**
+     * Method for executing http calls with the timeouts of the given operation class and parsing a successful response body
+     * while it is read from the connection, without holding the body in memory.
+     * @param httpRequest request for execute
+     * @param proxyConfiguration proxy configuration, if it is set to {@code NULL} proxy settings will be setup from system properties. Otherwise switched off.
+     * @param operationClass class of the operation the request belongs to, which selects its {@link com.smartling.api.sdk.RequestTimeouts}
+     * @param bodyParser parses the body of a successful response
+     * @return {@link ParsedResponse} the parsed body and status of the response. The body of a non-successful response is kept in the response instead of being parsed.
+     * @throws ApiException if an exception has occurred or non success is returned from the Smartling Translation API.
+     */
+    public <T> ParsedResponse<T> executeHttpCall(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration, final OperationClass operationClass,
+                                                 final BodyParser<T> bodyParser) throws ApiException
+    {
+        return execute(httpRequest, proxyConfiguration, operationClass, response -> toParsedResponse(response, bodyParser));
+    }
+
+    /**
+     * Executes the request, aborting it if the {@link Deadline} of the current call passes before the response has been read.
+     */
+    private <T> T execute(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration, final OperationClass operationClass,
+                          final ResponseReader<T> responseReader) throws ApiException
+    {
+        final Deadline deadline = Deadline.current();
+        if (deadline != null)
+            deadline.check();
+
         try
         {
             ProxyConfiguration newProxyConfiguration = mergeSystemProxyConfiguration(proxyConfiguration);
-            httpClient = httpProxyUtils.getHttpClient(newProxyConfiguration);
-
-            RequestConfig proxyRequestConfig = httpProxyUtils.getProxyRequestConfig(httpRequest, newProxyConfiguration);
-
-            if (proxyRequestConfig != null)
-                httpRequest.setConfig(proxyRequestConfig);
+            HttpClientRegistry.Registration<CloseableHttpClient> registration = httpClientRegistry.get(newProxyConfiguration,
+                    registeredProxyConfiguration -> register(registeredProxyConfiguration, httpRequest));
 
-            final HttpResponse response = httpClient.execute(httpRequest);
+            RequestConfig requestConfig = operationClass != null ? registration.getRequestConfig(operationClass) : registration.getProxyRequestConfig();
 
-            final String charset = EntityUtils.getContentCharSet(response.getEntity());
-            int statusCode = response.getStatusLine().getStatusCode();
+            if (requestConfig != null)
+                httpRequest.setConfig(requestConfig);
 
-            return inputStreamToString(response.getEntity().getContent(), charset, statusCode);
+            final ScheduledFuture<?> deadlineAbort = deadline != null ? DeadlineTimer.schedule(httpRequest::abort, deadline.remainingNanos()) : null;
+            try
+            {
+                return execute(registration.getClient(), httpRequest, responseReader);
+            }
+            finally
+            {
+                if (deadlineAbort != null)
+                    deadlineAbort.cancel(false);
+            }
         }
         catch (final IOException ioe)
         {
+            if (httpRequest.isAborted())
+            {
+                logger.debug(String.format("Request aborted: %s", httpRequest.getURI()));
+                if (deadline != null && deadline.isExpired())
+                    throw deadline.newDeadlineExceededException();
+
+                throw new ApiException(ioe);
+            }
+
             logger.error(String.format(LOG_MESSAGE_ERROR_TEMPLATE, ioe.getMessage()));
             throw new ApiException(ioe);
         }
-        finally
+    }
+
+    private <T> T execute(final CloseableHttpClient httpClient, final HttpRequestBase httpRequest, final ResponseReader<T> responseReader)
+            throws ApiException, IOException
+    {
+        final ConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter == null)
         {
-            try
-            {
-                if (null != httpClient)
-                    httpClient.close();
-            }
-            catch (final IOException ioe)
+            try (CloseableHttpResponse response = httpClient.execute(httpRequest))
             {
-                logger.warn(String.format(LOG_MESSAGE_ERROR_TEMPLATE, ioe.getMessage()));
+                return responseReader.read(response);
             }
         }
+
+        limiter.acquire();
+        final long start = System.nanoTime();
+        long rttNanos = -1;
+        boolean overloaded = true;
+        try (CloseableHttpResponse response = httpClient.execute(httpRequest))
+        {
+            rttNanos = System.nanoTime() - start;
+            overloaded = isOverloaded(response.getStatusLine().getStatusCode());
+            return responseReader.read(response);
+        }
+        finally
+        {
+            if (httpRequest.isAborted())
+                limiter.cancel();
+            else
+                limiter.release(rttNanos, overloaded);
+        }
     }
 
-    private StringResponse inputStreamToString(final InputStream inputStream, final String encoding, final int httpCode) throws IOException
+    /**
+     * Closes the pooled http client along with all of its connections.
+     */
+    @Override
+    public void close()
+    {
+        httpClientRegistry.close();
+    }
+
+    /**
+     * Builds the client of a proxy configuration along with its request configs, which are reused by all requests
+     * through that configuration.
+     */
+    private HttpClientRegistry.Registration<CloseableHttpClient> register(final ProxyConfiguration proxyConfiguration, final HttpRequestBase httpRequest)
+    {
+        final Map<OperationClass, RequestConfig> requestConfigs = new EnumMap<>(OperationClass.class);
+        for (final OperationClass operationClass : OperationClass.values())
+        {
+            final RequestConfig requestConfig = httpProxyUtils.getRequestConfig(operationClass, proxyConfiguration);
+            if (requestConfig != null)
+                requestConfigs.put(operationClass, requestConfig);
+        }
+
+        return new HttpClientRegistry.Registration<>(httpProxyUtils.getHttpClient(proxyConfiguration),
+                httpProxyUtils.getProxyRequestConfig(httpRequest, proxyConfiguration), requestConfigs);
+    }
+
+    static StringResponse toStringResponse(final HttpResponse response) throws IOException
+    {
+        final String charset = getContentCharset(response);
+        int statusCode = response.getStatusLine().getStatusCode();
+
+        return inputStreamToString(response.getEntity().getContent(), charset, statusCode, getRetryAfterMillis(response));
+    }
+
+    private static StringResponse inputStreamToString(final InputStream inputStream, final String encoding, final int httpCode, final Long retryAfterMillis)
+            throws IOException
     {
         final byte[] contentsRaw = IOUtils.toByteArray(inputStream);
+        return new StringResponse(contentsRaw, getResponseCharset(encoding), httpCode == HttpStatus.SC_OK, httpCode, retryAfterMillis, false);
+    }
+
+    private static StreamResponse toStreamResponse(final HttpResponse response, final WritableByteChannel target) throws IOException
+    {
+        final String charset = getContentCharset(response);
+        final int statusCode = response.getStatusLine().getStatusCode();
+
+        if (statusCode != HttpStatus.SC_OK)
+        {
+            final StringResponse errorResponse = inputStreamToString(response.getEntity().getContent(), charset, statusCode, getRetryAfterMillis(response));
+            return new StreamResponse(errorResponse.getEncoding(), false, 0, errorResponse.getContents(), statusCode, errorResponse.getRetryAfterMillis());
+        }
+
+        try (InputStream inputStream = response.getEntity().getContent())
+        {
+            return new StreamResponse(getResponseCharset(charset).name(), true, transfer(inputStream, target), null, statusCode, null);
+        }
+    }
+
+    private static <T> ParsedResponse<T> toParsedResponse(final HttpResponse response, final BodyParser<T> bodyParser) throws IOException
+    {
+        final String charset = getContentCharset(response);
+        final int statusCode = response.getStatusLine().getStatusCode();
+
+        if (statusCode != HttpStatus.SC_OK)
+        {
+            final StringResponse errorResponse = inputStreamToString(response.getEntity().getContent(), charset, statusCode, getRetryAfterMillis(response));
+            return new ParsedResponse<>(null, false, 0, errorResponse.getContents(), statusCode, errorResponse.getRetryAfterMillis());
+        }
+
+        try (CountingInputStream inputStream = new CountingInputStream(response.getEntity().getContent());
+             Reader reader = new InputStreamReader(inputStream, getResponseCharset(charset)))
+        {
+            final T value = bodyParser.parse(reader);
+            return new ParsedResponse<>(value, true, inputStream.getByteCount(), null, statusCode, null);
+        }
+    }
+
+    private static boolean isOverloaded(final int statusCode)
+    {
+        return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * Parses the {@code Retry-After} header, given either as a number of seconds or as an http date.
+     * @return the requested delay, or null if the header is absent or malformed
+     */
+    static Long getRetryAfterMillis(final HttpResponse response)
+    {
+        final Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || StringUtils.isBlank(retryAfter.getValue()))
+            return null;
+
+        final String value = retryAfter.getValue().trim();
+        if (StringUtils.isNumeric(value))
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+
+        final Date retryAt = DateUtils.parseDate(value);
+        if (retryAt == null)
+            return null;
+
+        return Math.max(0, retryAt.getTime() - System.currentTimeMillis());
+    }
+
+    private static long transfer(final InputStream inputStream, final WritableByteChannel target) throws IOException
+    {
+        final ReadableByteChannel source = Channels.newChannel(inputStream);
+        if (target instanceof FileChannel)
+            return transfer(source, (FileChannel) target);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(TRANSFER_BUFFER_SIZE);
+
+        long transferred = 0;
+        while (source.read(buffer) != -1)
+        {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                transferred += target.write(buffer);
+            buffer.clear();
+        }
+        return transferred;
+    }
+
+    /**
+     * Lets the file channel pull from the socket stream itself, so the bytes go to disk through the
+     * channel's own direct buffer rather than through an extra heap buffer.
+     */
+    private static long transfer(final ReadableByteChannel source, final FileChannel target) throws IOException
+    {
+        final long start = target.position();
+        long position = start;
+        long transferred;
+        while ((transferred = target.transferFrom(source, position, FILE_TRANSFER_CHUNK_SIZE)) > 0)
+            position += transferred;
+
+        target.position(position);
+        return position - start;
+    }
+
+    /**
+     * @return name of the charset of the response body, or null if it has none or one unknown to the JVM
+     */
+    private static String getContentCharset(final HttpResponse response)
+    {
+        try
+        {
+            final Charset charset = ContentType.getOrDefault(response.getEntity()).getCharset();
+            return charset != null ? charset.name() : null;
+        }
+        catch (final ParseException | IllegalArgumentException e)
+        {
+            // unknown or malformed charsets are read as UTF-8, like any other charset but UTF-16
+            return null;
+        }
+    }
+
+    private static Charset getResponseCharset(final String encoding)
+    {
         // unless UTF-16 explicitly specified, use default UTF-8 encoding.
-        final String responseEncoding = (null == encoding || !encoding.toUpperCase().contains(CharEncoding.UTF_16) ? CharEncoding.UTF_8 : CharEncoding.UTF_16);
-        final String contents = new String(contentsRaw, responseEncoding);
-        return new StringResponse(contents, contentsRaw, responseEncoding, httpCode == HttpStatus.SC_OK);
+        return null == encoding || !encoding.toUpperCase().contains(CharEncoding.UTF_16) ? StandardCharsets.UTF_8 : StandardCharsets.UTF_16;
     }
 
-    private ProxyConfiguration mergeSystemProxyConfiguration(final ProxyConfiguration proxyConfiguration)
+    /**
+     * The proxy set with system properties wins over the given configuration. It is parsed again only when the properties change.
+     */
+    static ProxyConfiguration mergeSystemProxyConfiguration(final ProxyConfiguration proxyConfiguration)
     {
         String protocol = defineSchemeFromSystemProperties();
         if (protocol != null)
         {
-            ProxyConfiguration newProxyConfiguration = new ProxyConfiguration();
-            newProxyConfiguration.setHost(System.getProperty(protocol + PROPERTY_SUFFIX_PROXY_HOST));
-            newProxyConfiguration.setPort(Integer.valueOf(System.getProperty(protocol + PROPERTY_SUFFIX_PROXY_PORT)));
-            newProxyConfiguration.setUsername(System.getProperty(protocol + PROPERTY_SUFFIX_PROXY_USERNAME));
-            newProxyConfiguration.setPassword(System.getProperty(protocol + PROPERTY_SUFFIX_PROXY_PASSWORD));
+            final String host = System.getProperty(protocol + PROPERTY_SUFFIX_PROXY_HOST);
+            final String port = System.getProperty(protocol + PROPERTY_SUFFIX_PROXY_PORT);
+            final String username = System.getProperty(protocol + PROPERTY_SUFFIX_PROXY_USERNAME);
+            final String password = System.getProperty(protocol + PROPERTY_SUFFIX_PROXY_PASSWORD);
 
-            return newProxyConfiguration;
+            SystemProxy current = systemProxy;
+            if (current == null || !current.matches(host, port, username, password))
+                systemProxy = current = new SystemProxy(host, port, username, password);
+
+            return current.proxyConfiguration;
         }
         return proxyConfiguration;
     }
 
-    private String defineSchemeFromSystemProperties()
+    private static String defineSchemeFromSystemProperties()
     {
         if (StringUtils.isNotBlank(System.getProperty(SCHEME_HTTPS + PROPERTY_SUFFIX_PROXY_HOST)) && StringUtils.isNotBlank(System.getProperty(SCHEME_HTTPS + PROPERTY_SUFFIX_PROXY_PORT)))
             return SCHEME_HTTPS;
@@ -141,4 +457,51 @@ public class HttpUtils
 
         return null;
     }
+
+    /**
+     * Proxy configuration parsed from system properties, along with the raw values it was parsed from.
+     */
+    private static final class SystemProxy
+    {
+        private final String             host;
+        private final String             port;
+        private final String             username;
+        private final String             password;
+        private final ProxyConfiguration proxyConfiguration = new ProxyConfiguration();
+
+        private SystemProxy(final String host, final String port, final String username, final String password)
+        {
+            this.host = host;
+            this.port = port;
+            this.username = username;
+            this.password = password;
+
+            proxyConfiguration.setHost(host);
+            proxyConfiguration.setPort(Integer.parseInt(port));
+            proxyConfiguration.setUsername(username);
+            proxyConfiguration.setPassword(password);
+        }
+
+        private boolean matches(final String host, final String port, final String username, final String password)
+        {
+            return Objects.equals(this.host, host) && Objects.equals(this.port, port)
+                    && Objects.equals(this.username, username) && Objects.equals(this.password, password);
+        }
+    }
+
+    /**
+     * Parses the body of a successful response from the connection.
+     */
+    public interface BodyParser<T>
+    {
+        /**
+         * @param reader the body, decoded with the charset of the response
+         */
+        T parse(Reader reader) throws IOException;
+    }
+
+    private interface ResponseReader<T>
+    {
+        T read(HttpResponse response) throws IOException;
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.util;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the values of the fields of the API objects the way Gson does by reflection, for the type adapters
+ * of the classes in {@code com.smartling.api.sdk.dto}. A null value reads as null, or as the default of a primitive field.
+ */
+public final class JsonUtils
+{
+    private JsonUtils()
+    {
+    }
+
+    public static String readString(final JsonReader reader) throws IOException
+    {
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.NULL)
+        {
+            reader.nextNull();
+            return null;
+        }
+
+        return token == JsonToken.BOOLEAN ? Boolean.toString(reader.nextBoolean()) : reader.nextString();
+    }
+
+    public static int readInt(final JsonReader reader) throws IOException
+    {
+        if (reader.peek() == JsonToken.NULL)
+        {
+            reader.nextNull();
+            return 0;
+        }
+
+        try
+        {
+            return reader.nextInt();
+        }
+        catch (final NumberFormatException e)
+        {
+            // as Gson reports numbers it cannot read
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    public static boolean readBoolean(final JsonReader reader) throws IOException
+    {
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.NULL)
+        {
+            reader.nextNull();
+            return false;
+        }
+
+        return token == JsonToken.STRING ? Boolean.parseBoolean(reader.nextString()) : reader.nextBoolean();
+    }
+
+    public static <T> List<T> readList(final JsonReader reader, final TypeAdapter<T> elementAdapter) throws IOException
+    {
+        if (reader.peek() == JsonToken.NULL)
+        {
+            reader.nextNull();
+            return null;
+        }
+
+        final List<T> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext())
+            list.add(elementAdapter.read(reader));
+        reader.endArray();
+
+        return list;
+    }
+
+    public static List<String> readStringList(final JsonReader reader) throws IOException
+    {
+        if (reader.peek() == JsonToken.NULL)
+        {
+            reader.nextNull();
+            return null;
+        }
+
+        final List<String> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext())
+            list.add(readString(reader));
+        reader.endArray();
+
+        return list;
+    }
+
+    /**
+     * Writes the field unless it is null, as Gson leaves out null fields.
+     */
+    public static void writeString(final JsonWriter writer, final String name, final String value) throws IOException
+    {
+        if (value != null)
+            writer.name(name).value(value);
+    }
+
+    public static <T> void writeValue(final JsonWriter writer, final String name, final T value, final TypeAdapter<T> adapter) throws IOException
+    {
+        if (value == null)
+            return;
+
+        writer.name(name);
+        adapter.write(writer, value);
+    }
+
+    public static <T> void writeList(final JsonWriter writer, final String name, final List<T> list, final TypeAdapter<T> elementAdapter) throws IOException
+    {
+        if (list == null)
+            return;
+
+        writer.name(name).beginArray();
+        for (final T element : list)
+        {
+            if (element == null)
+                writer.nullValue();
+            else
+                elementAdapter.write(writer, element);
+        }
+        writer.endArray();
+    }
+
+    public static void writeStringList(final JsonWriter writer, final String name, final List<String> list) throws IOException
+    {
+        if (list == null)
+            return;
+
+        writer.name(name).beginArray();
+        for (final String element : list)
+        {
+            if (element == null)
+                writer.nullValue();
+            else
+                writer.value(element);
+        }
+        writer.endArray();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.util;
+
+import com.smartling.api.sdk.HttpClientConfiguration;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooling connection manager which periodically closes expired and idle connections
+ * until it is shut down.
+ */
+class PooledConnectionManager extends PoolingHttpClientConnectionManager
+{
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+    {
+        @Override
+        public Thread newThread(final Runnable runnable)
+        {
+            final Thread thread = new Thread(runnable, "smartling-sdk-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final ScheduledFuture<?> eviction;
+
+    PooledConnectionManager(final HttpClientConfiguration httpClientConfiguration)
+    {
+        setMaxTotal(httpClientConfiguration.getMaxTotalConnections());
+        setDefaultMaxPerRoute(httpClientConfiguration.getMaxConnectionsPerRoute());
+
+        final long idleTimeout = httpClientConfiguration.getIdleConnectionTimeoutMillis();
+        final long interval = httpClientConfiguration.getEvictionIntervalMillis();
+        eviction = EVICTOR.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                closeExpiredConnections();
+                closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shutdown()
+    {
+        eviction.cancel(false);
+        super.shutdown();
+    }
+}
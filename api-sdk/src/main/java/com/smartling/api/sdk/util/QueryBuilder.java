@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.util;
+
+import org.apache.http.NameValuePair;
+
+import java.util.List;
+
+/**
+ * Builds the url of a request, appending the parameters to the query as they are given instead of collecting them first.
+ * Names and values are encoded as {@link org.apache.http.client.utils.URLEncodedUtils#format(List, String)} encodes them
+ * in UTF-8, straight into the url without encoding each of them into a string of its own. Parameters without a value are
+ * left out.
+ */
+public final class QueryBuilder
+{
+    /** room for the parameters of a typical request beyond the prefix */
+    private static final int PARAMETERS_CAPACITY = 128;
+
+    private static final char[]  HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    /** characters encoded as themselves, the others are percent encoded, except the space, which becomes a plus */
+    private static final boolean[] UNRESERVED = new boolean[128];
+
+    static
+    {
+        for (char c = 'a'; c <= 'z'; c++)
+            UNRESERVED[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++)
+            UNRESERVED[c] = true;
+        for (char c = '0'; c <= '9'; c++)
+            UNRESERVED[c] = true;
+        UNRESERVED['_'] = true;
+        UNRESERVED['-'] = true;
+        UNRESERVED['.'] = true;
+        UNRESERVED['*'] = true;
+    }
+
+    private final StringBuilder url;
+
+    /**
+     * @param encodedPrefix url to append the parameters to, e.g. ending with the query parameters every request of a client has
+     */
+    public QueryBuilder(final String encodedPrefix)
+    {
+        url = new StringBuilder(encodedPrefix.length() + PARAMETERS_CAPACITY).append(encodedPrefix);
+    }
+
+    /**
+     * Appends the parameter, unless the value is null.
+     */
+    public QueryBuilder add(final String name, final String value)
+    {
+        if (value == null)
+            return this;
+
+        final int length = url.length();
+        if (length > 0 && url.charAt(length - 1) != '?' && url.charAt(length - 1) != '&')
+            url.append('&');
+        encode(url, name);
+        url.append('=');
+        encode(url, value);
+
+        return this;
+    }
+
+    public QueryBuilder add(final NameValuePair parameter)
+    {
+        return add(parameter.getName(), parameter.getValue());
+    }
+
+    public QueryBuilder addAll(final List<? extends NameValuePair> parameters)
+    {
+        for (final NameValuePair parameter : parameters)
+            add(parameter.getName(), parameter.getValue());
+
+        return this;
+    }
+
+    /**
+     * Appends a parameter with the name for each value.
+     */
+    public QueryBuilder addAll(final String name, final List<String> values)
+    {
+        if (values != null)
+        {
+            for (final String value : values)
+                add(name, value);
+        }
+
+        return this;
+    }
+
+    /**
+     * @return the url with the parameters
+     */
+    public String build()
+    {
+        return url.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return build();
+    }
+
+    /**
+     * @return the text encoded as a name or a value of a query parameter
+     */
+    public static String encode(final String text)
+    {
+        final StringBuilder encoded = new StringBuilder(text.length() + 16);
+        encode(encoded, text);
+        return encoded.toString();
+    }
+
+    private static void encode(final StringBuilder target, final String text)
+    {
+        final int length = text.length();
+        for (int i = 0; i < length; i++)
+        {
+            final char c = text.charAt(i);
+            if (c < 0x80)
+            {
+                if (UNRESERVED[c])
+                    target.append(c);
+                else if (c == ' ')
+                    target.append('+');
+                else
+                    appendEncodedByte(target, c);
+            }
+            else if (c < 0x800)
+            {
+                appendEncodedByte(target, 0xC0 | c >> 6);
+                appendEncodedByte(target, 0x80 | c & 0x3F);
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1)))
+            {
+                final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                appendEncodedByte(target, 0xF0 | codePoint >> 18);
+                appendEncodedByte(target, 0x80 | codePoint >> 12 & 0x3F);
+                appendEncodedByte(target, 0x80 | codePoint >> 6 & 0x3F);
+                appendEncodedByte(target, 0x80 | codePoint & 0x3F);
+            }
+            else if (Character.isSurrogate(c))
+            {
+                // a surrogate without its pair cannot be encoded in UTF-8 and becomes a question mark, as in String.getBytes
+                appendEncodedByte(target, '?');
+            }
+            else
+            {
+                appendEncodedByte(target, 0xE0 | c >> 12);
+                appendEncodedByte(target, 0x80 | c >> 6 & 0x3F);
+                appendEncodedByte(target, 0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    private static void appendEncodedByte(final StringBuilder target, final int b)
+    {
+        target.append('%').append(HEX_DIGITS[b >> 4 & 0xF]).append(HEX_DIGITS[b & 0xF]);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.UploadFileData;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import com.smartling.api.sdk.exceptions.ValidationException;
+import com.smartling.api.sdk.file.FileType;
+import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncFileApiClientAdapterTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String UPLOAD_RESPONSE           = "{\"response\":{\"data\": {\"stringCount\": 1, \"wordCount\": 2, \"overWritten\": true},\"code\":\"SUCCESS\",\"messages\":[]}}";
+    private static final String VALIDATION_ERROR_RESPONSE = "{\"response\":{\"data\":null,\"code\":\"VALIDATION_ERROR\",\"messages\":[\"fileUri parameter is required\"]}}";
+    private static final String MAINTENANCE_RESPONSE      = "{\"response\":{\"data\":null,\"code\":\"MAINTENANCE_MODE_ERROR\",\"messages\":[\"maintenance\"]}}";
+
+    private StubApiServer                 server;
+    private AsyncFileApiClientAdapterImpl asyncFileApiClientAdapter;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        asyncFileApiClientAdapter = new AsyncFileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+    }
+
+    @After
+    public void tearDown()
+    {
+        asyncFileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testGetFileStatus() throws Exception
+    {
+        ApiResponse<FileStatus> apiResponse = asyncFileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).get();
+
+        assertEquals("SUCCESS", apiResponse.getCode());
+        assertEquals(FILE_URI, apiResponse.getData().getFileUri());
+        assertEquals(2, apiResponse.getData().getStringCount());
+    }
+
+    @Test
+    public void testManyCallsInFlight() throws Exception
+    {
+        server.setLatencyMillis(50);
+
+        List<CompletableFuture<ApiResponse<FileStatus>>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            futures.add(asyncFileApiClientAdapter.getFileStatus(FILE_URI, LOCALE));
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).get();
+        for (CompletableFuture<ApiResponse<FileStatus>> future : futures)
+            assertEquals("SUCCESS", future.get().getCode());
+
+        assertEquals(100, server.getRequestCount());
+        assertTrue(server.getConnectionCount() <= HttpClientConfiguration.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+    }
+
+    @Test
+    public void testUploadFile() throws Exception
+    {
+        server.setResponse(200, UPLOAD_RESPONSE);
+        FileUploadParameterBuilder fileUploadParameterBuilder = new FileUploadParameterBuilder().fileUri(FILE_URI).fileType(FileType.JAVA_PROPERTIES);
+
+        ApiResponse<UploadFileData> apiResponse = asyncFileApiClientAdapter.uploadFile(
+                new ByteArrayInputStream("key=value".getBytes(StandardCharsets.UTF_8)), FILE_URI, "UTF-8", fileUploadParameterBuilder).get();
+
+        assertEquals("SUCCESS", apiResponse.getCode());
+        assertEquals(2, apiResponse.getData().getWordCount());
+    }
+
+    @Test
+    public void testValidationErrorIsMappedToValidationException() throws Exception
+    {
+        server.setResponse(400, VALIDATION_ERROR_RESPONSE);
+
+        try
+        {
+            asyncFileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).get();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof ValidationException);
+        }
+    }
+
+    @Test
+    public void testMaintenanceErrorIsMappedToMaintenanceModeException() throws Exception
+    {
+        server.setResponse(503, MAINTENANCE_RESPONSE);
+
+        try
+        {
+            asyncFileApiClientAdapter.getFile(FILE_URI, LOCALE, null).get();
+            fail();
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof MaintenanceModeException);
+        }
+    }
+}
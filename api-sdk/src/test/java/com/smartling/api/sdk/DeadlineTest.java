@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.exceptions.DeadlineExceededException;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DeadlineTest
+{
+    @Test
+    public void testCurrentDeadlineIsSetOnlyWithinCall() throws Exception
+    {
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+
+        assertSame(deadline, deadline.call(Deadline::current));
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    public void testEarlierDeadlineKeepsApplyingWithinLaterOne() throws Exception
+    {
+        Deadline outer = Deadline.after(1, TimeUnit.SECONDS);
+        Deadline later = Deadline.after(1, TimeUnit.MINUTES);
+        Deadline earlier = Deadline.after(10, TimeUnit.MILLISECONDS);
+
+        assertSame(outer, outer.call(() -> later.call(Deadline::current)));
+        assertSame(earlier, outer.call(() -> earlier.call(Deadline::current)));
+        assertSame(outer, outer.call(() -> {
+            earlier.call(Deadline::current);
+            return Deadline.current();
+        }));
+    }
+
+    @Test(expected = DeadlineExceededException.class)
+    public void testCheckFailsOncePassed() throws Exception
+    {
+        Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+
+        assertTrue(deadline.isExpired());
+        deadline.check();
+    }
+
+    @Test
+    public void testRemainingTime()
+    {
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remainingMillis() > 50000);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.ValidationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExecutorAsyncFileApiClientAdapterTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String VALIDATION_ERROR_RESPONSE = "{\"response\":{\"data\":null,\"code\":\"VALIDATION_ERROR\",\"messages\":[\"fileUri parameter is required\"]}}";
+
+    private StubApiServer                     server;
+    private FileApiClientAdapterImpl          fileApiClientAdapter;
+    private ExecutorAsyncFileApiClientAdapter asyncFileApiClientAdapter;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        asyncFileApiClientAdapter = new ExecutorAsyncFileApiClientAdapter(fileApiClientAdapter, ExecutionMode.VIRTUAL_THREADS);
+    }
+
+    @After
+    public void tearDown()
+    {
+        asyncFileApiClientAdapter.close();
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testGetFileStatus() throws Exception
+    {
+        ApiResponse<FileStatus> apiResponse = asyncFileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).get();
+
+        assertEquals("SUCCESS", apiResponse.getCode());
+        assertEquals(FILE_URI, apiResponse.getData().getFileUri());
+    }
+
+    @Test
+    public void testGetFileStatusesFansOut() throws Exception
+    {
+        server.setLatencyMillis(50);
+        List<String> fileUris = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            fileUris.add("file" + i);
+
+        Map<String, CompletableFuture<ApiResponse<FileStatus>>> fileStatuses = asyncFileApiClientAdapter.getFileStatuses(fileUris, LOCALE);
+
+        assertEquals(fileUris, new ArrayList<>(fileStatuses.keySet()));
+        for (CompletableFuture<ApiResponse<FileStatus>> fileStatus : fileStatuses.values())
+            assertEquals("SUCCESS", fileStatus.get().getCode());
+        assertEquals(10, server.getRequestCount());
+        assertTrue(server.getMaxConcurrentRequests() > 1);
+    }
+
+    @Test
+    public void testFailureCompletesFutureExceptionally() throws Exception
+    {
+        server.setResponse(400, VALIDATION_ERROR_RESPONSE);
+
+        try
+        {
+            asyncFileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).get();
+            fail("Exception expected");
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof ValidationException);
+        }
+    }
+
+    @Test
+    public void testCallsAfterCloseFail() throws Exception
+    {
+        asyncFileApiClientAdapter.close();
+
+        try
+        {
+            asyncFileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).get();
+            fail("Exception expected");
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof ApiException);
+        }
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void testCloseLeavesGivenExecutorRunning() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            ExecutorAsyncFileApiClientAdapter adapter = new ExecutorAsyncFileApiClientAdapter(fileApiClientAdapter, executor);
+            assertEquals("SUCCESS", adapter.getFileStatus(FILE_URI, LOCALE).get().getCode());
+            adapter.close();
+
+            assertFalse(executor.isShutdown());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.circuitbreaker.CircuitBreaker;
+import com.smartling.api.sdk.circuitbreaker.CircuitBreakerState;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.CircuitBreakerOpenException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class FileApiClientAdapterCircuitBreakerTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String MAINTENANCE_RESPONSE = "{\"response\":{\"data\":null,\"code\":\"MAINTENANCE_MODE_ERROR\",\"messages\":[\"maintenance\"]}}";
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private CircuitBreaker           circuitBreaker;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        circuitBreaker = new CircuitBreaker();
+        circuitBreaker.setOpenDurationMillis(50);
+        fileApiClientAdapter.setCircuitBreaker(circuitBreaker);
+    }
+
+    @After
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testFailsFastDuringMaintenanceAndRecovers() throws Exception
+    {
+        server.enqueueResponse(503, MAINTENANCE_RESPONSE, null);
+
+        expectFailure(MaintenanceModeException.class);
+        expectFailure(CircuitBreakerOpenException.class);
+        assertEquals(1, server.getRequestCount());
+
+        Thread.sleep(60);
+        assertEquals("SUCCESS", fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).getCode());
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testNonJsonServerErrorsOpenBreaker() throws Exception
+    {
+        server.setResponse(502, "<html>Bad gateway</html>");
+
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++)
+            expectFailure(ApiException.class);
+
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+        expectFailure(CircuitBreakerOpenException.class);
+        assertEquals(CircuitBreaker.DEFAULT_FAILURE_THRESHOLD, server.getRequestCount());
+    }
+
+    private void expectFailure(final Class<? extends ApiException> exceptionClass)
+    {
+        try
+        {
+            fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+            fail();
+        }
+        catch (ApiException e)
+        {
+            assertEquals(exceptionClass, e.getClass());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.concurrency.ConcurrencyLimiter;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.OperationsLimitExceeded;
+import com.smartling.api.sdk.util.HttpUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives more concurrent callers than the stub server can take and checks that the adaptive limit settles near the
+ * server's capacity, so that nearly all calls succeed and throughput does not collapse.
+ */
+public class FileApiClientAdapterConcurrencyLoadTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final int  SERVER_CAPACITY  = 8;
+    private static final long LATENCY_MILLIS   = 20;
+    private static final int  CALLERS          = 32;
+    private static final int  CALLS_PER_CALLER = 20;
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private ExecutorService          executor;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        server.setCapacity(SERVER_CAPACITY);
+        server.setLatencyMillis(LATENCY_MILLIS);
+
+        HttpClientConfiguration httpClientConfiguration = new HttpClientConfiguration();
+        httpClientConfiguration.setMaxTotalConnections(CALLERS);
+        httpClientConfiguration.setMaxConnectionsPerRoute(CALLERS);
+
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        fileApiClientAdapter.setHttpUtils(new HttpUtils(httpClientConfiguration));
+
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testLimitConvergesWithoutOverloadingServer() throws Exception
+    {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(CALLERS);
+        fileApiClientAdapter.getHttpUtils().setConcurrencyLimiter(concurrencyLimiter);
+
+        long start = System.nanoTime();
+        int rejected = runLoad();
+        double seconds = (System.nanoTime() - start) / (double)TimeUnit.SECONDS.toNanos(1);
+
+        int calls = CALLERS * CALLS_PER_CALLER;
+        double throughput = (calls - rejected) / seconds;
+        double capacityThroughput = SERVER_CAPACITY * 1000.0 / LATENCY_MILLIS;
+
+        assertTrue("rejected " + rejected + " of " + calls, rejected < calls / 10);
+        assertTrue("limit " + concurrencyLimiter.getLimit(), concurrencyLimiter.getLimit() >= SERVER_CAPACITY / 4);
+        assertTrue("limit " + concurrencyLimiter.getLimit(), concurrencyLimiter.getLimit() <= 2 * SERVER_CAPACITY);
+        assertTrue("throughput " + throughput, throughput > capacityThroughput / 8);
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    public void testServerIsOverloadedWithoutLimiter() throws Exception
+    {
+        int rejected = runLoad();
+
+        assertTrue("rejected " + rejected, rejected > CALLERS * CALLS_PER_CALLER / 4);
+    }
+
+    private int runLoad() throws Exception
+    {
+        final AtomicInteger rejected = new AtomicInteger();
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int caller = 0; caller < CALLERS; caller++)
+        {
+            futures.add(executor.submit(new Callable<Void>()
+            {
+                @Override
+                public Void call() throws ApiException
+                {
+                    for (int i = 0; i < CALLS_PER_CALLER; i++)
+                    {
+                        try
+                        {
+                            fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+                        }
+                        catch (OperationsLimitExceeded e)
+                        {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        for (Future<Void> future : futures)
+            future.get();
+
+        assertEquals(rejected.get(), server.getOverloadedCount());
+        return rejected.get();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.util.HttpUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileApiClientAdapterConnectionPoolTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+    }
+
+    @After
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testConnectionIsReusedAcrossCalls() throws ApiException
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            ApiResponse<FileStatus> apiResponse = fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+            assertEquals("SUCCESS", apiResponse.getCode());
+        }
+
+        assertEquals(5, server.getRequestCount());
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void testConcurrentCallsStayWithinRouteLimit() throws Exception
+    {
+        HttpClientConfiguration httpClientConfiguration = new HttpClientConfiguration();
+        httpClientConfiguration.setMaxConnectionsPerRoute(2);
+        fileApiClientAdapter.setHttpUtils(new HttpUtils(httpClientConfiguration));
+        server.setLatencyMillis(20);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            List<Future<ApiResponse<FileStatus>>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++)
+            {
+                futures.add(executor.submit(new Callable<ApiResponse<FileStatus>>()
+                {
+                    @Override
+                    public ApiResponse<FileStatus> call() throws ApiException
+                    {
+                        return fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+                    }
+                }));
+            }
+            for (Future<ApiResponse<FileStatus>> future : futures)
+                assertEquals("SUCCESS", future.get().getCode());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals(40, server.getRequestCount());
+        assertTrue(server.getConnectionCount() <= 2);
+    }
+
+    @Test
+    public void testCloseReleasesConnections() throws ApiException
+    {
+        fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+        fileApiClientAdapter.close();
+        fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+
+        assertEquals(2, server.getConnectionCount());
+    }
+}
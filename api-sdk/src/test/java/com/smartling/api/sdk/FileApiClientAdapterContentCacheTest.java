@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.cache.FileContentCache;
+import com.smartling.api.sdk.cache.ResponseCache;
+import com.smartling.api.sdk.dto.file.StreamResponse;
+import com.smartling.api.sdk.file.RetrievalType;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileApiClientAdapterContentCacheTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String LAST_MODIFIED_RESPONSE = "{\"response\":{\"data\": {\"items\": [{\"locale\": \"%s\", \"lastModified\": \"%s\"}]}, \"code\":\"SUCCESS\", \"messages\":[]}}";
+    private static final String NOT_MODIFIED_RESPONSE  = "{\"response\":{\"data\": {\"items\": []}, \"code\":\"SUCCESS\", \"messages\":[]}}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private FileContentCache         fileContentCache;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        fileContentCache = new FileContentCache(temporaryFolder.newFolder("cache").toPath());
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        fileApiClientAdapter.setFileContentCache(fileContentCache);
+    }
+
+    @After
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testUnmodifiedFileIsServedFromCache() throws Exception
+    {
+        server.enqueueResponse(200, String.format(LAST_MODIFIED_RESPONSE, LOCALE, "2013-01-01T00:00:00"), null);
+        server.enqueueResponse(200, "key=value", null);
+        assertEquals("key=value", fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED).getContents());
+
+        server.enqueueResponse(200, NOT_MODIFIED_RESPONSE, null);
+        assertEquals("key=value", fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED).getContents());
+
+        assertEquals(3, server.getRequestCount());
+        assertEquals(1, fileContentCache.getHitCount());
+        assertEquals(1, fileContentCache.getEntryCount());
+    }
+
+    @Test
+    public void testModifiedFileIsDownloadedAgain() throws Exception
+    {
+        server.enqueueResponse(200, String.format(LAST_MODIFIED_RESPONSE, LOCALE, "2013-01-01T00:00:00"), null);
+        server.enqueueResponse(200, "key=value", null);
+        fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED);
+
+        server.enqueueResponse(200, String.format(LAST_MODIFIED_RESPONSE, LOCALE, "2013-01-02T00:00:00"), null);
+        server.enqueueResponse(200, "key=changed", null);
+        assertEquals("key=changed", fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED).getContents());
+
+        server.enqueueResponse(200, NOT_MODIFIED_RESPONSE, null);
+        assertEquals("key=changed", fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED).getContents());
+
+        assertEquals(5, server.getRequestCount());
+        assertEquals(1, fileContentCache.getHitCount());
+    }
+
+    @Test
+    public void testRevalidationBypassesResponseCache() throws Exception
+    {
+        fileApiClientAdapter.setResponseCache(new ResponseCache());
+        server.enqueueResponse(200, String.format(LAST_MODIFIED_RESPONSE, LOCALE, "2013-01-01T00:00:00"), null);
+        server.enqueueResponse(200, "key=value", null);
+        fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED);
+
+        server.enqueueResponse(200, NOT_MODIFIED_RESPONSE, null);
+        assertEquals("key=value", fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED).getContents());
+
+        // the same revalidation request as before, answered by the API rather than the response cache
+        server.enqueueResponse(200, String.format(LAST_MODIFIED_RESPONSE, LOCALE, "2013-01-02T00:00:00"), null);
+        server.enqueueResponse(200, "key=changed", null);
+        assertEquals("key=changed", fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED).getContents());
+
+        assertEquals(5, server.getRequestCount());
+    }
+
+    @Test
+    public void testDownloadIsServedFromCache() throws Exception
+    {
+        server.enqueueResponse(200, String.format(LAST_MODIFIED_RESPONSE, LOCALE, "2013-01-01T00:00:00"), null);
+        server.enqueueResponse(200, "key=value", null);
+        fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED);
+
+        server.enqueueResponse(200, NOT_MODIFIED_RESPONSE, null);
+        final Path target = temporaryFolder.getRoot().toPath().resolve("out/file.properties");
+        final StreamResponse streamResponse = fileApiClientAdapter.downloadFile(
+                new GetFileParameterBuilder().fileUri(FILE_URI).locale(LOCALE).retrievalType(RetrievalType.PUBLISHED), target);
+
+        assertEquals("key=value", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertEquals(9, streamResponse.getContentLength());
+        assertEquals(3, server.getRequestCount());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.DeadlineExceededException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import com.smartling.api.sdk.retry.RetryPolicy;
+import com.smartling.api.sdk.util.HttpUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FileApiClientAdapterDeadlineTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String MAINTENANCE_RESPONSE = "{\"response\":{\"data\":null,\"code\":\"MAINTENANCE_MODE_ERROR\",\"messages\":[\"maintenance\"]}}";
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+    }
+
+    @After
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testSocketTimeoutOfOperationClass() throws Exception
+    {
+        HttpClientConfiguration httpClientConfiguration = new HttpClientConfiguration();
+        httpClientConfiguration.setRequestTimeouts(OperationClass.STATUS, new RequestTimeouts(1000, 100, 1000));
+        fileApiClientAdapter.setHttpUtils(new HttpUtils(httpClientConfiguration));
+        server.setLatencyMillis(2000);
+
+        long start = System.nanoTime();
+        try
+        {
+            fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+            fail();
+        }
+        catch (ApiException e)
+        {
+            assertTrue(e.getCause() instanceof SocketTimeoutException);
+        }
+        assertTrue(elapsedMillis(start) < 1500);
+    }
+
+    @Test
+    public void testDeadlineAbortsRequestInFlight() throws Exception
+    {
+        server.setLatencyMillis(3000);
+
+        long start = System.nanoTime();
+        try
+        {
+            Deadline.after(200, TimeUnit.MILLISECONDS).call(() -> fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE));
+            fail();
+        }
+        catch (DeadlineExceededException e)
+        {
+            assertTrue(elapsedMillis(start) < 2000);
+        }
+        assertTrue(Deadline.current() == null);
+    }
+
+    @Test
+    public void testDeadlineStopsRetries() throws Exception
+    {
+        RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setMaxAttempts(100);
+        retryPolicy.setBaseDelayMillis(50);
+        retryPolicy.setMaxDelayMillis(50);
+        fileApiClientAdapter.getRetryHandler().setRetryPolicy(retryPolicy);
+        server.setResponse(503, MAINTENANCE_RESPONSE);
+
+        long start = System.nanoTime();
+        try
+        {
+            Deadline.after(300, TimeUnit.MILLISECONDS).call(() -> fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE));
+            fail();
+        }
+        catch (MaintenanceModeException | DeadlineExceededException e)
+        {
+            assertTrue(elapsedMillis(start) < 2000);
+        }
+        assertTrue(server.getRequestCount() > 1 && server.getRequestCount() < 100);
+    }
+
+    private static long elapsedMillis(long startNanos)
+    {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.cache.FileContentCache;
+import com.smartling.api.sdk.cache.ResponseCache;
+import com.smartling.api.sdk.degraded.DegradedMode;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.exceptions.ValidationException;
+import com.smartling.api.sdk.file.RetrievalType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileApiClientAdapterDegradedModeTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String MAINTENANCE_RESPONSE   = "{\"response\":{\"data\":null,\"code\":\"MAINTENANCE_MODE_ERROR\",\"messages\":[\"maintenance\"]}}";
+    private static final String VALIDATION_RESPONSE    = "{\"response\":{\"data\":null,\"code\":\"VALIDATION_ERROR\",\"messages\":[\"invalid\"]}}";
+    private static final String LAST_MODIFIED_RESPONSE = "{\"response\":{\"data\": {\"items\": [{\"locale\": \"%s\", \"lastModified\": \"%s\"}]}, \"code\":\"SUCCESS\", \"messages\":[]}}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private ResponseCache            responseCache;
+    private DegradedMode             degradedMode;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        responseCache = new ResponseCache();
+        responseCache.setTtlMillis(ApiOperation.GET_FILE_STATUS, 1);
+        responseCache.setMaxStaleMillis(60000);
+        degradedMode = new DegradedMode();
+        degradedMode.setRevalidationIntervalMillis(20);
+
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        fileApiClientAdapter.setResponseCache(responseCache);
+        fileApiClientAdapter.setDegradedMode(degradedMode);
+    }
+
+    @After
+    public void tearDown()
+    {
+        degradedMode.close();
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testStatusIsServedStaleDuringMaintenanceAndRevalidated() throws Exception
+    {
+        assertFalse(fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).isStale());
+        Thread.sleep(5);
+
+        server.enqueueResponse(503, MAINTENANCE_RESPONSE, null);
+        server.enqueueResponse(503, MAINTENANCE_RESPONSE, null);
+        final ApiResponse<FileStatus> staleResponse = fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+
+        assertTrue(staleResponse.isStale());
+        assertEquals(FILE_URI, staleResponse.getData().getFileUri());
+        assertEquals(1, degradedMode.getStaleResponseCount());
+
+        awaitRevalidation();
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testOtherFailuresAreNotServedStale() throws Exception
+    {
+        fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+        Thread.sleep(5);
+
+        server.enqueueResponse(400, VALIDATION_RESPONSE, null);
+        fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+    }
+
+    @Test
+    public void testCachedFileIsServedStaleDuringOutage() throws Exception
+    {
+        fileApiClientAdapter.setFileContentCache(new FileContentCache(temporaryFolder.getRoot().toPath()));
+
+        server.enqueueResponse(200, String.format(LAST_MODIFIED_RESPONSE, LOCALE, "2013-01-01T00:00:00"), null);
+        server.enqueueResponse(200, "key=value", null);
+        fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED);
+
+        server.enqueueResponse(502, "<html>Bad gateway</html>", null);
+        final StringResponse staleResponse = fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED);
+
+        assertTrue(staleResponse.isStale());
+        assertEquals("key=value", staleResponse.getContents());
+        assertEquals(1, degradedMode.getStaleResponseCount());
+    }
+
+    private void awaitRevalidation() throws InterruptedException
+    {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (degradedMode.getRevalidationCount() == 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        assertEquals(1, degradedMode.getRevalidationCount());
+        assertEquals(0, degradedMode.getPendingRevalidationCount());
+    }
+}
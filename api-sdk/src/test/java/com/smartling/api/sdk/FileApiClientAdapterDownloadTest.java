@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.dto.file.StreamResponse;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.ValidationException;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class FileApiClientAdapterDownloadTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String VALIDATION_ERROR_RESPONSE = "{\"response\":{\"data\":null,\"code\":\"VALIDATION_ERROR\",\"messages\":[\"fileUri parameter is required\"]}}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+    }
+
+    @After
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testDownloadFileWritesRawBytes() throws Exception
+    {
+        byte[] contents = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(contents);
+        server.setResponse(200, contents);
+        Path target = temporaryFolder.getRoot().toPath().resolve("nested").resolve("file_en_US.properties");
+
+        StreamResponse streamResponse = fileApiClientAdapter.downloadFile(new GetFileParameterBuilder().fileUri(FILE_URI).locale(LOCALE), target);
+
+        assertEquals(contents.length, streamResponse.getContentLength());
+        assertArrayEquals(contents, Files.readAllBytes(target));
+        assertEquals(1, target.getParent().toFile().list().length);
+    }
+
+    @Test
+    public void testDownloadFileReplacesExistingFile() throws Exception
+    {
+        Path target = temporaryFolder.newFile("file_en_US.properties").toPath();
+        Files.write(target, "old contents which are longer than the new ones".getBytes(StandardCharsets.UTF_8));
+        server.setResponse(200, "key=value");
+
+        fileApiClientAdapter.downloadFile(new GetFileParameterBuilder().fileUri(FILE_URI).locale(LOCALE), target);
+
+        assertEquals("key=value", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDownloadFileLeavesNothingBehindOnError() throws Exception
+    {
+        server.setResponse(400, VALIDATION_ERROR_RESPONSE);
+        File directory = temporaryFolder.newFolder();
+        Path target = directory.toPath().resolve("file_en_US.properties");
+
+        try
+        {
+            fileApiClientAdapter.downloadFile(new GetFileParameterBuilder().fileUri(FILE_URI).locale(LOCALE), target);
+            fail();
+        }
+        catch (ApiException e)
+        {
+            assertEquals(ValidationException.class, e.getClass());
+        }
+
+        assertFalse(Files.exists(target));
+        assertEquals(0, directory.list().length);
+    }
+}
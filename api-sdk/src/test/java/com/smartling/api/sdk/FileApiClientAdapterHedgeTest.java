@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.hedge.HedgeMetrics;
+import com.smartling.api.sdk.hedge.HedgePolicy;
+import com.smartling.api.sdk.hedge.Hedger;
+import com.smartling.api.sdk.ratelimit.AcquireMode;
+import com.smartling.api.sdk.ratelimit.RateLimit;
+import com.smartling.api.sdk.ratelimit.RateLimiter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileApiClientAdapterHedgeTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private Hedger                   hedger;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        hedger = new Hedger();
+        hedger.setHedgePolicy(ApiOperation.GET_FILE_STATUS, HedgePolicy.fixedDelay(50));
+        fileApiClientAdapter.setHedger(hedger);
+    }
+
+    @After
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+        hedger.close();
+        server.close();
+    }
+
+    @Test
+    public void testSlowRequestIsAnsweredByHedge() throws Exception
+    {
+        server.delayNextRequests(1, 3000);
+
+        final long start = System.nanoTime();
+        assertEquals("SUCCESS", fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).getCode());
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertEquals(2, server.getRequestCount());
+        final HedgeMetrics metrics = hedger.getMetrics(ApiOperation.GET_FILE_STATUS);
+        assertEquals(1, metrics.getHedgeCount());
+        assertEquals(1, metrics.getHedgeWinCount());
+    }
+
+    @Test
+    public void testHedgesTakeRateLimitPermits() throws Exception
+    {
+        final RateLimiter rateLimiter = new RateLimiter();
+        rateLimiter.setRateLimit(OperationClass.STATUS, new RateLimit(0.1, 1));
+        rateLimiter.setAcquireMode(AcquireMode.FAIL_FAST);
+        fileApiClientAdapter.setRateLimiter(rateLimiter);
+        server.delayNextRequests(1, 200);
+
+        // the hedge finds no permit left and fails, so the slow request answers the call
+        assertEquals("SUCCESS", fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE).getCode());
+
+        assertEquals(1, server.getRequestCount());
+        final HedgeMetrics metrics = hedger.getMetrics(ApiOperation.GET_FILE_STATUS);
+        assertEquals(1, metrics.getHedgeCount());
+        assertEquals(0, metrics.getHedgeWinCount());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.cache.ResponseCache;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class FileApiClientAdapterResponseCacheTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String DELETE_RESPONSE = "{\"response\":{\"data\":null,\"code\":\"SUCCESS\",\"messages\":[]}}";
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private ResponseCache            responseCache;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        responseCache = new ResponseCache();
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        fileApiClientAdapter.setResponseCache(responseCache);
+    }
+
+    @After
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testRepeatedStatusCallIsAnsweredFromCache() throws Exception
+    {
+        ApiResponse<FileStatus> first = fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+        ApiResponse<FileStatus> second = fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+
+        assertEquals(FILE_URI, second.getData().getFileUri());
+        assertNotSame(first, second);
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, responseCache.getHitCount());
+    }
+
+    @Test
+    public void testOtherLocaleIsNotAnsweredFromCache() throws Exception
+    {
+        fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+        fileApiClientAdapter.getFileStatus(FILE_URI, "de-DE");
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testDeleteDropsCachedStatus() throws Exception
+    {
+        fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+        server.enqueueResponse(200, DELETE_RESPONSE, null);
+        fileApiClientAdapter.deleteFile(FILE_URI);
+        fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+
+        assertEquals(3, server.getRequestCount());
+        assertEquals(1, responseCache.getInvalidationCount());
+    }
+}
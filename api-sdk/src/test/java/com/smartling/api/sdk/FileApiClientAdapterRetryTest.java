@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.UploadFileData;
+import com.smartling.api.sdk.file.FileType;
+import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import com.smartling.api.sdk.retry.RetryEvent;
+import com.smartling.api.sdk.retry.RetryListener;
+import com.smartling.api.sdk.retry.RetryPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FileApiClientAdapterRetryTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String LOCALE     = "en-US";
+    private static final String FILE_URI   = "fileUri";
+
+    private static final String UPLOAD_RESPONSE      = "{\"response\":{\"data\": {\"stringCount\": 1, \"wordCount\": 2, \"overWritten\": true},\"code\":\"SUCCESS\",\"messages\":[]}}";
+    private static final String MAINTENANCE_RESPONSE = "{\"response\":{\"data\":null,\"code\":\"MAINTENANCE_MODE_ERROR\",\"messages\":[\"maintenance\"]}}";
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private List<RetryEvent>         retries;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+
+        RetryPolicy retryPolicy = new RetryPolicy();
+        retryPolicy.setBaseDelayMillis(1);
+        retryPolicy.setMaxDelayMillis(50);
+        fileApiClientAdapter.getRetryHandler().setRetryPolicy(retryPolicy);
+
+        retries = new CopyOnWriteArrayList<>();
+        fileApiClientAdapter.getRetryHandler().addRetryListener(new RetryListener()
+        {
+            @Override
+            public void onRetry(final RetryEvent event)
+            {
+                retries.add(event);
+            }
+        });
+    }
+
+    @After
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testRetriesMaintenanceErrorHonoringRetryAfter() throws Exception
+    {
+        server.enqueueResponse(503, MAINTENANCE_RESPONSE, "0");
+
+        ApiResponse<FileStatus> apiResponse = fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+
+        assertEquals("SUCCESS", apiResponse.getCode());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, retries.size());
+        assertEquals(0, retries.get(0).getDelayMillis());
+        assertEquals(503, retries.get(0).getFailure().getHttpStatusCode());
+    }
+
+    @Test
+    public void testReplaysStreamedUploadBody() throws Exception
+    {
+        server.enqueueResponse(503, MAINTENANCE_RESPONSE, null);
+        server.setResponse(200, UPLOAD_RESPONSE);
+        FileUploadParameterBuilder fileUploadParameterBuilder = new FileUploadParameterBuilder().fileUri(FILE_URI).fileType(FileType.JAVA_PROPERTIES);
+
+        ApiResponse<UploadFileData> apiResponse = fileApiClientAdapter.uploadFile(
+                new ByteArrayInputStream("key=value".getBytes(StandardCharsets.UTF_8)), FILE_URI, "UTF-8", fileUploadParameterBuilder);
+
+        assertEquals("SUCCESS", apiResponse.getCode());
+        assertEquals(2, server.getRequestCount());
+        assertTrue(new String(server.getLastRequestBody(), StandardCharsets.UTF_8).contains("key=value"));
+    }
+
+    @Test
+    public void testRetriesStreamedGetFileAfterErrorResponse() throws Exception
+    {
+        server.enqueueResponse(503, MAINTENANCE_RESPONSE, null);
+        server.setResponse(200, "key=value");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        fileApiClientAdapter.getFile(new GetFileParameterBuilder().fileUri(FILE_URI).locale(LOCALE), outputStream);
+
+        assertEquals("key=value", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(1, retries.size());
+    }
+}
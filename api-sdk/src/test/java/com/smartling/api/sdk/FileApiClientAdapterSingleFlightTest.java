@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.concurrency.SingleFlight;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.RetrievalType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileApiClientAdapterSingleFlightTest
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String FILE_URI   = "file.properties";
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private ExecutorService          executor;
+
+    @Before
+    public void setup() throws Exception
+    {
+        server = new StubApiServer();
+        server.setResponse(200, "key=value");
+        server.setLatencyMillis(200);
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        fileApiClientAdapter.setSingleFlight(new SingleFlight());
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Test
+    public void testIdenticalDownloadsShareOneRequest() throws Exception
+    {
+        List<Future<StringResponse>> futures = getFiles("de-DE", "de-DE", "de-DE", "de-DE", "de-DE");
+
+        for (Future<StringResponse> future : futures)
+            assertEquals("key=value", future.get().getContents());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(4, fileApiClientAdapter.getSingleFlight().getSharedCount());
+    }
+
+    @Test
+    public void testDownloadsOfDifferentLocalesAreSentSeparately() throws Exception
+    {
+        List<Future<StringResponse>> futures = getFiles("de-DE", "fr-FR", "de-DE", "fr-FR");
+
+        for (Future<StringResponse> future : futures)
+            future.get();
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private List<Future<StringResponse>> getFiles(final String... locales)
+    {
+        List<Future<StringResponse>> futures = new ArrayList<>();
+        for (final String locale : locales)
+        {
+            futures.add(executor.submit(new Callable<StringResponse>()
+            {
+                @Override
+                public StringResponse call() throws ApiException
+                {
+                    return fileApiClientAdapter.getFile(FILE_URI, locale, RetrievalType.PUBLISHED);
+                }
+            }));
+        }
+        return futures;
+    }
+}
@@ -21,6 +21,8 @@ import com.smartling.api.sdk.dto.file.FileLastModified;
 import com.smartling.api.sdk.dto.file.FileList;
 import com.smartling.api.sdk.dto.file.FileLocaleLastModified;
 import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.ParsedResponse;
+import com.smartling.api.sdk.dto.file.StreamResponse;
 import com.smartling.api.sdk.dto.file.StringResponse;
 import com.smartling.api.sdk.dto.file.UploadFileData;
 import com.smartling.api.sdk.exceptions.ApiException;
@@ -30,6 +32,7 @@ import com.smartling.api.sdk.file.FileListSearchParams;
 import com.smartling.api.sdk.file.FileType;
 import com.smartling.api.sdk.file.RetrievalType;
 import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
 import com.smartling.api.sdk.util.DateFormatter;
 import com.smartling.api.sdk.util.HttpUtils;
 
@@ -41,8 +44,11 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -80,7 +86,20 @@ public class FileApiClientAdapterTest
         fileApiClientAdapter = new FileApiClientAdapterImpl(BASE_URL, API_KEY, PROJECT_ID, proxyConfiguration);
         fileApiClientAdapter.setHttpUtils(httpUtils = mock(HttpUtils.class));
         when(response.isSuccess()).thenReturn(true);
-        when(httpUtils.executeHttpCall(requestCaptor.capture(), eq(proxyConfiguration))).thenReturn(response);
+        when(httpUtils.executeHttpCall(requestCaptor.capture(), eq(proxyConfiguration), any(OperationClass.class))).thenReturn(response);
+        when(httpUtils.executeHttpCall(requestCaptor.capture(), eq(proxyConfiguration), any(OperationClass.class), any(HttpUtils.BodyParser.class)))
+                .thenAnswer(invocation -> parse((HttpUtils.BodyParser<?>)invocation.getArguments()[3]));
+    }
+
+    /**
+     * Answers a call parsing the response while it is read with the contents of the mocked string response.
+     */
+    private ParsedResponse<?> parse(final HttpUtils.BodyParser<?> bodyParser) throws IOException
+    {
+        if (!response.isSuccess())
+            return new ParsedResponse<>(null, false, 0, response.getContents(), response.getHttpStatusCode(), null);
+
+        return new ParsedResponse<>(bodyParser.parse(new StringReader(response.getContents())), true, response.getContents().length(), null, 200, null);
     }
 
     @Test(expected = NullPointerException.class)
@@ -96,7 +115,7 @@ public class FileApiClientAdapterTest
 
         ArgumentCaptor<HttpRequestBase> requestCaptor = ArgumentCaptor.forClass(HttpRequestBase.class);
 
-        verify(httpUtils).executeHttpCall(requestCaptor.capture(), eq(proxyConfiguration));
+        verify(httpUtils).executeHttpCall(requestCaptor.capture(), eq(proxyConfiguration), eq(OperationClass.GET));
 
         HttpRequestBase request = requestCaptor.getValue();
 
@@ -108,6 +127,29 @@ public class FileApiClientAdapterTest
         assertEquals(HOST, request.getURI().getHost());
     }
 
+    @Test
+    public void testFileGetToOutputStream() throws ApiException, IOException
+    {
+        StreamResponse streamResponse = new StreamResponse("UTF-8", true, 42, null);
+        when(httpUtils.executeHttpCall(requestCaptor.capture(), eq(proxyConfiguration), eq(OperationClass.GET), any(WritableByteChannel.class))).thenReturn(streamResponse);
+
+        GetFileParameterBuilder getFileParameterBuilder = new GetFileParameterBuilder().fileUri(FILE_URI).locale(LOCALE);
+        assertSame(streamResponse, fileApiClientAdapter.getFile(getFileParameterBuilder, new ByteArrayOutputStream()));
+
+        List<NameValuePair> params = URLEncodedUtils.parse(requestCaptor.getValue().getURI(), "UTF-8");
+        assertTrue(params.contains(new BasicNameValuePair(FileApiParams.LOCALE, LOCALE)));
+        assertTrue(params.contains(new BasicNameValuePair(FileApiParams.FILE_URI, FILE_URI)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testFileGetToOutputStreamThrowsValidationException() throws Exception
+    {
+        StreamResponse streamResponse = new StreamResponse("UTF-8", false, 0, VALIDATION_ERROR_RESPONSE);
+        when(httpUtils.executeHttpCall(requestCaptor.capture(), eq(proxyConfiguration), eq(OperationClass.GET), any(WritableByteChannel.class))).thenReturn(streamResponse);
+
+        fileApiClientAdapter.getFile(new GetFileParameterBuilder().fileUri(FILE_URI), new ByteArrayOutputStream());
+    }
+
     @Test(expected = ValidationException.class)
     public void testThrowValidationExceptionInCaseValidationStatus() throws Exception
     {
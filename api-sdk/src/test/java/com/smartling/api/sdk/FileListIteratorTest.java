@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.UncheckedApiException;
+import com.smartling.api.sdk.file.FileListPaging;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FileListIteratorTest
+{
+    private static final int FILE_COUNT = 25;
+
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private FileListSearchParams     fileListSearchParams;
+    private FileListPaging           fileListPaging;
+
+    private final List<Integer> requestedOffsets = Collections.synchronizedList(new ArrayList<Integer>());
+    private final AtomicInteger callCount        = new AtomicInteger();
+
+    private volatile int failingOffset = -1;
+
+    @Before
+    public void setup() throws ApiException
+    {
+        fileApiClientAdapter = new FileApiClientAdapterImpl("http://localhost/v1", "apiKeyValue", "projectIdValue")
+        {
+            @Override
+            public ApiResponse<FileList> getFilesList(final FileListSearchParams fileListSearchParams) throws ApiException
+            {
+                return page(fileListSearchParams);
+            }
+        };
+        fileListSearchParams = new FileListSearchParams();
+        fileListSearchParams.setLocale("en-US");
+        fileListPaging = new FileListPaging();
+        fileListPaging.setPageSize(10);
+    }
+
+    @Test
+    public void testWalksAllPages()
+    {
+        List<String> fileUris = new ArrayList<>();
+        FileListIterator iterator = fileApiClientAdapter.listFiles(fileListSearchParams, fileListPaging);
+        while (iterator.hasNext())
+            fileUris.add(iterator.next().getFileUri());
+
+        assertEquals(FILE_COUNT, fileUris.size());
+        assertEquals("file0", fileUris.get(0));
+        assertEquals("file24", fileUris.get(24));
+        assertEquals(3, callCount.get());
+    }
+
+    @Test
+    public void testNothingIsFetchedUntilConsumed()
+    {
+        fileApiClientAdapter.listFiles(fileListSearchParams, fileListPaging);
+
+        assertEquals(0, callCount.get());
+    }
+
+    @Test
+    public void testStartsAtOffset()
+    {
+        fileListSearchParams.setOffset(20);
+
+        List<String> fileUris = fileApiClientAdapter.streamFiles(fileListSearchParams, fileListPaging).map(FileStatus::getFileUri).collect(Collectors.toList());
+
+        assertEquals(5, fileUris.size());
+        assertEquals("file20", fileUris.get(0));
+        assertEquals(Collections.singletonList(20), requestedOffsets);
+    }
+
+    @Test
+    public void testParallelPagesKeepOrder()
+    {
+        fileListPaging.setPageSize(3);
+        fileListPaging.setPagesInFlight(4);
+
+        List<String> fileUris = fileApiClientAdapter.streamFiles(fileListSearchParams, fileListPaging).map(FileStatus::getFileUri).collect(Collectors.toList());
+
+        assertEquals(FILE_COUNT, fileUris.size());
+        for (int i = 0; i < FILE_COUNT; i++)
+            assertEquals("file" + i, fileUris.get(i));
+        assertEquals(9, callCount.get());
+    }
+
+    @Test
+    public void testFetchOnlyWhenNeededWithoutPrefetch()
+    {
+        fileListPaging.setPagesInFlight(0);
+
+        try (Stream<FileStatus> files = fileApiClientAdapter.streamFiles(fileListSearchParams, fileListPaging))
+        {
+            assertEquals(5, files.limit(5).count());
+        }
+
+        assertEquals(1, callCount.get());
+    }
+
+    @Test
+    public void testFailedPageEndsIteration()
+    {
+        failingOffset = 10;
+        FileListIterator iterator = fileApiClientAdapter.listFiles(fileListSearchParams, fileListPaging);
+
+        try
+        {
+            while (iterator.hasNext())
+                iterator.next();
+            fail("Exception expected");
+        }
+        catch (UncheckedApiException e)
+        {
+            assertTrue(e.getCause() instanceof ApiException);
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    private ApiResponse<FileList> page(final FileListSearchParams searchParams) throws ApiException
+    {
+        callCount.incrementAndGet();
+        requestedOffsets.add(searchParams.getOffset());
+        if (searchParams.getOffset() == failingOffset)
+            throw new ApiException("failed", Collections.singletonList("failed"));
+
+        List<FileStatus> files = new ArrayList<>();
+        for (int i = searchParams.getOffset(); i < Math.min(FILE_COUNT, searchParams.getOffset() + searchParams.getLimit()); i++)
+        {
+            FileStatus fileStatus = mock(FileStatus.class);
+            when(fileStatus.getFileUri()).thenReturn("file" + i);
+            files.add(fileStatus);
+        }
+
+        FileList fileList = mock(FileList.class);
+        when(fileList.getFileCount()).thenReturn(FILE_COUNT);
+        when(fileList.getFileList()).thenReturn(files);
+
+        @SuppressWarnings("unchecked")
+        ApiResponse<FileList> apiResponse = mock(ApiResponse.class);
+        when(apiResponse.getData()).thenReturn(fileList);
+        return apiResponse;
+    }
+}
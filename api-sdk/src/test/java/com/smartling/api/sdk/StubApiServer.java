@@ -0,0 +1,252 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local http server standing in for the Smartling API in tests.
+ */
+public class StubApiServer implements Closeable
+{
+    public static final String OVERLOADED_RESPONSE  = "{\"response\":{\"data\":null,\"code\":\"MAX_OPERATIONS_LIMIT_EXCEEDED\",\"messages\":[\"Too many operations\"]}}";
+    public static final String FILE_STATUS_RESPONSE = "{\"response\":{\"data\":{\"fileUri\": \"fileUri\", \"stringCount\": 2, \"wordCount\": 3, \"approvedStringCount\": 1, \"completedStringCount\": 1, \"lastUploaded\": \"2012-01-01T00:00:00\", \"fileType\": \"JAVA_PROPERTIES\"},\"code\":\"SUCCESS\",\"messages\":[]}}";
+
+    private final HttpServer      server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final Set<InetSocketAddress> clientAddresses = Collections.synchronizedSet(new HashSet<InetSocketAddress>());
+    private final AtomicInteger          requestCount    = new AtomicInteger();
+
+    private final Queue<QueuedResponse> queuedResponses = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger concurrentRequests    = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final AtomicInteger overloadedCount       = new AtomicInteger();
+
+    private volatile int capacity = Integer.MAX_VALUE;
+
+    private volatile byte[] lastRequestBody;
+
+    private volatile int    statusCode   = 200;
+    private volatile byte[] responseBody = FILE_STATUS_RESPONSE.getBytes(StandardCharsets.UTF_8);
+    private volatile long   latencyMillis;
+
+    private final AtomicInteger delayedRequestsLeft = new AtomicInteger();
+    private volatile long       delayMillis;
+
+    static
+    {
+        // without TCP_NODELAY every small response waits for the client's delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public StubApiServer() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException
+            {
+                respond(exchange);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getBaseUrl()
+    {
+        return "http://localhost:" + server.getAddress().getPort() + "/v1";
+    }
+
+    public void setResponse(final int statusCode, final String responseBody)
+    {
+        setResponse(statusCode, responseBody.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void setResponse(final int statusCode, final byte[] responseBody)
+    {
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * Queues a response that is sent once, ahead of the response set with {@link #setResponse(int, String)}.
+     * @param retryAfter value of the {@code Retry-After} header, or null to send none
+     */
+    public void enqueueResponse(final int statusCode, final String responseBody, final String retryAfter)
+    {
+        queuedResponses.add(new QueuedResponse(statusCode, responseBody.getBytes(StandardCharsets.UTF_8), retryAfter));
+    }
+
+    /**
+     * Makes the server answer requests beyond the given number of concurrent requests at once
+     * with {@code 429 MAX_OPERATIONS_LIMIT_EXCEEDED}, the way the API sheds load.
+     */
+    public void setCapacity(final int capacity)
+    {
+        this.capacity = capacity;
+    }
+
+    public int getOverloadedCount()
+    {
+        return overloadedCount.get();
+    }
+
+    public int getMaxConcurrentRequests()
+    {
+        return maxConcurrentRequests.get();
+    }
+
+    public void setLatencyMillis(final long latencyMillis)
+    {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Makes the next requests take the given time instead of the latency set with {@link #setLatencyMillis(long)}.
+     */
+    public void delayNextRequests(final int count, final long delayMillis)
+    {
+        this.delayMillis = delayMillis;
+        delayedRequestsLeft.set(count);
+    }
+
+    public int getRequestCount()
+    {
+        return requestCount.get();
+    }
+
+    public byte[] getLastRequestBody()
+    {
+        return lastRequestBody;
+    }
+
+    /**
+     * @return number of distinct client sockets the server has seen, i.e. the number of connections opened by the client
+     */
+    public int getConnectionCount()
+    {
+        return clientAddresses.size();
+    }
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException
+    {
+        requestCount.incrementAndGet();
+        clientAddresses.add(exchange.getRemoteAddress());
+
+        final int concurrent = concurrentRequests.incrementAndGet();
+        try
+        {
+            if (concurrent > capacity)
+            {
+                overloadedCount.incrementAndGet();
+                drain(exchange);
+                send(exchange, new QueuedResponse(429, OVERLOADED_RESPONSE.getBytes(StandardCharsets.UTF_8), null));
+                return;
+            }
+
+            maxConcurrentRequests.accumulateAndGet(concurrent, Math::max);
+            respondWithinCapacity(exchange);
+        }
+        finally
+        {
+            concurrentRequests.decrementAndGet();
+        }
+    }
+
+    private void respondWithinCapacity(final HttpExchange exchange) throws IOException
+    {
+        lastRequestBody = drain(exchange);
+
+        final long sleepMillis = delayedRequestsLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0 ? delayMillis : latencyMillis;
+        if (sleepMillis > 0)
+        {
+            try
+            {
+                Thread.sleep(sleepMillis);
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        final QueuedResponse queuedResponse = queuedResponses.poll();
+        send(exchange, queuedResponse != null ? queuedResponse : new QueuedResponse(statusCode, responseBody, null));
+    }
+
+    private static byte[] drain(final HttpExchange exchange) throws IOException
+    {
+        try (InputStream requestBody = exchange.getRequestBody())
+        {
+            return IOUtils.toByteArray(requestBody);
+        }
+    }
+
+    private static void send(final HttpExchange exchange, final QueuedResponse response) throws IOException
+    {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        if (response.retryAfter != null)
+            exchange.getResponseHeaders().set("Retry-After", response.retryAfter);
+        exchange.sendResponseHeaders(response.statusCode, response.body.length);
+        try (OutputStream responseStream = exchange.getResponseBody())
+        {
+            responseStream.write(response.body);
+        }
+    }
+
+    private static class QueuedResponse
+    {
+        private final int    statusCode;
+        private final byte[] body;
+        private final String retryAfter;
+
+        QueuedResponse(final int statusCode, final byte[] body, final String retryAfter)
+        {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.retryAfter = retryAfter;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.batch;
+
+import com.smartling.api.sdk.FileApiClientAdapter;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.Data;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FileStatusBatcherTest
+{
+    private static final String LOCALE = "de-DE";
+
+    private ExecutorService      executor;
+    private FileApiClientAdapter fileApiClientAdapter;
+    private FileStatusBatcher    batcher;
+    private CountDownLatch       busyCallRelease;
+
+    @Before
+    public void setup() throws ApiException
+    {
+        executor = Executors.newCachedThreadPool();
+        fileApiClientAdapter = mock(FileApiClientAdapter.class);
+        batcher = new FileStatusBatcher(fileApiClientAdapter);
+        batcher.setWindowMillis(100);
+
+        ApiResponse<FileStatus> individualResponse = apiResponse(fileStatus("individual"));
+        when(fileApiClientAdapter.getFileStatus(anyString(), anyString())).thenReturn(individualResponse);
+    }
+
+    @After
+    public void tearDown()
+    {
+        if (busyCallRelease != null)
+            busyCallRelease.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallsShareOneListQuery() throws Exception
+    {
+        holdCallInFlight();
+        listReturns("app/strings/a.properties", "app/strings/b.properties", "app/strings/c.properties", "app/strings/other.properties");
+
+        List<ApiResponse<FileStatus>> responses = getFileStatuses("app/strings/a.properties", "app/strings/b.properties", "app/strings/c.properties");
+
+        for (int i = 0; i < 3; i++)
+            assertEquals("app/strings/" + (char)('a' + i) + ".properties", responses.get(i).getData().getFileUri());
+
+        ArgumentCaptor<FileListSearchParams> searchParams = ArgumentCaptor.forClass(FileListSearchParams.class);
+        verify(fileApiClientAdapter).getFilesList(searchParams.capture());
+        assertEquals("app/strings/%", searchParams.getValue().getUriMask());
+        assertEquals(LOCALE, searchParams.getValue().getLocale());
+        verify(fileApiClientAdapter, never()).getFileStatus(anyString(), eq(LOCALE));
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(3, batcher.getBatchedCallCount());
+    }
+
+    @Test
+    public void testFallsBackWithoutCommonPrefix() throws Exception
+    {
+        holdCallInFlight();
+
+        List<ApiResponse<FileStatus>> responses = getFileStatuses("a.properties", "b.properties");
+
+        assertEquals("individual", responses.get(0).getData().getFileUri());
+        verify(fileApiClientAdapter, never()).getFilesList(any(FileListSearchParams.class));
+        verify(fileApiClientAdapter, times(2)).getFileStatus(anyString(), eq(LOCALE));
+    }
+
+    @Test
+    public void testFallsBackWithOnlyRootInCommonPrefix() throws Exception
+    {
+        holdCallInFlight();
+
+        getFileStatuses("/a.properties", "/b.properties");
+
+        verify(fileApiClientAdapter, never()).getFilesList(any(FileListSearchParams.class));
+        verify(fileApiClientAdapter, times(2)).getFileStatus(anyString(), eq(LOCALE));
+    }
+
+    @Test
+    public void testUriMaskEndsBeforeWildcards() throws Exception
+    {
+        listReturns("app/messages_de.properties", "app/messages_fr.properties");
+        holdCallInFlight();
+
+        getFileStatuses("app/messages_de.properties", "app/messages_fr.properties");
+
+        ArgumentCaptor<FileListSearchParams> searchParams = ArgumentCaptor.forClass(FileListSearchParams.class);
+        verify(fileApiClientAdapter).getFilesList(searchParams.capture());
+        assertEquals("app/messages%", searchParams.getValue().getUriMask());
+    }
+
+    @Test
+    public void testFallsBackWithWildcardInCommonDirectory() throws Exception
+    {
+        holdCallInFlight();
+
+        getFileStatuses("app_v2/strings/a.properties", "app_v2/strings/b.properties");
+
+        verify(fileApiClientAdapter, never()).getFilesList(any(FileListSearchParams.class));
+    }
+
+    @Test
+    public void testUncontendedCallDoesNotWait() throws Exception
+    {
+        batcher.setWindowMillis(10000);
+
+        long start = System.currentTimeMillis();
+        ApiResponse<FileStatus> response = batcher.getFileStatus("dir/a.properties", LOCALE);
+
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals("individual", response.getData().getFileUri());
+        verify(fileApiClientAdapter, never()).getFilesList(any(FileListSearchParams.class));
+    }
+
+    @Test
+    public void testFallsBackForFilesMissingFromList() throws Exception
+    {
+        listReturns("dir/a.properties");
+        holdCallInFlight();
+
+        List<ApiResponse<FileStatus>> responses = getFileStatuses("dir/a.properties", "dir/b.properties");
+
+        assertEquals("dir/a.properties", responses.get(0).getData().getFileUri());
+        assertEquals("individual", responses.get(1).getData().getFileUri());
+        verify(fileApiClientAdapter).getFileStatus("dir/b.properties", LOCALE);
+        // the call held in flight fell back as well
+        assertEquals(2, batcher.getFallbackCount());
+    }
+
+    @Test
+    public void testFailedListFallsBackToOwnCalls() throws Exception
+    {
+        ApiException failure = new ApiException("failed", Collections.singletonList("failed"));
+        when(fileApiClientAdapter.getFilesList(any(FileListSearchParams.class))).thenThrow(failure);
+        holdCallInFlight();
+
+        List<ApiResponse<FileStatus>> responses = getFileStatuses("dir/a.properties", "dir/b.properties");
+
+        for (ApiResponse<FileStatus> response : responses)
+            assertEquals("individual", response.getData().getFileUri());
+        verify(fileApiClientAdapter).getFileStatus("dir/a.properties", LOCALE);
+        verify(fileApiClientAdapter).getFileStatus("dir/b.properties", LOCALE);
+        verify(fileApiClientAdapter).getFilesList(any(FileListSearchParams.class));
+    }
+
+    @Test
+    public void testFullBatchIsSentBeforeWindowEnds() throws Exception
+    {
+        batcher.setWindowMillis(10000);
+        batcher.setMaxBatchSize(2);
+        listReturns("dir/a.properties", "dir/b.properties");
+        holdCallInFlight();
+
+        long start = System.currentTimeMillis();
+        getFileStatuses("dir/a.properties", "dir/b.properties");
+
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    /**
+     * Starts a call that stays in flight until the end of the test, so the calls of the test wait for each other to batch.
+     */
+    private void holdCallInFlight() throws Exception
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(fileApiClientAdapter.getFileStatus("busy.properties", null)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        busyCallRelease = release;
+
+        executor.submit(() -> batcher.getFileStatus("busy.properties", null));
+        started.await();
+    }
+
+    private List<ApiResponse<FileStatus>> getFileStatuses(final String... fileUris) throws Exception
+    {
+        List<ApiResponse<FileStatus>> responses = new ArrayList<>();
+        for (Future<ApiResponse<FileStatus>> future : submit(fileUris))
+            responses.add(future.get());
+        return responses;
+    }
+
+    private List<Future<ApiResponse<FileStatus>>> submit(final String... fileUris)
+    {
+        List<Future<ApiResponse<FileStatus>>> futures = new ArrayList<>();
+        for (final String fileUri : fileUris)
+        {
+            futures.add(executor.submit(new Callable<ApiResponse<FileStatus>>()
+            {
+                @Override
+                public ApiResponse<FileStatus> call() throws ApiException
+                {
+                    return batcher.getFileStatus(fileUri, LOCALE);
+                }
+            }));
+        }
+        return futures;
+    }
+
+    private void listReturns(final String... fileUris) throws ApiException
+    {
+        List<FileStatus> files = new ArrayList<>();
+        for (String fileUri : Arrays.asList(fileUris))
+            files.add(fileStatus(fileUri));
+
+        FileList fileList = mock(FileList.class);
+        when(fileList.getFileCount()).thenReturn(files.size());
+        when(fileList.getFileList()).thenReturn(files);
+        when(fileApiClientAdapter.getFilesList(any(FileListSearchParams.class))).thenReturn(apiResponse(fileList));
+    }
+
+    private static FileStatus fileStatus(final String fileUri)
+    {
+        FileStatus fileStatus = mock(FileStatus.class);
+        when(fileStatus.getFileUri()).thenReturn(fileUri);
+        return fileStatus;
+    }
+
+    private static <T extends Data> ApiResponse<T> apiResponse(final T data)
+    {
+        return new ApiResponse<>(data, "SUCCESS", Collections.<String>emptyList());
+    }
+}
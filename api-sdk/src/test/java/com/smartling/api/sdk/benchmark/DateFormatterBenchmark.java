@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.smartling.api.sdk.dto.ApiResponseWrapper;
+import com.smartling.api.sdk.dto.DtoTypeAdapterFactory;
+import com.smartling.api.sdk.dto.file.FileLastModified;
+import com.smartling.api.sdk.util.DateFormatter;
+import com.smartling.api.sdk.util.DateTypeAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the dates of the API handled with a new {@link java.text.SimpleDateFormat} per date, as {@link DateFormatter}
+ * used to, with the field by field {@link DateFormatter}: decoding large last modified responses, which carry a date per
+ * locale, and formatting a date parameter. Run {@link #main(String[])} from the test classpath; the gc profiler reports
+ * the heap allocated per operation next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DateFormatterBenchmark
+{
+    private static final String LOCALE_LAST_MODIFIED = "{\"locale\": \"l%d-LC\", \"lastModified\": \"2014-%02d-%02dT%02d:15:30\"}";
+
+    private static final Type LAST_MODIFIED_TYPE = new TypeToken<ApiResponseWrapper<FileLastModified>>() {}.getType();
+
+    private static final Gson SIMPLE_DATE_FORMAT_GSON = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new SimpleDateFormatTypeAdapter())
+            .registerTypeAdapterFactory(new DtoTypeAdapterFactory())
+            .create();
+    private static final Gson DATE_FORMATTER_GSON = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new DateTypeAdapter())
+            .registerTypeAdapterFactory(new DtoTypeAdapterFactory())
+            .create();
+
+    @Param({"200", "2000"})
+    private int localeCount;
+
+    private String body;
+    private Date   date;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        final StringBuilder json = new StringBuilder("{\"response\":{\"data\":{\"items\": [");
+        for (int i = 0; i < localeCount; i++)
+            json.append(i > 0 ? ", " : "").append(String.format(LOCALE_LAST_MODIFIED, i, i % 12 + 1, i % 28 + 1, i % 24));
+        json.append("]},\"code\":\"SUCCESS\",\"messages\":[]}}");
+
+        body = json.toString();
+        date = new Date(1393668930000L);
+    }
+
+    @Benchmark
+    public FileLastModified decodeWithSimpleDateFormat()
+    {
+        final ApiResponseWrapper<FileLastModified> responseWrapper = SIMPLE_DATE_FORMAT_GSON.fromJson(new JsonReader(new StringReader(body)), LAST_MODIFIED_TYPE);
+        return responseWrapper.getResponse().getData();
+    }
+
+    @Benchmark
+    public FileLastModified decodeWithDateFormatter()
+    {
+        final ApiResponseWrapper<FileLastModified> responseWrapper = DATE_FORMATTER_GSON.fromJson(new JsonReader(new StringReader(body)), LAST_MODIFIED_TYPE);
+        return responseWrapper.getResponse().getData();
+    }
+
+    @Benchmark
+    public String formatWithSimpleDateFormat()
+    {
+        return DateFormatter.getDateFormat().format(date);
+    }
+
+    @Benchmark
+    public String formatWithDateFormatter()
+    {
+        return DateFormatter.format(date);
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(DateFormatterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * {@link DateTypeAdapter} as it was, with a new {@link java.text.SimpleDateFormat} per date.
+     */
+    private static class SimpleDateFormatTypeAdapter extends TypeAdapter<Date>
+    {
+        @Override
+        public Date read(final JsonReader reader) throws IOException
+        {
+            if (reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            try
+            {
+                return DateFormatter.getDateFormat().parse(reader.nextString());
+            }
+            catch (final ParseException e)
+            {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void write(final JsonWriter writer, final Date value) throws IOException
+        {
+            writer.value(value == null ? null : DateFormatter.getDateFormat().format(value));
+        }
+    }
+}
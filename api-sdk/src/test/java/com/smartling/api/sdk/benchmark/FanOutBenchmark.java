@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.benchmark;
+
+import com.smartling.api.sdk.ExecutionMode;
+import com.smartling.api.sdk.ExecutorAsyncFileApiClientAdapter;
+import com.smartling.api.sdk.FileApiClientAdapterImpl;
+import com.smartling.api.sdk.HttpClientConfiguration;
+import com.smartling.api.sdk.StubApiServer;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.util.HttpUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a pool of platform threads with a virtual thread per call for fanning out 10,000 concurrent
+ * {@code getFileStatus} calls through {@link ExecutorAsyncFileApiClientAdapter} against a local stub server with 20 ms of latency.
+ * Run {@link #main(String[])} from the test classpath on Java 21 or later; on older runtimes both modes use platform threads.
+ * The gc profiler reports the heap allocated per batch ({@code gc.alloc.rate.norm}) next to the time per batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class FanOutBenchmark
+{
+    private static final String API_KEY     = "apiKeyValue";
+    private static final String PROJECT_ID  = "projectIdValue";
+    private static final String LOCALE      = "en-US";
+    private static final int    CALLS       = 10000;
+    private static final int    CONNECTIONS = 200;
+
+    @Param({"PLATFORM_THREADS", "VIRTUAL_THREADS"})
+    private ExecutionMode executionMode;
+
+    private StubApiServer                     server;
+    private FileApiClientAdapterImpl          fileApiClientAdapter;
+    private ExecutorAsyncFileApiClientAdapter asyncFileApiClientAdapter;
+    private List<String>                      fileUris;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        server = new StubApiServer();
+        server.setLatencyMillis(20);
+
+        final HttpClientConfiguration httpClientConfiguration = new HttpClientConfiguration();
+        httpClientConfiguration.setMaxTotalConnections(CONNECTIONS);
+        httpClientConfiguration.setMaxConnectionsPerRoute(CONNECTIONS);
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        fileApiClientAdapter.setHttpUtils(new HttpUtils(httpClientConfiguration));
+        asyncFileApiClientAdapter = new ExecutorAsyncFileApiClientAdapter(fileApiClientAdapter, executionMode);
+
+        fileUris = new ArrayList<>(CALLS);
+        for (int i = 0; i < CALLS; i++)
+            fileUris.add("file" + i + ".properties");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        asyncFileApiClientAdapter.close();
+        fileApiClientAdapter.close();
+        server.close();
+    }
+
+    @Benchmark
+    public int getFileStatuses()
+    {
+        final Map<String, CompletableFuture<ApiResponse<FileStatus>>> fileStatuses = asyncFileApiClientAdapter.getFileStatuses(fileUris, LOCALE);
+
+        int succeeded = 0;
+        for (final CompletableFuture<ApiResponse<FileStatus>> fileStatus : fileStatuses.values())
+        {
+            if ("SUCCESS".equals(fileStatus.join().getCode()))
+                succeeded++;
+        }
+        return succeeded;
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(FanOutBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
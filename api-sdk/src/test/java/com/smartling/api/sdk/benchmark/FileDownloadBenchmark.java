@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.benchmark;
+
+import com.smartling.api.sdk.FileApiClientAdapterImpl;
+import com.smartling.api.sdk.StubApiServer;
+import com.smartling.api.sdk.dto.file.StreamResponse;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old way of saving a file (decode the body to a String, then re-encode it to disk) with
+ * {@link FileApiClientAdapterImpl#downloadFile(GetFileParameterBuilder, Path)} for files of 1 to 200 MB.
+ * Run {@link #main(String[])} from the test classpath; the gc profiler reports the heap allocated per download
+ * ({@code gc.alloc.rate.norm}) next to the time per download.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class FileDownloadBenchmark
+{
+    private static final String API_KEY    = "apiKeyValue";
+    private static final String PROJECT_ID = "projectIdValue";
+    private static final String FILE_URI   = "file.properties";
+    private static final String LOCALE     = "en-US";
+
+    @Param({"1", "10", "50", "200"})
+    private int fileSizeMb;
+
+    private StubApiServer            server;
+    private FileApiClientAdapterImpl fileApiClientAdapter;
+    private Path                     directory;
+    private Path                     target;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        final byte[] contents = new byte[fileSizeMb * 1024 * 1024];
+        Arrays.fill(contents, (byte)'a');
+        for (int i = 79; i < contents.length; i += 80)
+            contents[i] = '\n';
+
+        server = new StubApiServer();
+        server.setResponse(200, contents);
+        fileApiClientAdapter = new FileApiClientAdapterImpl(server.getBaseUrl(), API_KEY, PROJECT_ID);
+        directory = Files.createTempDirectory("file-download-benchmark");
+        target = directory.resolve("file_en_US.properties");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        fileApiClientAdapter.close();
+        server.close();
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public File getFileAndWriteString() throws ApiException, IOException
+    {
+        final StringResponse response = fileApiClientAdapter.getFile(FILE_URI, LOCALE, null);
+        final File file = target.toFile();
+        FileUtils.writeStringToFile(file, response.getContents(), response.getEncoding());
+        return file;
+    }
+
+    @Benchmark
+    public StreamResponse downloadFile() throws ApiException
+    {
+        return fileApiClientAdapter.downloadFile(new GetFileParameterBuilder().fileUri(FILE_URI).locale(LOCALE), target);
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(FileDownloadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
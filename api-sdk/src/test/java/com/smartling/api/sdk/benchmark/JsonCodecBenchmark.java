@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.benchmark;
+
+import com.google.gson.reflect.TypeToken;
+import com.smartling.api.sdk.dto.ApiResponseWrapper;
+import com.smartling.api.sdk.dto.file.FileLastModified;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.json.JsonCodec;
+import com.smartling.api.sdk.json.JsonCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each {@link JsonCodec} over large file list and last modified responses, decoding them from a reader over the UTF-8
+ * body as the adapters do. {@link #main(String[])} runs every codec on the classpath, so the fastest one for the JVM can be
+ * picked with {@link JsonCodecs#CODEC_PROPERTY}; the gc profiler reports the heap allocated per response next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JsonCodecBenchmark
+{
+    /** a project with a few thousand files, listed in one page */
+    private static final int FILE_COUNT   = 2000;
+    /** last modified dates of a file translated into every locale of a large project */
+    private static final int LOCALE_COUNT = 200;
+
+    private static final String FILE_STATUS = "{\"fileUri\": \"/files/%1$d/messages_%1$d.properties\", \"stringCount\": 120, \"wordCount\": 860, "
+            + "\"approvedStringCount\": 100, \"completedStringCount\": 90, \"lastUploaded\": \"2014-03-01T10:15:30\", \"fileType\": \"JAVA_PROPERTIES\", "
+            + "\"callbackUrl\": \"https://example.com/callback?file=%1$d\"}";
+    private static final String LOCALE_LAST_MODIFIED = "{\"locale\": \"l%02d-LC\", \"lastModified\": \"2014-03-%02dT10:15:30\"}";
+
+    private static final Type FILE_LIST_TYPE     = new TypeToken<ApiResponseWrapper<FileList>>() {}.getType();
+    private static final Type LAST_MODIFIED_TYPE = new TypeToken<ApiResponseWrapper<FileLastModified>>() {}.getType();
+
+    public enum Payload
+    {
+        FILE_LIST, FILE_LAST_MODIFIED
+    }
+
+    @Param({"gson", "streaming"})
+    private String codecName;
+
+    @Param
+    private Payload payload;
+
+    private JsonCodec codec;
+    private Type      type;
+    private byte[]    body;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        codec = JsonCodecs.getCodec(codecName);
+
+        final StringBuilder json = new StringBuilder();
+        if (payload == Payload.FILE_LIST)
+        {
+            type = FILE_LIST_TYPE;
+            json.append("{\"response\":{\"data\":{\"fileCount\": ").append(FILE_COUNT).append(", \"fileList\": [");
+            for (int i = 0; i < FILE_COUNT; i++)
+                json.append(i > 0 ? ", " : "").append(String.format(FILE_STATUS, i));
+        }
+        else
+        {
+            type = LAST_MODIFIED_TYPE;
+            json.append("{\"response\":{\"data\":{\"items\": [");
+            for (int i = 0; i < LOCALE_COUNT; i++)
+                json.append(i > 0 ? ", " : "").append(String.format(LOCALE_LAST_MODIFIED, i, i % 28 + 1));
+        }
+        json.append("]},\"code\":\"SUCCESS\",\"messages\":[]}}");
+
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException
+    {
+        return codec.decode(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8), type);
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final List<String> codecNames = new ArrayList<>();
+        for (final JsonCodec codec : JsonCodecs.getAvailableCodecs())
+            codecNames.add(codec.getName());
+
+        new Runner(new OptionsBuilder()
+                .include(JsonCodecBenchmark.class.getSimpleName())
+                .param("codecName", codecNames.toArray(new String[codecNames.size()]))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
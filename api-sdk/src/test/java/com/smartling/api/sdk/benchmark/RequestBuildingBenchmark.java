@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.benchmark;
+
+import com.smartling.api.sdk.FileApiClientAdapterImpl;
+import com.smartling.api.sdk.OperationClass;
+import com.smartling.api.sdk.ProxyConfiguration;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.EmptyResponse;
+import com.smartling.api.sdk.dto.file.FileLastModified;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.ParsedResponse;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.dto.file.UploadFileData;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import com.smartling.api.sdk.file.FileType;
+import com.smartling.api.sdk.file.RetrievalType;
+import com.smartling.api.sdk.file.parameters.FileUploadParameterBuilder;
+import com.smartling.api.sdk.util.HttpUtils;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap allocated per call ({@code gc.alloc.rate.norm}) of each {@link FileApiClientAdapterImpl} operation, from
+ * building the request to parsing the response. The http client is replaced by canned responses, so only the work of the
+ * adapter on both sides of the call is measured, with debug logging off. Run {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RequestBuildingBenchmark
+{
+    private static final String API_KEY    = "3a8b5c2e-4f71-4d0e-9b6a-2c1d8e7f6a5b";
+    private static final String PROJECT_ID = "a1b2c3d4e";
+    private static final String FILE_URI   = "/files/android/strings.xml";
+    private static final String LOCALE     = "ru-RU";
+
+    private static final String SUCCESS_RESPONSE = "{\"response\":{\"data\":{},\"code\":\"SUCCESS\",\"messages\":[]}}";
+    private static final byte[] FILE_CONTENTS    = "<resources><string name=\"hello\">Hello</string></resources>".getBytes(StandardCharsets.UTF_8);
+
+    private FileApiClientAdapterImpl   fileApiClientAdapter;
+    private FileListSearchParams       fileListSearchParams;
+    private FileUploadParameterBuilder fileUploadParameterBuilder;
+    private Date                       lastModifiedAfter;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        fileApiClientAdapter = new FileApiClientAdapterImpl("https://api.example.com/v1", API_KEY, PROJECT_ID);
+        fileApiClientAdapter.setHttpUtils(new CannedHttpUtils());
+
+        fileListSearchParams = new FileListSearchParams();
+        fileListSearchParams.setLocale(LOCALE);
+        fileListSearchParams.setUriMask("/files/android/%");
+        fileListSearchParams.setLastUploadedAfter(new Date(1393668930000L));
+        fileListSearchParams.setFileTypes(Arrays.asList("android", "ios"));
+        fileListSearchParams.setOffset(100);
+        fileListSearchParams.setLimit(100);
+
+        fileUploadParameterBuilder = new FileUploadParameterBuilder().fileType(FileType.ANDROID).fileUri(FILE_URI).approveContent(false)
+                .localesToApprove(Arrays.asList("ru-RU", "de-DE")).clientUid("benchmark", "1.0");
+        lastModifiedAfter = new Date(1393668930000L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        fileApiClientAdapter.close();
+    }
+
+    @Benchmark
+    public StringResponse getFile() throws ApiException
+    {
+        return fileApiClientAdapter.getFile(FILE_URI, LOCALE, RetrievalType.PUBLISHED);
+    }
+
+    @Benchmark
+    public ApiResponse<FileList> getFilesList() throws ApiException
+    {
+        return fileApiClientAdapter.getFilesList(fileListSearchParams);
+    }
+
+    @Benchmark
+    public ApiResponse<FileStatus> getFileStatus() throws ApiException
+    {
+        return fileApiClientAdapter.getFileStatus(FILE_URI, LOCALE);
+    }
+
+    @Benchmark
+    public ApiResponse<FileLastModified> getLastModified() throws ApiException
+    {
+        return fileApiClientAdapter.getLastModified(FILE_URI, lastModifiedAfter, LOCALE);
+    }
+
+    @Benchmark
+    public ApiResponse<EmptyResponse> deleteFile() throws ApiException
+    {
+        return fileApiClientAdapter.deleteFile(FILE_URI);
+    }
+
+    @Benchmark
+    public ApiResponse<EmptyResponse> renameFile() throws ApiException
+    {
+        return fileApiClientAdapter.renameFile(FILE_URI, "/files/android/strings-renamed.xml");
+    }
+
+    @Benchmark
+    public ApiResponse<UploadFileData> uploadFile() throws ApiException
+    {
+        return fileApiClientAdapter.uploadFile(new ByteArrayInputStream(FILE_CONTENTS), "strings.xml", "UTF-8", fileUploadParameterBuilder);
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(RequestBuildingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * Answers every call with a successful response without sending the request.
+     */
+    private static class CannedHttpUtils extends HttpUtils
+    {
+        @Override
+        public StringResponse executeHttpCall(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration, final OperationClass operationClass)
+        {
+            return new StringResponse(new String(FILE_CONTENTS, StandardCharsets.UTF_8), FILE_CONTENTS, "UTF-8", true);
+        }
+
+        @Override
+        public <T> ParsedResponse<T> executeHttpCall(final HttpRequestBase httpRequest, final ProxyConfiguration proxyConfiguration,
+                                                     final OperationClass operationClass, final BodyParser<T> bodyParser) throws ApiException
+        {
+            try
+            {
+                return new ParsedResponse<>(bodyParser.parse(new StringReader(SUCCESS_RESPONSE)), true, SUCCESS_RESPONSE.length(), null, 200, null);
+            }
+            catch (final IOException e)
+            {
+                throw new ApiException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.ApiResponseWrapper;
+import com.smartling.api.sdk.dto.DtoTypeAdapterFactory;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.util.DateTypeAdapter;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old way of handling a file list response (copy the body into a byte array, decode it to a String and parse
+ * it with a newly built Gson) with parsing the body stream with a {@link JsonReader} and a shared Gson, both by reflection and
+ * with the {@link DtoTypeAdapterFactory} adapters the client adapters now use. The body is read from memory, so only the response handling is measured. Run {@link #main(String[])} from the test classpath;
+ * the gc profiler reports the heap allocated per response ({@code gc.alloc.rate.norm}) next to the time per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResponseParsingBenchmark
+{
+    private static final String FILE_STATUS = "{\"fileUri\": \"/files/messages_%d.properties\", \"stringCount\": 120, \"wordCount\": 860, "
+            + "\"approvedStringCount\": 100, \"completedStringCount\": 90, \"lastUploaded\": \"2014-03-01T10:15:30\", \"fileType\": \"JAVA_PROPERTIES\", "
+            + "\"callbackUrl\": \"https://example.com/callback\"}";
+
+    private static final Type FILE_LIST_TYPE = new TypeToken<ApiResponseWrapper<FileList>>() {}.getType();
+
+    private static final Gson SHARED_GSON  = new GsonBuilder().registerTypeAdapter(Date.class, new DateTypeAdapter()).create();
+    private static final Gson ADAPTER_GSON = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new DateTypeAdapter())
+            .registerTypeAdapterFactory(new DtoTypeAdapterFactory())
+            .create();
+
+    @Param({"10", "1000"})
+    private int fileCount;
+
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        final StringBuilder json = new StringBuilder("{\"response\":{\"data\":{\"fileCount\": ").append(fileCount).append(", \"fileList\": [");
+        for (int i = 0; i < fileCount; i++)
+            json.append(i > 0 ? ", " : "").append(String.format(FILE_STATUS, i));
+        json.append("]},\"code\":\"SUCCESS\",\"messages\":[]}}");
+
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ApiResponse<FileList> materializeAndParse() throws IOException
+    {
+        final byte[] contentsRaw = IOUtils.toByteArray(newBodyStream());
+        final String contents = new String(contentsRaw, StandardCharsets.UTF_8);
+
+        final Gson gson = new GsonBuilder().registerTypeAdapter(Date.class, new DateTypeAdapter()).create();
+        final ApiResponseWrapper<FileList> responseWrapper = gson.fromJson(contents, FILE_LIST_TYPE);
+        return responseWrapper.getResponse();
+    }
+
+    @Benchmark
+    public ApiResponse<FileList> streamParse() throws IOException
+    {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(newBodyStream(), StandardCharsets.UTF_8)))
+        {
+            final ApiResponseWrapper<FileList> responseWrapper = SHARED_GSON.fromJson(reader, FILE_LIST_TYPE);
+            return responseWrapper.getResponse();
+        }
+    }
+
+    @Benchmark
+    public ApiResponse<FileList> streamParseWithAdapters() throws IOException
+    {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(newBodyStream(), StandardCharsets.UTF_8)))
+        {
+            final ApiResponseWrapper<FileList> responseWrapper = ADAPTER_GSON.fromJson(reader, FILE_LIST_TYPE);
+            return responseWrapper.getResponse();
+        }
+    }
+
+    private InputStream newBodyStream()
+    {
+        return new ByteArrayInputStream(body);
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(ResponseParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
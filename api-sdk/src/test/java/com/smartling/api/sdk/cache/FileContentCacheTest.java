@@ -0,0 +1,158 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.cache;
+
+import com.smartling.api.sdk.file.RetrievalType;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class FileContentCacheTest
+{
+    private static final String LOCALE = "en-US";
+    private static final Date   LAST_MODIFIED = new Date(1357000000000L);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setup() throws Exception
+    {
+        directory = temporaryFolder.newFolder("cache").toPath();
+    }
+
+    @Test
+    public void testEntriesSurviveReopening() throws Exception
+    {
+        put(new FileContentCache(directory), "file1", "key=value");
+
+        final FileContentCache reopened = new FileContentCache(directory);
+        final FileContentCache.CachedFile cachedFile = reopened.get(builder("file1"));
+
+        assertNotNull(cachedFile);
+        assertEquals(LAST_MODIFIED, cachedFile.getLastModified());
+        assertEquals("UTF-8", cachedFile.getEncoding());
+        assertEquals("key=value", read(reopened, cachedFile));
+        assertNull(reopened.get(new GetFileParameterBuilder().fileUri("file1").locale(LOCALE).retrievalType(RetrievalType.PSEUDO)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws Exception
+    {
+        final FileContentCache cache = new FileContentCache(directory, 20);
+        put(cache, "file1", "0123456789");
+        put(cache, "file2", "0123456789");
+        cache.get(builder("file1"));
+        put(cache, "file3", "0123456789");
+
+        assertNotNull(cache.get(builder("file1")));
+        assertNull(cache.get(builder("file2")));
+        assertNotNull(cache.get(builder("file3")));
+        assertEquals(20, cache.getSizeBytes());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(4, countFiles());
+    }
+
+    @Test
+    public void testNewVersionReplacesOldOne() throws Exception
+    {
+        final FileContentCache cache = new FileContentCache(directory);
+        put(cache, "file1", "key=value");
+        put(cache, "file1", "key=changed");
+
+        assertEquals("key=changed", read(cache, cache.get(builder("file1"))));
+        assertEquals(11, cache.getSizeBytes());
+        assertEquals(2, countFiles());
+    }
+
+    @Test
+    public void testUncommittedWriteIsDiscarded() throws Exception
+    {
+        final FileContentCache cache = new FileContentCache(directory);
+        try (FileContentCache.Writer writer = cache.newWriter(builder("file1")))
+        {
+            writer.getChannel().write(ByteBuffer.wrap("partial".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        assertNull(cache.get(builder("file1")));
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void testIncompleteEntriesAreRemovedOnOpening() throws Exception
+    {
+        put(new FileContentCache(directory), "file1", "key=value");
+        put(new FileContentCache(directory), "file2", "key=value");
+        Files.write(directory.resolve("leftover.tmp"), new byte[10]);
+        try (DirectoryStream<Path> metaFiles = Files.newDirectoryStream(directory, "*.meta"))
+        {
+            Files.delete(metaFiles.iterator().next());
+        }
+
+        final FileContentCache reopened = new FileContentCache(directory);
+
+        assertEquals(1, reopened.getEntryCount());
+        assertEquals(2, countFiles());
+    }
+
+    private static GetFileParameterBuilder builder(final String fileUri)
+    {
+        return new GetFileParameterBuilder().fileUri(fileUri).locale(LOCALE).retrievalType(RetrievalType.PUBLISHED);
+    }
+
+    private static void put(final FileContentCache cache, final String fileUri, final String contents) throws IOException
+    {
+        try (FileContentCache.Writer writer = cache.newWriter(builder(fileUri)))
+        {
+            writer.getChannel().write(ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8)));
+            writer.commit(LAST_MODIFIED, "UTF-8");
+        }
+    }
+
+    private static String read(final FileContentCache cache, final FileContentCache.CachedFile cachedFile) throws IOException
+    {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        cache.transferTo(cachedFile, Channels.newChannel(outputStream));
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private long countFiles() throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory))
+        {
+            return files.count();
+        }
+    }
+}
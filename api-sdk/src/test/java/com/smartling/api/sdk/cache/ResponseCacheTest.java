@@ -0,0 +1,160 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.cache;
+
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheTest
+{
+    private ResponseCache cache;
+
+    @Before
+    public void setup()
+    {
+        cache = new ResponseCache(10000);
+    }
+
+    @Test
+    public void testHitAndMiss()
+    {
+        StringResponse response = response(100);
+
+        assertNull(cache.get("status"));
+        cache.put("status", ApiOperation.GET_FILE_STATUS, "file", response, cache.getGeneration());
+
+        assertSame(response, cache.get("status"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testResponsesExpire() throws Exception
+    {
+        cache.setTtlMillis(ApiOperation.GET_FILE_STATUS, 20);
+        cache.put("status", ApiOperation.GET_FILE_STATUS, "file", response(100), cache.getGeneration());
+        Thread.sleep(40);
+
+        assertNull(cache.get("status"));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testExpiredResponsesAreKeptForStaleUse() throws Exception
+    {
+        cache.setTtlMillis(ApiOperation.GET_FILE_STATUS, 20);
+        cache.setMaxStaleMillis(60000);
+        cache.put("status", ApiOperation.GET_FILE_STATUS, "file", response(100), cache.getGeneration());
+        Thread.sleep(40);
+
+        assertNull(cache.get("status"));
+        assertNotNull(cache.getStale("status"));
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testOperationsWithoutTtlAreNotCached()
+    {
+        assertFalse(cache.isCached(ApiOperation.GET_FILE));
+        cache.put("file", ApiOperation.GET_FILE, "file", response(100), cache.getGeneration());
+
+        assertNull(cache.get("file"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteOperationsCannotBeCached()
+    {
+        cache.setTtlMillis(ApiOperation.DELETE_FILE, 1000);
+    }
+
+    @Test
+    public void testInvalidateDropsFileAndLists()
+    {
+        long generation = cache.getGeneration();
+        cache.put("status-a", ApiOperation.GET_FILE_STATUS, "a", response(100), generation);
+        cache.put("status-b", ApiOperation.GET_FILE_STATUS, "b", response(100), generation);
+        cache.put("list", ApiOperation.GET_FILES_LIST, null, response(100), generation);
+        cache.put("locales", ApiOperation.GET_PROJECT_LOCALES, null, response(100), generation);
+
+        cache.invalidate("a");
+
+        assertNull(cache.get("status-a"));
+        assertNull(cache.get("list"));
+        assertTrue(cache.get("status-b") != null);
+        assertTrue(cache.get("locales") != null);
+        assertEquals(2, cache.getInvalidationCount());
+    }
+
+    @Test
+    public void testResponseRequestedBeforeInvalidationIsNotCached()
+    {
+        long generation = cache.getGeneration();
+        cache.invalidate("a");
+        cache.put("status-a", ApiOperation.GET_FILE_STATUS, "a", response(100), generation);
+
+        assertNull(cache.get("status-a"));
+    }
+
+    @Test
+    public void testFrequentResponsesAreKeptWithinSize()
+    {
+        // two responses fit in the cache, three do not
+        cache.put("popular", ApiOperation.GET_FILE_STATUS, "popular", response(3900), cache.getGeneration());
+        for (int i = 0; i < 5; i++)
+            cache.get("popular");
+        cache.put("other", ApiOperation.GET_FILE_STATUS, "other", response(3900), cache.getGeneration());
+        cache.get("other");
+
+        cache.get("one-off");
+        cache.put("one-off", ApiOperation.GET_FILE_STATUS, "one-off", response(3900), cache.getGeneration());
+
+        assertTrue(cache.get("popular") != null);
+        assertNull(cache.get("one-off"));
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.getWeightBytes() <= cache.getMaxWeightBytes());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvictedForMoreFrequentResponse()
+    {
+        cache.put("old", ApiOperation.GET_FILE_STATUS, "old", response(3900), cache.getGeneration());
+        cache.put("other", ApiOperation.GET_FILE_STATUS, "other", response(3900), cache.getGeneration());
+        for (int i = 0; i < 5; i++)
+            cache.get("new");
+        cache.put("new", ApiOperation.GET_FILE_STATUS, "new", response(3900), cache.getGeneration());
+
+        assertTrue(cache.get("new") != null);
+        assertNull(cache.get("old"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    private static StringResponse response(final int bytes)
+    {
+        byte[] raw = new byte[bytes / 3];
+        return new StringResponse(new String(raw, StandardCharsets.UTF_8), raw, "UTF-8", true);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.circuitbreaker;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.CircuitBreakerOpenException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import com.smartling.api.sdk.exceptions.RateLimitExceededException;
+import com.smartling.api.sdk.exceptions.ValidationException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerTest
+{
+    private static final long OPEN_DURATION_MILLIS = 50;
+
+    private CircuitBreaker            circuitBreaker;
+    private List<CircuitBreakerState> transitions;
+
+    @Before
+    public void setup()
+    {
+        circuitBreaker = new CircuitBreaker();
+        circuitBreaker.setFailureThreshold(3);
+        circuitBreaker.setOpenDurationMillis(OPEN_DURATION_MILLIS);
+
+        transitions = new ArrayList<>();
+        circuitBreaker.addListener(new CircuitBreakerListener()
+        {
+            @Override
+            public void onStateChange(final CircuitBreakerState from, final CircuitBreakerState to, final ApiException cause)
+            {
+                transitions.add(to);
+            }
+        });
+    }
+
+    @Test
+    public void testMaintenanceOpensImmediately() throws Exception
+    {
+        callFailing(new MaintenanceModeException("maintenance", Collections.<String>emptyList()));
+
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+        assertEquals(Collections.singletonList(CircuitBreakerState.OPEN), transitions);
+    }
+
+    @Test
+    public void testRepeatedIoErrorsOpen() throws Exception
+    {
+        callFailing(ioException());
+        callFailing(ioException());
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+
+        callFailing(ioException());
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testServerErrorsOpen() throws Exception
+    {
+        for (int i = 0; i < 3; i++)
+            callFailing(httpError(502));
+
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testSuccessResetsFailureCount() throws Exception
+    {
+        callFailing(ioException());
+        callFailing(ioException());
+        call("ok");
+        callFailing(ioException());
+        callFailing(ioException());
+
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpen() throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            ApiException validationException = new ValidationException("invalid", Collections.<String>emptyList());
+            validationException.setHttpStatusCode(400);
+            callFailing(validationException);
+            callFailing(new RateLimitExceededException("limited", Collections.<String>emptyList()));
+        }
+
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testOpenBreakerFailsFast() throws Exception
+    {
+        callFailing(new MaintenanceModeException("maintenance", Collections.<String>emptyList()));
+
+        final int[] calls = new int[1];
+        try
+        {
+            circuitBreaker.protect(new ApiCall<String>()
+            {
+                @Override
+                public String call()
+                {
+                    calls[0]++;
+                    return "ok";
+                }
+            }).call();
+            fail();
+        }
+        catch (CircuitBreakerOpenException e)
+        {
+            assertEquals(0, calls[0]);
+            assertTrue(e.getRetryAfterMillis() <= OPEN_DURATION_MILLIS);
+        }
+    }
+
+    @Test
+    public void testHalfOpenTrialClosesOnSuccess() throws Exception
+    {
+        callFailing(new MaintenanceModeException("maintenance", Collections.<String>emptyList()));
+        Thread.sleep(OPEN_DURATION_MILLIS + 10);
+
+        assertEquals("ok", call("ok"));
+
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+        assertEquals(Arrays.asList(CircuitBreakerState.OPEN, CircuitBreakerState.HALF_OPEN, CircuitBreakerState.CLOSED), transitions);
+    }
+
+    @Test
+    public void testHalfOpenTrialReopensOnFailure() throws Exception
+    {
+        callFailing(new MaintenanceModeException("maintenance", Collections.<String>emptyList()));
+        Thread.sleep(OPEN_DURATION_MILLIS + 10);
+
+        callFailing(ioException());
+
+        assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenLimitsTrialCalls() throws Exception
+    {
+        circuitBreaker.setHalfOpenTrialCalls(2);
+        callFailing(new MaintenanceModeException("maintenance", Collections.<String>emptyList()));
+        Thread.sleep(OPEN_DURATION_MILLIS + 10);
+
+        circuitBreaker.acquirePermission();
+        circuitBreaker.acquirePermission();
+        try
+        {
+            circuitBreaker.acquirePermission();
+            fail();
+        }
+        catch (CircuitBreakerOpenException e)
+        {
+            assertEquals(CircuitBreakerState.HALF_OPEN, circuitBreaker.getState());
+        }
+
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testOpenDurationHonorsRetryAfter() throws Exception
+    {
+        ApiException maintenance = new MaintenanceModeException("maintenance", Collections.<String>emptyList());
+        maintenance.setRetryAfterMillis(10000L);
+        callFailing(maintenance);
+        Thread.sleep(OPEN_DURATION_MILLIS + 10);
+
+        try
+        {
+            circuitBreaker.acquirePermission();
+            fail();
+        }
+        catch (CircuitBreakerOpenException e)
+        {
+            assertTrue(e.getRetryAfterMillis() > OPEN_DURATION_MILLIS);
+        }
+    }
+
+    @Test
+    public void testListenersAreCalledAfterUnlocking() throws Exception
+    {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final List<CircuitBreakerState> statesSeenByOtherThread = new ArrayList<>();
+        circuitBreaker.addListener(new CircuitBreakerListener()
+        {
+            @Override
+            public void onStateChange(final CircuitBreakerState from, final CircuitBreakerState to, final ApiException cause)
+            {
+                try
+                {
+                    statesSeenByOtherThread.add(executor.submit(() -> circuitBreaker.getState()).get(5, TimeUnit.SECONDS));
+                }
+                catch (final Exception e)
+                {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        try
+        {
+            callFailing(new MaintenanceModeException("maintenance", Collections.<String>emptyList()));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Collections.singletonList(CircuitBreakerState.OPEN), statesSeenByOtherThread);
+    }
+
+    @Test
+    public void testListenerMayCallBreaker() throws Exception
+    {
+        circuitBreaker.addListener(new CircuitBreakerListener()
+        {
+            @Override
+            public void onStateChange(final CircuitBreakerState from, final CircuitBreakerState to, final ApiException cause)
+            {
+                if (to == CircuitBreakerState.HALF_OPEN)
+                    circuitBreaker.onSuccess();
+            }
+        });
+        callFailing(new MaintenanceModeException("maintenance", Collections.<String>emptyList()));
+        Thread.sleep(OPEN_DURATION_MILLIS + 10);
+
+        circuitBreaker.acquirePermission();
+
+        assertEquals(Arrays.asList(CircuitBreakerState.OPEN, CircuitBreakerState.HALF_OPEN, CircuitBreakerState.CLOSED), transitions);
+    }
+
+    private String call(final String result) throws ApiException
+    {
+        return circuitBreaker.protect(new ApiCall<String>()
+        {
+            @Override
+            public String call()
+            {
+                return result;
+            }
+        }).call();
+    }
+
+    private void callFailing(final ApiException failure)
+    {
+        try
+        {
+            circuitBreaker.protect(new ApiCall<String>()
+            {
+                @Override
+                public String call() throws ApiException
+                {
+                    throw failure;
+                }
+            }).call();
+            fail();
+        }
+        catch (ApiException e)
+        {
+            assertTrue(e == failure || e instanceof CircuitBreakerOpenException);
+        }
+    }
+
+    private static ApiException ioException()
+    {
+        return new ApiException(new IOException("Connection refused"));
+    }
+
+    private static ApiException httpError(final int statusCode)
+    {
+        ApiException apiException = new ApiException("<html>Bad gateway</html>", Collections.<String>emptyList());
+        apiException.setHttpStatusCode(statusCode);
+        return apiException;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.concurrency;
+
+import com.smartling.api.sdk.exceptions.ConcurrencyLimitExceededException;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrencyLimiterTest
+{
+    private static final long RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    public void testOverloadHalvesLimit() throws Exception
+    {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(8);
+
+        concurrencyLimiter.acquire();
+        concurrencyLimiter.release(RTT_NANOS, true);
+
+        assertEquals(4, concurrencyLimiter.getLimit());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    public void testFailedRequestLowersLimitDownToMinimum() throws Exception
+    {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(8);
+        concurrencyLimiter.setMinLimit(2);
+
+        for (int i = 0; i < 10; i++)
+        {
+            concurrencyLimiter.acquire();
+            concurrencyLimiter.release(-1, true);
+        }
+
+        assertEquals(2, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void testLimitGrowsByAboutOnePerWindowWhenSaturated() throws Exception
+    {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(4);
+
+        for (int window = 0; window < 3; window++)
+        {
+            int limit = concurrencyLimiter.getLimit();
+            for (int i = 0; i < limit; i++)
+                concurrencyLimiter.acquire();
+            for (int i = 0; i < limit; i++)
+                concurrencyLimiter.release(RTT_NANOS, false);
+        }
+
+        assertTrue(concurrencyLimiter.getLimit() >= 5);
+        assertTrue(concurrencyLimiter.getLimit() <= 7);
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenUnderused() throws Exception
+    {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(10);
+
+        for (int i = 0; i < 100; i++)
+        {
+            concurrencyLimiter.acquire();
+            concurrencyLimiter.release(RTT_NANOS, false);
+        }
+
+        assertEquals(10, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void testSlowRoundTripCountsAsOverload() throws Exception
+    {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(8);
+        concurrencyLimiter.acquire();
+        concurrencyLimiter.release(RTT_NANOS, false);
+
+        concurrencyLimiter.acquire();
+        concurrencyLimiter.release(TimeUnit.MILLISECONDS.toNanos(100), false);
+
+        assertEquals(4, concurrencyLimiter.getLimit());
+    }
+
+    @Test
+    public void testRejectsOverLimitWhenNotQueueing() throws Exception
+    {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1);
+        concurrencyLimiter.setQueueing(false);
+        concurrencyLimiter.acquire();
+
+        try
+        {
+            concurrencyLimiter.acquire();
+            fail();
+        }
+        catch (ConcurrencyLimitExceededException e)
+        {
+            assertEquals(1, concurrencyLimiter.getInFlight());
+        }
+    }
+
+    @Test
+    public void testQueuedRequestGivesUpAfterMaxWait() throws Exception
+    {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1);
+        concurrencyLimiter.setMaxWaitMillis(50);
+        concurrencyLimiter.acquire();
+
+        long start = System.nanoTime();
+        try
+        {
+            concurrencyLimiter.acquire();
+            fail();
+        }
+        catch (ConcurrencyLimitExceededException e)
+        {
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 45);
+        }
+    }
+
+    @Test
+    public void testQueuedRequestProceedsWhenSlotIsReleased() throws Exception
+    {
+        final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1);
+        concurrencyLimiter.acquire();
+
+        Thread releaser = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    Thread.sleep(20);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                concurrencyLimiter.release(RTT_NANOS, false);
+            }
+        });
+        releaser.start();
+
+        concurrencyLimiter.acquire();
+        releaser.join();
+        assertEquals(1, concurrencyLimiter.getInFlight());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.concurrency;
+
+import com.smartling.api.sdk.ExecutionMode;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecutorFactoryTest
+{
+    private static final Callable<Thread> CURRENT_THREAD = new Callable<Thread>()
+    {
+        @Override
+        public Thread call()
+        {
+            return Thread.currentThread();
+        }
+    };
+
+    @Test
+    public void testPlatformThreads() throws Exception
+    {
+        ExecutorService executor = ExecutorFactory.newExecutor(ExecutionMode.PLATFORM_THREADS, "test", 2);
+        try
+        {
+            Thread thread = executor.submit(CURRENT_THREAD).get();
+
+            assertTrue(thread.getName().startsWith("test-"));
+            assertTrue(thread.isDaemon());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsOrFallback() throws Exception
+    {
+        ExecutorService executor = ExecutorFactory.newExecutor(ExecutionMode.VIRTUAL_THREADS, "test", 2);
+        try
+        {
+            Thread thread = executor.submit(CURRENT_THREAD).get();
+
+            assertTrue(thread.getName().startsWith("test-"));
+            assertEquals(ExecutorFactory.isVirtualThreadSupported(), isVirtual(thread));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isVirtual(final Thread thread) throws Exception
+    {
+        try
+        {
+            return (Boolean)Thread.class.getMethod("isVirtual").invoke(thread);
+        }
+        catch (NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+}
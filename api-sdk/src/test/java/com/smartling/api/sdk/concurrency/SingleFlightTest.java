@@ -0,0 +1,222 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.concurrency;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.Deadline;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.DeadlineExceededException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest
+{
+    private ExecutorService executor;
+    private SingleFlight    singleFlight;
+
+    private final AtomicInteger  calls   = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setup()
+    {
+        executor = Executors.newCachedThreadPool();
+        singleFlight = new SingleFlight();
+    }
+
+    @After
+    public void tearDown()
+    {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallsShareOneCall() throws Exception
+    {
+        List<Future<String>> futures = submit("key", 5, blockingCall("result"));
+        awaitWaiters(4);
+        release.countDown();
+
+        for (Future<String> future : futures)
+            assertEquals("result", future.get());
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getCallCount());
+        assertEquals(4, singleFlight.getSharedCount());
+    }
+
+    @Test
+    public void testDifferentKeysAreNotShared() throws Exception
+    {
+        release.countDown();
+        singleFlight.execute("a", blockingCall("a"));
+        singleFlight.execute("b", blockingCall("b"));
+        singleFlight.execute("a", blockingCall("a"));
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testFailureIsShared() throws Exception
+    {
+        final ApiException failure = new ApiException("failed", Collections.singletonList("failed"));
+        List<Future<String>> futures = submit("key", 3, new ApiCall<String>()
+        {
+            @Override
+            public String call() throws ApiException
+            {
+                calls.incrementAndGet();
+                awaitRelease();
+                throw failure;
+            }
+        });
+        awaitWaiters(2);
+        release.countDown();
+
+        for (Future<String> future : futures)
+        {
+            try
+            {
+                future.get();
+                fail("Exception expected");
+            }
+            catch (ExecutionException e)
+            {
+                assertSame(failure, e.getCause());
+            }
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testWaiterGivesUpAtItsDeadline() throws Exception
+    {
+        submit("key", 1, blockingCall("result"));
+        while (calls.get() == 0)
+            Thread.sleep(1);
+
+        try
+        {
+            Deadline.after(50, TimeUnit.MILLISECONDS).call(() -> singleFlight.execute("key", blockingCall("other")));
+            fail("Exception expected");
+        }
+        catch (DeadlineExceededException e)
+        {
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    public void testWaiterRetriesWhenCallerDeadlinePasses() throws Exception
+    {
+        final Future<String> leader = executor.submit(() -> Deadline.after(200, TimeUnit.MILLISECONDS).call(() -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            final Deadline deadline = Deadline.current();
+            while (!deadline.isExpired())
+                LockSupport.parkNanos(deadline.remainingNanos());
+            throw deadline.newDeadlineExceededException();
+        })));
+        while (calls.get() == 0)
+            Thread.sleep(1);
+
+        final Future<String> waiter = submit("key", 1, blockingCall("result")).get(0);
+        awaitWaiters(1);
+        release.countDown();
+
+        assertEquals("result", waiter.get());
+        try
+        {
+            leader.get();
+            fail("Exception expected");
+        }
+        catch (ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof DeadlineExceededException);
+        }
+        assertEquals(2, calls.get());
+        assertEquals(2, singleFlight.getCallCount());
+        assertEquals(0, singleFlight.getSharedCount());
+    }
+
+    private ApiCall<String> blockingCall(final String result)
+    {
+        return new ApiCall<String>()
+        {
+            @Override
+            public String call()
+            {
+                calls.incrementAndGet();
+                awaitRelease();
+                return result;
+            }
+        };
+    }
+
+    private void awaitRelease()
+    {
+        try
+        {
+            release.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitWaiters(final int count) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (singleFlight.getSharedCount() < count && System.currentTimeMillis() < deadline)
+            Thread.sleep(1);
+    }
+
+    private List<Future<String>> submit(final String key, final int count, final ApiCall<String> apiCall)
+    {
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            futures.add(executor.submit(new Callable<String>()
+            {
+                @Override
+                public String call() throws ApiException
+                {
+                    return singleFlight.execute(key, apiCall);
+                }
+            }));
+        }
+        return futures;
+    }
+}
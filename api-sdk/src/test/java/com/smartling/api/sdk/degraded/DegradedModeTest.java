@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.degraded;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.CircuitBreakerOpenException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import com.smartling.api.sdk.exceptions.ValidationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DegradedModeTest
+{
+    private DegradedMode degradedMode;
+
+    @Before
+    public void setup()
+    {
+        degradedMode = new DegradedMode();
+        degradedMode.setRevalidationIntervalMillis(10);
+    }
+
+    @After
+    public void tearDown()
+    {
+        degradedMode.close();
+    }
+
+    @Test
+    public void testAvailabilityFailures()
+    {
+        final ApiException serverError = new ApiException("error", Collections.<String>emptyList());
+        serverError.setHttpStatusCode(502);
+
+        assertTrue(degradedMode.isAvailabilityFailure(new MaintenanceModeException("maintenance", Collections.<String>emptyList())));
+        assertTrue(degradedMode.isAvailabilityFailure(new CircuitBreakerOpenException("open", Collections.<String>emptyList())));
+        assertTrue(degradedMode.isAvailabilityFailure(new ApiException(new IOException("reset"))));
+        assertTrue(degradedMode.isAvailabilityFailure(serverError));
+        assertFalse(degradedMode.isAvailabilityFailure(new ValidationException("invalid", Collections.<String>emptyList())));
+    }
+
+    @Test
+    public void testRevalidatesUntilApiRecovers() throws Exception
+    {
+        final AtomicInteger attempts = new AtomicInteger();
+        degradedMode.onStaleResponse("key", () -> {
+            if (attempts.incrementAndGet() < 3)
+                throw new MaintenanceModeException("maintenance", Collections.<String>emptyList());
+            return null;
+        });
+        degradedMode.onStaleResponse("key", failingCall());
+
+        awaitPendingRevalidations();
+        assertEquals(3, attempts.get());
+        assertEquals(1, degradedMode.getRevalidationCount());
+        assertEquals(2, degradedMode.getStaleResponseCount());
+    }
+
+    @Test
+    public void testGivesUpWhenApiRejectsCall() throws Exception
+    {
+        degradedMode.onStaleResponse("key", failingCall());
+
+        awaitPendingRevalidations();
+        assertEquals(0, degradedMode.getRevalidationCount());
+        assertEquals(1, degradedMode.getFailedRevalidationCount());
+    }
+
+    @Test
+    public void testLimitsPendingRevalidations()
+    {
+        degradedMode.setRevalidationIntervalMillis(60000);
+        degradedMode.setMaxPendingRevalidations(1);
+        degradedMode.onStaleResponse("key1", failingCall());
+        degradedMode.onStaleResponse("key2", failingCall());
+
+        assertEquals(1, degradedMode.getPendingRevalidationCount());
+        assertEquals(2, degradedMode.getStaleResponseCount());
+    }
+
+    private static ApiCall<Object> failingCall()
+    {
+        return () -> {
+            throw new ValidationException("invalid", Collections.<String>emptyList());
+        };
+    }
+
+    private void awaitPendingRevalidations() throws InterruptedException
+    {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (degradedMode.getPendingRevalidationCount() > 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+    }
+}
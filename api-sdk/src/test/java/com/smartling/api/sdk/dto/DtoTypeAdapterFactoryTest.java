@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.dto;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import com.smartling.api.sdk.dto.file.FileLastModified;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.dto.file.UploadFileData;
+import com.smartling.api.sdk.dto.project.ProjectLocaleList;
+import com.smartling.api.sdk.util.DateTypeAdapter;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DtoTypeAdapterFactoryTest
+{
+    private static final String FILE_LIST_RESPONSE     = "{\"response\":{\"data\":{\"fileCount\": 1, \"fileList\": [{\"fileUri\": \"fileUri\", \"stringCount\": 2, \"wordCount\": 3, \"approvedStringCount\": 4, \"completedStringCount\": 5, \"lastUploaded\": \"lastDate\", \"fileType\": \"JAVA_PROPERTIES\", \"callbackUrl\": \"callbackUrl\"}]},\"code\":\"SUCCESS\",\"messages\":[]}}";
+    private static final String FILE_STATUS_RESPONSE   = "{\"response\":{\"data\":{\"fileUri\": \"fileUri\", \"stringCount\": 2, \"wordCount\": 3, \"approvedStringCount\": 1, \"completedStringCount\": 1, \"lastUploaded\": \"2012-01-01T00:00:00\", \"fileType\": \"JAVA_PROPERTIES\", \"unknown\": {\"a\": [1, 2]}},\"code\":\"SUCCESS\",\"messages\":[]}}";
+    private static final String UPLOAD_RESPONSE        = "{\"response\":{\"data\": {\"stringCount\": 1, \"wordCount\": 2, \"overWritten\": true},\"code\":\"SUCCESS\",\"messages\":[]}}";
+    private static final String LAST_MODIFIED_RESPONSE = "{\"response\":{\"data\": {\"items\": [{\"locale\": \"ru-RU\", \"lastModified\": \"2013-01-01T00:00:00\"}, {\"locale\": \"de-DE\", \"lastModified\": null}]}, \"code\":\"SUCCESS\", \"messages\":[]}}";
+    private static final String LOCALES_RESPONSE       = "{\"response\":{\"data\": {\"locales\": [{\"locale\": \"ru-RU\", \"name\": \"Russian\", \"translated\": \"Русский\"}]}, \"code\":\"SUCCESS\", \"messages\":[]}}";
+    private static final String ERROR_RESPONSE         = "{\"response\":{\"data\":null,\"code\":\"VALIDATION_ERROR\",\"messages\":[\"apiKey parameter is required\",\"apiVersion parameter is required\"]}}";
+
+    private final Gson reflectiveGson = new GsonBuilder().registerTypeAdapter(Date.class, new DateTypeAdapter()).create();
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new DateTypeAdapter())
+            .registerTypeAdapterFactory(new DtoTypeAdapterFactory())
+            .create();
+
+    @Test
+    public void testFileResponsesMatchReflection()
+    {
+        assertSameAsReflection(FILE_LIST_RESPONSE, new TypeToken<ApiResponseWrapper<FileList>>() {}.getType());
+        assertSameAsReflection(FILE_STATUS_RESPONSE, new TypeToken<ApiResponseWrapper<FileStatus>>() {}.getType());
+        assertSameAsReflection(UPLOAD_RESPONSE, new TypeToken<ApiResponseWrapper<UploadFileData>>() {}.getType());
+        assertSameAsReflection(LAST_MODIFIED_RESPONSE, new TypeToken<ApiResponseWrapper<FileLastModified>>() {}.getType());
+        assertSameAsReflection(ERROR_RESPONSE, new TypeToken<ApiResponseWrapper<EmptyResponse>>() {}.getType());
+    }
+
+    @Test
+    public void testProjectResponsesMatchReflection()
+    {
+        assertSameAsReflection(LOCALES_RESPONSE, new TypeToken<ApiResponseWrapper<ProjectLocaleList>>() {}.getType());
+    }
+
+    @Test
+    public void testAdaptersAreUsed()
+    {
+        final String className = DtoTypeAdapterFactory.class.getPackage().getName();
+        assertTrue(gson.getAdapter(new TypeToken<ApiResponseWrapper<FileList>>() {}).getClass().getName().startsWith(className));
+        assertTrue(gson.getAdapter(FileStatus.class).getClass().getName().startsWith(className));
+        assertTrue(gson.getAdapter(ProjectLocaleList.class).getClass().getName().startsWith(className));
+    }
+
+    @Test
+    public void testNullsAndMissingFields()
+    {
+        final ApiResponseWrapper<FileStatus> wrapper = gson.fromJson("{\"response\":{\"data\":{\"fileUri\": null}}}",
+                new TypeToken<ApiResponseWrapper<FileStatus>>() {}.getType());
+
+        assertNull(wrapper.getResponse().getData().getFileUri());
+        assertEquals(0, wrapper.getResponse().getData().getStringCount());
+        assertNull(wrapper.getResponse().getCode());
+        assertNull(wrapper.getResponse().getMessages());
+        assertEquals("{\"response\":{\"data\":{\"stringCount\":0,\"wordCount\":0,\"approvedStringCount\":0,\"completedStringCount\":0}}}",
+                gson.toJson(wrapper, new TypeToken<ApiResponseWrapper<FileStatus>>() {}.getType()));
+    }
+
+    @Test
+    public void testMalformedNumberIsSyntaxError()
+    {
+        final String json = "{\"response\":{\"data\":{\"stringCount\":\"abc\"}}}";
+        final Type type = new TypeToken<ApiResponseWrapper<FileStatus>>() {}.getType();
+
+        try
+        {
+            reflectiveGson.fromJson(json, type);
+            fail();
+        }
+        catch (final JsonSyntaxException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            gson.fromJson(json, type);
+            fail();
+        }
+        catch (final JsonSyntaxException e)
+        {
+            // expected
+        }
+    }
+
+    private void assertSameAsReflection(final String json, final Type type)
+    {
+        final Object expected = reflectiveGson.fromJson(json, type);
+        final Object actual = gson.fromJson(json, type);
+
+        assertEquals(reflectiveGson.toJson(expected, type), reflectiveGson.toJson(actual, type));
+        assertEquals(reflectiveGson.toJson(expected, type), gson.toJson(actual, type));
+    }
+}
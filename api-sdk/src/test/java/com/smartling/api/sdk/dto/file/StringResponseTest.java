@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.dto.file;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StringResponseTest
+{
+    private static final String CONTENTS = "key=värde\n";
+
+    @Test
+    public void shouldDecodeContentsOnFirstUse()
+    {
+        final StringResponse response = new StringResponse(CONTENTS.getBytes(StandardCharsets.UTF_16), StandardCharsets.UTF_16, true, 200, null, false);
+
+        final String contents = response.getContents();
+
+        assertEquals("UTF-16", response.getEncoding());
+        assertEquals(CONTENTS, contents);
+        assertSame(contents, response.getContents());
+    }
+
+    @Test
+    public void shouldKeepGivenContents()
+    {
+        final StringResponse response = new StringResponse(CONTENTS, CONTENTS.getBytes(StandardCharsets.UTF_8), "UTF-8", true);
+
+        assertSame(CONTENTS, response.getContents());
+    }
+
+    @Test
+    public void shouldReturnNullContentsWithoutBody()
+    {
+        assertNull(new StringResponse(null, StandardCharsets.UTF_8, false, 500, null, false).getContents());
+    }
+
+    @Test
+    public void shouldDecodeContentsOfStaleCopy()
+    {
+        final StringResponse stale = new StringResponse(CONTENTS.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, true, 200, null, false).toStale();
+
+        assertTrue(stale.isStale());
+        assertSame(StandardCharsets.UTF_8, stale.getCharset());
+        assertEquals(CONTENTS, stale.getContents());
+    }
+}
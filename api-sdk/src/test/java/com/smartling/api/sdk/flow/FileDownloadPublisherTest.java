@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.flow;
+
+import com.smartling.api.sdk.FileApiClientAdapter;
+import com.smartling.api.sdk.dto.file.StringResponse;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.parameters.GetFileParameterBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FileDownloadPublisherTest
+{
+    private static final String       FILE_URI = "file.properties";
+    private static final List<String> LOCALES  = Arrays.asList("de-DE", "fr-FR", "es-ES", "it-IT", "ja-JP", "ru-RU");
+
+    private ExecutorService      executor;
+    private FileApiClientAdapter fileApiClientAdapter;
+
+    private final AtomicInteger downloadCount = new AtomicInteger();
+
+    private volatile String failingLocale;
+
+    @Before
+    public void setup() throws ApiException
+    {
+        executor = Executors.newCachedThreadPool();
+        fileApiClientAdapter = mock(FileApiClientAdapter.class);
+        when(fileApiClientAdapter.getFile(any(GetFileParameterBuilder.class))).thenAnswer(new Answer<StringResponse>()
+        {
+            @Override
+            public StringResponse answer(InvocationOnMock invocation) throws Throwable
+            {
+                downloadCount.incrementAndGet();
+                GetFileParameterBuilder getFileParameterBuilder = (GetFileParameterBuilder)invocation.getArguments()[0];
+                if (getFileParameterBuilder.getLocale().equals(failingLocale))
+                    throw new ApiException("failed", Collections.singletonList("failed"));
+
+                // finish out of order to check that files are still published in the given order
+                Thread.sleep(LOCALES.size() * 5 - LOCALES.indexOf(getFileParameterBuilder.getLocale()) * 5);
+                String locale = getFileParameterBuilder.getLocale();
+                return new StringResponse(locale, locale.getBytes("UTF-8"), "UTF-8", true);
+            }
+        });
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPublishesFilesInOrder() throws Exception
+    {
+        TestSubscriber<FileDownload> subscriber = new TestSubscriber<>();
+        FileDownloadPublisher.forLocales(fileApiClientAdapter, FILE_URI, LOCALES, null, executor).subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.awaitDone();
+
+        assertTrue(subscriber.completed);
+        assertEquals(LOCALES.size(), subscriber.items.size());
+        for (int i = 0; i < LOCALES.size(); i++)
+        {
+            assertEquals(LOCALES.get(i), subscriber.items.get(i).getLocale());
+            assertEquals(LOCALES.get(i), subscriber.items.get(i).getResponse().getContents());
+        }
+    }
+
+    @Test
+    public void testDemandBoundsDownloads() throws Exception
+    {
+        TestSubscriber<FileDownload> subscriber = new TestSubscriber<>();
+        FileDownloadPublisher.forLocales(fileApiClientAdapter, FILE_URI, LOCALES, null, executor).subscribe(subscriber);
+
+        subscriber.request(2);
+        subscriber.awaitItems(2);
+        Thread.sleep(50);
+        assertEquals(2, subscriber.items.size());
+        assertEquals(2, downloadCount.get());
+
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    public void testFailedDownloadEndsSubscription() throws Exception
+    {
+        failingLocale = "es-ES";
+        TestSubscriber<FileDownload> subscriber = new TestSubscriber<>();
+        FileDownloadPublisher.forLocales(fileApiClientAdapter, FILE_URI, LOCALES, null, executor).subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.awaitDone();
+
+        assertTrue(subscriber.error instanceof ApiException);
+        assertEquals(2, subscriber.items.size());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.flow;
+
+import com.smartling.api.sdk.FileApiClientAdapter;
+import com.smartling.api.sdk.dto.ApiResponse;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.file.FileListSearchParams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FileListPublisherTest
+{
+    private static final int FILE_COUNT = 25;
+
+    private ExecutorService      executor;
+    private FileApiClientAdapter fileApiClientAdapter;
+
+    private final List<Integer> requestedOffsets = Collections.synchronizedList(new ArrayList<Integer>());
+
+    @Before
+    public void setup() throws ApiException
+    {
+        executor = Executors.newCachedThreadPool();
+        fileApiClientAdapter = mock(FileApiClientAdapter.class);
+        when(fileApiClientAdapter.getFilesList(any(FileListSearchParams.class))).thenAnswer(new Answer<ApiResponse<FileList>>()
+        {
+            @Override
+            public ApiResponse<FileList> answer(InvocationOnMock invocation)
+            {
+                return page((FileListSearchParams)invocation.getArguments()[0]);
+            }
+        });
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPublishesAllFiles() throws Exception
+    {
+        TestSubscriber<FileStatus> subscriber = new TestSubscriber<>();
+        new FileListPublisher(fileApiClientAdapter, new FileListSearchParams(), executor, 10).subscribe(subscriber);
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.awaitDone();
+
+        assertTrue(subscriber.completed);
+        assertEquals(FILE_COUNT, subscriber.items.size());
+        assertEquals("file24", subscriber.items.get(24).getFileUri());
+        assertEquals(3, requestedOffsets.size());
+    }
+
+    @Test
+    public void testDemandDrivesPageRequests() throws Exception
+    {
+        TestSubscriber<FileStatus> subscriber = new TestSubscriber<>();
+        new FileListPublisher(fileApiClientAdapter, new FileListSearchParams(), executor, 10).subscribe(subscriber);
+        Thread.sleep(50);
+        assertTrue(requestedOffsets.isEmpty());
+
+        subscriber.request(10);
+        subscriber.awaitItems(10);
+        Thread.sleep(50);
+        assertEquals(Collections.singletonList(0), requestedOffsets);
+
+        subscriber.request(1);
+        subscriber.awaitItems(11);
+        assertEquals(11, subscriber.items.size());
+        assertEquals(2, requestedOffsets.size());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    public void testInvalidRequestFails() throws Exception
+    {
+        TestSubscriber<FileStatus> subscriber = new TestSubscriber<>();
+        new FileListPublisher(fileApiClientAdapter, new FileListSearchParams(), executor).subscribe(subscriber);
+        subscriber.request(0);
+        subscriber.awaitDone();
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(requestedOffsets.isEmpty());
+    }
+
+    private ApiResponse<FileList> page(final FileListSearchParams searchParams)
+    {
+        requestedOffsets.add(searchParams.getOffset());
+
+        List<FileStatus> files = new ArrayList<>();
+        for (int i = searchParams.getOffset(); i < Math.min(FILE_COUNT, searchParams.getOffset() + searchParams.getLimit()); i++)
+        {
+            FileStatus fileStatus = mock(FileStatus.class);
+            when(fileStatus.getFileUri()).thenReturn("file" + i);
+            files.add(fileStatus);
+        }
+
+        FileList fileList = mock(FileList.class);
+        when(fileList.getFileCount()).thenReturn(FILE_COUNT);
+        when(fileList.getFileList()).thenReturn(files);
+
+        @SuppressWarnings("unchecked")
+        ApiResponse<FileList> apiResponse = mock(ApiResponse.class);
+        when(apiResponse.getData()).thenReturn(fileList);
+        return apiResponse;
+    }
+}
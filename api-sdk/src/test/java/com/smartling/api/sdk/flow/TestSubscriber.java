@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.flow;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Subscriber recording what it is sent, requesting items only when told to.
+ */
+class TestSubscriber<T> implements Flow.Subscriber<T>
+{
+    final List<T>        items = new CopyOnWriteArrayList<>();
+    final CountDownLatch done  = new CountDownLatch(1);
+
+    volatile Flow.Subscription subscription;
+    volatile Throwable         error;
+    volatile boolean           completed;
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription)
+    {
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(final T item)
+    {
+        items.add(item);
+    }
+
+    @Override
+    public void onError(final Throwable throwable)
+    {
+        error = throwable;
+        done.countDown();
+    }
+
+    @Override
+    public void onComplete()
+    {
+        completed = true;
+        done.countDown();
+    }
+
+    void request(final long n)
+    {
+        subscription.request(n);
+    }
+
+    void awaitDone() throws InterruptedException
+    {
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    void awaitItems(final int count) throws InterruptedException
+    {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (items.size() < count && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+    }
+}
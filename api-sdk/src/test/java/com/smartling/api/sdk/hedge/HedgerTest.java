@@ -0,0 +1,256 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.hedge;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.exceptions.ApiException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HedgerTest
+{
+    private Hedger hedger;
+
+    @Before
+    public void setup()
+    {
+        hedger = new Hedger();
+    }
+
+    @After
+    public void tearDown()
+    {
+        hedger.close();
+    }
+
+    @Test
+    public void testOperationWithoutPolicyIsCalledOnCallerThread() throws Exception
+    {
+        final Thread caller = Thread.currentThread();
+
+        final String result = hedger.execute(ApiOperation.GET_FILE_STATUS, () -> new HedgeAttempt<>(() -> {
+            assertSame(caller, Thread.currentThread());
+            return "result";
+        }, () -> {}));
+
+        assertEquals("result", result);
+        assertEquals(0, hedger.getMetrics(ApiOperation.GET_FILE_STATUS).getCallCount());
+    }
+
+    @Test
+    public void testFastCallIsNotHedged() throws Exception
+    {
+        hedger.setHedgePolicy(ApiOperation.GET_FILE_STATUS, HedgePolicy.fixedDelay(1000));
+        final AttemptFactory attemptFactory = new AttemptFactory(0);
+
+        assertEquals("0", hedger.execute(ApiOperation.GET_FILE_STATUS, attemptFactory));
+
+        assertEquals(1, attemptFactory.attempts.size());
+        final HedgeMetrics metrics = hedger.getMetrics(ApiOperation.GET_FILE_STATUS);
+        assertEquals(1, metrics.getCallCount());
+        assertEquals(0, metrics.getHedgeCount());
+    }
+
+    @Test
+    public void testSlowCallIsHedgedAndLoserAborted() throws Exception
+    {
+        hedger.setHedgePolicy(ApiOperation.GET_FILE_STATUS, HedgePolicy.fixedDelay(20));
+        final AttemptFactory attemptFactory = new AttemptFactory(5000, 0);
+
+        final long start = System.nanoTime();
+        assertEquals("1", hedger.execute(ApiOperation.GET_FILE_STATUS, attemptFactory));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertTrue(attemptFactory.attempts.get(0).aborted.await(1, TimeUnit.SECONDS));
+        final HedgeMetrics metrics = hedger.getMetrics(ApiOperation.GET_FILE_STATUS);
+        assertEquals(1, metrics.getHedgeCount());
+        assertEquals(1, metrics.getHedgeWinCount());
+    }
+
+    @Test
+    public void testPrimaryWinningAfterHedgeIsNotCountedAsHedgeWin() throws Exception
+    {
+        hedger.setHedgePolicy(ApiOperation.GET_FILE_STATUS, HedgePolicy.fixedDelay(10));
+        final AttemptFactory attemptFactory = new AttemptFactory(50, 5000);
+
+        assertEquals("0", hedger.execute(ApiOperation.GET_FILE_STATUS, attemptFactory));
+
+        assertTrue(attemptFactory.attempts.get(1).aborted.await(1, TimeUnit.SECONDS));
+        final HedgeMetrics metrics = hedger.getMetrics(ApiOperation.GET_FILE_STATUS);
+        assertEquals(1, metrics.getHedgeCount());
+        assertEquals(0, metrics.getHedgeWinCount());
+    }
+
+    @Test
+    public void testFailureOfOneRequestWaitsForTheOther() throws Exception
+    {
+        hedger.setHedgePolicy(ApiOperation.GET_FILE_STATUS, HedgePolicy.fixedDelay(10));
+        final AttemptFactory attemptFactory = new AttemptFactory(50, 100);
+        attemptFactory.failing = 0;
+
+        assertEquals("1", hedger.execute(ApiOperation.GET_FILE_STATUS, attemptFactory));
+        assertEquals(1, hedger.getMetrics(ApiOperation.GET_FILE_STATUS).getHedgeWinCount());
+    }
+
+    @Test
+    public void testFailureBeforeHedgeDelayIsThrown() throws Exception
+    {
+        hedger.setHedgePolicy(ApiOperation.GET_FILE_STATUS, HedgePolicy.fixedDelay(1000));
+        final AttemptFactory attemptFactory = new AttemptFactory(0);
+        attemptFactory.failing = 0;
+
+        try
+        {
+            hedger.execute(ApiOperation.GET_FILE_STATUS, attemptFactory);
+            fail();
+        }
+        catch (final ApiException e)
+        {
+            assertEquals("failure 0", e.getMessage());
+        }
+        assertEquals(1, attemptFactory.attempts.size());
+    }
+
+    @Test
+    public void testPercentilePolicyUsesFixedDelayUntilEnoughSamples() throws Exception
+    {
+        final HedgePolicy hedgePolicy = HedgePolicy.percentile(0.95);
+        hedgePolicy.setDelayMillis(500);
+        hedgePolicy.setMinSamples(5);
+        hedgePolicy.setMinDelayMillis(3);
+        hedger.setHedgePolicy(ApiOperation.GET_LAST_MODIFIED, hedgePolicy);
+
+        assertEquals(500, hedger.getHedgeDelayMillis(ApiOperation.GET_LAST_MODIFIED));
+
+        for (int i = 0; i < 5; i++)
+            hedger.execute(ApiOperation.GET_LAST_MODIFIED, new AttemptFactory(0));
+
+        final long delayMillis = hedger.getHedgeDelayMillis(ApiOperation.GET_LAST_MODIFIED);
+        assertTrue(delayMillis >= 3 && delayMillis < 500);
+        assertEquals(-1, hedger.getHedgeDelayMillis(ApiOperation.GET_FILE));
+    }
+
+    @Test
+    public void testFailedCallsAreRecordedAsSamples() throws Exception
+    {
+        final HedgePolicy hedgePolicy = HedgePolicy.percentile(0.95);
+        hedgePolicy.setDelayMillis(500);
+        hedgePolicy.setMinSamples(3);
+        hedger.setHedgePolicy(ApiOperation.GET_LAST_MODIFIED, hedgePolicy);
+
+        for (int i = 0; i < 3; i++)
+        {
+            final AttemptFactory attemptFactory = new AttemptFactory(0);
+            attemptFactory.failing = 0;
+            try
+            {
+                hedger.execute(ApiOperation.GET_LAST_MODIFIED, attemptFactory);
+                fail();
+            }
+            catch (final ApiException e)
+            {
+                // expected
+            }
+        }
+
+        assertTrue(hedger.getHedgeDelayMillis(ApiOperation.GET_LAST_MODIFIED) < 500);
+    }
+
+    @Test
+    public void testLatencyTrackerPercentile()
+    {
+        final LatencyTracker latencyTracker = new LatencyTracker();
+        assertEquals(-1, latencyTracker.getPercentile(0.95));
+
+        for (int i = 1; i <= 100; i++)
+            latencyTracker.record(i);
+
+        assertEquals(96, latencyTracker.getPercentile(0.95));
+        assertEquals(51, latencyTracker.getPercentile(0.5));
+    }
+
+    /**
+     * Creates attempts answering with their index after the given latencies.
+     */
+    private static class AttemptFactory implements Supplier<HedgeAttempt<String>>
+    {
+        private final long[]         latenciesMillis;
+        private final List<FakeCall> attempts = new ArrayList<>();
+        private volatile int         failing  = -1;
+
+        private AttemptFactory(final long... latenciesMillis)
+        {
+            this.latenciesMillis = latenciesMillis;
+        }
+
+        @Override
+        public synchronized HedgeAttempt<String> get()
+        {
+            final int index = attempts.size();
+            final FakeCall fakeCall = new FakeCall(index, latenciesMillis[index], index == failing);
+            attempts.add(fakeCall);
+            return new HedgeAttempt<>(fakeCall, fakeCall.aborted::countDown);
+        }
+    }
+
+    private static class FakeCall implements ApiCall<String>
+    {
+        private final CountDownLatch aborted = new CountDownLatch(1);
+        private final int            index;
+        private final long           latencyMillis;
+        private final boolean        failing;
+
+        private FakeCall(final int index, final long latencyMillis, final boolean failing)
+        {
+            this.index = index;
+            this.latencyMillis = latencyMillis;
+            this.failing = failing;
+        }
+
+        @Override
+        public String call() throws ApiException
+        {
+            try
+            {
+                if (aborted.await(latencyMillis, TimeUnit.MILLISECONDS))
+                    throw new ApiException("aborted", Collections.<String>emptyList());
+            }
+            catch (final InterruptedException e)
+            {
+                throw new ApiException(e);
+            }
+
+            if (failing)
+                throw new ApiException("failure " + index, Collections.<String>emptyList());
+
+            return String.valueOf(index);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.json;
+
+import com.google.gson.reflect.TypeToken;
+import com.smartling.api.sdk.dto.ApiResponseWrapper;
+import com.smartling.api.sdk.dto.EmptyResponse;
+import com.smartling.api.sdk.dto.file.FileLastModified;
+import com.smartling.api.sdk.dto.file.FileList;
+import com.smartling.api.sdk.dto.file.FileStatus;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that every codec on the classpath keeps the contract of {@link JsonCodec}.
+ */
+public class JsonCodecTest
+{
+    private static final String FILE_LIST_RESPONSE     = "{\"response\":{\"data\":{\"fileCount\": 1, \"fileList\": [{\"fileUri\": \"fileUri\", \"stringCount\": 2, \"wordCount\": 3, \"approvedStringCount\": 4, \"completedStringCount\": 5, \"lastUploaded\": \"lastDate\", \"fileType\": \"JAVA_PROPERTIES\", \"callbackUrl\": \"callbackUrl\"}]},\"code\":\"SUCCESS\",\"messages\":[]}}";
+    private static final String LAST_MODIFIED_RESPONSE = "{\"response\":{\"data\": {\"items\": [{\"locale\": \"ru-RU\", \"lastModified\": \"2013-01-01T00:00:00\"}]}, \"code\":\"SUCCESS\", \"messages\":[]}}";
+    private static final String ERROR_RESPONSE         = "{\"response\":{\"data\":null,\"code\":\"VALIDATION_ERROR\",\"messages\":[\"apiKey parameter is required\"]}}";
+
+    private static final Type FILE_LIST_TYPE      = new TypeToken<ApiResponseWrapper<FileList>>() {}.getType();
+    private static final Type LAST_MODIFIED_TYPE  = new TypeToken<ApiResponseWrapper<FileLastModified>>() {}.getType();
+    private static final Type FILE_STATUS_TYPE    = new TypeToken<ApiResponseWrapper<FileStatus>>() {}.getType();
+    private static final Type EMPTY_RESPONSE_TYPE = new TypeToken<ApiResponseWrapper<EmptyResponse>>() {}.getType();
+
+    private final GsonJsonCodec referenceCodec = new GsonJsonCodec();
+
+    @Test
+    public void testDecodesLikeGson() throws Exception
+    {
+        for (final JsonCodec codec : JsonCodecs.getAvailableCodecs())
+        {
+            for (final String json : new String[] {FILE_LIST_RESPONSE, LAST_MODIFIED_RESPONSE, ERROR_RESPONSE})
+            {
+                final Type type = json == FILE_LIST_RESPONSE ? FILE_LIST_TYPE : json == LAST_MODIFIED_RESPONSE ? LAST_MODIFIED_TYPE : EMPTY_RESPONSE_TYPE;
+                final String expected = referenceCodec.decode(json, type).toString();
+
+                assertEquals(codec.getName(), expected, codec.decode(json, type).toString());
+                assertEquals(codec.getName(), expected, codec.decode(new StringReader(json), type).toString());
+            }
+
+            final ApiResponseWrapper<FileLastModified> lastModified = codec.decode(LAST_MODIFIED_RESPONSE, LAST_MODIFIED_TYPE);
+            assertEquals(codec.getName(), new Date(1356998400000L), lastModified.getResponse().getData().getItems().get(0).getLastModified());
+        }
+    }
+
+    @Test
+    public void testEmptyJsonDecodesToNull() throws Exception
+    {
+        for (final JsonCodec codec : JsonCodecs.getAvailableCodecs())
+        {
+            assertNull(codec.getName(), codec.decode("", FILE_LIST_TYPE));
+            assertNull(codec.getName(), codec.decode(new StringReader(""), FILE_LIST_TYPE));
+        }
+    }
+
+    @Test
+    public void testMalformedJsonIsRejected() throws Exception
+    {
+        for (final JsonCodec codec : JsonCodecs.getAvailableCodecs())
+        {
+            for (final String json : new String[] {"<html>Bad Gateway</html>", "{\"response\":{\"data\":", "{\"response\":[]}", "{\"response\":{}} {}"})
+            {
+                try
+                {
+                    codec.decode(json, EMPTY_RESPONSE_TYPE);
+                    fail(codec.getName() + " decoded " + json);
+                }
+                catch (final JsonCodecException e)
+                {
+                    // expected
+                }
+            }
+
+            try
+            {
+                codec.decode(new StringReader("{\"response\":{\"data\":"), EMPTY_RESPONSE_TYPE);
+                fail(codec.getName() + " decoded truncated JSON");
+            }
+            catch (final JsonCodecException e)
+            {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testMalformedNumberIsRejected() throws Exception
+    {
+        final String json = "{\"response\":{\"data\":{\"stringCount\":\"abc\"}}}";
+        for (final JsonCodec codec : JsonCodecs.getAvailableCodecs())
+        {
+            try
+            {
+                codec.decode(json, FILE_STATUS_TYPE);
+                fail(codec.getName() + " decoded " + json);
+            }
+            catch (final JsonCodecException e)
+            {
+                // expected
+            }
+
+            try
+            {
+                codec.decode(new StringReader(json), FILE_STATUS_TYPE);
+                fail(codec.getName() + " decoded " + json);
+            }
+            catch (final JsonCodecException e)
+            {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testReadFailuresArePropagated() throws Exception
+    {
+        final IOException failure = new IOException("Connection reset");
+        for (final JsonCodec codec : JsonCodecs.getAvailableCodecs())
+        {
+            try
+            {
+                codec.decode(new FailingReader("{\"response\":{\"data\":", failure), FILE_LIST_TYPE);
+                fail(codec.getName() + " ignored the failure");
+            }
+            catch (final IOException e)
+            {
+                assertSame(codec.getName(), failure, e);
+            }
+        }
+    }
+
+    private static class FailingReader extends Reader
+    {
+        private final Reader      reader;
+        private final IOException failure;
+
+        private FailingReader(final String contents, final IOException failure)
+        {
+            this.reader = new StringReader(contents);
+            this.failure = failure;
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) throws IOException
+        {
+            final int read = reader.read(buffer, offset, length);
+            if (read < 0)
+                throw failure;
+
+            return read;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
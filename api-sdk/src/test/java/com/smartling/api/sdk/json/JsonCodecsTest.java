@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.json;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class JsonCodecsTest
+{
+    @Test
+    public void testBuiltInCodecsAreAvailable()
+    {
+        final List<String> names = new ArrayList<>();
+        for (final JsonCodec codec : JsonCodecs.getAvailableCodecs())
+            names.add(codec.getName());
+
+        assertTrue(names.contains(GsonJsonCodec.NAME));
+        assertTrue(names.contains(StreamingJsonCodec.NAME));
+    }
+
+    @Test
+    public void testCodecIsSelectedByName()
+    {
+        assertTrue(JsonCodecs.getCodec(StreamingJsonCodec.NAME) instanceof StreamingJsonCodec);
+        assertTrue(JsonCodecs.newDefaultCodec(" " + StreamingJsonCodec.NAME + " ") instanceof StreamingJsonCodec);
+    }
+
+    @Test
+    public void testGsonIsTheDefault()
+    {
+        assertEquals(GsonJsonCodec.NAME, JsonCodecs.newDefaultCodec(null).getName());
+        assertEquals(GsonJsonCodec.NAME, JsonCodecs.newDefaultCodec("").getName());
+    }
+
+    @Test
+    public void testUnknownDefaultCodecFallsBackToGson()
+    {
+        assertEquals(GsonJsonCodec.NAME, JsonCodecs.newDefaultCodec("unknown").getName());
+
+        final String property = System.getProperty(JsonCodecs.CODEC_PROPERTY);
+        try
+        {
+            System.setProperty(JsonCodecs.CODEC_PROPERTY, "unknown");
+            final JsonCodec codec = JsonCodecs.getDefaultCodec();
+
+            assertEquals(GsonJsonCodec.NAME, codec.getName());
+            assertSame(codec, JsonCodecs.getDefaultCodec());
+
+            System.setProperty(JsonCodecs.CODEC_PROPERTY, StreamingJsonCodec.NAME);
+            assertEquals(StreamingJsonCodec.NAME, JsonCodecs.getDefaultCodec().getName());
+        }
+        finally
+        {
+            if (property != null)
+                System.setProperty(JsonCodecs.CODEC_PROPERTY, property);
+            else
+                System.clearProperty(JsonCodecs.CODEC_PROPERTY);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCodecIsRejected()
+    {
+        JsonCodecs.getCodec("unknown");
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.ratelimit;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.OperationClass;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.OperationsLimitExceeded;
+import com.smartling.api.sdk.exceptions.RateLimitExceededException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RateLimiterTest
+{
+    private static final String PROJECT_ID       = "projectIdValue";
+    private static final String OTHER_PROJECT_ID = "otherProjectIdValue";
+
+    private RateLimiter rateLimiter;
+
+    @Before
+    public void setup()
+    {
+        rateLimiter = new RateLimiter();
+        rateLimiter.setRateLimit(OperationClass.UPLOAD, new RateLimit(10, 2));
+        rateLimiter.setAcquireMode(AcquireMode.FAIL_FAST);
+    }
+
+    @Test
+    public void testFailFastRejectsOverLimit() throws Exception
+    {
+        rateLimiter.acquire(PROJECT_ID, ApiOperation.UPLOAD_FILE);
+        rateLimiter.acquire(PROJECT_ID, ApiOperation.DELETE_FILE);
+
+        try
+        {
+            rateLimiter.acquire(PROJECT_ID, ApiOperation.RENAME_FILE);
+            fail();
+        }
+        catch (RateLimitExceededException e)
+        {
+            assertTrue(e.getRetryAfterMillis() > 0);
+        }
+    }
+
+    @Test
+    public void testBucketsArePerProjectAndOperationClass() throws Exception
+    {
+        rateLimiter.acquire(PROJECT_ID, ApiOperation.UPLOAD_FILE);
+        rateLimiter.acquire(PROJECT_ID, ApiOperation.UPLOAD_FILE);
+
+        rateLimiter.acquire(OTHER_PROJECT_ID, ApiOperation.UPLOAD_FILE);
+        for (int i = 0; i < 100; i++)
+            rateLimiter.acquire(PROJECT_ID, ApiOperation.GET_FILE_STATUS);
+
+        assertEquals(Double.POSITIVE_INFINITY, rateLimiter.getCurrentRate(PROJECT_ID, OperationClass.STATUS), 0);
+    }
+
+    @Test
+    public void testBlockingWaitsForPermit() throws Exception
+    {
+        rateLimiter.setAcquireMode(AcquireMode.BLOCKING);
+        rateLimiter.acquire(PROJECT_ID, ApiOperation.UPLOAD_FILE);
+        rateLimiter.acquire(PROJECT_ID, ApiOperation.UPLOAD_FILE);
+
+        long start = System.nanoTime();
+        rateLimiter.acquire(PROJECT_ID, ApiOperation.UPLOAD_FILE);
+        rateLimiter.acquire(PROJECT_ID, ApiOperation.UPLOAD_FILE);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+    }
+
+    @Test
+    public void testRejectionByApiLowersRate() throws Exception
+    {
+        ApiCall<String> throttledCall = rateLimiter.limit(PROJECT_ID, ApiOperation.UPLOAD_FILE, new ApiCall<String>()
+        {
+            @Override
+            public String call() throws ApiException
+            {
+                throw new OperationsLimitExceeded("limit", Collections.<String>emptyList());
+            }
+        });
+
+        try
+        {
+            throttledCall.call();
+            fail();
+        }
+        catch (OperationsLimitExceeded e)
+        {
+            assertEquals(5, rateLimiter.getCurrentRate(PROJECT_ID, OperationClass.UPLOAD), 0.1);
+            assertEquals(10, rateLimiter.getCurrentRate(OTHER_PROJECT_ID, OperationClass.UPLOAD), 0.001);
+        }
+    }
+
+    @Test
+    public void testNonAdaptiveLimiterKeepsRate() throws Exception
+    {
+        rateLimiter.setAdaptive(false);
+
+        rateLimiter.onThrottled(PROJECT_ID, ApiOperation.UPLOAD_FILE);
+
+        assertEquals(10, rateLimiter.getCurrentRate(PROJECT_ID, OperationClass.UPLOAD), 0.001);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.ratelimit;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTest
+{
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testAllowsBurstThenSustainedRate()
+    {
+        TokenBucket bucket = new TokenBucket(new RateLimit(10, 3), 0);
+
+        for (int i = 0; i < 3; i++)
+            assertEquals(0, bucket.tryAcquire(0));
+
+        assertEquals(SECOND / 10, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(SECOND / 10));
+        assertTrue(bucket.tryAcquire(SECOND / 10) > 0);
+    }
+
+    @Test
+    public void testBurstIsCappedAfterIdlePeriod()
+    {
+        TokenBucket bucket = new TokenBucket(new RateLimit(10, 2), 0);
+
+        for (int i = 0; i < 2; i++)
+            assertEquals(0, bucket.tryAcquire(60 * SECOND));
+
+        assertTrue(bucket.tryAcquire(60 * SECOND) > 0);
+    }
+
+    @Test
+    public void testDecreasedRateRecoversLinearly()
+    {
+        TokenBucket bucket = new TokenBucket(new RateLimit(10, 1), 0);
+
+        bucket.decreaseRate(0.5, 0.1, 10 * SECOND, 0);
+        assertEquals(5, bucket.getRate(0), 0.001);
+        assertEquals(7.5, bucket.getRate(5 * SECOND), 0.001);
+        assertEquals(10, bucket.getRate(10 * SECOND), 0.001);
+    }
+
+    @Test
+    public void testRepeatedDecreasesStopAtMinimalRate()
+    {
+        TokenBucket bucket = new TokenBucket(new RateLimit(10, 1), 0);
+
+        for (int i = 0; i < 10; i++)
+            bucket.decreaseRate(0.5, 0.1, 10 * SECOND, 0);
+
+        assertEquals(1, bucket.getRate(0), 0.001);
+    }
+
+    @Test
+    public void testDecreaseDropsSavedTokens()
+    {
+        TokenBucket bucket = new TokenBucket(new RateLimit(10, 5), 0);
+
+        bucket.decreaseRate(0.5, 0.1, 10 * SECOND, 0);
+
+        assertEquals(SECOND / 5, bucket.tryAcquire(0));
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.retry;
+
+import com.smartling.api.sdk.ApiCall;
+import com.smartling.api.sdk.ApiOperation;
+import com.smartling.api.sdk.exceptions.ApiException;
+import com.smartling.api.sdk.exceptions.MaintenanceModeException;
+import com.smartling.api.sdk.exceptions.ValidationException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryHandlerTest
+{
+    private RetryHandler      retryHandler;
+    private RetryPolicy       retryPolicy;
+    private List<RetryEvent>  retries;
+    private List<RetryEvent>  successes;
+    private List<RetryEvent>  giveUps;
+
+    @Before
+    public void setup()
+    {
+        retryPolicy = new RetryPolicy();
+        retryPolicy.setBaseDelayMillis(1);
+        retryPolicy.setMaxDelayMillis(10);
+
+        retryHandler = new RetryHandler();
+        retryHandler.setRetryPolicy(retryPolicy);
+
+        retries = new ArrayList<>();
+        successes = new ArrayList<>();
+        giveUps = new ArrayList<>();
+        retryHandler.addRetryListener(new RetryListener()
+        {
+            @Override
+            public void onRetry(final RetryEvent event)
+            {
+                retries.add(event);
+            }
+
+            @Override
+            public void onSuccess(final RetryEvent event)
+            {
+                successes.add(event);
+            }
+
+            @Override
+            public void onGiveUp(final RetryEvent event)
+            {
+                giveUps.add(event);
+            }
+        });
+    }
+
+    @Test
+    public void testNoRetriesByDefault() throws Exception
+    {
+        final FailingCall failingCall = new FailingCall(1, maintenanceException());
+
+        try
+        {
+            new RetryHandler().execute(ApiOperation.GET_FILE_STATUS, failingCall);
+            fail();
+        }
+        catch (final MaintenanceModeException e)
+        {
+            assertEquals(1, failingCall.attempts.get());
+        }
+    }
+
+    @Test
+    public void testRetriesTransientFailureUntilSuccess() throws Exception
+    {
+        final FailingCall failingCall = new FailingCall(2, maintenanceException());
+
+        assertEquals("result", retryHandler.execute(ApiOperation.GET_FILE_STATUS, failingCall));
+
+        assertEquals(3, failingCall.attempts.get());
+        assertEquals(2, retries.size());
+        assertEquals(1, retries.get(0).getAttempt());
+        assertEquals(ApiOperation.GET_FILE_STATUS, retries.get(0).getOperation());
+        assertTrue(retries.get(0).getFailure() instanceof MaintenanceModeException);
+        assertEquals(1, successes.size());
+        assertEquals(3, successes.get(0).getAttempt());
+        assertNull(successes.get(0).getFailure());
+        assertTrue(giveUps.isEmpty());
+    }
+
+    @Test
+    public void testRetriesIoErrors() throws Exception
+    {
+        final FailingCall failingCall = new FailingCall(1, new ApiException(new IOException("Connection reset")));
+
+        assertEquals("result", retryHandler.execute(ApiOperation.GET_FILE, failingCall));
+        assertEquals(2, failingCall.attempts.get());
+    }
+
+    @Test
+    public void testDoesNotRetryNonRetryableException() throws Exception
+    {
+        final FailingCall failingCall = new FailingCall(1, new ValidationException("invalid", Collections.<String>emptyList()));
+
+        try
+        {
+            retryHandler.execute(ApiOperation.GET_FILE_STATUS, failingCall);
+            fail();
+        }
+        catch (final ValidationException e)
+        {
+            assertEquals(1, failingCall.attempts.get());
+            assertTrue(retries.isEmpty());
+            assertTrue(giveUps.isEmpty());
+        }
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() throws Exception
+    {
+        final ApiException failure = maintenanceException();
+        final FailingCall failingCall = new FailingCall(Integer.MAX_VALUE, failure);
+
+        try
+        {
+            retryHandler.execute(ApiOperation.GET_FILE_STATUS, failingCall);
+            fail();
+        }
+        catch (final MaintenanceModeException e)
+        {
+            assertSame(failure, e);
+            assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS, failingCall.attempts.get());
+            assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS - 1, retries.size());
+            assertEquals(1, giveUps.size());
+            assertEquals(RetryPolicy.DEFAULT_MAX_ATTEMPTS, giveUps.get(0).getAttempt());
+        }
+    }
+
+    @Test
+    public void testPolicyPerOperation() throws Exception
+    {
+        retryHandler.setRetryPolicy(ApiOperation.UPLOAD_FILE, RetryPolicy.noRetries());
+        final FailingCall failingCall = new FailingCall(1, maintenanceException());
+
+        try
+        {
+            retryHandler.execute(ApiOperation.UPLOAD_FILE, failingCall);
+            fail();
+        }
+        catch (final MaintenanceModeException e)
+        {
+            assertEquals(1, failingCall.attempts.get());
+        }
+        assertTrue(retryHandler.isRetryEnabled(ApiOperation.GET_FILE));
+    }
+
+    @Test
+    public void testDoesNotRetryCallThatCannotBeReplayed() throws Exception
+    {
+        final FailingCall failingCall = new FailingCall(1, maintenanceException())
+        {
+            @Override
+            public boolean isReplayable(final ApiException failure)
+            {
+                return false;
+            }
+        };
+
+        try
+        {
+            retryHandler.execute(ApiOperation.GET_FILE, failingCall);
+            fail();
+        }
+        catch (final MaintenanceModeException e)
+        {
+            assertEquals(1, failingCall.attempts.get());
+        }
+    }
+
+    @Test
+    public void testHonorsRetryAfter() throws Exception
+    {
+        final ApiException failure = maintenanceException();
+        failure.setRetryAfterMillis(7L);
+
+        assertEquals("result", retryHandler.execute(ApiOperation.GET_FILE_STATUS, new FailingCall(1, failure)));
+        assertEquals(7, retries.get(0).getDelayMillis());
+    }
+
+    @Test
+    public void testRetryAfterBeyondMaxDelayEndsRetries() throws Exception
+    {
+        final ApiException failure = maintenanceException();
+        failure.setRetryAfterMillis(60000L);
+        final FailingCall failingCall = new FailingCall(1, failure);
+
+        try
+        {
+            retryHandler.execute(ApiOperation.GET_FILE_STATUS, failingCall);
+            fail();
+        }
+        catch (final MaintenanceModeException e)
+        {
+            assertEquals(1, failingCall.attempts.get());
+        }
+    }
+
+    @Test
+    public void testBackoffIsJitteredAndCapped()
+    {
+        retryPolicy.setBaseDelayMillis(100);
+        retryPolicy.setMaxDelayMillis(1000);
+        final ApiException failure = maintenanceException();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            assertTrue(RetryHandler.getDelayMillis(retryPolicy, 1, failure) <= 100);
+            assertTrue(RetryHandler.getDelayMillis(retryPolicy, 3, failure) <= 400);
+            final long delayMillis = RetryHandler.getDelayMillis(retryPolicy, 40, failure);
+            assertTrue(delayMillis >= 0 && delayMillis <= 1000);
+        }
+    }
+
+    private static ApiException maintenanceException()
+    {
+        return new MaintenanceModeException("maintenance", Collections.<String>emptyList());
+    }
+
+    private static class FailingCall implements ApiCall<String>
+    {
+        private final int           failures;
+        private final ApiException  failure;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        FailingCall(final int failures, final ApiException failure)
+        {
+            this.failures = failures;
+            this.failure = failure;
+        }
+
+        @Override
+        public String call() throws ApiException
+        {
+            if (attempts.incrementAndGet() <= failures)
+                throw failure;
+
+            return "result";
+        }
+    }
+}
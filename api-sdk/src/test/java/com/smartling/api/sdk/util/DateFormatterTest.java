@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.util;
+
+import org.junit.Test;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DateFormatterTest
+{
+    private static final long MIN_MILLIS = -12212553600000L;
+    private static final long MAX_MILLIS = 253402300800000L;
+
+    @Test
+    public void testFormatsLikeSimpleDateFormat()
+    {
+        final DateFormat dateFormat = DateFormatter.getDateFormat();
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++)
+        {
+            final Date date = new Date(MIN_MILLIS + (long)(random.nextDouble() * (MAX_MILLIS - MIN_MILLIS)));
+            assertEquals(dateFormat.format(date), DateFormatter.format(date));
+        }
+
+        for (final long millis : new long[] {MIN_MILLIS - 1, MIN_MILLIS, -1, 0, 951782400000L, 4107542400000L, MAX_MILLIS - 1, MAX_MILLIS, -62135769600000L})
+            assertEquals(dateFormat.format(new Date(millis)), DateFormatter.format(new Date(millis)));
+    }
+
+    @Test
+    public void testParsesLikeSimpleDateFormat() throws Exception
+    {
+        final DateFormat dateFormat = DateFormatter.getDateFormat();
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++)
+        {
+            final String date = dateFormat.format(new Date(MIN_MILLIS + (long)(random.nextDouble() * (MAX_MILLIS - MIN_MILLIS))));
+            assertEquals(date, dateFormat.parse(date), DateFormatter.parse(date));
+        }
+    }
+
+    @Test
+    public void testParsesLenientlyLikeSimpleDateFormat() throws Exception
+    {
+        final DateFormat dateFormat = DateFormatter.getDateFormat();
+        for (final String date : new String[] {"2000-02-29T23:59:59", "1900-02-29T00:00:00", "2013-13-01T00:00:00", "2013-01-32T00:00:00",
+                "2013-01-01T24:00:00", "2013-01-01T00:00:60", "2013-01-01T10:15:30Z", "2013-01-01T10:15:30.123", "2013-01-01T10:15:301",
+                "2013-1-1T1:2:3", "1582-10-04T00:00:00", "0999-01-01T00:00:00", "9999-12-31T23:59:59", "10000-01-01T00:00:00"})
+        {
+            assertEquals(date, dateFormat.parse(date), DateFormatter.parse(date));
+        }
+    }
+
+    @Test(expected = ParseException.class)
+    public void testRejectsOtherText() throws Exception
+    {
+        DateFormatter.parse("lastDate");
+    }
+
+    @Test
+    public void testNull() throws Exception
+    {
+        assertNull(DateFormatter.format(null));
+        assertNull(DateFormatter.parse(null));
+    }
+}
@@ -15,10 +15,13 @@
  */
 package com.smartling.api.sdk.util;
 
+import com.smartling.api.sdk.OperationClass;
 import com.smartling.api.sdk.ProxyConfiguration;
+import com.smartling.api.sdk.dto.file.StreamResponse;
 import com.smartling.api.sdk.dto.file.StringResponse;
 import com.smartling.api.sdk.exceptions.ApiException;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
 import org.apache.http.client.ClientProtocolException;
@@ -26,20 +29,29 @@ import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -78,6 +90,18 @@ public class HttpUtilsTest
         when(httpEntity.getContent()).thenReturn(responseStream);
         when(httpResponse.getStatusLine()).thenReturn(statusLine);
     }
+
+    @After
+    public void tearDown()
+    {
+        for (String scheme : new String[] {HttpUtils.SCHEME_HTTP, HttpUtils.SCHEME_HTTPS})
+        {
+            System.clearProperty(scheme + HttpUtils.PROPERTY_SUFFIX_PROXY_HOST);
+            System.clearProperty(scheme + HttpUtils.PROPERTY_SUFFIX_PROXY_PORT);
+            System.clearProperty(scheme + HttpUtils.PROPERTY_SUFFIX_PROXY_USERNAME);
+            System.clearProperty(scheme + HttpUtils.PROPERTY_SUFFIX_PROXY_PASSWORD);
+        }
+    }
     
     @Test
     public void testExecuteHttpCall() throws ApiException, ClientProtocolException, IOException
@@ -95,6 +119,153 @@ public class HttpUtilsTest
         verify(httpRequest, never()).setConfig(any(RequestConfig.class));
     }
 
+    @Test
+    public void testResponseEncodingIsTakenFromContentType() throws IOException
+    {
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        when(httpEntity.getContent()).thenReturn(new ByteArrayInputStream(TEST_RESPONSE.getBytes(StandardCharsets.UTF_16)));
+        when(httpEntity.getContentType()).thenReturn(new BasicHeader(HttpHeaders.CONTENT_TYPE, "application/json; charset=UTF-16"));
+
+        StringResponse response = HttpUtils.toStringResponse(httpResponse);
+
+        assertEquals("UTF-16", response.getEncoding());
+        assertEquals(TEST_RESPONSE, response.getContents());
+    }
+
+    @Test
+    public void testUnknownCharsetIsReadAsUtf8() throws IOException
+    {
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        when(httpEntity.getContentType()).thenReturn(new BasicHeader(HttpHeaders.CONTENT_TYPE, "application/json; charset=x-unknown"));
+
+        StringResponse response = HttpUtils.toStringResponse(httpResponse);
+
+        assertEquals("UTF-8", response.getEncoding());
+        assertEquals(TEST_RESPONSE, response.getContents());
+    }
+
+    @Test
+    public void testExecuteHttpCallAppliesTimeoutsOfOperationClass() throws ApiException, ClientProtocolException, IOException
+    {
+        RequestConfig requestConfig = mock(RequestConfig.class);
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+
+        CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+        when(httpProxyUtils.getHttpClient(proxyConfiguration)).thenReturn(httpClient);
+        when(httpProxyUtils.getRequestConfig(OperationClass.UPLOAD, proxyConfiguration)).thenReturn(requestConfig);
+        when(httpClient.execute(httpRequest)).thenReturn(httpResponse);
+
+        httpUtils.executeHttpCall(httpRequest, proxyConfiguration, OperationClass.UPLOAD);
+
+        verify(httpRequest).setConfig(requestConfig);
+    }
+
+    @Test
+    public void testExecuteHttpCallReusesHttpClient() throws ApiException, ClientProtocolException, IOException
+    {
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+
+        CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+        when(httpProxyUtils.getHttpClient(proxyConfiguration)).thenReturn(httpClient);
+        when(httpClient.execute(httpRequest)).thenReturn(httpResponse);
+
+        httpUtils.executeHttpCall(httpRequest, proxyConfiguration);
+        when(httpEntity.getContent()).thenReturn(new ByteArrayInputStream(TEST_RESPONSE.getBytes(StandardCharsets.UTF_8)));
+        httpUtils.executeHttpCall(httpRequest, proxyConfiguration);
+
+        verify(httpProxyUtils, times(1)).getHttpClient(proxyConfiguration);
+        verify(httpResponse, times(2)).close();
+        verify(httpClient, never()).close();
+
+        httpUtils.close();
+        verify(httpClient).close();
+    }
+
+    @Test
+    public void testExecuteHttpCallKeepsOneClientPerProxyConfiguration() throws ApiException, ClientProtocolException, IOException
+    {
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        when(httpEntity.getContent()).thenAnswer(invocation -> new ByteArrayInputStream(TEST_RESPONSE.getBytes(StandardCharsets.UTF_8)));
+
+        ProxyConfiguration firstProxy = proxy(HOST, 5000);
+        ProxyConfiguration secondProxy = proxy(HOST, 5001);
+        CloseableHttpClient firstClient = mock(CloseableHttpClient.class);
+        CloseableHttpClient secondClient = mock(CloseableHttpClient.class);
+        when(httpProxyUtils.getHttpClient(firstProxy)).thenReturn(firstClient);
+        when(httpProxyUtils.getHttpClient(secondProxy)).thenReturn(secondClient);
+        when(firstClient.execute(httpRequest)).thenReturn(httpResponse);
+        when(secondClient.execute(httpRequest)).thenReturn(httpResponse);
+
+        for (int i = 0; i < 3; i++)
+        {
+            httpUtils.executeHttpCall(httpRequest, firstProxy);
+            httpUtils.executeHttpCall(httpRequest, secondProxy);
+        }
+
+        verify(httpProxyUtils, times(1)).getHttpClient(firstProxy);
+        verify(httpProxyUtils, times(1)).getHttpClient(secondProxy);
+        verify(firstClient, times(3)).execute(httpRequest);
+        verify(firstClient, never()).close();
+
+        // a changed configuration gets a client of its own
+        secondProxy.setPort(5002);
+        when(httpProxyUtils.getHttpClient(secondProxy)).thenReturn(secondClient);
+        httpUtils.executeHttpCall(httpRequest, secondProxy);
+        verify(httpProxyUtils, times(1)).getHttpClient(proxy(HOST, 5002));
+
+        httpUtils.close();
+        verify(firstClient).close();
+    }
+
+    @Test
+    public void testSystemProxyIsParsedOnlyWhenPropertiesChange()
+    {
+        System.setProperty(HttpUtils.SCHEME_HTTP + HttpUtils.PROPERTY_SUFFIX_PROXY_HOST, HOST);
+        System.setProperty(HttpUtils.SCHEME_HTTP + HttpUtils.PROPERTY_SUFFIX_PROXY_PORT, PORT);
+
+        ProxyConfiguration resolved = HttpUtils.mergeSystemProxyConfiguration(proxyConfiguration);
+        assertSame(resolved, HttpUtils.mergeSystemProxyConfiguration(proxyConfiguration));
+        assertEquals(Integer.parseInt(PORT), resolved.getPort());
+
+        System.setProperty(HttpUtils.SCHEME_HTTP + HttpUtils.PROPERTY_SUFFIX_PROXY_PORT, "5001");
+        assertEquals(5001, HttpUtils.mergeSystemProxyConfiguration(proxyConfiguration).getPort());
+    }
+
+    @Test
+    public void testExecuteHttpCallStreamsToChannel() throws ApiException, ClientProtocolException, IOException
+    {
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+
+        CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+        when(httpProxyUtils.getHttpClient(proxyConfiguration)).thenReturn(httpClient);
+        when(httpClient.execute(httpRequest)).thenReturn(httpResponse);
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        StreamResponse response = httpUtils.executeHttpCall(httpRequest, proxyConfiguration, Channels.newChannel(target));
+
+        assertTrue(response.isSuccess());
+        assertEquals(TEST_RESPONSE.length(), response.getContentLength());
+        assertEquals(TEST_RESPONSE, target.toString("UTF-8"));
+        assertNull(response.getErrorContents());
+    }
+
+    @Test
+    public void testExecuteHttpCallDoesNotStreamErrorBody() throws ApiException, ClientProtocolException, IOException
+    {
+        when(statusLine.getStatusCode()).thenReturn(HttpStatus.SC_BAD_REQUEST);
+
+        CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+        when(httpProxyUtils.getHttpClient(proxyConfiguration)).thenReturn(httpClient);
+        when(httpClient.execute(httpRequest)).thenReturn(httpResponse);
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        StreamResponse response = httpUtils.executeHttpCall(httpRequest, proxyConfiguration, Channels.newChannel(target));
+
+        assertFalse(response.isSuccess());
+        assertEquals(0, target.size());
+        assertEquals(TEST_RESPONSE, response.getErrorContents());
+    }
+
     @Test
     public void testExecuteHttpCallWithProxy() throws ApiException, ClientProtocolException, IOException
     {
@@ -169,4 +340,12 @@ public class HttpUtilsTest
         assertEquals(USERNAME, proxyConfiguration.getUsername());
         assertEquals(PASSWORD, proxyConfiguration.getPassword());
     }
+
+    private static ProxyConfiguration proxy(String host, int port)
+    {
+        ProxyConfiguration proxy = new ProxyConfiguration();
+        proxy.setHost(host);
+        proxy.setPort(port);
+        return proxy;
+    }
 }
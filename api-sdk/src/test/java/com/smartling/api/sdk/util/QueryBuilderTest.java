@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012 Smartling, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this work except in compliance with the License.
+ * You may obtain a copy of the License in the LICENSE file, or at:
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.smartling.api.sdk.util;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicNameValuePair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class QueryBuilderTest
+{
+    @Test
+    public void testEncodesLikeUrlEncodedUtils()
+    {
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++)
+        {
+            final List<NameValuePair> parameters = new ArrayList<>();
+            for (int j = random.nextInt(4); j >= 0; j--)
+                parameters.add(new BasicNameValuePair(randomText(random), randomText(random)));
+
+            assertEquals(URLEncodedUtils.format(parameters, "UTF-8"), new QueryBuilder("").addAll(parameters).build());
+        }
+    }
+
+    @Test
+    public void testEncodesSpecialCharacters()
+    {
+        for (final String text : new String[] {"/files/a b+c.properties", "_-.*~!'()", "[0]&=?#%", "Русский 日本語", "😀", "\uD83D", "a\uDE00b"})
+        {
+            final List<NameValuePair> parameters = Arrays.<NameValuePair>asList(new BasicNameValuePair(text, text));
+            assertEquals(text, URLEncodedUtils.format(parameters, "UTF-8"), new QueryBuilder("").addAll(parameters).build());
+        }
+    }
+
+    @Test
+    public void testAppendsParametersToPrefix()
+    {
+        assertEquals("https://api.example.com/v1/file/get?fileUri=a&locale=ru-RU",
+                new QueryBuilder("https://api.example.com/v1/file/get?").add("fileUri", "a").add("locale", "ru-RU").build());
+        assertEquals("https://api.example.com/v1/file/get?apiKey=key&fileUri=a",
+                new QueryBuilder("https://api.example.com/v1/file/get?apiKey=key").add("fileUri", "a").build());
+    }
+
+    @Test
+    public void testSkipsParametersWithoutValue()
+    {
+        assertEquals("?a=1&c=3&d=4&d=5", new QueryBuilder("?").add("a", "1").add("b", null).add(new BasicNameValuePair("c", "3"))
+                .addAll("d", Arrays.asList("4", null, "5")).addAll("e", null).build());
+    }
+
+    private static String randomText(final Random random)
+    {
+        final StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(8); i >= 0; i--)
+        {
+            switch (random.nextInt(4))
+            {
+                case 0:
+                    text.append((char)(0x20 + random.nextInt(0x5F)));
+                    break;
+                case 1:
+                    text.append((char)(0x80 + random.nextInt(0x780)));
+                    break;
+                case 2:
+                    text.append((char)(0x800 + random.nextInt(0xF800)));
+                    break;
+                default:
+                    text.appendCodePoint(0x10000 + random.nextInt(0x100000));
+            }
+        }
+        return text.toString();
+    }
+}